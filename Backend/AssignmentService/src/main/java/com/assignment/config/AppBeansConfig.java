@@ -1,9 +1,13 @@
 package com.assignment.config;
 
+import com.assignment.dto.StudentAssignmentPageSnapshot;
+import com.assignment.dto.StudentAssignmentsSnapshot;
+import com.assignment.service.StudentAssignmentCache;
 import org.modelmapper.Conditions;
 import org.modelmapper.ModelMapper;
 import org.modelmapper.convention.MatchingStrategies;
-import org.springframework.cache.CacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.cache.annotation.EnableCaching;
@@ -13,13 +17,18 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.*;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Configuration
 @EnableCaching
@@ -37,7 +46,18 @@ public class AppBeansConfig {
     }
 
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public TwoTierCacheManager cacheManager(
+            RedisConnectionFactory connectionFactory,
+            StringRedisTemplate redisTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${assignment.cache.redis.ttl:5m}") Duration redisTtl,
+            @Value("${assignment.cache.batch-versions.ttl:1h}") Duration batchVersionsTtl,
+            @Value("${assignment.cache.student-assignments.ttl:10m}") Duration studentAssignmentsTtl,
+            @Value("${assignment.cache.student-assignments.ttl-jitter:0.2}") double ttlJitter,
+            @Value("${assignment.cache.student-assignment-pages.ttl:2m}") Duration studentAssignmentPagesTtl,
+            @Value("${assignment.cache.local.max-size:10000}") long localMaxSize,
+            @Value("${assignment.cache.local.ttl:1m}") Duration localTtl,
+            @Value("${assignment.cache.invalidation-channel:assignment:cache:invalidate}") String invalidationChannel) {
         ObjectMapper objectMapper = new ObjectMapper()
                 .registerModule(new JavaTimeModule())
                 .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
@@ -51,12 +71,53 @@ public class AppBeansConfig {
                         .fromSerializer(new StringRedisSerializer()))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair
                         .fromSerializer(valueSerializer))
-                .entryTtl(Duration.ofMinutes(5))
+                .entryTtl(redisTtl)
                 .disableCachingNullValues();
 
-        RedisCacheManager delegate = RedisCacheManager.builder(connectionFactory)
+        RedisCacheConfiguration snapshotsConfig = config
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                        new Jackson2JsonRedisSerializer<>(objectMapper, StudentAssignmentsSnapshot.class)))
+                .entryTtl(jittered(studentAssignmentsTtl, ttlJitter));
+        RedisCacheConfiguration batchVersionsConfig = config
+                .serializeValuesWith(RedisSerializationContext.SerializationPair
+                        .fromSerializer(new StringRedisSerializer()))
+                .entryTtl(batchVersionsTtl);
+        RedisCacheConfiguration pagesConfig = config
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                        new Jackson2JsonRedisSerializer<>(objectMapper, StudentAssignmentPageSnapshot.class)))
+                .entryTtl(jittered(studentAssignmentPagesTtl, ttlJitter));
+
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(config)
+                .withCacheConfiguration(StudentAssignmentCache.SNAPSHOTS_CACHE, snapshotsConfig)
+                .withCacheConfiguration(StudentAssignmentCache.BATCH_VERSIONS_CACHE, batchVersionsConfig)
+                .withCacheConfiguration(StudentAssignmentCache.PAGES_CACHE, pagesConfig)
+                .withCacheConfiguration(StudentAssignmentCache.STUDENT_VERSIONS_CACHE, batchVersionsConfig)
                 .build();
-        return new LoggingCacheManager(delegate);
+        redisCacheManager.afterPropertiesSet();
+
+        return new TwoTierCacheManager(
+                redisCacheManager, redisTemplate, meterRegistry,
+                invalidationChannel, localMaxSize, localTtl);
+    }
+
+    /**
+     * Spreads expiry over {@code ttl * (1 ± jitter)} so entries written together do not expire together.
+     */
+    private static RedisCacheWriter.TtlFunction jittered(Duration ttl, double jitter) {
+        long spread = (long) (ttl.toMillis() * jitter);
+        return (key, value) -> spread <= 0
+                ? ttl
+                : ttl.plusMillis(ThreadLocalRandom.current().nextLong(-spread, spread + 1));
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory connectionFactory,
+            TwoTierCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(cacheManager.getInvalidationChannel()));
+        return container;
     }
 }
@@ -0,0 +1,189 @@
+package com.assignment.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Near cache in front of a shared (Redis) cache. Reads try the bounded local
+ * tier first and fill it from Redis; writes go to both tiers and are announced
+ * to the other instances so they drop their local copy of the key.
+ *
+ * <p>Keys are held locally as {@code key.toString()}, which is also what the
+ * Redis tier and the invalidation messages use. Locally cached values are
+ * shared between callers and must not be mutated.
+ */
+public class TwoTierCache implements Cache {
+
+    @FunctionalInterface
+    public interface InvalidationPublisher {
+        /**
+         * @param key the evicted key, or null when the whole cache was cleared
+         */
+        void publish(String cacheName, String key);
+    }
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final Cache remote;
+    private final InvalidationPublisher publisher;
+
+    private final Counter localHits;
+    private final Counter localMisses;
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+    private final Timer localLatency;
+    private final Timer remoteLatency;
+    private final Timer loadLatency;
+
+    public TwoTierCache(
+            String name,
+            com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+            Cache remote,
+            InvalidationPublisher publisher,
+            MeterRegistry meterRegistry) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.publisher = publisher;
+
+        this.localHits = requests(meterRegistry, "local", "hit");
+        this.localMisses = requests(meterRegistry, "local", "miss");
+        this.remoteHits = requests(meterRegistry, "redis", "hit");
+        this.remoteMisses = requests(meterRegistry, "redis", "miss");
+        this.localLatency = latency(meterRegistry, "local");
+        this.remoteLatency = latency(meterRegistry, "redis");
+        this.loadLatency = latency(meterRegistry, "loader");
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = key.toString();
+
+        Object value = localLatency.record(() -> local.getIfPresent(localKey));
+        if (value != null) {
+            localHits.increment();
+            return new SimpleValueWrapper(value);
+        }
+        localMisses.increment();
+
+        ValueWrapper wrapper = remoteLatency.record(() -> remote.get(key));
+        if (wrapper == null || wrapper.get() == null) {
+            remoteMisses.increment();
+            return wrapper;
+        }
+        remoteHits.increment();
+        local.put(localKey, wrapper.get());
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            return (T) wrapper.get();
+        }
+
+        T value;
+        try {
+            value = loadLatency.recordCallable(valueLoader);
+        } catch (Exception ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            evict(key);
+            return;
+        }
+        remote.put(key, value);
+        local.put(key.toString(), value);
+        publisher.publish(name, key.toString());
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        if (existing == null || existing.get() == null) {
+            local.put(key.toString(), value);
+            publisher.publish(name, key.toString());
+        } else {
+            local.put(key.toString(), existing.get());
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        local.invalidate(key.toString());
+        publisher.publish(name, key.toString());
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        publisher.publish(name, null);
+    }
+
+    /**
+     * Drops a key from the local tier only; called for invalidations published
+     * by other instances.
+     */
+    public void invalidateLocal(String key) {
+        if (key == null) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(key);
+        }
+    }
+
+    private Counter requests(MeterRegistry meterRegistry, String tier, String result) {
+        return Counter.builder("cache.tier.requests")
+                .tag("cache", name)
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private Timer latency(MeterRegistry meterRegistry, String tier) {
+        return Timer.builder("cache.tier.latency")
+                .tag("cache", name)
+                .tag("tier", tier)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,140 @@
+package com.assignment.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Wraps every cache of the Redis cache manager in a {@link TwoTierCache} and
+ * keeps the local tiers of all instances coherent over Redis pub/sub: each
+ * eviction, clear or put is published on {@link #getInvalidationChannel()} and
+ * the other instances drop the key locally. Messages are best-effort, so the
+ * local TTL is kept short and bounds staleness if one is lost.
+ *
+ * <p>Per-instance caches without a Redis tier can join the same channel with
+ * {@link #registerLocalCache} and {@link #publishEviction}.
+ */
+@Slf4j
+public class TwoTierCacheManager implements CacheManager, MessageListener {
+
+    private static final String EVICT = "E";
+    private static final String CLEAR = "C";
+
+    private final CacheManager remoteCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final String invalidationChannel;
+    private final long localMaxSize;
+    private final Duration localTtl;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+    private final Map<String, Consumer<String>> localCaches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(
+            CacheManager remoteCacheManager,
+            StringRedisTemplate redisTemplate,
+            MeterRegistry meterRegistry,
+            String invalidationChannel,
+            long localMaxSize,
+            Duration localTtl) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.invalidationChannel = invalidationChannel;
+        this.localMaxSize = localMaxSize;
+        this.localTtl = localTtl;
+    }
+
+    public String getInvalidationChannel() {
+        return invalidationChannel;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoTierCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache remote = remoteCacheManager.getCache(name);
+        return remote == null ? null : caches.computeIfAbsent(name, n -> create(n, remote));
+    }
+
+    /**
+     * Registers a per-instance cache that is not backed by Redis but must drop
+     * entries evicted on other instances. {@code invalidateLocal} receives the
+     * key as a string, or null when the whole cache was cleared.
+     */
+    public void registerLocalCache(String cacheName, Consumer<String> invalidateLocal) {
+        localCaches.put(cacheName, invalidateLocal);
+    }
+
+    /**
+     * Tells the other instances to drop {@code key} (all keys when null) from
+     * a cache registered with {@link #registerLocalCache}.
+     */
+    public void publishEviction(String cacheName, Object key) {
+        publish(cacheName, key == null ? null : key.toString());
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteCacheManager.getCacheNames();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        // instanceId \n E|C \n cacheName [\n key]
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 4);
+        if (parts.length < 3 || instanceId.equals(parts[0])) {
+            return;
+        }
+        TwoTierCache cache = caches.get(parts[2]);
+        Consumer<String> invalidateLocal = cache != null ? cache::invalidateLocal : localCaches.get(parts[2]);
+        if (invalidateLocal == null) {
+            return;
+        }
+        if (CLEAR.equals(parts[1])) {
+            invalidateLocal.accept(null);
+        } else if (EVICT.equals(parts[1]) && parts.length == 4) {
+            invalidateLocal.accept(parts[3]);
+        }
+    }
+
+    private TwoTierCache create(String name, Cache remote) {
+        com.github.benmanes.caffeine.cache.Cache<String, Object> local = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, name);
+
+        return new TwoTierCache(name, local, remote, this::publish, meterRegistry);
+    }
+
+    private void publish(String cacheName, String key) {
+        String message = key == null
+                ? instanceId + "\n" + CLEAR + "\n" + cacheName
+                : instanceId + "\n" + EVICT + "\n" + cacheName + "\n" + key;
+        try {
+            redisTemplate.convertAndSend(invalidationChannel, message);
+        } catch (RuntimeException ex) {
+            // the remote tier is already updated; other instances catch up when their local TTL expires
+            log.warn("Publishing cache invalidation for {} failed: {}", cacheName, ex.getMessage());
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.assignment.controller;
 
 import com.assignment.dto.*;
+import com.assignment.entity.AssignmentType;
 import com.assignment.service.student.StudentAssignmentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -32,6 +34,31 @@ public class StudentAssignmentController {
         );
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<ApiResponse<CursorPageDto<StudentAssignmentDto>>> page(
+            Authentication auth,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) Long batchId,
+            @RequestParam(required = false) AssignmentType type,
+            @RequestParam(required = false) Boolean submitted,
+            @RequestParam(defaultValue = "DESC") Sort.Direction order) {
+
+        CursorPageDto<StudentAssignmentDto> data = service.listAssignmentsPage(
+                Long.valueOf(auth.getName()),
+                batchId,
+                type,
+                submitted,
+                order,
+                cursor,
+                Math.min(Math.max(size, 1), 50)
+        );
+
+        return ResponseEntity.ok(
+                ApiResponse.success("Assignments fetched successfully", data)
+        );
+    }
+
     @PostMapping("/{id}/submit")
     public ResponseEntity<ApiResponse<Void>> submit(
             @PathVariable Long id,
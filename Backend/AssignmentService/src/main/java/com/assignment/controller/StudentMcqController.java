@@ -1,7 +1,9 @@
 package com.assignment.controller;
 
 import com.assignment.dto.*;
+import com.assignment.service.student.StudentMcqIntakeService;
 import com.assignment.service.student.StudentMcqService;
+import com.assignment.service.student.StudentMcqSessionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -15,6 +17,8 @@ import org.springframework.web.bind.annotation.*;
 public class StudentMcqController {
 
     private final StudentMcqService studentMcqService;
+    private final StudentMcqIntakeService studentMcqIntakeService;
+    private final StudentMcqSessionService studentMcqSessionService;
 
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<McqAssignmentResponseDto>> getMcq(
@@ -30,6 +34,49 @@ public class StudentMcqController {
                 ));
     }
 
+    @PostMapping("/{id}/start")
+    public ResponseEntity<ApiResponse<McqExamSessionDto>> start(
+            @PathVariable Long id,
+            Authentication auth) {
+
+        Long studentId = Long.valueOf(auth.getName());
+
+        return ResponseEntity.ok(
+                ApiResponse.success(
+                        "MCQ exam started",
+                        studentMcqSessionService.startExam(id, studentId)
+                ));
+    }
+
+    @PutMapping("/sessions/{sessionId}/answers")
+    public ResponseEntity<ApiResponse<McqExamSessionDto>> autosave(
+            @PathVariable String sessionId,
+            @Valid @RequestBody McqAutosaveRequest req,
+            Authentication auth) {
+
+        Long studentId = Long.valueOf(auth.getName());
+
+        return ResponseEntity.ok(
+                ApiResponse.success(
+                        "Answers saved",
+                        studentMcqSessionService.saveAnswers(sessionId, req.getAnswers(), studentId)
+                ));
+    }
+
+    @GetMapping("/sessions/{sessionId}")
+    public ResponseEntity<ApiResponse<McqExamSessionDto>> getSession(
+            @PathVariable String sessionId,
+            Authentication auth) {
+
+        Long studentId = Long.valueOf(auth.getName());
+
+        return ResponseEntity.ok(
+                ApiResponse.success(
+                        "MCQ exam session fetched successfully",
+                        studentMcqSessionService.getSession(sessionId, studentId)
+                ));
+    }
+
     @PostMapping("/{id}/submit")
     public ResponseEntity<ApiResponse<McqSubmissionResponseDto>> submit(
             @PathVariable Long id,
@@ -45,6 +92,35 @@ public class StudentMcqController {
                 ));
     }
 
+    @PostMapping("/{id}/submit-async")
+    public ResponseEntity<ApiResponse<McqSubmissionReceiptDto>> submitAsync(
+            @PathVariable Long id,
+            @Valid @RequestBody McqSubmissionRequest req,
+            Authentication auth) {
+
+        Long studentId = Long.valueOf(auth.getName());
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success(
+                        "MCQ submission accepted",
+                        studentMcqIntakeService.acceptMcqSubmission(id, req, studentId)
+                ));
+    }
+
+    @GetMapping("/submissions/{receiptId}")
+    public ResponseEntity<ApiResponse<McqSubmissionReceiptDto>> getReceipt(
+            @PathVariable String receiptId,
+            Authentication auth) {
+
+        Long studentId = Long.valueOf(auth.getName());
+
+        return ResponseEntity.ok(
+                ApiResponse.success(
+                        "MCQ submission status fetched successfully",
+                        studentMcqIntakeService.getReceipt(receiptId, studentId)
+                ));
+    }
+
     @GetMapping("/{id}/result")
     public ResponseEntity<ApiResponse<McqSubmissionResponseDto>> getResult(
             @PathVariable Long id,
@@ -89,6 +89,30 @@ public class TeacherAssignmentController {
                 ApiResponse.success("My assignments fetched successfully", data));
     }
 
+    @GetMapping("/my/cursor")
+    public ResponseEntity<ApiResponse<CursorPageDto<AssignmentResponseDto>>> myAfter(
+            Authentication auth,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "6") int size,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) AssignmentType type,
+            @RequestParam(required = false) AssignmentStatus status,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        CursorPageDto<AssignmentResponseDto> data = service.myAssignmentsAfter(
+                Long.valueOf(auth.getName()),
+                search,
+                type,
+                status,
+                cursor,
+                Math.min(Math.max(size, 1), 50),
+                includeTotal
+        );
+
+        return ResponseEntity.ok(
+                ApiResponse.success("My assignments fetched successfully", data));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<AssignmentResponseDto>> get(
             @PathVariable Long id,
@@ -1,19 +1,25 @@
 package com.assignment.controller;
 
 import com.assignment.dto.ApiResponse;
+import com.assignment.dto.McqAnalyticsDto;
 import com.assignment.dto.McqAssignmentCreateRequest;
 import com.assignment.dto.McqAssignmentResponseDto;
 import com.assignment.dto.McqSubmissionResponseDto;
 import com.assignment.dto.McqSubmissionSummaryDto;
 import com.assignment.dto.McqAssignmentUpdateRequest;
+import com.assignment.dto.McqQuestionImportResultDto;
+import com.assignment.dto.McqRegradeStatusDto;
 import com.assignment.service.teacher.TeacherMcqAssignmentService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
+
 @RestController
 @RequestMapping("/teacher/mcq-assignments")
 @RequiredArgsConstructor
@@ -100,5 +106,60 @@ public class TeacherMcqAssignmentController {
         );
     }
 
-}
+    @GetMapping("/{id}/analytics")
+    public ResponseEntity<ApiResponse<McqAnalyticsDto>> analytics(
+            @PathVariable Long id,
+            Authentication auth) {
+
+        return ResponseEntity.ok(
+                ApiResponse.success(
+                        "Analytics fetched",
+                        teacherMcqAssignmentService.getMcqAnalytics(id, Long.valueOf(auth.getName()))
+                )
+        );
+    }
+
+    @PostMapping(
+            value = "/{id}/questions:import",
+            consumes = {"text/csv", "application/x-ndjson", "application/jsonl"})
+    public ResponseEntity<ApiResponse<McqQuestionImportResultDto>> importQuestions(
+            @PathVariable Long id,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body,
+            Authentication auth) {
+
+        return ResponseEntity.ok(
+                ApiResponse.success(
+                        "Questions imported",
+                        teacherMcqAssignmentService.importQuestions(
+                                id, body, contentType, Long.valueOf(auth.getName()))
+                )
+        );
+    }
+
+    @PostMapping("/{id}/regrade")
+    public ResponseEntity<ApiResponse<McqRegradeStatusDto>> regrade(
+            @PathVariable Long id,
+            Authentication auth) {
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success(
+                        "Regrade requested",
+                        teacherMcqAssignmentService.regradeSubmissions(id, Long.valueOf(auth.getName()))
+                ));
+    }
+
+    @GetMapping("/{id}/regrade")
+    public ResponseEntity<ApiResponse<McqRegradeStatusDto>> regradeStatus(
+            @PathVariable Long id,
+            Authentication auth) {
 
+        return ResponseEntity.ok(
+                ApiResponse.success(
+                        "Regrade status fetched",
+                        teacherMcqAssignmentService.getRegradeStatus(id, Long.valueOf(auth.getName()))
+                )
+        );
+    }
+
+}
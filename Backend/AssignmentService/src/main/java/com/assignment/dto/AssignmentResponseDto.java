@@ -16,4 +16,6 @@ public class AssignmentResponseDto {
     private Integer maxMarks;
     private AssignmentStatus status;
     private Integer totalSubmissions;
+    private Integer evaluatedSubmissions;
+    private Integer passedSubmissions;
 }
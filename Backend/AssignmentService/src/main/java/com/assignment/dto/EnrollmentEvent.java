@@ -0,0 +1,15 @@
+package com.assignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentEvent {
+    private Long studentId;
+    private Long batchId;
+    private String type;      // ENROLLED
+    private Long occurredAt;  // epoch millis
+}
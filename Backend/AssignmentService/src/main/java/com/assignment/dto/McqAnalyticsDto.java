@@ -0,0 +1,25 @@
+package com.assignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class McqAnalyticsDto {
+    private Long assignmentId;
+    private Long submissionCount;
+    private Long passCount;
+    private Double passRate;
+    private Double averagePercentage;
+    private List<McqScoreBucketDto> scoreHistogram;
+    private List<McqQuestionAnalyticsDto> questions;
+    private String status; // BUILDING while submissions are still being counted for the current key, then READY
+    private LocalDateTime countedAt; // last time submissions were added; newer ones follow within seconds
+}
@@ -0,0 +1,12 @@
+package com.assignment.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class McqAutosaveRequest {
+    @NotNull(message = "answers must not be null")
+    private List<McqAnswerDto> answers; // changed answers only; a null option clears the answer
+}
@@ -0,0 +1,24 @@
+package com.assignment.dto;
+
+import com.assignment.entity.McqExamSessionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class McqExamSessionDto {
+    private String sessionId;
+    private Long assignmentId;
+    private McqExamSessionStatus status;
+    private LocalDateTime startedAt;
+    private LocalDateTime deadline;    // null when the assignment has no time limit
+    private Long remainingSeconds;     // null when the assignment has no time limit
+    private List<McqAnswerDto> answers; // last autosaved answers, to resume after a reload
+}
@@ -0,0 +1,13 @@
+package com.assignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class McqImportRowErrorDto {
+    private Long row;      // 1-based line number in the uploaded file
+    private String message;
+}
@@ -0,0 +1,22 @@
+package com.assignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class McqQuestionAnalyticsDto {
+    private Integer questionNumber;
+    private Long correctCount;
+    private Double percentCorrect;
+    private List<Long> optionCounts; // index = option index
+    private Long unansweredCount;
+    private Long invalidCount;
+    private Double discriminationIndex; // point-biserial correlation with the total score; null if undefined
+}
@@ -0,0 +1,21 @@
+package com.assignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class McqQuestionImportResultDto {
+    private Long assignmentId;
+    private Long importedCount;
+    private Long rejectedCount;
+    private Integer totalQuestions;
+    private Integer marksPerQuestion;
+    private List<McqImportRowErrorDto> errors; // capped; see rejectedCount for the full total
+}
@@ -0,0 +1,25 @@
+package com.assignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class McqRegradeStatusDto {
+    private Long assignmentId;
+    private String state; // NONE, QUEUED, RUNNING, COMPLETED, FAILED
+    private Long totalSubmissions;
+    private Long processed;
+    private Long updated;
+    private Long failed;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private Long durationMs;
+    private String message;
+}
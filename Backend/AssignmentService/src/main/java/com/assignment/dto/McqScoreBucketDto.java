@@ -0,0 +1,14 @@
+package com.assignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class McqScoreBucketDto {
+    private Integer fromPercent; // inclusive
+    private Integer toPercent;   // exclusive, except the last bucket which includes 100
+    private Long count;
+}
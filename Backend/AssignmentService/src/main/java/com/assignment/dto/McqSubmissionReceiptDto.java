@@ -0,0 +1,23 @@
+package com.assignment.dto;
+
+import com.assignment.entity.McqIntakeStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class McqSubmissionReceiptDto {
+    private String receiptId;
+    private Long assignmentId;
+    private McqIntakeStatus status;
+    private String message;
+    private LocalDateTime acceptedAt;
+    private LocalDateTime processedAt;
+    private McqSubmissionResponseDto result; // set once status is COMPLETED
+}
@@ -18,4 +18,5 @@ public class StudentAssignmentDto {
     private Integer obtainedMarks;
     private String feedback;
     private LocalDateTime evaluatedAt;
+    private LocalDateTime createdAt;
 }
@@ -0,0 +1,23 @@
+package com.assignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One cached page of a student's filtered assignment listing, with the batch
+ * versions and the student version it was built from.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentAssignmentPageSnapshot {
+    private List<Long> batchIds;
+    private List<String> batchVersions;
+    private String studentVersion;
+    private List<StudentAssignmentDto> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
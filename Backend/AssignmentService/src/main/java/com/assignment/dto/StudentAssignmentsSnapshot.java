@@ -0,0 +1,21 @@
+package com.assignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Cached assignment list of one student, together with the version of every
+ * batch it was built from (same order as {@code batchIds}).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentAssignmentsSnapshot {
+    private List<Long> batchIds;
+    private List<String> batchVersions;
+    private List<StudentAssignmentDto> assignments;
+    private long builtAt; // epoch millis, drives stale-while-revalidate
+}
@@ -2,16 +2,27 @@ package com.assignment.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "assignments")
+@Table(name = "assignments",
+        indexes = {
+                // seek pagination of a teacher's listing, with and without status/type filters
+                @Index(name = "idx_assignment_teacher_created", columnList = "teacher_id, created_at, id"),
+                @Index(name = "idx_assignment_teacher_filter", columnList = "teacher_id, status, type, created_at, id"),
+                // title prefix search
+                @Index(name = "idx_assignment_teacher_title", columnList = "teacher_id, title"),
+                // seek pagination of a student's listing across their batches
+                @Index(name = "idx_assignment_batch_status_created", columnList = "batch_id, status, created_at, id")
+        })
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@DynamicUpdate // counters are only changed by atomic UPDATEs; never write back stale values
 public class Assignment {
 
     @Id
@@ -41,4 +52,21 @@ public class Assignment {
     private LocalDateTime createdAt;
 
     private LocalDateTime deletedAt;
+
+    /*
+     * Maintained submission counters, incremented in the submit and evaluate
+     * paths and corrected by AssignmentCounterReconciliationJob. MCQ submissions
+     * count as evaluated when stored; passed is only tracked for MCQ.
+     */
+    @Builder.Default
+    @Column(nullable = false)
+    private int submittedCount = 0;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private int evaluatedCount = 0;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private int passedCount = 0;
 }
@@ -0,0 +1,48 @@
+package com.assignment.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persisted MCQ analytics of one assignment, shared by all instances. The
+ * counters are valid for the key, max marks and passing percentage hashed in
+ * {@code fingerprint}; a submission is counted once its
+ * {@code analytics_generation} equals {@code generation}.
+ */
+@Entity
+@Table(name = "mcq_analytics",
+        indexes = {
+                @Index(name = "idx_mcq_analytics_status", columnList = "status")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class McqAnalyticsState {
+
+    @Id
+    private Long mcqAssignmentId;
+
+    @Column(nullable = false)
+    private int generation;
+
+    @Column(nullable = false)
+    private long fingerprint;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private McqAnalyticsStatus status;
+
+    // while BUILDING: last submission id counted by the rebuild scan
+    @Column(nullable = false)
+    private long buildCursor;
+
+    // packed counters, see McqAnalytics#encode
+    @Column(nullable = false, length = 16_777_215)
+    private byte[] counters;
+
+    private LocalDateTime countedAt;
+}
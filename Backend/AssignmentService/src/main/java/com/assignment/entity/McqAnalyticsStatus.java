@@ -0,0 +1,6 @@
+package com.assignment.entity;
+
+public enum McqAnalyticsStatus {
+    BUILDING,
+    READY
+}
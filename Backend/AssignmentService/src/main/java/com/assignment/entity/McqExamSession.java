@@ -0,0 +1,57 @@
+package com.assignment.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "mcq_exam_sessions",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {"mcq_assignment_id", "student_id"})
+        },
+        indexes = {
+                @Index(name = "idx_mcq_session_deadline", columnList = "status, deadline")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class McqExamSession {
+
+    @Id
+    @Column(length = 36)
+    private String id; // session id (UUID) handed back to the student
+
+    @Column(nullable = false, name = "mcq_assignment_id")
+    private Long mcqAssignmentId;
+
+    @Column(nullable = false)
+    private Long assignmentId;
+
+    @Column(nullable = false, name = "student_id")
+    private Long studentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private McqExamSessionStatus status;
+
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+
+    private LocalDateTime deadline; // null when the assignment has no time limit
+
+    // Last flushed autosave, packed like McqSubmission#answers.
+    @Column(length = McqSubmission.MAX_PACKED_ANSWERS_LENGTH)
+    private byte[] answers;
+
+    private LocalDateTime lastSavedAt;
+
+    private LocalDateTime finishedAt;
+
+    // failed auto-submits; the session is marked FAILED once the sweeper gives up
+    @Builder.Default
+    @Column(nullable = false)
+    private int autoSubmitAttempts = 0;
+}
@@ -0,0 +1,9 @@
+package com.assignment.entity;
+
+public enum McqExamSessionStatus {
+    ACTIVE,
+    SUBMITTED,
+    AUTO_SUBMITTED,
+    EXPIRED, // deadline passed but the assignment could no longer accept the submission
+    FAILED // auto-submit kept failing; the saved answers stay on the session
+}
@@ -0,0 +1,8 @@
+package com.assignment.entity;
+
+public enum McqIntakeStatus {
+    PENDING,
+    PROCESSING,
+    COMPLETED,
+    REJECTED
+}
@@ -3,6 +3,9 @@ package com.assignment.entity;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Entity
 @Table(name = "mcq_questions")
 @Getter
@@ -27,8 +30,14 @@ public class McqQuestion {
 
     @Column(nullable = false)
     private Integer marks;
-    @Column(nullable = false, columnDefinition = "JSON")
-    private String optionsJson;
-    @Column(nullable = false, columnDefinition = "JSON")
-    private String correctAnswersJson;
+
+    @ElementCollection
+    @CollectionTable(name = "mcq_options", joinColumns = @JoinColumn(name = "question_id"))
+    @OrderColumn(name = "option_index")
+    @Column(name = "option_text", nullable = false, length = 1000)
+    @Builder.Default
+    private List<String> options = new ArrayList<>();
+
+    // Bit i set = option i is correct. Null only for rows not yet migrated from JSON.
+    private Long correctOptionMask;
 }
@@ -0,0 +1,54 @@
+package com.assignment.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A validated question of an import in progress. Rows are staged while the
+ * upload is read and copied into {@code mcq_questions} in one short
+ * transaction at the end, so the bank never shows a half-imported file.
+ */
+@Entity
+@Table(name = "mcq_question_import_rows",
+        indexes = {
+                @Index(name = "idx_mcq_import_rows_import", columnList = "import_id, row_index"),
+                // abandoned imports are purged by age
+                @Index(name = "idx_mcq_import_rows_staged", columnList = "staged_at")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class McqQuestionImportRow {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, name = "import_id", length = 36)
+    private String importId;
+
+    @Column(nullable = false, name = "row_index")
+    private Integer rowIndex; // position among the accepted rows of the import, from 1
+
+    @Column(nullable = false, length = 1000)
+    private String questionText;
+
+    @ElementCollection
+    @CollectionTable(name = "mcq_question_import_options", joinColumns = @JoinColumn(name = "row_id"))
+    @OrderColumn(name = "option_index")
+    @Column(name = "option_text", nullable = false, length = 1000)
+    @Builder.Default
+    private List<String> options = new ArrayList<>();
+
+    @Column(nullable = false)
+    private Long correctOptionMask;
+
+    @Column(nullable = false, name = "staged_at")
+    private LocalDateTime stagedAt;
+}
@@ -0,0 +1,59 @@
+package com.assignment.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Latest regrade of one assignment, shared by all instances. The claim token
+ * makes the row a per-assignment lock; the heartbeat lets another instance
+ * take over a run whose owner died.
+ */
+@Entity
+@Table(name = "mcq_regrade_runs",
+        indexes = {
+                @Index(name = "idx_mcq_regrade_state_heartbeat", columnList = "state, heartbeat_at"),
+                @Index(name = "idx_mcq_regrade_finished", columnList = "finished_at")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class McqRegradeRun {
+
+    @Id
+    private Long assignmentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private McqRegradeState state;
+
+    // another regrade was requested while this one was running
+    @Column(nullable = false)
+    private boolean rerunRequested;
+
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    private long totalSubmissions;
+    private long processed;
+    private long updated;
+    private long failed;
+
+    @Column(nullable = false)
+    private LocalDateTime requestedAt;
+
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    private Long durationMs;
+
+    private String message;
+}
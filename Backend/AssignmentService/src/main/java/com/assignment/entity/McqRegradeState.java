@@ -0,0 +1,8 @@
+package com.assignment.entity;
+
+public enum McqRegradeState {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -9,6 +9,10 @@ import java.time.LocalDateTime;
 @Table(name = "mcq_submissions",
         uniqueConstraints = {
                 @UniqueConstraint(columnNames = {"mcq_assignment_id", "student_id"})
+        },
+        indexes = {
+                // submissions not yet counted in analytics
+                @Index(name = "idx_mcq_sub_analytics", columnList = "analytics_generation, mcq_assignment_id")
         })
 @Getter
 @Setter
@@ -17,6 +21,8 @@ import java.time.LocalDateTime;
 @Builder
 public class McqSubmission {
 
+    public static final int MAX_PACKED_ANSWERS_LENGTH = 65536;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -27,8 +33,10 @@ public class McqSubmission {
 
     @Column(nullable = false, name = "student_id")
     private Long studentId;
-    @Column(nullable = false, columnDefinition = "JSON")
-    private String answersJson;
+
+    // Packed answers, see McqAnswerKey#packAnswers. Null only for rows not yet migrated from JSON.
+    @Column(length = McqSubmission.MAX_PACKED_ANSWERS_LENGTH)
+    private byte[] answers;
 
     @Column(nullable = false)
     private Integer totalMarks;
@@ -46,4 +54,19 @@ public class McqSubmission {
     private LocalDateTime submittedAt;
 
     private Integer timeTaken; // in seconds
-}
\ No newline at end of file
+
+    // Grading outcome stored at submit time; null until graded/backfilled.
+    private Integer correctCount;
+
+    private Integer incorrectCount;
+
+    @Column(length = 8192)
+    private byte[] correctnessBitmap; // bit i = question slot i answered correctly
+
+    // Set when the stored answers could not be graded; the counts are then 0.
+    private String gradingError;
+
+    // McqAnalyticsState generation this submission is counted in; null until counted.
+    @Column(name = "analytics_generation")
+    private Integer analyticsGeneration;
+}
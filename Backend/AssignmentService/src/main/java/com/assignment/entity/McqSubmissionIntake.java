@@ -0,0 +1,68 @@
+package com.assignment.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "mcq_submission_intake",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {"mcq_assignment_id", "student_id"})
+        },
+        indexes = {
+                // oldest pending first
+                @Index(name = "idx_mcq_intake_status_accepted", columnList = "status, accepted_at"),
+                @Index(name = "idx_mcq_intake_claim", columnList = "claim_token")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class McqSubmissionIntake {
+
+    @Id
+    @Column(length = 36)
+    private String id; // receipt id (UUID) handed back to the student
+
+    @Column(nullable = false, name = "mcq_assignment_id")
+    private Long mcqAssignmentId;
+
+    @Column(nullable = false)
+    private Long assignmentId;
+
+    @Column(nullable = false, name = "student_id")
+    private Long studentId;
+
+    @JdbcTypeCode(SqlTypes.JSON) // bound as JSON, not as a string literal, on every dialect
+    @Column(nullable = false, columnDefinition = "JSON")
+    private String answersJson;
+
+    private Integer timeTaken; // in seconds
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private McqIntakeStatus status;
+
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
+    private LocalDateTime claimedAt;
+
+    // claims so far; the row is rejected once max-attempts claims have failed
+    @Builder.Default
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    private LocalDateTime nextAttemptAt; // not claimed again before this, set after a transient failure
+
+    private String message;
+
+    @Column(nullable = false)
+    private LocalDateTime acceptedAt;
+
+    private LocalDateTime processedAt;
+}
@@ -0,0 +1,34 @@
+package com.assignment.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per one-shot data migration. The lease ({@code locked_by} until
+ * {@code locked_until}) lets a single instance run it; {@code completed_at}
+ * stops every instance from running it again.
+ */
+@Entity
+@Table(name = "migration_markers")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MigrationMarker {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(name = "locked_by", length = 36)
+    private String lockedBy;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,44 @@
+package com.assignment.job;
+
+import com.assignment.service.McqAnalyticsStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds new MCQ submissions to the persisted analytics and rebuilds them after
+ * a key change. The first run after deployment backfills every existing
+ * submission once. Safe on every instance: counting an assignment is
+ * serialised by its {@code mcq_analytics} row lock.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "assignment.mcq.analytics.enabled", havingValue = "true", matchIfMissing = true)
+public class McqAnalyticsJob {
+
+    private final McqAnalyticsStore mcqAnalyticsStore;
+
+    @Value("${assignment.mcq.analytics.assignments-per-run:100}")
+    private int assignmentsPerRun;
+
+    @Scheduled(
+            initialDelayString = "${assignment.mcq.analytics.interval-ms:5000}",
+            fixedDelayString = "${assignment.mcq.analytics.interval-ms:5000}"
+    )
+    public void run() {
+        for (Long mcqAssignmentId : mcqAnalyticsStore.findPending(assignmentsPerRun)) {
+            try {
+                while (mcqAnalyticsStore.countPage(mcqAssignmentId)) {
+                    log.debug("Counting more MCQ submissions of assignment {} in analytics", mcqAssignmentId);
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Counting MCQ analytics of assignment {} failed, retrying on the next run: {}",
+                        mcqAssignmentId, ex.getMessage());
+            }
+        }
+    }
+}
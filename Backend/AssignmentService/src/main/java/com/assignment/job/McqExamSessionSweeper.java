@@ -0,0 +1,110 @@
+package com.assignment.job;
+
+import com.assignment.repository.McqExamSessionBatchWriter;
+import com.assignment.repository.McqExamSessionRepository;
+import com.assignment.service.McqAutosaveBuffer;
+import com.assignment.service.student.StudentMcqService;
+import com.assignment.service.student.StudentMcqSessionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Background side of MCQ exam sessions: flushes buffered autosaves to the
+ * database in JDBC batches and auto-submits sessions past their deadline.
+ * Expired sessions are found through the (status, deadline) index and claimed
+ * with a conditional update, so running this on every instance is safe. A
+ * session whose auto-submit keeps failing is marked FAILED after
+ * max-auto-submit-attempts sweeps instead of being retried forever.
+ */
+@Slf4j
+@Component
+public class McqExamSessionSweeper {
+
+    private final McqAutosaveBuffer autosaveBuffer;
+    private final McqExamSessionBatchWriter sessionBatchWriter;
+    private final McqExamSessionRepository sessionRepository;
+    private final StudentMcqService studentMcqService;
+    private final StudentMcqSessionService studentMcqSessionService;
+
+    private final int batchSize;
+    private final Duration gracePeriod;
+    private final int maxAutoSubmitAttempts;
+
+    public McqExamSessionSweeper(
+            McqAutosaveBuffer autosaveBuffer,
+            McqExamSessionBatchWriter sessionBatchWriter,
+            McqExamSessionRepository sessionRepository,
+            StudentMcqService studentMcqService,
+            StudentMcqSessionService studentMcqSessionService,
+            @Value("${assignment.mcq.exam-session.batch-size:500}") int batchSize,
+            @Value("${assignment.mcq.exam-session.grace-period:30s}") Duration gracePeriod,
+            @Value("${assignment.mcq.exam-session.max-auto-submit-attempts:5}") int maxAutoSubmitAttempts) {
+        this.autosaveBuffer = autosaveBuffer;
+        this.sessionBatchWriter = sessionBatchWriter;
+        this.sessionRepository = sessionRepository;
+        this.studentMcqService = studentMcqService;
+        this.studentMcqSessionService = studentMcqSessionService;
+        this.batchSize = batchSize;
+        this.gracePeriod = gracePeriod;
+        this.maxAutoSubmitAttempts = maxAutoSubmitAttempts;
+    }
+
+    @Scheduled(fixedDelayString = "${assignment.mcq.exam-session.flush-interval-ms:2000}")
+    public void flushAutosaves() {
+        Map<String, byte[]> drained;
+        do {
+            drained = autosaveBuffer.drainDirty(batchSize);
+            try {
+                sessionBatchWriter.updateAnswers(drained, LocalDateTime.now());
+            } catch (RuntimeException ex) {
+                log.error("Flushing {} MCQ exam autosaves failed: {}", drained.size(), ex.getMessage(), ex);
+                autosaveBuffer.markDirty(drained.keySet());
+                return;
+            }
+        } while (drained.size() == batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${assignment.mcq.exam-session.sweep-interval-ms:5000}")
+    public void autoSubmitExpired() {
+        List<String> expired;
+        do {
+            expired = sessionRepository.findExpiredIds(
+                    LocalDateTime.now().minus(gracePeriod),
+                    PageRequest.of(0, batchSize));
+
+            int failed = 0;
+            for (String sessionId : expired) {
+                try {
+                    studentMcqService.autoSubmitExpiredSession(sessionId);
+                } catch (RuntimeException ex) {
+                    failed++;
+                    log.error("Auto-submitting MCQ exam session {} failed: {}", sessionId, ex.getMessage(), ex);
+                    giveUpIfExhausted(sessionId);
+                }
+            }
+            if (failed > 0) {
+                return; // failed sessions stay ACTIVE and are retried on the next sweep
+            }
+        } while (expired.size() == batchSize);
+    }
+
+    private void giveUpIfExhausted(String sessionId) {
+        try {
+            if (studentMcqSessionService.recordAutoSubmitFailure(sessionId, maxAutoSubmitAttempts)) {
+                log.error("Gave up auto-submitting MCQ exam session {} after {} attempts, marked FAILED",
+                        sessionId, maxAutoSubmitAttempts);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Recording the failed auto-submit of MCQ exam session {} failed: {}",
+                    sessionId, ex.getMessage(), ex);
+        }
+    }
+}
@@ -0,0 +1,374 @@
+package com.assignment.job;
+
+import com.assignment.dto.McqRegradeStatusDto;
+import com.assignment.entity.McqRegradeRun;
+import com.assignment.entity.McqRegradeState;
+import com.assignment.entity.McqSubmission;
+import com.assignment.exception.ResourceNotFoundException;
+import com.assignment.repository.AssignmentRepository;
+import com.assignment.repository.McqAssignmentRepository;
+import com.assignment.repository.McqSubmissionAnswers;
+import com.assignment.repository.McqRegradeRunRepository;
+import com.assignment.repository.McqSubmissionBatchWriter;
+import com.assignment.repository.McqSubmissionRepository;
+import com.assignment.service.McqAnswerKey;
+import com.assignment.service.McqAnswerKeyCache;
+import com.assignment.service.student.StudentAssignmentServiceImpl;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recomputes stored MCQ results after an assignment's answer key or marks change.
+ * Submissions are streamed by keyset pages of lightweight projections, graded in
+ * parallel on a dedicated pool, and written back with one JDBC batch and one short
+ * transaction per page. Only rows whose outcome actually changed are written.
+ *
+ * <p>Run state lives in {@code mcq_regrade_runs}, so every instance reports the
+ * same status. Claiming the row is the per-assignment lock: only its holder
+ * writes pages, and each page re-checks the claim in the same transaction. A
+ * request that arrives while the assignment is being regraded schedules one
+ * more pass after the current one. Runs left queued or abandoned by a dead
+ * instance are picked up by the poller; finished runs are pruned after the
+ * retention period.
+ */
+@Slf4j
+@Component
+public class McqRegradeJob {
+
+    private static final int RUNNABLE_PAGE_SIZE = 50;
+
+    private final AssignmentRepository assignmentRepository;
+    private final McqAssignmentRepository mcqAssignmentRepository;
+    private final McqSubmissionRepository mcqSubmissionRepository;
+    private final McqSubmissionBatchWriter mcqSubmissionBatchWriter;
+    private final McqRegradeRunRepository mcqRegradeRunRepository;
+    private final McqAnswerKeyCache mcqAnswerKeyCache;
+    private final StudentAssignmentServiceImpl studentAssignmentService;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate requiresNewTemplate;
+
+    private final int pageSize;
+    private final Duration staleRunTimeout;
+    private final Duration retention;
+    private final ExecutorService coordinator;
+    private final ForkJoinPool gradingPool;
+
+    public McqRegradeJob(
+            AssignmentRepository assignmentRepository,
+            McqAssignmentRepository mcqAssignmentRepository,
+            McqSubmissionRepository mcqSubmissionRepository,
+            McqSubmissionBatchWriter mcqSubmissionBatchWriter,
+            McqRegradeRunRepository mcqRegradeRunRepository,
+            McqAnswerKeyCache mcqAnswerKeyCache,
+            StudentAssignmentServiceImpl studentAssignmentService,
+            TransactionTemplate transactionTemplate,
+            @Value("${assignment.mcq.regrade.page-size:500}") int pageSize,
+            @Value("${assignment.mcq.regrade.workers:4}") int workers,
+            @Value("${assignment.mcq.regrade.stale-run-timeout:5m}") Duration staleRunTimeout,
+            @Value("${assignment.mcq.regrade.retention:1d}") Duration retention) {
+        this.assignmentRepository = assignmentRepository;
+        this.mcqAssignmentRepository = mcqAssignmentRepository;
+        this.mcqSubmissionRepository = mcqSubmissionRepository;
+        this.mcqSubmissionBatchWriter = mcqSubmissionBatchWriter;
+        this.mcqRegradeRunRepository = mcqRegradeRunRepository;
+        this.mcqAnswerKeyCache = mcqAnswerKeyCache;
+        this.studentAssignmentService = studentAssignmentService;
+        this.transactionTemplate = transactionTemplate;
+        // requests arrive from read-only transactions and from afterCommit callbacks
+        this.requiresNewTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.requiresNewTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.pageSize = pageSize;
+        this.staleRunTimeout = staleRunTimeout;
+        this.retention = retention;
+        this.coordinator = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "mcq-regrade");
+            t.setDaemon(true);
+            return t;
+        });
+        this.gradingPool = new ForkJoinPool(workers);
+    }
+
+    /**
+     * Requests a regrade once the current transaction commits, so the run
+     * sees the new questions. Without a transaction it is requested at once.
+     */
+    public void requestAfterCommit(Long assignmentId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    request(assignmentId);
+                }
+            });
+        } else {
+            request(assignmentId);
+        }
+    }
+
+    public McqRegradeStatusDto request(Long assignmentId) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            requiresNewTemplate.executeWithoutResult(status -> {
+                // running: one more pass afterwards; queued: it will pick up the latest key
+                if (mcqRegradeRunRepository.requestRerun(assignmentId) == 0
+                        && mcqRegradeRunRepository.requeue(assignmentId, now) == 0
+                        && !mcqRegradeRunRepository.existsById(assignmentId)) {
+                    mcqRegradeRunRepository.save(McqRegradeRun.builder()
+                            .assignmentId(assignmentId)
+                            .state(McqRegradeState.QUEUED)
+                            .requestedAt(now)
+                            .build());
+                }
+            });
+        } catch (DataIntegrityViolationException ex) {
+            log.debug("MCQ regrade of assignment {} was queued concurrently", assignmentId);
+        }
+
+        coordinator.execute(() -> runIfClaimed(assignmentId));
+        return status(assignmentId);
+    }
+
+    public McqRegradeStatusDto status(Long assignmentId) {
+        return mcqRegradeRunRepository.findById(assignmentId)
+                .map(McqRegradeJob::toDto)
+                .orElseGet(() -> McqRegradeStatusDto.builder().assignmentId(assignmentId).state("NONE").build());
+    }
+
+    /**
+     * Starts runs that were queued on an instance that went away, takes over
+     * runs whose owner stopped sending heartbeats, and prunes finished runs.
+     */
+    @Scheduled(
+            initialDelayString = "${assignment.mcq.regrade.poll-interval-ms:30000}",
+            fixedDelayString = "${assignment.mcq.regrade.poll-interval-ms:30000}")
+    public void poll() {
+        LocalDateTime now = LocalDateTime.now();
+        mcqRegradeRunRepository.findRunnableIds(now.minus(staleRunTimeout), PageRequest.of(0, RUNNABLE_PAGE_SIZE))
+                .forEach(assignmentId -> coordinator.execute(() -> runIfClaimed(assignmentId)));
+
+        Integer pruned = transactionTemplate.execute(status ->
+                mcqRegradeRunRepository.deleteFinishedBefore(now.minus(retention)));
+        if (pruned != null && pruned > 0) {
+            log.info("Pruned {} finished MCQ regrade runs", pruned);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        gradingPool.shutdownNow();
+    }
+
+    private void runIfClaimed(Long assignmentId) {
+        boolean rerun;
+        do {
+            Run run = claim(assignmentId);
+            rerun = run != null && execute(run);
+        } while (rerun);
+    }
+
+    /**
+     * @return the claimed run, or {@code null} when another instance owns it or nothing is queued
+     */
+    private Run claim(Long assignmentId) {
+        Run run = new Run(assignmentId, UUID.randomUUID().toString());
+        LocalDateTime now = LocalDateTime.now();
+        Integer claimed = transactionTemplate.execute(status ->
+                mcqRegradeRunRepository.claim(assignmentId, run.token, now, now.minus(staleRunTimeout)));
+        return claimed != null && claimed == 1 ? run : null;
+    }
+
+    /**
+     * @return whether another pass was requested while this one was running
+     */
+    private boolean execute(Run run) {
+        McqRegradeState state;
+        String message = null;
+        long startNanos = System.nanoTime();
+
+        try {
+            regrade(run);
+            state = McqRegradeState.COMPLETED;
+        } catch (RuntimeException ex) {
+            log.error("MCQ regrade of assignment {} failed after {} submissions: {}",
+                    run.assignmentId, run.processed.get(), ex.getMessage(), ex);
+            message = ex.getMessage();
+            state = McqRegradeState.FAILED;
+        }
+
+        long durationMs = Duration.ofNanos(System.nanoTime() - startNanos).toMillis();
+        McqRegradeState finalState = state;
+        String finalMessage = message;
+        LocalDateTime now = LocalDateTime.now();
+        Boolean rerun = transactionTemplate.execute(status -> {
+            int finished = mcqRegradeRunRepository.finish(run.assignmentId, run.token, finalState,
+                    run.total, run.processed.get(), run.updated.get(), run.failed.get(),
+                    durationMs, finalMessage, now);
+            return finished == 1 && mcqRegradeRunRepository.requeueRequestedRerun(run.assignmentId, now) == 1;
+        });
+
+        log.info("MCQ regrade of assignment {} {}: {}/{} submissions processed, {} updated, {} failed in {} ms",
+                run.assignmentId, state, run.processed.get(), run.total,
+                run.updated.get(), run.failed.get(), durationMs);
+
+        return Boolean.TRUE.equals(rerun);
+    }
+
+    private void regrade(Run run) {
+        Context ctx = transactionTemplate.execute(status -> mcqAssignmentRepository
+                .findByAssignment_Id(run.assignmentId)
+                .map(mcq -> new Context(
+                        mcq.getId(),
+                        mcq.getAssignment().getMaxMarks(),
+                        mcq.getPassingPercentage()))
+                .orElseThrow(() -> new ResourceNotFoundException("MCQ assignment not found")));
+
+        run.total = mcqSubmissionRepository.countByMcqAssignment_Id(ctx.mcqAssignmentId());
+        McqAnswerKey answerKey = mcqAnswerKeyCache.get(ctx.mcqAssignmentId());
+
+        long afterId = 0L;
+        while (true) {
+            List<McqSubmissionAnswers> page = mcqSubmissionRepository.findAnswersAfter(
+                    ctx.mcqAssignmentId(), afterId, PageRequest.of(0, pageSize));
+            if (page.isEmpty()) {
+                break;
+            }
+
+            List<McqSubmission> changed = gradingPool.submit(() -> page.parallelStream()
+                    .map(row -> regradeRow(row, answerKey, ctx, run))
+                    .filter(Objects::nonNull)
+                    .toList()).join();
+
+            int passedDelta = changed.isEmpty() ? 0 : passedDelta(page, changed);
+            transactionTemplate.executeWithoutResult(status -> {
+                // the claim check and the page write commit together, so a run that
+                // was taken over cannot apply its passed delta a second time
+                if (mcqRegradeRunRepository.heartbeat(run.assignmentId, run.token, run.total,
+                        run.processed.get() + page.size(), run.updated.get() + changed.size(),
+                        run.failed.get(), LocalDateTime.now()) == 0) {
+                    throw new IllegalStateException("Regrade run was taken over by another instance");
+                }
+                if (!changed.isEmpty()) {
+                    mcqSubmissionBatchWriter.updateResults(changed, pageSize);
+                }
+                if (passedDelta != 0) {
+                    assignmentRepository.incrementCounters(run.assignmentId, 0, 0, passedDelta);
+                }
+            });
+            changed.forEach(s -> studentAssignmentService.evictStudentAssignments(s.getStudentId()));
+            run.updated.addAndGet(changed.size());
+            run.processed.addAndGet(page.size());
+            afterId = page.get(page.size() - 1).getId();
+            log.debug("MCQ regrade of assignment {}: {}/{}", run.assignmentId, run.processed.get(), run.total);
+        }
+    }
+
+    /**
+     * @return the new outcome, or {@code null} when it is unchanged or the row cannot be graded
+     */
+    private McqSubmission regradeRow(McqSubmissionAnswers row, McqAnswerKey answerKey, Context ctx, Run run) {
+        if (row.getAnswers() == null) {
+            // not migrated yet, or unreadable legacy answers: grading would wipe the stored score
+            run.failed.incrementAndGet();
+            log.warn("Skipping MCQ submission {} during regrade: no stored answers", row.getId());
+            return null;
+        }
+
+        McqAnswerKey.Result result;
+        try {
+            result = answerKey.grade(row.getAnswers());
+        } catch (RuntimeException ex) {
+            run.failed.incrementAndGet();
+            log.warn("Skipping MCQ submission {} during regrade: {}", row.getId(), ex.getMessage());
+            return null;
+        }
+
+        double percentage = (result.obtainedMarks() * 100.0) / ctx.maxMarks();
+        boolean passed = percentage >= ctx.passingPercentage();
+
+        if (Objects.equals(row.getObtainedMarks(), result.obtainedMarks())
+                && Objects.equals(row.getTotalMarks(), ctx.maxMarks())
+                && Objects.equals(row.getPassed(), passed)
+                && Objects.equals(row.getCorrectCount(), result.correctCount())) {
+            return null;
+        }
+
+        return McqSubmission.builder()
+                .id(row.getId())
+                .studentId(row.getStudentId())
+                .totalMarks(ctx.maxMarks())
+                .obtainedMarks(result.obtainedMarks())
+                .percentage(percentage)
+                .passed(passed)
+                .correctCount(result.correctCount())
+                .incorrectCount(result.incorrectCount())
+                .correctnessBitmap(result.correctness())
+                .build();
+    }
+
+    private static int passedDelta(List<McqSubmissionAnswers> page, List<McqSubmission> changed) {
+        Map<Long, Boolean> passedBefore = new HashMap<>();
+        page.forEach(row -> passedBefore.put(row.getId(), Boolean.TRUE.equals(row.getPassed())));
+
+        int delta = 0;
+        for (McqSubmission submission : changed) {
+            boolean before = passedBefore.getOrDefault(submission.getId(), false);
+            boolean after = Boolean.TRUE.equals(submission.getPassed());
+            if (before != after) {
+                delta += after ? 1 : -1;
+            }
+        }
+        return delta;
+    }
+
+    private record Context(Long mcqAssignmentId, int maxMarks, int passingPercentage) {}
+
+    /** Progress of the pass this instance is executing; persisted with every page. */
+    private static final class Run {
+        private final Long assignmentId;
+        private final String token;
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong updated = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private volatile long total;
+
+        private Run(Long assignmentId, String token) {
+            this.assignmentId = assignmentId;
+            this.token = token;
+        }
+    }
+
+    private static McqRegradeStatusDto toDto(McqRegradeRun run) {
+        return McqRegradeStatusDto.builder()
+                .assignmentId(run.getAssignmentId())
+                .state(run.getState().name())
+                .totalSubmissions(run.getTotalSubmissions())
+                .processed(run.getProcessed())
+                .updated(run.getUpdated())
+                .failed(run.getFailed())
+                .startedAt(run.getStartedAt())
+                .finishedAt(run.getFinishedAt())
+                .durationMs(run.getDurationMs())
+                .message(run.getMessage())
+                .build();
+    }
+}
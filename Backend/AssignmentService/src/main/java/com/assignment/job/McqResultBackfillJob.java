@@ -0,0 +1,118 @@
+package com.assignment.job;
+
+import com.assignment.entity.McqSubmission;
+import com.assignment.exception.ServiceUnavailableException;
+import com.assignment.repository.McqSubmissionRepository;
+import com.assignment.service.McqAnswerKey;
+import com.assignment.service.McqAnswerKeyCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Fills in the stored grading outcome (correct/incorrect counts and the
+ * correctness bitmap) for MCQ submissions created before it was persisted.
+ * Rows still waiting for the storage migration are left for a later run. Rows
+ * that cannot be graded are stored with zero counts and a grading error, so
+ * they are not retried. Once no submission is left without an outcome the job
+ * stops running until the next restart.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "assignment.mcq.backfill.enabled", havingValue = "true", matchIfMissing = true)
+public class McqResultBackfillJob {
+
+    private final McqSubmissionRepository mcqSubmissionRepository;
+    private final McqAnswerKeyCache mcqAnswerKeyCache;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${assignment.mcq.backfill.batch-size:200}")
+    private int batchSize;
+
+    private volatile boolean finished;
+
+    @Scheduled(
+            initialDelayString = "${assignment.mcq.backfill.initial-delay-ms:30000}",
+            fixedDelayString = "${assignment.mcq.backfill.interval-ms:600000}"
+    )
+    public void run() {
+        if (finished) {
+            return;
+        }
+
+        long afterId = 0L;
+        int filled = 0;
+        int failed = 0;
+
+        while (true) {
+            long from = afterId;
+            BatchResult batch = transactionTemplate.execute(status -> backfillBatch(from));
+            if (batch == null || batch.lastId() == null) {
+                break;
+            }
+            filled += batch.filled();
+            failed += batch.failed();
+            afterId = batch.lastId();
+        }
+
+        if (filled > 0 || failed > 0) {
+            log.info("Backfilled stored results for {} MCQ submissions, {} could not be graded", filled, failed);
+        }
+        if (!mcqSubmissionRepository.existsByCorrectCountIsNull()) {
+            finished = true;
+            log.info("MCQ result backfill complete");
+        }
+    }
+
+    boolean isFinished() {
+        return finished;
+    }
+
+    private BatchResult backfillBatch(long afterId) {
+        List<McqSubmission> submissions =
+                mcqSubmissionRepository.findUngradedAfter(afterId, PageRequest.of(0, batchSize));
+        if (submissions.isEmpty()) {
+            return new BatchResult(null, 0, 0);
+        }
+
+        int filled = 0;
+        int failed = 0;
+        for (McqSubmission submission : submissions) {
+            try {
+                McqAnswerKey.Result result = mcqAnswerKeyCache.gradeStoredAnswers(submission);
+                submission.setCorrectCount(result.correctCount());
+                submission.setIncorrectCount(result.incorrectCount());
+                submission.setCorrectnessBitmap(result.correctness());
+                filled++;
+            } catch (ServiceUnavailableException ex) {
+                throw ex; // the answer key is not migrated yet; retried on the next run
+            } catch (RuntimeException ex) {
+                log.warn("MCQ submission {} cannot be graded during backfill: {}", submission.getId(), ex.getMessage());
+                submission.setCorrectCount(0);
+                submission.setIncorrectCount(0);
+                submission.setCorrectnessBitmap(new byte[0]);
+                submission.setGradingError(truncate(ex.getMessage()));
+                failed++;
+            }
+        }
+
+        return new BatchResult(submissions.get(submissions.size() - 1).getId(), filled, failed);
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return "Grading failed";
+        }
+        return message.length() > 255 ? message.substring(0, 255) : message;
+    }
+
+    private record BatchResult(Long lastId, int filled, int failed) {}
+}
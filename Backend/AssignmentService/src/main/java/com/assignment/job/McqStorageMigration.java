@@ -0,0 +1,269 @@
+package com.assignment.job;
+
+import com.assignment.dto.McqAnswerDto;
+import com.assignment.service.McqAnswerKey;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Moves MCQ rows written before the typed storage format off the legacy JSON
+ * columns: options into {@code mcq_options}, correct indexes into
+ * {@code correct_option_mask} and submitted answers into the packed
+ * {@code answers} column. Runs in the background, in keyset pages with one
+ * transaction per page, while answer keys of unmigrated questions refuse to
+ * grade.
+ *
+ * <p>A {@code migration_markers} row makes it one-shot across the cluster:
+ * one instance holds a renewed lease while it migrates, and once the marker
+ * is completed no instance runs it again. Pages are idempotent, so a run that
+ * dies halfway is simply resumed by the next lease holder. The legacy columns
+ * must be made nullable first with {@code db/mcq-typed-storage.sql}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "assignment.mcq.storage-migration.enabled", havingValue = "true", matchIfMissing = true)
+public class McqStorageMigration {
+
+    static final String MARKER = "mcq-typed-storage";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final Duration lease;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private volatile boolean finished;
+
+    public McqStorageMigration(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            @Value("${assignment.mcq.storage-migration.batch-size:500}") int batchSize,
+            @Value("${assignment.mcq.storage-migration.lease:5m}") Duration lease) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.lease = lease;
+    }
+
+    @Scheduled(
+            initialDelayString = "${assignment.mcq.storage-migration.initial-delay-ms:5000}",
+            fixedDelayString = "${assignment.mcq.storage-migration.interval-ms:60000}")
+    public void run() {
+        if (finished) {
+            return;
+        }
+        if (!acquireLease()) {
+            return; // completed, or another instance is migrating
+        }
+
+        long start = System.nanoTime();
+        try {
+            int questions = hasColumn("mcq_questions", "options_json") ? migrateQuestions() : 0;
+            int submissions = hasColumn("mcq_submissions", "answers_json") ? migrateSubmissions() : 0;
+
+            jdbcTemplate.update("""
+                            UPDATE migration_markers SET completed_at = ?, locked_by = NULL, locked_until = NULL
+                            WHERE name = ? AND locked_by = ?
+                            """,
+                    LocalDateTime.now(), MARKER, instanceId);
+            finished = true;
+            log.info("Migrated {} MCQ questions and {} MCQ submissions to typed storage in {} ms",
+                    questions, submissions, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException ex) {
+            log.error("MCQ storage migration stopped, it will be resumed: {}", ex.getMessage(), ex);
+            jdbcTemplate.update(
+                    "UPDATE migration_markers SET locked_by = NULL, locked_until = NULL WHERE name = ? AND locked_by = ?",
+                    MARKER, instanceId);
+        }
+    }
+
+    boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * @return whether this instance now holds the lease of an uncompleted migration
+     */
+    private boolean acquireLease() {
+        try {
+            jdbcTemplate.update("INSERT INTO migration_markers (name) VALUES (?)", MARKER);
+        } catch (DuplicateKeyException ex) {
+            // created by an earlier run or another instance
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int acquired = jdbcTemplate.update("""
+                        UPDATE migration_markers SET locked_by = ?, locked_until = ?
+                        WHERE name = ? AND completed_at IS NULL
+                          AND (locked_until IS NULL OR locked_until < ? OR locked_by = ?)
+                        """,
+                instanceId, now.plus(lease), MARKER, now, instanceId);
+        if (acquired == 1) {
+            return true;
+        }
+
+        Integer completed = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM migration_markers WHERE name = ? AND completed_at IS NOT NULL",
+                Integer.class, MARKER);
+        finished = completed != null && completed > 0;
+        return false;
+    }
+
+    /**
+     * Extends the lease inside a page's transaction, so a page is only written
+     * while this instance still owns the migration.
+     */
+    private void renewLease() {
+        int renewed = jdbcTemplate.update(
+                "UPDATE migration_markers SET locked_until = ? WHERE name = ? AND locked_by = ?",
+                LocalDateTime.now().plus(lease), MARKER, instanceId);
+        if (renewed == 0) {
+            throw new IllegalStateException("MCQ storage migration lease was lost");
+        }
+    }
+
+    private int migrateQuestions() {
+        int migrated = 0;
+        long afterId = 0L;
+
+        while (true) {
+            List<LegacyQuestion> page = jdbcTemplate.query("""
+                            SELECT id, options_json, correct_answers_json
+                            FROM mcq_questions
+                            WHERE correct_option_mask IS NULL AND id > ?
+                            ORDER BY id
+                            LIMIT ?
+                            """,
+                    (rs, i) -> new LegacyQuestion(
+                            rs.getLong("id"), rs.getString("options_json"), rs.getString("correct_answers_json")),
+                    afterId, batchSize);
+            if (page.isEmpty()) {
+                return migrated;
+            }
+
+            List<Object[]> options = new ArrayList<>();
+            List<Object[]> masks = new ArrayList<>();
+            for (LegacyQuestion q : page) {
+                List<Object[]> questionOptions = new ArrayList<>();
+                long mask = 0L;
+                try {
+                    JsonNode optionNodes = objectMapper.readTree(q.optionsJson());
+                    for (int i = 0; i < optionNodes.size(); i++) {
+                        questionOptions.add(new Object[]{q.id(), i, optionNodes.get(i).path("text").asText()});
+                    }
+
+                    for (JsonNode index : objectMapper.readTree(q.correctAnswersJson())) {
+                        int i = index.asInt(-1);
+                        if (i >= 0 && i < McqAnswerKey.MAX_OPTIONS) {
+                            mask |= 1L << i;
+                        }
+                    }
+                } catch (Exception ex) {
+                    // stored without options or a correct answer, so its key can still be built
+                    log.warn("MCQ question {} has unreadable legacy JSON, migrating it empty: {}",
+                            q.id(), ex.getMessage());
+                    questionOptions.clear();
+                    mask = 0L;
+                }
+                options.addAll(questionOptions);
+                masks.add(new Object[]{mask, q.id()});
+            }
+
+            List<Object[]> questionIds = masks.stream().map(m -> new Object[]{m[1]}).toList();
+            transactionTemplate.executeWithoutResult(status -> {
+                renewLease();
+                // a page that is migrated twice replaces its options instead of duplicating them
+                jdbcTemplate.batchUpdate("DELETE FROM mcq_options WHERE question_id = ?", questionIds);
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO mcq_options (question_id, option_index, option_text) VALUES (?, ?, ?)",
+                        options);
+                jdbcTemplate.batchUpdate(
+                        "UPDATE mcq_questions SET correct_option_mask = ? WHERE id = ? AND correct_option_mask IS NULL",
+                        masks);
+            });
+
+            migrated += masks.size();
+            afterId = page.get(page.size() - 1).id();
+        }
+    }
+
+    private int migrateSubmissions() {
+        int migrated = 0;
+        long afterId = 0L;
+
+        while (true) {
+            List<LegacySubmission> page = jdbcTemplate.query("""
+                            SELECT id, answers_json
+                            FROM mcq_submissions
+                            WHERE answers IS NULL AND answers_json IS NOT NULL AND id > ?
+                            ORDER BY id
+                            LIMIT ?
+                            """,
+                    (rs, i) -> new LegacySubmission(rs.getLong("id"), rs.getString("answers_json")),
+                    afterId, batchSize);
+            if (page.isEmpty()) {
+                return migrated;
+            }
+
+            List<Object[]> packed = new ArrayList<>(page.size());
+            for (LegacySubmission s : page) {
+                try {
+                    List<McqAnswerDto> answers = objectMapper.readValue(s.answersJson(), new TypeReference<>() {});
+                    packed.add(new Object[]{McqAnswerKey.packAnswers(answers), s.id()});
+                } catch (Exception ex) {
+                    log.warn("Skipping MCQ submission {} during storage migration: {}", s.id(), ex.getMessage());
+                }
+            }
+
+            transactionTemplate.executeWithoutResult(status -> {
+                renewLease();
+                jdbcTemplate.batchUpdate("UPDATE mcq_submissions SET answers = ? WHERE id = ? AND answers IS NULL", packed);
+            });
+
+            migrated += packed.size();
+            afterId = page.get(page.size() - 1).id();
+        }
+    }
+
+    private boolean hasColumn(String table, String column) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) con -> {
+            DatabaseMetaData meta = con.getMetaData();
+            for (String name : List.of(table, table.toUpperCase(Locale.ROOT))) {
+                try (ResultSet rs = meta.getColumns(con.getCatalog(), null, name, null)) {
+                    while (rs.next()) {
+                        if (column.equalsIgnoreCase(rs.getString("COLUMN_NAME"))) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }));
+    }
+
+    private record LegacyQuestion(long id, String optionsJson, String correctAnswersJson) {}
+
+    private record LegacySubmission(long id, String answersJson) {}
+}
@@ -0,0 +1,383 @@
+package com.assignment.job;
+
+import com.assignment.dto.McqAnswerDto;
+import com.assignment.dto.NotificationEvent;
+import com.assignment.entity.Assignment;
+import com.assignment.entity.McqAssignment;
+import com.assignment.entity.McqIntakeStatus;
+import com.assignment.entity.McqSubmission;
+import com.assignment.entity.McqSubmissionIntake;
+import com.assignment.exception.ServiceUnavailableException;
+import com.assignment.repository.AssignmentRepository;
+import com.assignment.repository.McqAssignmentRepository;
+import com.assignment.repository.McqSubmissionBatchWriter;
+import com.assignment.repository.McqSubmissionIntakeRepository;
+import com.assignment.repository.McqSubmissionRepository;
+import com.assignment.service.McqAnswerKey;
+import com.assignment.service.McqAnswerKeyCache;
+import com.assignment.service.NotificationPublisher;
+import com.assignment.service.student.StudentMcqSessionService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Grades and stores MCQ submissions accepted through the asynchronous intake.
+ * Pending intake rows are claimed in batches with a claim token (safe across
+ * instances), graded on a bounded worker pool and written with one JDBC batch
+ * per claim. When all workers are busy the scheduler thread runs the batch
+ * itself, which throttles claiming.
+ *
+ * <p>A transient failure (database, or an answer key that cannot be loaded
+ * yet) hands the claim back without counting it as an attempt, and holds the
+ * rows back for a growing {@code retry-backoff}. Any other failure of a
+ * claimed batch retries its rows one at a time so a single bad row cannot hold
+ * up the others. A row that still fails is released for another claim, and
+ * rejected once it has been claimed {@code max-attempts} times; the student's
+ * exam session is then reopened so the submission is not lost.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "assignment.mcq.async-intake.enabled", havingValue = "true")
+public class McqSubmissionIntakeWorker {
+
+    private final McqSubmissionIntakeRepository intakeRepository;
+    private final AssignmentRepository assignmentRepository;
+    private final McqAssignmentRepository mcqAssignmentRepository;
+    private final McqSubmissionRepository mcqSubmissionRepository;
+    private final McqSubmissionBatchWriter mcqSubmissionBatchWriter;
+    private final McqAnswerKeyCache mcqAnswerKeyCache;
+    private final NotificationPublisher notificationPublisher;
+    private final StudentMcqSessionService studentMcqSessionService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration staleClaimTimeout;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+    private final ThreadPoolExecutor executor;
+
+    // transient failures in a row; doubles the backoff, reset by the next batch that goes through
+    private final AtomicInteger transientFailures = new AtomicInteger();
+
+    public McqSubmissionIntakeWorker(
+            McqSubmissionIntakeRepository intakeRepository,
+            AssignmentRepository assignmentRepository,
+            McqAssignmentRepository mcqAssignmentRepository,
+            McqSubmissionRepository mcqSubmissionRepository,
+            McqSubmissionBatchWriter mcqSubmissionBatchWriter,
+            McqAnswerKeyCache mcqAnswerKeyCache,
+            NotificationPublisher notificationPublisher,
+            StudentMcqSessionService studentMcqSessionService,
+            ObjectMapper objectMapper,
+            TransactionTemplate transactionTemplate,
+            @Value("${assignment.mcq.async-intake.workers:4}") int workers,
+            @Value("${assignment.mcq.async-intake.batch-size:100}") int batchSize,
+            @Value("${assignment.mcq.async-intake.max-attempts:5}") int maxAttempts,
+            @Value("${assignment.mcq.async-intake.stale-claim-timeout:5m}") Duration staleClaimTimeout,
+            @Value("${assignment.mcq.async-intake.retry-backoff:5s}") Duration retryBackoff,
+            @Value("${assignment.mcq.async-intake.max-retry-backoff:5m}") Duration maxRetryBackoff) {
+        this.intakeRepository = intakeRepository;
+        this.assignmentRepository = assignmentRepository;
+        this.mcqAssignmentRepository = mcqAssignmentRepository;
+        this.mcqSubmissionRepository = mcqSubmissionRepository;
+        this.mcqSubmissionBatchWriter = mcqSubmissionBatchWriter;
+        this.mcqAnswerKeyCache = mcqAnswerKeyCache;
+        this.notificationPublisher = notificationPublisher;
+        this.studentMcqSessionService = studentMcqSessionService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.staleClaimTimeout = staleClaimTimeout;
+        this.retryBackoff = retryBackoff;
+        this.maxRetryBackoff = maxRetryBackoff;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                workers, workers,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers),
+                r -> {
+                    Thread t = new Thread(r, "mcq-intake-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
+
+    @Scheduled(fixedDelayString = "${assignment.mcq.async-intake.poll-interval-ms:500}")
+    public void drain() {
+        transactionTemplate.executeWithoutResult(status ->
+                intakeRepository.releaseStaleClaims(LocalDateTime.now().minus(staleClaimTimeout)));
+
+        String token;
+        while ((token = claimBatch()) != null) {
+            String claimed = token;
+            executor.execute(() -> processBatch(claimed));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private String claimBatch() {
+        return transactionTemplate.execute(status -> {
+            List<String> ids = intakeRepository.findPendingIds(LocalDateTime.now(), PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                return null;
+            }
+            String token = UUID.randomUUID().toString();
+            int claimed = intakeRepository.claim(ids, token, LocalDateTime.now());
+            // claimed == 0 means another instance took these rows first; try the next page
+            return claimed > 0 || ids.size() == batchSize ? token : null;
+        });
+    }
+
+    private void processBatch(String token) {
+        List<NotificationEvent> events;
+        try {
+            events = transactionTemplate.execute(status ->
+                    gradeAndStore(intakeRepository.findByClaimToken(token)));
+            transientFailures.set(0);
+        } catch (RuntimeException ex) {
+            if (isTransient(ex)) {
+                releaseForRetry(token, ex);
+                return;
+            }
+            log.warn("MCQ intake batch {} failed, retrying its rows one by one: {}", token, ex.getMessage());
+            events = processOneByOne(token);
+        }
+        if (events != null) {
+            events.forEach(notificationPublisher::publish);
+        }
+    }
+
+    private List<NotificationEvent> processOneByOne(String token) {
+        List<String> ids = transactionTemplate.execute(status -> intakeRepository.findByClaimToken(token)
+                .stream()
+                .filter(intake -> intake.getStatus() == McqIntakeStatus.PROCESSING)
+                .map(McqSubmissionIntake::getId)
+                .toList());
+
+        List<NotificationEvent> events = new ArrayList<>();
+        for (String id : ids == null ? List.<String>of() : ids) {
+            try {
+                List<NotificationEvent> rowEvents = transactionTemplate.execute(status ->
+                        gradeAndStore(intakeRepository.findByIdAndClaimToken(id, token).stream().toList()));
+                if (rowEvents != null) {
+                    events.addAll(rowEvents);
+                }
+            } catch (RuntimeException ex) {
+                if (isTransient(ex)) {
+                    // not this row's fault; the rest of the claim would hit the same outage
+                    releaseForRetry(token, ex);
+                    break;
+                }
+                log.error("MCQ intake {} failed: {}", id, ex.getMessage(), ex);
+                transactionTemplate.executeWithoutResult(status -> releaseOrReject(id, token, ex));
+            }
+        }
+        return events;
+    }
+
+    private void releaseForRetry(String token, RuntimeException failure) {
+        int failures = transientFailures.incrementAndGet();
+        Duration backoff = retryBackoff.multipliedBy(1L << Math.min(failures - 1, 16));
+        if (backoff.compareTo(maxRetryBackoff) > 0) {
+            backoff = maxRetryBackoff;
+        }
+        log.warn("MCQ intake batch {} hit a transient failure, retrying in {}: {}",
+                token, backoff, failure.getMessage());
+
+        LocalDateTime notBefore = LocalDateTime.now().plus(backoff);
+        transactionTemplate.executeWithoutResult(status -> intakeRepository.releaseForRetry(token, notBefore));
+    }
+
+    private static boolean isTransient(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof ServiceUnavailableException
+                    || t instanceof TransientDataAccessException
+                    || t instanceof RecoverableDataAccessException
+                    || t instanceof DataAccessResourceFailureException
+                    || t instanceof CannotCreateTransactionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void releaseOrReject(String id, String token, RuntimeException failure) {
+        intakeRepository.findByIdAndClaimToken(id, token)
+                .filter(intake -> intake.getStatus() == McqIntakeStatus.PROCESSING)
+                .ifPresent(intake -> {
+                    if (intake.getAttempts() >= maxAttempts) {
+                        rejectAndReopen(intake,
+                                "Submission could not be processed: " + failure.getMessage(), LocalDateTime.now());
+                    } else {
+                        intake.setStatus(McqIntakeStatus.PENDING);
+                    }
+                    intake.setClaimToken(null);
+                    intake.setClaimedAt(null);
+                });
+    }
+
+    private List<NotificationEvent> gradeAndStore(List<McqSubmissionIntake> intakes) {
+        if (intakes.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, McqAssignment> mcqs = mcqAssignmentRepository
+                .findAllById(intakes.stream().map(McqSubmissionIntake::getMcqAssignmentId).distinct().toList())
+                .stream()
+                .collect(Collectors.toMap(McqAssignment::getId, Function.identity()));
+
+        Map<Long, Set<Long>> alreadySubmitted = new HashMap<>();
+        intakes.stream()
+                .collect(Collectors.groupingBy(
+                        McqSubmissionIntake::getMcqAssignmentId,
+                        Collectors.mapping(McqSubmissionIntake::getStudentId, Collectors.toList())))
+                .forEach((mcqId, studentIds) -> alreadySubmitted.put(
+                        mcqId,
+                        new HashSet<>(mcqSubmissionRepository.findSubmittedStudentIds(mcqId, studentIds))));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<McqSubmission> submissions = new ArrayList<>();
+        List<McqSubmissionIntake> accepted = new ArrayList<>();
+        List<NotificationEvent> events = new ArrayList<>();
+
+        for (McqSubmissionIntake intake : intakes) {
+            McqAssignment mcq = mcqs.get(intake.getMcqAssignmentId());
+            if (mcq == null) {
+                reject(intake, "MCQ assignment not found", now);
+                continue;
+            }
+            if (alreadySubmitted.get(mcq.getId()).contains(intake.getStudentId())) {
+                reject(intake, "Assignment already submitted", now);
+                continue;
+            }
+
+            McqAnswerKey answerKey = mcqAnswerKeyCache.get(mcq.getId());
+            byte[] packedAnswers;
+            McqAnswerKey.Result result;
+            try {
+                List<McqAnswerDto> answers = objectMapper.readValue(
+                        intake.getAnswersJson(),
+                        new TypeReference<>() {});
+                packedAnswers = McqAnswerKey.packAnswers(answers);
+                result = answerKey.grade(packedAnswers);
+            } catch (Exception ex) {
+                rejectAndReopen(intake, ex.getMessage(), now);
+                continue;
+            }
+
+            Assignment assignment = mcq.getAssignment();
+            double percentage = (result.obtainedMarks() * 100.0) / assignment.getMaxMarks();
+
+            submissions.add(McqSubmission.builder()
+                    .mcqAssignment(mcq)
+                    .studentId(intake.getStudentId())
+                    .answers(packedAnswers)
+                    .totalMarks(assignment.getMaxMarks())
+                    .obtainedMarks(result.obtainedMarks())
+                    .percentage(percentage)
+                    .passed(percentage >= mcq.getPassingPercentage())
+                    .submittedAt(intake.getAcceptedAt())
+                    .timeTaken(intake.getTimeTaken())
+                    .correctCount(result.correctCount())
+                    .incorrectCount(result.incorrectCount())
+                    .correctnessBitmap(result.correctness())
+                    .build());
+            accepted.add(intake);
+
+            events.add(new NotificationEvent(
+                    assignment.getTeacherId(),
+                    null,
+                    "TEACHER",
+                    "IN_APP",
+                    "New MCQ submission",
+                    "A student submitted \"" + assignment.getTitle() + "\"."
+            ));
+        }
+
+        if (!submissions.isEmpty()) {
+            mcqSubmissionBatchWriter.insertAll(submissions, batchSize);
+            incrementCounters(submissions);
+        }
+        for (McqSubmissionIntake intake : accepted) {
+            intake.setStatus(McqIntakeStatus.COMPLETED);
+            intake.setProcessedAt(now);
+        }
+
+        return events;
+    }
+
+    /**
+     * One counter update per assignment in the claim; every stored MCQ
+     * submission is already graded, so it counts as evaluated too.
+     */
+    private void incrementCounters(List<McqSubmission> submissions) {
+        Map<Long, int[]> counters = new HashMap<>();
+        for (McqSubmission submission : submissions) {
+            int[] c = counters.computeIfAbsent(
+                    submission.getMcqAssignment().getAssignment().getId(), id -> new int[2]);
+            c[0]++;
+            if (Boolean.TRUE.equals(submission.getPassed())) {
+                c[1]++;
+            }
+        }
+        counters.forEach((assignmentId, c) ->
+                assignmentRepository.incrementCounters(assignmentId, c[0], c[0], c[1]));
+    }
+
+    /**
+     * Rejects a row whose submission was never stored and reopens the exam
+     * session it closed, with the submitted answers when they can be read.
+     */
+    private void rejectAndReopen(McqSubmissionIntake intake, String message, LocalDateTime now) {
+        reject(intake, message, now);
+
+        byte[] answers;
+        try {
+            answers = McqAnswerKey.packAnswers(objectMapper.readValue(
+                    intake.getAnswersJson(),
+                    new TypeReference<List<McqAnswerDto>>() {}));
+        } catch (Exception ex) {
+            answers = null; // keep what the session had flushed
+        }
+        studentMcqSessionService.reopenAfterRejection(intake.getMcqAssignmentId(), intake.getStudentId(), answers);
+    }
+
+    private void reject(McqSubmissionIntake intake, String message, LocalDateTime now) {
+        intake.setStatus(McqIntakeStatus.REJECTED);
+        intake.setMessage(message != null && message.length() > 255 ? message.substring(0, 255) : message);
+        intake.setProcessedAt(now);
+    }
+}
@@ -0,0 +1,21 @@
+package com.assignment.repository;
+
+/**
+ * Stored submission counters of one assignment next to the values counted
+ * from assignment_submissions / mcq_submissions.
+ */
+public interface AssignmentCounts {
+    Long getAssignmentId();
+    Integer getStoredSubmitted();
+    Integer getStoredEvaluated();
+    Integer getStoredPassed();
+    Long getSubmitted();
+    Long getEvaluated();
+    Long getPassed();
+
+    default boolean drifted() {
+        return getStoredSubmitted() != getSubmitted().intValue()
+                || getStoredEvaluated() != getEvaluated().intValue()
+                || getStoredPassed() != getPassed().intValue();
+    }
+}
@@ -6,9 +6,12 @@ import com.assignment.entity.AssignmentType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface AssignmentRepository extends JpaRepository<Assignment, Long> {
@@ -29,8 +32,169 @@ public interface AssignmentRepository extends JpaRepository<Assignment, Long> {
             Pageable pageable
     );
 
+    /**
+     * One seek page of a teacher's assignments, newest first. {@code titlePrefix}
+     * is a LIKE pattern ending in {@code %}, so the title index can be used; no
+     * COUNT query is issued.
+     */
+    @Query("""
+            SELECT a FROM Assignment a
+            WHERE a.teacherId = :teacherId
+              AND a.status <> com.assignment.entity.AssignmentStatus.DELETED
+              AND (:status IS NULL OR a.status = :status)
+              AND (:type IS NULL OR a.type = :type)
+              AND (:titlePrefix IS NULL OR a.title LIKE :titlePrefix ESCAPE '!')
+              AND (:afterCreatedAt IS NULL
+                   OR a.createdAt < :afterCreatedAt
+                   OR (a.createdAt = :afterCreatedAt AND a.id < :afterId))
+            ORDER BY a.createdAt DESC, a.id DESC
+            """)
+    List<Assignment> findTeacherAssignmentsAfter(
+            @Param("teacherId") Long teacherId,
+            @Param("titlePrefix") String titlePrefix,
+            @Param("type") AssignmentType type,
+            @Param("status") AssignmentStatus status,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+
+    @Query("""
+            SELECT COUNT(a) FROM Assignment a
+            WHERE a.teacherId = :teacherId
+              AND a.status <> com.assignment.entity.AssignmentStatus.DELETED
+              AND (:status IS NULL OR a.status = :status)
+              AND (:type IS NULL OR a.type = :type)
+              AND (:titlePrefix IS NULL OR a.title LIKE :titlePrefix ESCAPE '!')
+            """)
+    long countTeacherAssignments(
+            @Param("teacherId") Long teacherId,
+            @Param("titlePrefix") String titlePrefix,
+            @Param("type") AssignmentType type,
+            @Param("status") AssignmentStatus status
+    );
+
     List<Assignment> findByBatchIdInAndStatus(
             List<Long> batchIds,
             AssignmentStatus status
     );
+
+    /**
+     * Published assignments of the given batches joined with the student's
+     * submission of each, shared by the student queries below.
+     */
+    String STUDENT_ROWS = """
+            SELECT a.id AS assignmentId, a.batchId AS batchId, a.title AS title,
+                   a.description AS description, a.type AS type, a.maxMarks AS maxMarks,
+                   s.id AS submissionId, s.obtainedMarks AS submissionMarks,
+                   s.feedback AS feedback, s.evaluatedAt AS evaluatedAt,
+                   ms.id AS mcqSubmissionId, ms.obtainedMarks AS mcqObtainedMarks,
+                   ms.submittedAt AS mcqSubmittedAt, a.createdAt AS createdAt
+            FROM Assignment a
+            LEFT JOIN AssignmentSubmission s
+                   ON s.assignment = a AND s.studentId = :studentId
+            LEFT JOIN McqAssignment m
+                   ON m.assignment = a
+            LEFT JOIN McqSubmission ms
+                   ON ms.mcqAssignment = m AND ms.studentId = :studentId
+            WHERE a.batchId IN :batchIds
+              AND a.status = com.assignment.entity.AssignmentStatus.PUBLISHED
+            """;
+
+    @Query(STUDENT_ROWS)
+    List<StudentAssignmentRow> findPublishedForStudent(
+            @Param("batchIds") List<Long> batchIds,
+            @Param("studentId") Long studentId
+    );
+
+    /**
+     * One seek page of {@link #findPublishedForStudent}, optionally narrowed to
+     * one type and to submitted ({@code true}) or pending ({@code false})
+     * assignments. {@code pageable} must sort by createdAt and id in the
+     * direction given by {@code ascending}, which also picks the side of the
+     * (afterCreatedAt, afterId) cursor to continue from.
+     */
+    @Query(STUDENT_ROWS + """
+              AND (:type IS NULL OR a.type = :type)
+              AND (:submitted IS NULL
+                   OR (:submitted = TRUE AND (s.id IS NOT NULL OR ms.id IS NOT NULL))
+                   OR (:submitted = FALSE AND s.id IS NULL AND ms.id IS NULL))
+              AND (:afterCreatedAt IS NULL
+                   OR (:ascending = TRUE AND (a.createdAt > :afterCreatedAt
+                        OR (a.createdAt = :afterCreatedAt AND a.id > :afterId)))
+                   OR (:ascending = FALSE AND (a.createdAt < :afterCreatedAt
+                        OR (a.createdAt = :afterCreatedAt AND a.id < :afterId))))
+            """)
+    List<StudentAssignmentRow> findPublishedForStudentPage(
+            @Param("batchIds") List<Long> batchIds,
+            @Param("studentId") Long studentId,
+            @Param("type") AssignmentType type,
+            @Param("submitted") Boolean submitted,
+            @Param("ascending") boolean ascending,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE Assignment a
+            SET a.submittedCount = a.submittedCount + :submitted,
+                a.evaluatedCount = a.evaluatedCount + :evaluated,
+                a.passedCount = a.passedCount + :passed
+            WHERE a.id = :id
+            """)
+    int incrementCounters(@Param("id") Long id,
+                          @Param("submitted") int submitted,
+                          @Param("evaluated") int evaluated,
+                          @Param("passed") int passed);
+
+    /**
+     * Actual submission counts next to the stored counters, one keyset page of
+     * assignments at a time. An assignment has either text or MCQ submissions,
+     * so only one of the joins produces rows.
+     */
+    @Query("""
+            SELECT a.id AS assignmentId,
+                   a.submittedCount AS storedSubmitted,
+                   a.evaluatedCount AS storedEvaluated,
+                   a.passedCount AS storedPassed,
+                   COUNT(DISTINCT s.id) + COUNT(DISTINCT ms.id) AS submitted,
+                   COUNT(DISTINCT CASE WHEN s.evaluatedAt IS NOT NULL THEN s.id END)
+                       + COUNT(DISTINCT ms.id) AS evaluated,
+                   COUNT(DISTINCT CASE WHEN ms.passed = true THEN ms.id END) AS passed
+            FROM Assignment a
+            LEFT JOIN AssignmentSubmission s ON s.assignment = a
+            LEFT JOIN McqAssignment m ON m.assignment = a
+            LEFT JOIN McqSubmission ms ON ms.mcqAssignment = m
+            WHERE a.id > :afterId
+            GROUP BY a.id, a.submittedCount, a.evaluatedCount, a.passedCount
+            ORDER BY a.id
+            """)
+    List<AssignmentCounts> findCountsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    /**
+     * Overwrites the counters only if they still hold the values the counts were
+     * compared against; returns 0 when a concurrent increment got there first.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE Assignment a
+            SET a.submittedCount = :submitted,
+                a.evaluatedCount = :evaluated,
+                a.passedCount = :passed
+            WHERE a.id = :id
+              AND a.submittedCount = :storedSubmitted
+              AND a.evaluatedCount = :storedEvaluated
+              AND a.passedCount = :storedPassed
+            """)
+    int resetCounters(@Param("id") Long id,
+                      @Param("storedSubmitted") int storedSubmitted,
+                      @Param("storedEvaluated") int storedEvaluated,
+                      @Param("storedPassed") int storedPassed,
+                      @Param("submitted") int submitted,
+                      @Param("evaluated") int evaluated,
+                      @Param("passed") int passed);
 }
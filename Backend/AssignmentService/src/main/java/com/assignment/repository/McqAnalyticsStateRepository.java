@@ -0,0 +1,43 @@
+package com.assignment.repository;
+
+import com.assignment.entity.McqAnalyticsState;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface McqAnalyticsStateRepository extends JpaRepository<McqAnalyticsState, Long> {
+
+    /**
+     * Serialises counting for one assignment across instances.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM McqAnalyticsState a WHERE a.mcqAssignmentId = :mcqAssignmentId")
+    Optional<McqAnalyticsState> findForUpdate(@Param("mcqAssignmentId") Long mcqAssignmentId);
+
+    @Query("""
+            SELECT a.mcqAssignmentId FROM McqAnalyticsState a
+            WHERE a.status = com.assignment.entity.McqAnalyticsStatus.BUILDING
+            """)
+    List<Long> findBuildingIds(Pageable pageable);
+
+    @Modifying
+    @Query("""
+            UPDATE McqAnalyticsState a
+            SET a.status = com.assignment.entity.McqAnalyticsStatus.BUILDING
+            WHERE a.mcqAssignmentId = :mcqAssignmentId
+            """)
+    int markStale(@Param("mcqAssignmentId") Long mcqAssignmentId);
+
+    @Modifying
+    @Query("DELETE FROM McqAnalyticsState a WHERE a.mcqAssignmentId = :mcqAssignmentId")
+    int deleteByMcqAssignmentId(@Param("mcqAssignmentId") Long mcqAssignmentId);
+}
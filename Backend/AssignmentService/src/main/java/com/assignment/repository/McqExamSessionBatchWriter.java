@@ -0,0 +1,40 @@
+package com.assignment.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes buffered autosaves for many exam sessions with one JDBC batch.
+ * Sessions that are no longer ACTIVE are left untouched.
+ */
+@Repository
+@RequiredArgsConstructor
+public class McqExamSessionBatchWriter {
+
+    private static final String UPDATE_ANSWERS_SQL = """
+            UPDATE mcq_exam_sessions
+            SET answers = ?, last_saved_at = ?
+            WHERE id = ? AND status = 'ACTIVE'
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void updateAnswers(Map<String, byte[]> answersBySessionId, LocalDateTime savedAt) {
+        if (answersBySessionId.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<String, byte[]>> rows = List.copyOf(answersBySessionId.entrySet());
+        Timestamp timestamp = Timestamp.valueOf(savedAt);
+        jdbcTemplate.batchUpdate(UPDATE_ANSWERS_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setBytes(1, row.getValue());
+            ps.setTimestamp(2, timestamp);
+            ps.setString(3, row.getKey());
+        });
+    }
+}
@@ -0,0 +1,43 @@
+package com.assignment.repository;
+
+import com.assignment.entity.McqExamSession;
+import com.assignment.entity.McqExamSessionStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface McqExamSessionRepository extends JpaRepository<McqExamSession, String> {
+
+    Optional<McqExamSession> findByMcqAssignmentIdAndStudentId(Long mcqAssignmentId, Long studentId);
+
+    @Query("""
+            SELECT s.id FROM McqExamSession s
+            WHERE s.status = com.assignment.entity.McqExamSessionStatus.ACTIVE
+              AND s.deadline < :cutoff
+            ORDER BY s.deadline ASC
+            """)
+    List<String> findExpiredIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    /**
+     * Moves an ACTIVE session to its final status. Returns 0 when another
+     * request or instance finished it first.
+     */
+    @Modifying
+    @Query("""
+            UPDATE McqExamSession s
+            SET s.status = :status, s.finishedAt = :now
+            WHERE s.id = :id
+              AND s.status = com.assignment.entity.McqExamSessionStatus.ACTIVE
+            """)
+    int finish(@Param("id") String id,
+               @Param("status") McqExamSessionStatus status,
+               @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,86 @@
+package com.assignment.repository;
+
+import com.assignment.entity.McqQuestion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * JDBC batch insert for question banks. {@link McqQuestion} keeps its IDENTITY
+ * key; the driver rewrites each batch into a multi-row INSERT and MySQL assigns
+ * the ids, which are read back to write the {@code mcq_options} rows. A bank
+ * costs two round trips per {@link #BATCH_SIZE} questions.
+ */
+@Repository
+@RequiredArgsConstructor
+public class McqQuestionBatchWriter {
+
+    public static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_QUESTION_SQL = """
+            INSERT INTO mcq_questions
+                (mcq_assignment_id, question_number, question_text, marks, correct_option_mask)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_OPTION_SQL = """
+            INSERT INTO mcq_options (question_id, option_index, option_text)
+            VALUES (?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertAll(List<McqQuestion> questions) {
+        if (questions.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            try (PreparedStatement questionPs = con.prepareStatement(
+                         INSERT_QUESTION_SQL, Statement.RETURN_GENERATED_KEYS);
+                 PreparedStatement optionPs = con.prepareStatement(INSERT_OPTION_SQL)) {
+
+                for (int from = 0; from < questions.size(); from += BATCH_SIZE) {
+                    List<McqQuestion> chunk = questions.subList(from, Math.min(from + BATCH_SIZE, questions.size()));
+
+                    for (McqQuestion q : chunk) {
+                        questionPs.setLong(1, q.getMcqAssignment().getId());
+                        questionPs.setInt(2, q.getQuestionNumber());
+                        questionPs.setString(3, q.getQuestionText());
+                        questionPs.setInt(4, q.getMarks());
+                        questionPs.setLong(5, q.getCorrectOptionMask());
+                        questionPs.addBatch();
+                    }
+                    questionPs.executeBatch();
+
+                    try (ResultSet keys = questionPs.getGeneratedKeys()) {
+                        for (McqQuestion q : chunk) {
+                            if (!keys.next()) {
+                                throw new IllegalStateException("Missing generated key for MCQ question");
+                            }
+                            q.setId(keys.getLong(1));
+                        }
+                    }
+
+                    for (McqQuestion q : chunk) {
+                        List<String> options = q.getOptions();
+                        for (int i = 0; i < options.size(); i++) {
+                            optionPs.setLong(1, q.getId());
+                            optionPs.setInt(2, i);
+                            optionPs.setString(3, options.get(i));
+                            optionPs.addBatch();
+                        }
+                    }
+                    optionPs.executeBatch();
+                }
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,134 @@
+package com.assignment.repository;
+
+import com.assignment.entity.McqQuestion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC access to the staging tables of question imports
+ * ({@link com.assignment.entity.McqQuestionImportRow}). Chunks are written the
+ * same way {@link McqQuestionBatchWriter} writes a bank, and read back in
+ * {@code row_index} order to be copied into {@code mcq_questions}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class McqQuestionImportStaging {
+
+    private static final String INSERT_ROW_SQL = """
+            INSERT INTO mcq_question_import_rows
+                (import_id, row_index, question_text, correct_option_mask, staged_at)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    private static final String INSERT_OPTION_SQL = """
+            INSERT INTO mcq_question_import_options (row_id, option_index, option_text)
+            VALUES (?, ?, ?)
+            """;
+
+    private static final String SELECT_SQL = """
+            SELECT r.row_index, r.question_text, r.correct_option_mask, o.option_text
+            FROM mcq_question_import_rows r
+            JOIN mcq_question_import_options o ON o.row_id = r.id
+            WHERE r.import_id = ? AND r.row_index > ? AND r.row_index <= ?
+            ORDER BY r.row_index, o.option_index
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Stages {@code questions} as rows {@code firstRowIndex} onwards of the
+     * import. Their question numbers and marks are not kept.
+     */
+    public void stage(String importId, int firstRowIndex, List<McqQuestion> questions, LocalDateTime stagedAt) {
+        if (questions.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            try (PreparedStatement rowPs = con.prepareStatement(INSERT_ROW_SQL, Statement.RETURN_GENERATED_KEYS);
+                 PreparedStatement optionPs = con.prepareStatement(INSERT_OPTION_SQL)) {
+
+                int rowIndex = firstRowIndex;
+                for (McqQuestion q : questions) {
+                    rowPs.setString(1, importId);
+                    rowPs.setInt(2, rowIndex++);
+                    rowPs.setString(3, q.getQuestionText());
+                    rowPs.setLong(4, q.getCorrectOptionMask());
+                    rowPs.setTimestamp(5, Timestamp.valueOf(stagedAt));
+                    rowPs.addBatch();
+                }
+                rowPs.executeBatch();
+
+                try (ResultSet keys = rowPs.getGeneratedKeys()) {
+                    for (McqQuestion q : questions) {
+                        if (!keys.next()) {
+                            throw new IllegalStateException("Missing generated key for staged MCQ question");
+                        }
+                        long rowId = keys.getLong(1);
+                        List<String> options = q.getOptions();
+                        for (int i = 0; i < options.size(); i++) {
+                            optionPs.setLong(1, rowId);
+                            optionPs.setInt(2, i);
+                            optionPs.setString(3, options.get(i));
+                            optionPs.addBatch();
+                        }
+                    }
+                }
+                optionPs.executeBatch();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * @return the staged rows after {@code afterRowIndex}, at most {@code limit},
+     * with their row index as question number
+     */
+    public List<McqQuestion> read(String importId, int afterRowIndex, int limit) {
+        List<McqQuestion> questions = new ArrayList<>(limit);
+        jdbcTemplate.query(SELECT_SQL, rs -> {
+            int rowIndex = rs.getInt(1);
+            McqQuestion last = questions.isEmpty() ? null : questions.get(questions.size() - 1);
+            if (last == null || last.getQuestionNumber() != rowIndex) {
+                last = McqQuestion.builder()
+                        .questionNumber(rowIndex)
+                        .questionText(rs.getString(2))
+                        .correctOptionMask(rs.getLong(3))
+                        .build();
+                questions.add(last);
+            }
+            last.getOptions().add(rs.getString(4));
+        }, importId, afterRowIndex, afterRowIndex + limit);
+        return questions;
+    }
+
+    public void delete(String importId) {
+        jdbcTemplate.update("""
+                DELETE FROM mcq_question_import_options
+                WHERE row_id IN (SELECT id FROM mcq_question_import_rows WHERE import_id = ?)
+                """, importId);
+        jdbcTemplate.update("DELETE FROM mcq_question_import_rows WHERE import_id = ?", importId);
+    }
+
+    /**
+     * Purges imports that were abandoned without cleaning up (instance crash).
+     */
+    public void deleteStagedBefore(LocalDateTime stagedBefore) {
+        Timestamp before = Timestamp.valueOf(stagedBefore);
+        jdbcTemplate.update("""
+                DELETE FROM mcq_question_import_options
+                WHERE row_id IN (SELECT id FROM mcq_question_import_rows WHERE staged_at < ?)
+                """, before);
+        jdbcTemplate.update("DELETE FROM mcq_question_import_rows WHERE staged_at < ?", before);
+    }
+}
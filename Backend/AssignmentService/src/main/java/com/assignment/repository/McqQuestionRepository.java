@@ -1,7 +1,11 @@
 package com.assignment.repository;
 
 import com.assignment.entity.McqQuestion;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,7 +13,24 @@ import java.util.List;
 @Repository
 public interface McqQuestionRepository extends JpaRepository<McqQuestion, Long> {
 
+    @EntityGraph(attributePaths = "options")
     List<McqQuestion> findByMcqAssignment_IdOrderByQuestionNumberAsc(Long mcqAssignmentId);
 
-    void deleteByMcqAssignment_Id(Long mcqAssignmentId);
-}
\ No newline at end of file
+    @Modifying
+    @Query(value = """
+            DELETE FROM mcq_options
+            WHERE question_id IN (SELECT id FROM mcq_questions WHERE mcq_assignment_id = :mcqAssignmentId)
+            """, nativeQuery = true)
+    int deleteOptionsByMcqAssignmentId(@Param("mcqAssignmentId") Long mcqAssignmentId);
+
+    @Modifying
+    @Query("DELETE FROM McqQuestion q WHERE q.mcqAssignment.id = :mcqAssignmentId")
+    int deleteAllByMcqAssignmentId(@Param("mcqAssignmentId") Long mcqAssignmentId);
+
+    @Query("SELECT COALESCE(MAX(q.questionNumber), 0) FROM McqQuestion q WHERE q.mcqAssignment.id = :mcqAssignmentId")
+    int findMaxQuestionNumber(@Param("mcqAssignmentId") Long mcqAssignmentId);
+
+    @Modifying
+    @Query("UPDATE McqQuestion q SET q.marks = :marks WHERE q.mcqAssignment.id = :mcqAssignmentId")
+    int updateMarksByMcqAssignmentId(@Param("mcqAssignmentId") Long mcqAssignmentId, @Param("marks") int marks);
+}
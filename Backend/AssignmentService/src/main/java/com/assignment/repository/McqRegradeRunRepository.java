@@ -0,0 +1,149 @@
+package com.assignment.repository;
+
+import com.assignment.entity.McqRegradeRun;
+import com.assignment.entity.McqRegradeState;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface McqRegradeRunRepository extends JpaRepository<McqRegradeRun, Long> {
+
+    @Modifying
+    @Query("""
+            UPDATE McqRegradeRun r
+            SET r.rerunRequested = true
+            WHERE r.assignmentId = :assignmentId
+              AND r.state = com.assignment.entity.McqRegradeState.RUNNING
+            """)
+    int requestRerun(@Param("assignmentId") Long assignmentId);
+
+    @Modifying
+    @Query("""
+            UPDATE McqRegradeRun r
+            SET r.state = com.assignment.entity.McqRegradeState.QUEUED,
+                r.rerunRequested = false,
+                r.requestedAt = :now
+            WHERE r.assignmentId = :assignmentId
+              AND r.state IN (com.assignment.entity.McqRegradeState.COMPLETED,
+                              com.assignment.entity.McqRegradeState.FAILED)
+            """)
+    int requeue(@Param("assignmentId") Long assignmentId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            UPDATE McqRegradeRun r
+            SET r.state = com.assignment.entity.McqRegradeState.QUEUED,
+                r.rerunRequested = false,
+                r.requestedAt = :now
+            WHERE r.assignmentId = :assignmentId
+              AND r.state IN (com.assignment.entity.McqRegradeState.COMPLETED,
+                              com.assignment.entity.McqRegradeState.FAILED)
+              AND r.rerunRequested = true
+            """)
+    int requeueRequestedRerun(@Param("assignmentId") Long assignmentId, @Param("now") LocalDateTime now);
+
+    /**
+     * Takes the run of a queued assignment, or of one whose owner stopped
+     * sending heartbeats. At most one instance gets a row back.
+     */
+    @Modifying
+    @Query("""
+            UPDATE McqRegradeRun r
+            SET r.state = com.assignment.entity.McqRegradeState.RUNNING,
+                r.claimToken = :token,
+                r.heartbeatAt = :now,
+                r.rerunRequested = false,
+                r.totalSubmissions = 0,
+                r.processed = 0,
+                r.updated = 0,
+                r.failed = 0,
+                r.startedAt = :now,
+                r.finishedAt = NULL,
+                r.durationMs = NULL,
+                r.message = NULL
+            WHERE r.assignmentId = :assignmentId
+              AND (r.state = com.assignment.entity.McqRegradeState.QUEUED
+                   OR (r.state = com.assignment.entity.McqRegradeState.RUNNING
+                       AND r.heartbeatAt < :staleBefore))
+            """)
+    int claim(@Param("assignmentId") Long assignmentId,
+              @Param("token") String token,
+              @Param("now") LocalDateTime now,
+              @Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * Records progress; returns 0 once the claim has been taken over, so the
+     * caller's transaction can roll back instead of writing twice.
+     */
+    @Modifying
+    @Query("""
+            UPDATE McqRegradeRun r
+            SET r.heartbeatAt = :now,
+                r.totalSubmissions = :total,
+                r.processed = :processed,
+                r.updated = :updated,
+                r.failed = :failed
+            WHERE r.assignmentId = :assignmentId
+              AND r.claimToken = :token
+              AND r.state = com.assignment.entity.McqRegradeState.RUNNING
+            """)
+    int heartbeat(@Param("assignmentId") Long assignmentId,
+                  @Param("token") String token,
+                  @Param("total") long total,
+                  @Param("processed") long processed,
+                  @Param("updated") long updated,
+                  @Param("failed") long failed,
+                  @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            UPDATE McqRegradeRun r
+            SET r.state = :state,
+                r.claimToken = NULL,
+                r.totalSubmissions = :total,
+                r.processed = :processed,
+                r.updated = :updated,
+                r.failed = :failed,
+                r.finishedAt = :now,
+                r.durationMs = :durationMs,
+                r.message = :message
+            WHERE r.assignmentId = :assignmentId
+              AND r.claimToken = :token
+              AND r.state = com.assignment.entity.McqRegradeState.RUNNING
+            """)
+    int finish(@Param("assignmentId") Long assignmentId,
+               @Param("token") String token,
+               @Param("state") McqRegradeState state,
+               @Param("total") long total,
+               @Param("processed") long processed,
+               @Param("updated") long updated,
+               @Param("failed") long failed,
+               @Param("durationMs") long durationMs,
+               @Param("message") String message,
+               @Param("now") LocalDateTime now);
+
+    @Query("""
+            SELECT r.assignmentId FROM McqRegradeRun r
+            WHERE r.state = com.assignment.entity.McqRegradeState.QUEUED
+               OR (r.state = com.assignment.entity.McqRegradeState.RUNNING
+                   AND r.heartbeatAt < :staleBefore)
+            ORDER BY r.requestedAt ASC
+            """)
+    List<Long> findRunnableIds(@Param("staleBefore") LocalDateTime staleBefore, Pageable pageable);
+
+    @Modifying
+    @Query("""
+            DELETE FROM McqRegradeRun r
+            WHERE r.state IN (com.assignment.entity.McqRegradeState.COMPLETED,
+                              com.assignment.entity.McqRegradeState.FAILED)
+              AND r.finishedAt < :finishedBefore
+            """)
+    int deleteFinishedBefore(@Param("finishedBefore") LocalDateTime finishedBefore);
+}
@@ -0,0 +1,22 @@
+package com.assignment.repository;
+
+/**
+ * Minimal projection of an MCQ submission used when regrading, so pages do
+ * not hydrate full entities or their associations.
+ */
+public interface McqSubmissionAnswers {
+
+    Long getId();
+
+    Long getStudentId();
+
+    byte[] getAnswers();
+
+    Integer getTotalMarks();
+
+    Integer getObtainedMarks();
+
+    Boolean getPassed();
+
+    Integer getCorrectCount();
+}
@@ -0,0 +1,74 @@
+package com.assignment.repository;
+
+import com.assignment.entity.McqSubmission;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * JDBC batch insert for {@link McqSubmission}. The entity uses IDENTITY keys,
+ * which stops Hibernate from batching, so bulk paths write through here.
+ * With {@code rewriteBatchedStatements=true} the driver sends multi-row INSERTs.
+ */
+@Repository
+@RequiredArgsConstructor
+public class McqSubmissionBatchWriter {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO mcq_submissions
+                (mcq_assignment_id, student_id, answers, total_marks, obtained_marks,
+                 percentage, passed, submitted_at, time_taken,
+                 correct_count, incorrect_count, correctness_bitmap)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String UPDATE_RESULT_SQL = """
+            UPDATE mcq_submissions
+            SET total_marks = ?, obtained_marks = ?, percentage = ?, passed = ?,
+                correct_count = ?, incorrect_count = ?, correctness_bitmap = ?
+            WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertAll(List<McqSubmission> submissions, int batchSize) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, submissions, batchSize, (ps, s) -> {
+            ps.setLong(1, s.getMcqAssignment().getId());
+            ps.setLong(2, s.getStudentId());
+            ps.setBytes(3, s.getAnswers());
+            ps.setInt(4, s.getTotalMarks());
+            ps.setInt(5, s.getObtainedMarks());
+            ps.setDouble(6, s.getPercentage());
+            ps.setBoolean(7, s.getPassed());
+            ps.setTimestamp(8, Timestamp.valueOf(s.getSubmittedAt()));
+            if (s.getTimeTaken() != null) {
+                ps.setInt(9, s.getTimeTaken());
+            } else {
+                ps.setNull(9, Types.INTEGER);
+            }
+            ps.setInt(10, s.getCorrectCount());
+            ps.setInt(11, s.getIncorrectCount());
+            ps.setBytes(12, s.getCorrectnessBitmap());
+        });
+    }
+
+    /**
+     * Rewrites the grading outcome of existing submissions, matched by id.
+     */
+    public void updateResults(List<McqSubmission> submissions, int batchSize) {
+        jdbcTemplate.batchUpdate(UPDATE_RESULT_SQL, submissions, batchSize, (ps, s) -> {
+            ps.setInt(1, s.getTotalMarks());
+            ps.setInt(2, s.getObtainedMarks());
+            ps.setDouble(3, s.getPercentage());
+            ps.setBoolean(4, s.getPassed());
+            ps.setInt(5, s.getCorrectCount());
+            ps.setInt(6, s.getIncorrectCount());
+            ps.setBytes(7, s.getCorrectnessBitmap());
+            ps.setLong(8, s.getId());
+        });
+    }
+}
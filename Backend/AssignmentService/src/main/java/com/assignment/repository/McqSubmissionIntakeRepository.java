@@ -0,0 +1,102 @@
+package com.assignment.repository;
+
+import com.assignment.entity.McqIntakeStatus;
+import com.assignment.entity.McqSubmissionIntake;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface McqSubmissionIntakeRepository extends JpaRepository<McqSubmissionIntake, String> {
+
+    boolean existsByMcqAssignmentIdAndStudentIdAndStatusNot(
+            Long mcqAssignmentId, Long studentId, McqIntakeStatus status);
+
+    /**
+     * Drops a rejected intake row so the student can submit again under the
+     * unique (mcq_assignment_id, student_id).
+     */
+    @Modifying
+    @Query("""
+            DELETE FROM McqSubmissionIntake i
+            WHERE i.mcqAssignmentId = :mcqAssignmentId
+              AND i.studentId = :studentId
+              AND i.status = com.assignment.entity.McqIntakeStatus.REJECTED
+            """)
+    int deleteRejected(@Param("mcqAssignmentId") Long mcqAssignmentId,
+                       @Param("studentId") Long studentId);
+
+    List<McqSubmissionIntake> findByClaimToken(String claimToken);
+
+    Optional<McqSubmissionIntake> findByIdAndClaimToken(String id, String claimToken);
+
+    @Query("""
+            SELECT i.id FROM McqSubmissionIntake i
+            WHERE i.status = com.assignment.entity.McqIntakeStatus.PENDING
+              AND (i.nextAttemptAt IS NULL OR i.nextAttemptAt <= :now)
+            ORDER BY i.acceptedAt ASC
+            """)
+    List<String> findPendingIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("""
+            UPDATE McqSubmissionIntake i
+            SET i.status = com.assignment.entity.McqIntakeStatus.PROCESSING,
+                i.claimToken = :token,
+                i.claimedAt = :now,
+                i.attempts = i.attempts + 1
+            WHERE i.id IN :ids
+              AND i.status = com.assignment.entity.McqIntakeStatus.PENDING
+            """)
+    int claim(@Param("ids") List<String> ids,
+              @Param("token") String token,
+              @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            UPDATE McqSubmissionIntake i
+            SET i.status = com.assignment.entity.McqIntakeStatus.PENDING,
+                i.claimToken = NULL,
+                i.claimedAt = NULL
+            WHERE i.status = com.assignment.entity.McqIntakeStatus.PROCESSING
+              AND i.claimToken = :token
+            """)
+    int releaseClaim(@Param("token") String token);
+
+    /**
+     * Hands the rows of a claim back after a failure that was not their own
+     * (database or answer-key outage): the claim is not counted as an attempt
+     * and the rows wait until {@code notBefore}.
+     */
+    @Modifying
+    @Query("""
+            UPDATE McqSubmissionIntake i
+            SET i.status = com.assignment.entity.McqIntakeStatus.PENDING,
+                i.claimToken = NULL,
+                i.claimedAt = NULL,
+                i.attempts = i.attempts - 1,
+                i.nextAttemptAt = :notBefore
+            WHERE i.status = com.assignment.entity.McqIntakeStatus.PROCESSING
+              AND i.claimToken = :token
+            """)
+    int releaseForRetry(@Param("token") String token,
+                        @Param("notBefore") LocalDateTime notBefore);
+
+    @Modifying
+    @Query("""
+            UPDATE McqSubmissionIntake i
+            SET i.status = com.assignment.entity.McqIntakeStatus.PENDING,
+                i.claimToken = NULL,
+                i.claimedAt = NULL
+            WHERE i.status = com.assignment.entity.McqIntakeStatus.PROCESSING
+              AND i.claimedAt < :claimedBefore
+            """)
+    int releaseStaleClaims(@Param("claimedBefore") LocalDateTime claimedBefore);
+}
@@ -1,7 +1,11 @@
 package com.assignment.repository;
 
 import com.assignment.entity.McqSubmission;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -17,4 +21,109 @@ public interface McqSubmissionRepository extends JpaRepository<McqSubmission, Lo
     List<McqSubmission> findByMcqAssignment_IdOrderBySubmittedAtDesc(Long mcqAssignmentId);
 
     long countByMcqAssignment_Assignment_Id(Long assignmentId);
+
+    @Query("""
+            SELECT s FROM McqSubmission s
+            JOIN FETCH s.mcqAssignment m
+            JOIN FETCH m.assignment a
+            WHERE a.id = :assignmentId
+              AND s.studentId = :studentId
+            """)
+    Optional<McqSubmission> findResultByAssignmentIdAndStudentId(
+            @Param("assignmentId") Long assignmentId,
+            @Param("studentId") Long studentId
+    );
+
+    @Query("""
+            SELECT s FROM McqSubmission s
+            WHERE s.correctCount IS NULL
+              AND s.answers IS NOT NULL
+              AND s.id > :afterId
+            ORDER BY s.id ASC
+            """)
+    List<McqSubmission> findUngradedAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    boolean existsByCorrectCountIsNull();
+
+    @Query("""
+            SELECT s.studentId FROM McqSubmission s
+            WHERE s.mcqAssignment.id = :mcqAssignmentId
+              AND s.studentId IN :studentIds
+            """)
+    List<Long> findSubmittedStudentIds(
+            @Param("mcqAssignmentId") Long mcqAssignmentId,
+            @Param("studentIds") List<Long> studentIds
+    );
+
+    @Query("""
+            SELECT s.id AS id, s.studentId AS studentId, s.answers AS answers,
+                   s.totalMarks AS totalMarks, s.obtainedMarks AS obtainedMarks,
+                   s.passed AS passed, s.correctCount AS correctCount
+            FROM McqSubmission s
+            WHERE s.mcqAssignment.id = :mcqAssignmentId
+              AND s.id > :afterId
+            ORDER BY s.id ASC
+            """)
+    List<McqSubmissionAnswers> findAnswersAfter(
+            @Param("mcqAssignmentId") Long mcqAssignmentId,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+
+    long countByMcqAssignment_Id(Long mcqAssignmentId);
+
+    @Query("""
+            SELECT DISTINCT s.mcqAssignment.id FROM McqSubmission s
+            WHERE s.analyticsGeneration IS NULL
+              AND s.answers IS NOT NULL
+            """)
+    List<Long> findMcqAssignmentIdsWithUncountedAnalytics(Pageable pageable);
+
+    /**
+     * Submissions added since the analytics were built; served by idx_mcq_sub_analytics.
+     */
+    @Query("""
+            SELECT s.id AS id, s.studentId AS studentId, s.answers AS answers,
+                   s.totalMarks AS totalMarks, s.obtainedMarks AS obtainedMarks,
+                   s.passed AS passed, s.correctCount AS correctCount
+            FROM McqSubmission s
+            WHERE s.analyticsGeneration IS NULL
+              AND s.mcqAssignment.id = :mcqAssignmentId
+              AND s.answers IS NOT NULL
+            ORDER BY s.id ASC
+            """)
+    List<McqSubmissionAnswers> findAnswersNotCounted(
+            @Param("mcqAssignmentId") Long mcqAssignmentId,
+            Pageable pageable
+    );
+
+    /**
+     * Keyset scan used while the analytics of an assignment are rebuilt.
+     */
+    @Query("""
+            SELECT s.id AS id, s.studentId AS studentId, s.answers AS answers,
+                   s.totalMarks AS totalMarks, s.obtainedMarks AS obtainedMarks,
+                   s.passed AS passed, s.correctCount AS correctCount
+            FROM McqSubmission s
+            WHERE s.mcqAssignment.id = :mcqAssignmentId
+              AND s.id > :afterId
+              AND s.answers IS NOT NULL
+              AND (s.analyticsGeneration IS NULL OR s.analyticsGeneration <> :generation)
+            ORDER BY s.id ASC
+            """)
+    List<McqSubmissionAnswers> findAnswersNotCountedAfter(
+            @Param("mcqAssignmentId") Long mcqAssignmentId,
+            @Param("generation") int generation,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+
+    @Modifying
+    @Query("""
+            UPDATE McqSubmission s
+            SET s.analyticsGeneration = :generation
+            WHERE s.id IN :ids
+              AND (s.analyticsGeneration IS NULL OR s.analyticsGeneration <> :generation)
+            """)
+    int markCountedInAnalytics(@Param("ids") List<Long> ids, @Param("generation") int generation);
 }
@@ -0,0 +1,41 @@
+package com.assignment.repository;
+
+import com.assignment.entity.AssignmentType;
+
+import java.time.LocalDateTime;
+
+/**
+ * A published assignment joined with one student's submission. The submission
+ * columns come from assignment_submissions for TEXT/FILE assignments and from
+ * mcq_submissions for MCQ ones; both are null when the student has not submitted.
+ */
+public interface StudentAssignmentRow {
+
+    Long getAssignmentId();
+
+    Long getBatchId();
+
+    String getTitle();
+
+    String getDescription();
+
+    AssignmentType getType();
+
+    Integer getMaxMarks();
+
+    Long getSubmissionId();
+
+    Integer getSubmissionMarks();
+
+    String getFeedback();
+
+    LocalDateTime getEvaluatedAt();
+
+    Long getMcqSubmissionId();
+
+    Integer getMcqObtainedMarks();
+
+    LocalDateTime getMcqSubmittedAt();
+
+    LocalDateTime getCreatedAt();
+}
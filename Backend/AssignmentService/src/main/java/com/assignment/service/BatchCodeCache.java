@@ -0,0 +1,81 @@
+package com.assignment.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-instance cache of batch codes. Codes never change after a batch is
+ * created, so entries live long; misses are fetched with one bulk call.
+ * Batches the call does not return (unknown, or BatchService unavailable) get
+ * the {@code BATCH-<id>} placeholder, which is not cached.
+ */
+@Component
+public class BatchCodeCache {
+
+    static final int CHUNK_SIZE = 500;
+
+    private static final String CACHE_NAME = "batchCode";
+
+    private final BatchServiceGateway batchServiceGateway;
+    private final Cache<Long, String> codes;
+
+    public BatchCodeCache(
+            BatchServiceGateway batchServiceGateway,
+            MeterRegistry meterRegistry,
+            @Value("${assignment.batch-code-cache.max-size:10000}") long maxSize,
+            @Value("${assignment.batch-code-cache.ttl:24h}") Duration ttl) {
+        this.batchServiceGateway = batchServiceGateway;
+        this.codes = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, codes, CACHE_NAME);
+    }
+
+    public String get(Long batchId) {
+        return getAll(List.of(batchId)).get(batchId);
+    }
+
+    /**
+     * @return a code for every requested batch id
+     */
+    public Map<Long, String> getAll(Collection<Long> batchIds) {
+        Map<Long, String> result = new HashMap<>(codes.getAllPresent(batchIds));
+
+        List<Long> missing = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(batchIds)) {
+            if (id != null && !result.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+
+        for (int from = 0; from < missing.size(); from += CHUNK_SIZE) {
+            Map<Long, String> fetched = batchServiceGateway.getBatchCodes(
+                    missing.subList(from, Math.min(from + CHUNK_SIZE, missing.size())));
+            if (fetched == null) {
+                continue;
+            }
+            codes.putAll(fetched);
+            result.putAll(fetched);
+        }
+
+        for (Long id : missing) {
+            result.putIfAbsent(id, "BATCH-" + id);
+        }
+        return result;
+    }
+}
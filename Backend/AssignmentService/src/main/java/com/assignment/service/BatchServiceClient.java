@@ -3,8 +3,11 @@ package com.assignment.service;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.List;
+import java.util.Map;
+
 @FeignClient(name = "BATCHSERVICE")
 public interface BatchServiceClient {
 
@@ -28,4 +31,9 @@ public interface BatchServiceClient {
     String getBatchCode(
             @PathVariable Long batchId
     );
+
+    @GetMapping("/internal/batches/codes")
+    Map<Long, String> getBatchCodes(
+            @RequestParam("ids") List<Long> ids
+    );
 }
@@ -7,6 +7,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -38,6 +39,12 @@ public class BatchServiceGateway {
         return batchServiceClient.getBatchCode(batchId);
     }
 
+    @CircuitBreaker(name = "batchService", fallbackMethod = "getBatchCodesFallback")
+    @Retry(name = "batchService")
+    public Map<Long, String> getBatchCodes(List<Long> batchIds) {
+        return batchServiceClient.getBatchCodes(batchIds);
+    }
+
     private Boolean validateTeacherBatchFallback(Long teacherId, Long batchId, Throwable ex) {
         throw new ServiceUnavailableException("Batch service unavailable. Please try again.");
     }
@@ -53,4 +60,8 @@ public class BatchServiceGateway {
     private String getBatchCodeFallback(Long batchId, Throwable ex) {
         return "BATCH-" + batchId;
     }
+
+    private Map<Long, String> getBatchCodesFallback(List<Long> batchIds, Throwable ex) {
+        return Map.of();
+    }
 }
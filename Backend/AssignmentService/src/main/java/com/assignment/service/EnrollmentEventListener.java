@@ -0,0 +1,43 @@
+package com.assignment.service;
+
+import com.assignment.dto.EnrollmentEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Applies BatchService enrollment events to this instance's caches. Every
+ * instance holds its own membership cache, so each one consumes the topic in
+ * its own consumer group, named after the instance so it survives restarts.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EnrollmentEventListener {
+
+    static final String ENROLLED = "ENROLLED";
+
+    private final StudentBatchMembershipCache membershipCache;
+    private final StudentAssignmentCache studentAssignmentCache;
+
+    @KafkaListener(
+            topics = "${batch.enrollment.kafka.topic}",
+            groupId = "${batch.enrollment.kafka.group-id}")
+    public void handle(EnrollmentEvent event) {
+        try {
+            if (event.getStudentId() == null || event.getBatchId() == null) {
+                return;
+            }
+            if (ENROLLED.equals(event.getType())) {
+                membershipCache.onEnrolled(event.getStudentId(), event.getBatchId());
+            } else {
+                membershipCache.evict(event.getStudentId());
+            }
+            // the cached list was built for the old set of batches
+            studentAssignmentCache.evictStudent(event.getStudentId());
+        } catch (Exception ex) {
+            log.error("Failed to handle enrollment event: {}", ex.getMessage(), ex);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.assignment.service;
+
+import com.assignment.dto.McqAnalyticsDto;
+import com.assignment.dto.McqQuestionAnalyticsDto;
+import com.assignment.dto.McqScoreBucketDto;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-question statistics for one MCQ answer key, held as one flat array of
+ * counters so it can be stored as a single value and added to in place.
+ *
+ * <p>The discrimination index is the point-biserial correlation between a
+ * question being answered correctly and the total score, which only needs
+ * running sums.
+ */
+final class McqAnalytics {
+
+    static final int HISTOGRAM_BUCKETS = 10;
+
+    private static final int SUBMISSIONS = 0;
+    private static final int PASSED = 1;
+    private static final int SCORE_SUM = 2;
+    private static final int SCORE_SQUARE_SUM = 3;
+    private static final int HISTOGRAM = 4;
+
+    // per question: correct, score sum of those correct, unanswered, invalid, then one per option
+    private static final int CORRECT = 0;
+    private static final int CORRECT_SCORE_SUM = 1;
+    private static final int UNANSWERED = 2;
+    private static final int INVALID = 3;
+    private static final int OPTIONS = 4;
+
+    private final McqAnswerKey key;
+    private final int maxMarks;
+    private final int passingPercentage;
+    private final int[] slotOffsets;
+    private final long[] counters;
+
+    McqAnalytics(McqAnswerKey key, int maxMarks, int passingPercentage) {
+        this.key = key;
+        this.maxMarks = maxMarks;
+        this.passingPercentage = passingPercentage;
+
+        int size = key.questionCount();
+        this.slotOffsets = new int[size];
+        int offset = HISTOGRAM + HISTOGRAM_BUCKETS;
+        for (int slot = 0; slot < size; slot++) {
+            slotOffsets[slot] = offset;
+            offset += OPTIONS + key.optionCount(slot);
+        }
+        this.counters = new long[offset];
+    }
+
+    /**
+     * Restores counters written by {@link #encode()} for the same key.
+     */
+    static McqAnalytics decode(McqAnswerKey key, int maxMarks, int passingPercentage, byte[] encoded) {
+        McqAnalytics analytics = new McqAnalytics(key, maxMarks, passingPercentage);
+        if (encoded == null || encoded.length != analytics.counters.length * Long.BYTES) {
+            throw new IllegalStateException("Stored MCQ analytics do not match the answer key");
+        }
+        ByteBuffer.wrap(encoded).asLongBuffer().get(analytics.counters);
+        return analytics;
+    }
+
+    byte[] encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(counters.length * Long.BYTES);
+        buffer.asLongBuffer().put(counters);
+        return buffer.array();
+    }
+
+    /**
+     * Adds one graded submission.
+     */
+    void record(byte[] packedAnswers, McqAnswerKey.Result result) {
+        long score = result.obtainedMarks();
+        double percentage = maxMarks > 0 ? score * 100.0 / maxMarks : 0.0;
+
+        counters[SUBMISSIONS]++;
+        counters[SCORE_SUM] += score;
+        counters[SCORE_SQUARE_SUM] += score * score;
+        counters[HISTOGRAM + bucketOf(percentage)]++;
+        if (percentage >= passingPercentage) {
+            counters[PASSED]++;
+        }
+
+        byte[] correctness = result.correctness();
+        for (int slot = 0; slot < slotOffsets.length; slot++) {
+            int base = slotOffsets[slot];
+            int selected = key.selectedOption(packedAnswers, slot);
+            if (selected == McqAnswerKey.NOT_ANSWERED) {
+                counters[base + UNANSWERED]++;
+            } else if (selected == McqAnswerKey.NOT_AN_OPTION) {
+                counters[base + INVALID]++;
+            } else {
+                counters[base + OPTIONS + selected]++;
+            }
+
+            if ((correctness[slot >>> 3] & (1 << (slot & 7))) != 0) {
+                counters[base + CORRECT]++;
+                counters[base + CORRECT_SCORE_SUM] += score;
+            }
+        }
+    }
+
+    McqAnalyticsDto toDto(Long assignmentId) {
+        long n = counters[SUBMISSIONS];
+        long s = counters[SCORE_SUM];
+        long ss = counters[SCORE_SQUARE_SUM];
+        double mean = n > 0 ? (double) s / n : 0.0;
+        double sd = n > 0 ? Math.sqrt(Math.max(0.0, (double) ss / n - mean * mean)) : 0.0;
+
+        List<McqScoreBucketDto> buckets = new ArrayList<>(HISTOGRAM_BUCKETS);
+        int width = 100 / HISTOGRAM_BUCKETS;
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            buckets.add(new McqScoreBucketDto(i * width, (i + 1) * width, counters[HISTOGRAM + i]));
+        }
+
+        List<McqQuestionAnalyticsDto> questions = new ArrayList<>(slotOffsets.length);
+        for (int slot = 0; slot < slotOffsets.length; slot++) {
+            int base = slotOffsets[slot];
+            long c = counters[base + CORRECT];
+
+            List<Long> options = new ArrayList<>(key.optionCount(slot));
+            for (int option = 0; option < key.optionCount(slot); option++) {
+                options.add(counters[base + OPTIONS + option]);
+            }
+
+            Double discrimination = null;
+            if (n > 1 && c > 0 && c < n && sd > 0) {
+                long cs = counters[base + CORRECT_SCORE_SUM];
+                double p = (double) c / n;
+                double meanCorrect = (double) cs / c;
+                double meanIncorrect = (double) (s - cs) / (n - c);
+                discrimination = (meanCorrect - meanIncorrect) / sd * Math.sqrt(p * (1 - p));
+            }
+
+            questions.add(McqQuestionAnalyticsDto.builder()
+                    .questionNumber(key.questionNumber(slot))
+                    .correctCount(c)
+                    .percentCorrect(n > 0 ? c * 100.0 / n : 0.0)
+                    .optionCounts(options)
+                    .unansweredCount(counters[base + UNANSWERED])
+                    .invalidCount(counters[base + INVALID])
+                    .discriminationIndex(discrimination)
+                    .build());
+        }
+
+        long passCount = counters[PASSED];
+        return McqAnalyticsDto.builder()
+                .assignmentId(assignmentId)
+                .submissionCount(n)
+                .passCount(passCount)
+                .passRate(n > 0 ? passCount * 100.0 / n : 0.0)
+                .averagePercentage(n > 0 && maxMarks > 0 ? s * 100.0 / ((double) n * maxMarks) : 0.0)
+                .scoreHistogram(buckets)
+                .questions(questions)
+                .build();
+    }
+
+    private static int bucketOf(double percentage) {
+        int bucket = (int) (percentage / (100.0 / HISTOGRAM_BUCKETS));
+        return Math.max(0, Math.min(HISTOGRAM_BUCKETS - 1, bucket));
+    }
+}
@@ -0,0 +1,187 @@
+package com.assignment.service;
+
+import com.assignment.dto.McqAnalyticsDto;
+import com.assignment.entity.McqAnalyticsState;
+import com.assignment.entity.McqAnalyticsStatus;
+import com.assignment.entity.McqAssignment;
+import com.assignment.repository.McqAnalyticsStateRepository;
+import com.assignment.repository.McqAssignmentRepository;
+import com.assignment.repository.McqSubmissionAnswers;
+import com.assignment.repository.McqSubmissionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * MCQ analytics persisted in {@code mcq_analytics}, one row per assignment,
+ * shared by every instance. Reading only decodes that row; it never scans
+ * submissions.
+ *
+ * <p>Submissions are added by {@link #countPage}, called from the analytics
+ * job: under the row lock, a page of uncounted submissions is graded, added
+ * to the counters and stamped with the row's generation in one transaction,
+ * so each submission is counted exactly once whichever instance gets there
+ * first. When the answer key, max marks or passing percentage change, the
+ * generation is bumped and the counters are rebuilt by one keyset scan.
+ */
+@Slf4j
+@Component
+public class McqAnalyticsStore {
+
+    private final McqAnalyticsStateRepository stateRepository;
+    private final McqAssignmentRepository mcqAssignmentRepository;
+    private final McqSubmissionRepository mcqSubmissionRepository;
+    private final McqAnswerKeyCache mcqAnswerKeyCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int pageSize;
+
+    public McqAnalyticsStore(
+            McqAnalyticsStateRepository stateRepository,
+            McqAssignmentRepository mcqAssignmentRepository,
+            McqSubmissionRepository mcqSubmissionRepository,
+            McqAnswerKeyCache mcqAnswerKeyCache,
+            TransactionTemplate transactionTemplate,
+            @Value("${assignment.mcq.analytics.page-size:1000}") int pageSize) {
+        this.stateRepository = stateRepository;
+        this.mcqAssignmentRepository = mcqAssignmentRepository;
+        this.mcqSubmissionRepository = mcqSubmissionRepository;
+        this.mcqAnswerKeyCache = mcqAnswerKeyCache;
+        this.transactionTemplate = transactionTemplate;
+        this.pageSize = pageSize;
+    }
+
+    public McqAnalyticsDto get(Long assignmentId, Long mcqAssignmentId, int maxMarks, int passingPercentage) {
+        McqAnswerKey key = mcqAnswerKeyCache.get(mcqAssignmentId);
+        McqAnalyticsState state = stateRepository.findById(mcqAssignmentId).orElse(null);
+
+        if (state == null || state.getFingerprint() != fingerprint(key, maxMarks, passingPercentage)) {
+            // not counted for this key yet; the analytics job is building it
+            McqAnalyticsDto dto = new McqAnalytics(key, maxMarks, passingPercentage).toDto(assignmentId);
+            dto.setStatus(McqAnalyticsStatus.BUILDING.name());
+            return dto;
+        }
+
+        McqAnalyticsDto dto = McqAnalytics.decode(key, maxMarks, passingPercentage, state.getCounters())
+                .toDto(assignmentId);
+        dto.setStatus(state.getStatus().name());
+        dto.setCountedAt(state.getCountedAt());
+        return dto;
+    }
+
+    /**
+     * Asks the analytics job to revisit an assignment whose answer key, max
+     * marks or passing percentage changed in the current transaction.
+     */
+    public void markStale(Long mcqAssignmentId) {
+        stateRepository.markStale(mcqAssignmentId);
+    }
+
+    public void delete(Long mcqAssignmentId) {
+        stateRepository.deleteByMcqAssignmentId(mcqAssignmentId);
+    }
+
+    /**
+     * @return assignments with submissions still to be counted
+     */
+    public List<Long> findPending(int limit) {
+        Set<Long> ids = new LinkedHashSet<>(stateRepository.findBuildingIds(PageRequest.of(0, limit)));
+        ids.addAll(mcqSubmissionRepository.findMcqAssignmentIdsWithUncountedAnalytics(PageRequest.of(0, limit)));
+        return new ArrayList<>(ids);
+    }
+
+    /**
+     * Counts one page of an assignment's uncounted submissions in its own transaction.
+     *
+     * @return whether more submissions may be waiting
+     */
+    public boolean countPage(Long mcqAssignmentId) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            McqAssignment mcq = mcqAssignmentRepository.findById(mcqAssignmentId).orElse(null);
+            if (mcq == null) {
+                return false;
+            }
+            int maxMarks = mcq.getAssignment().getMaxMarks();
+            int passingPercentage = mcq.getPassingPercentage();
+            McqAnswerKey key = mcqAnswerKeyCache.get(mcqAssignmentId);
+            long fingerprint = fingerprint(key, maxMarks, passingPercentage);
+
+            McqAnalyticsState state = lockState(mcqAssignmentId, key, maxMarks, passingPercentage, fingerprint);
+            boolean building = state.getStatus() == McqAnalyticsStatus.BUILDING;
+
+            List<McqSubmissionAnswers> page = building
+                    ? mcqSubmissionRepository.findAnswersNotCountedAfter(
+                            mcqAssignmentId, state.getGeneration(), state.getBuildCursor(), PageRequest.of(0, pageSize))
+                    : mcqSubmissionRepository.findAnswersNotCounted(mcqAssignmentId, PageRequest.of(0, pageSize));
+
+            if (page.isEmpty()) {
+                if (building) {
+                    state.setStatus(McqAnalyticsStatus.READY);
+                    state.setCountedAt(LocalDateTime.now());
+                    log.info("MCQ analytics of assignment {} built (generation {})",
+                            mcqAssignmentId, state.getGeneration());
+                }
+                return false;
+            }
+
+            McqAnalytics analytics = McqAnalytics.decode(key, maxMarks, passingPercentage, state.getCounters());
+            List<Long> ids = new ArrayList<>(page.size());
+            for (McqSubmissionAnswers row : page) {
+                ids.add(row.getId());
+                try {
+                    analytics.record(row.getAnswers(), key.grade(row.getAnswers()));
+                } catch (RuntimeException ex) {
+                    log.warn("Skipping MCQ submission {} in analytics: {}", row.getId(), ex.getMessage());
+                }
+            }
+
+            int marked = mcqSubmissionRepository.markCountedInAnalytics(ids, state.getGeneration());
+            if (marked != ids.size()) {
+                // only possible without the row lock; roll back rather than count twice
+                throw new IllegalStateException("MCQ submissions were counted concurrently");
+            }
+
+            state.setCounters(analytics.encode());
+            state.setCountedAt(LocalDateTime.now());
+            if (building) {
+                state.setBuildCursor(page.get(page.size() - 1).getId());
+            }
+            return page.size() == pageSize;
+        }));
+    }
+
+    private McqAnalyticsState lockState(
+            Long mcqAssignmentId, McqAnswerKey key, int maxMarks, int passingPercentage, long fingerprint) {
+
+        McqAnalyticsState state = stateRepository.findForUpdate(mcqAssignmentId).orElse(null);
+        if (state == null) {
+            // a concurrent insert fails this transaction; the next run takes the lock instead
+            state = stateRepository.saveAndFlush(McqAnalyticsState.builder()
+                    .mcqAssignmentId(mcqAssignmentId)
+                    .generation(1)
+                    .fingerprint(fingerprint)
+                    .status(McqAnalyticsStatus.BUILDING)
+                    .counters(new McqAnalytics(key, maxMarks, passingPercentage).encode())
+                    .build());
+        } else if (state.getFingerprint() != fingerprint) {
+            state.setGeneration(state.getGeneration() + 1);
+            state.setFingerprint(fingerprint);
+            state.setStatus(McqAnalyticsStatus.BUILDING);
+            state.setBuildCursor(0L);
+            state.setCounters(new McqAnalytics(key, maxMarks, passingPercentage).encode());
+            state.setCountedAt(null);
+        }
+        return state;
+    }
+
+    static long fingerprint(McqAnswerKey key, int maxMarks, int passingPercentage) {
+        return 31 * (31 * key.fingerprint() + maxMarks) + passingPercentage;
+    }
+}
@@ -0,0 +1,218 @@
+package com.assignment.service;
+
+import com.assignment.dto.McqAnswerDto;
+import com.assignment.entity.McqQuestion;
+import com.assignment.entity.McqSubmission;
+import com.assignment.exception.BadRequestException;
+import com.assignment.exception.ServiceUnavailableException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable answer key for one MCQ assignment, built from the typed question
+ * columns. Questions are stored by slot (position in question-number order) so
+ * grading is a plain loop over primitive arrays.
+ *
+ * <p>Submitted answers are stored packed: byte {@code n - 1} holds the answer to
+ * question {@code n} as {@code selectedOptionIndex + 1}, {@link #UNANSWERED} when
+ * the question was skipped and {@link #INVALID_OPTION} when the selected index
+ * cannot exist.
+ */
+public final class McqAnswerKey {
+
+    public static final int MAX_OPTIONS = Long.SIZE;
+    public static final int MAX_QUESTION_NUMBER = McqSubmission.MAX_PACKED_ANSWERS_LENGTH;
+
+    public static final int NOT_ANSWERED = -1;
+    public static final int NOT_AN_OPTION = -2;
+
+    static final int UNANSWERED = 0;
+    static final int INVALID_OPTION = 0xFF;
+
+    private final int[] questionNumbers;
+    private final int[] optionCounts;
+    private final long[] correctMasks;
+    private final int[] marks;
+
+    private McqAnswerKey(int[] questionNumbers, int[] optionCounts, long[] correctMasks, int[] marks) {
+        this.questionNumbers = questionNumbers;
+        this.optionCounts = optionCounts;
+        this.correctMasks = correctMasks;
+        this.marks = marks;
+    }
+
+    public static McqAnswerKey compile(List<McqQuestion> questions) {
+        int size = questions.size();
+        int[] questionNumbers = new int[size];
+        int[] optionCounts = new int[size];
+        long[] correctMasks = new long[size];
+        int[] marks = new int[size];
+
+        for (int slot = 0; slot < size; slot++) {
+            McqQuestion q = questions.get(slot);
+            questionNumbers[slot] = q.getQuestionNumber();
+            optionCounts[slot] = q.getOptions() == null ? 0 : q.getOptions().size();
+            if (q.getCorrectOptionMask() == null) {
+                // grading with an empty mask would store every answer as wrong
+                throw new ServiceUnavailableException(
+                        "MCQ question " + q.getId() + " is still being migrated. Please try again.");
+            }
+            correctMasks[slot] = q.getCorrectOptionMask();
+            marks[slot] = q.getMarks();
+        }
+
+        return new McqAnswerKey(questionNumbers, optionCounts, correctMasks, marks);
+    }
+
+    /**
+     * Packs submitted answers for storage. The first answer per question wins;
+     * answers for question numbers outside 1..{@link #MAX_QUESTION_NUMBER} are dropped.
+     */
+    public static byte[] packAnswers(List<McqAnswerDto> answers) {
+        if (answers == null || answers.isEmpty()) {
+            return new byte[0];
+        }
+
+        int length = 0;
+        for (McqAnswerDto ans : answers) {
+            Integer n = ans == null ? null : ans.getQuestionNumber();
+            if (n != null && n >= 1 && n <= MAX_QUESTION_NUMBER && n > length) {
+                length = n;
+            }
+        }
+
+        byte[] packed = new byte[length];
+        for (McqAnswerDto ans : answers) {
+            Integer n = ans == null ? null : ans.getQuestionNumber();
+            if (n == null || n < 1 || n > length || packed[n - 1] != UNANSWERED) {
+                continue;
+            }
+            packed[n - 1] = (byte) packOption(ans.getSelectedOptionIndex());
+        }
+        return packed;
+    }
+
+    /**
+     * @return the packed byte value for one selected option index
+     */
+    public static int packOption(Integer selectedOptionIndex) {
+        return selectedOptionIndex == null || selectedOptionIndex < 0 || selectedOptionIndex >= MAX_OPTIONS
+                ? INVALID_OPTION
+                : selectedOptionIndex + 1;
+    }
+
+    /**
+     * Inverse of {@link #packAnswers}; an invalid selection comes back as a null index.
+     */
+    public static List<McqAnswerDto> unpackAnswers(byte[] packedAnswers) {
+        List<McqAnswerDto> answers = new ArrayList<>();
+        if (packedAnswers == null) {
+            return answers;
+        }
+        for (int i = 0; i < packedAnswers.length; i++) {
+            int answer = packedAnswers[i] & 0xFF;
+            if (answer != UNANSWERED) {
+                answers.add(new McqAnswerDto(i + 1, answer == INVALID_OPTION ? null : answer - 1));
+            }
+        }
+        return answers;
+    }
+
+    public int questionCount() {
+        return questionNumbers.length;
+    }
+
+    public int questionNumber(int slot) {
+        return questionNumbers[slot];
+    }
+
+    public int optionCount(int slot) {
+        return optionCounts[slot];
+    }
+
+    /**
+     * @return a hash that changes whenever grades or the per-question layout of
+     *         this key would change; stable across instances and restarts
+     */
+    public long fingerprint() {
+        long h = 17L;
+        for (int slot = 0; slot < questionNumbers.length; slot++) {
+            h = 31 * h + questionNumbers[slot];
+            h = 31 * h + optionCounts[slot];
+            h = 31 * h + correctMasks[slot];
+            h = 31 * h + marks[slot];
+        }
+        return h;
+    }
+
+    /**
+     * @return the option selected for the question in {@code slot}, {@link #NOT_ANSWERED}
+     *         or {@link #NOT_AN_OPTION} when the selected index does not exist
+     */
+    public int selectedOption(byte[] packedAnswers, int slot) {
+        int index = questionNumbers[slot] - 1;
+        if (packedAnswers == null || index < 0 || index >= packedAnswers.length) {
+            return NOT_ANSWERED;
+        }
+        int answer = packedAnswers[index] & 0xFF;
+        if (answer == UNANSWERED) {
+            return NOT_ANSWERED;
+        }
+        return answer == INVALID_OPTION || answer - 1 >= optionCounts[slot] ? NOT_AN_OPTION : answer - 1;
+    }
+
+    public Result grade(List<McqAnswerDto> answers) {
+        return grade(packAnswers(answers));
+    }
+
+    public Result grade(byte[] packedAnswers) {
+        int size = questionNumbers.length;
+        byte[] correctness = new byte[(size + 7) >>> 3];
+        int obtainedMarks = 0;
+        int correctCount = 0;
+
+        if (packedAnswers != null) {
+            for (int slot = 0; slot < size; slot++) {
+                int index = questionNumbers[slot] - 1;
+                if (index < 0 || index >= packedAnswers.length) {
+                    continue;
+                }
+
+                int answer = packedAnswers[index] & 0xFF;
+                if (answer == UNANSWERED) {
+                    continue;
+                }
+
+                if (correctMasks[slot] == 0L) {
+                    throw new BadRequestException(
+                            "No correct option configured for question " + questionNumbers[slot]);
+                }
+
+                int selected = answer - 1;
+                if (answer == INVALID_OPTION || selected >= optionCounts[slot]) {
+                    continue; // invalid option = 0 marks for this question
+                }
+
+                if ((correctMasks[slot] & (1L << selected)) != 0) {
+                    obtainedMarks += marks[slot];
+                    correctCount++;
+                    correctness[slot >>> 3] |= (byte) (1 << (slot & 7));
+                }
+            }
+        }
+
+        return new Result(obtainedMarks, correctCount, size - correctCount, correctness);
+    }
+
+    /**
+     * Bit {@code i} of {@code correctness} (byte {@code i / 8}, bit {@code i % 8})
+     * is set when the question in slot {@code i} was answered correctly.
+     */
+    public record Result(
+            int obtainedMarks,
+            int correctCount,
+            int incorrectCount,
+            byte[] correctness
+    ) {}
+}
@@ -0,0 +1,85 @@
+package com.assignment.service;
+
+import com.assignment.config.TwoTierCacheManager;
+import com.assignment.entity.McqSubmission;
+import com.assignment.repository.McqQuestionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Per-instance cache of compiled answer keys. Evictions are broadcast over the
+ * cache invalidation channel once the new questions are committed, so every
+ * instance grades with the new key; the TTL bounds staleness if a message is
+ * lost.
+ */
+@Component
+public class McqAnswerKeyCache {
+
+    static final String CACHE_NAME = "mcqAnswerKeys";
+
+    private final McqQuestionRepository mcqQuestionRepository;
+    private final TwoTierCacheManager cacheManager;
+    private final Cache<Long, McqAnswerKey> keys;
+
+    public McqAnswerKeyCache(
+            McqQuestionRepository mcqQuestionRepository,
+            TwoTierCacheManager cacheManager,
+            MeterRegistry meterRegistry,
+            @Value("${assignment.mcq.answer-key-cache.max-size:2000}") long maxSize,
+            @Value("${assignment.mcq.answer-key-cache.ttl:5m}") Duration ttl) {
+        this.mcqQuestionRepository = mcqQuestionRepository;
+        this.cacheManager = cacheManager;
+        this.keys = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, keys, CACHE_NAME);
+        cacheManager.registerLocalCache(CACHE_NAME, this::invalidateLocal);
+    }
+
+    public McqAnswerKey get(Long mcqAssignmentId) {
+        return keys.get(mcqAssignmentId, id -> McqAnswerKey.compile(
+                mcqQuestionRepository.findByMcqAssignment_IdOrderByQuestionNumberAsc(id)));
+    }
+
+    public McqAnswerKey.Result gradeStoredAnswers(McqSubmission submission) {
+        return get(submission.getMcqAssignment().getId()).grade(submission.getAnswers());
+    }
+
+    public void evict(Long mcqAssignmentId) {
+        keys.invalidate(mcqAssignmentId);
+
+        // Evict again once the new questions are committed, so a concurrent
+        // submission cannot re-populate the cache from the old rows, and only
+        // then tell the other instances.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    keys.invalidate(mcqAssignmentId);
+                    cacheManager.publishEviction(CACHE_NAME, mcqAssignmentId);
+                }
+            });
+        } else {
+            cacheManager.publishEviction(CACHE_NAME, mcqAssignmentId);
+        }
+    }
+
+    private void invalidateLocal(String key) {
+        if (key == null) {
+            keys.invalidateAll();
+        } else {
+            keys.invalidate(Long.valueOf(key));
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.assignment.service;
+
+import com.assignment.dto.McqAnswerDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Redis write-behind buffer for exam autosaves. Each session keeps its latest
+ * answers in a hash (question number -> packed option) and is added to a dirty
+ * set; an autosave is one pipelined round trip and never touches the database.
+ * The flusher pops dirty sessions and writes the full hash, so updates that
+ * race with a flush are simply picked up by the next one. Shared by all
+ * instances, so a student may hit any of them.
+ *
+ * <p>Finishing a session leaves a closed marker behind; a save checks for it
+ * in the same script that writes the answers, so no instance keeps buffering
+ * for a session that was submitted elsewhere.
+ */
+@Component
+@RequiredArgsConstructor
+public class McqAutosaveBuffer {
+
+    private static final String ANSWERS_KEY_PREFIX = "mcq:session:answers:";
+    private static final String CLOSED_KEY_PREFIX = "mcq:session:closed:";
+    private static final String DIRTY_KEY = "mcq:session:dirty";
+
+    // ARGV: ttl seconds, session id, number of fields to set, field/value pairs, then fields to clear
+    private static final RedisScript<Long> SAVE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('exists', KEYS[1]) == 1 then
+                return 0
+            end
+            local last = 3 + 2 * tonumber(ARGV[3])
+            for i = 4, last, 2 do
+                redis.call('hset', KEYS[2], ARGV[i], ARGV[i + 1])
+            end
+            for i = last + 1, #ARGV do
+                redis.call('hdel', KEYS[2], ARGV[i])
+            end
+            redis.call('expire', KEYS[2], ARGV[1])
+            redis.call('sadd', KEYS[3], ARGV[2])
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * @return false when the session was already closed; nothing is buffered then
+     */
+    public boolean save(String sessionId, List<McqAnswerDto> answers, Duration ttl) {
+        List<String> set = new ArrayList<>();
+        List<String> cleared = new ArrayList<>();
+        for (McqAnswerDto answer : answers) {
+            Integer n = answer == null ? null : answer.getQuestionNumber();
+            if (n == null || n < 1 || n > McqAnswerKey.MAX_QUESTION_NUMBER) {
+                continue;
+            }
+            if (answer.getSelectedOptionIndex() == null) {
+                cleared.add(n.toString());
+            } else {
+                set.add(n.toString());
+                set.add(Integer.toString(McqAnswerKey.packOption(answer.getSelectedOptionIndex())));
+            }
+        }
+
+        List<String> args = new ArrayList<>(3 + set.size() + cleared.size());
+        args.add(Long.toString(ttl.toSeconds()));
+        args.add(sessionId);
+        args.add(Integer.toString(set.size() / 2));
+        args.addAll(set);
+        args.addAll(cleared);
+
+        Long saved = redisTemplate.execute(SAVE_SCRIPT,
+                List.of(CLOSED_KEY_PREFIX + sessionId, ANSWERS_KEY_PREFIX + sessionId, DIRTY_KEY),
+                args.toArray());
+        return saved != null && saved == 1L;
+    }
+
+    /**
+     * Pops up to {@code max} dirty sessions and returns everything buffered for
+     * each, packed. Sessions whose hash already expired are dropped.
+     */
+    public Map<String, byte[]> drainDirty(int max) {
+        List<String> sessionIds = redisTemplate.opsForSet().pop(DIRTY_KEY, max);
+        if (sessionIds == null || sessionIds.isEmpty()) {
+            return Map.of();
+        }
+
+        List<Object> hashes = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            for (String sessionId : sessionIds) {
+                redis.hGetAll(ANSWERS_KEY_PREFIX + sessionId);
+            }
+            return null;
+        });
+
+        Map<String, byte[]> drained = new HashMap<>(sessionIds.size());
+        for (int i = 0; i < sessionIds.size(); i++) {
+            @SuppressWarnings("unchecked")
+            Map<String, String> hash = (Map<String, String>) hashes.get(i);
+            if (hash != null && !hash.isEmpty()) {
+                drained.put(sessionIds.get(i), merge(null, hash));
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * @return {@code base} with the buffered answers for the session applied on top
+     */
+    public byte[] read(String sessionId, byte[] base) {
+        Map<String, String> hash = redisTemplate.<String, String>opsForHash()
+                .entries(ANSWERS_KEY_PREFIX + sessionId);
+        return hash.isEmpty() ? base : merge(base, hash);
+    }
+
+    /**
+     * Re-queues drained sessions whose flush failed.
+     */
+    public void markDirty(Collection<String> sessionIds) {
+        if (!sessionIds.isEmpty()) {
+            redisTemplate.opsForSet().add(DIRTY_KEY, sessionIds.toArray(String[]::new));
+        }
+    }
+
+    /**
+     * Drops the buffered answers of a finished session and marks it closed for
+     * {@code ttl}, so late saves on any instance are refused.
+     */
+    public void close(String sessionId, Duration ttl) {
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            redis.setEx(CLOSED_KEY_PREFIX + sessionId, ttl.toSeconds(), "1");
+            redis.del(ANSWERS_KEY_PREFIX + sessionId);
+            redis.sRem(DIRTY_KEY, sessionId);
+            return null;
+        });
+    }
+
+    /**
+     * Removes the closed marker of a session that was reopened.
+     */
+    public void reopen(String sessionId) {
+        redisTemplate.delete(CLOSED_KEY_PREFIX + sessionId);
+    }
+
+    private static byte[] merge(byte[] base, Map<String, String> hash) {
+        int length = base == null ? 0 : base.length;
+        for (String field : hash.keySet()) {
+            length = Math.max(length, Integer.parseInt(field));
+        }
+
+        byte[] packed = base == null ? new byte[length] : Arrays.copyOf(base, length);
+        hash.forEach((field, value) -> packed[Integer.parseInt(field) - 1] = (byte) Integer.parseInt(value));
+        return packed;
+    }
+}
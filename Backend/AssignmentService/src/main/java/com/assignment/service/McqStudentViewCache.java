@@ -0,0 +1,94 @@
+package com.assignment.service;
+
+import com.assignment.config.TwoTierCacheManager;
+import com.assignment.dto.McqAssignmentResponseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Per-assignment cache of the student view of a published MCQ (correct answers
+ * already stripped). The view is held as serialized JSON and every caller gets
+ * its own copy, so nothing shared can be mutated; enrollment is checked by the
+ * caller on every request. Evictions are broadcast over the cache
+ * invalidation channel once the change is committed.
+ */
+@Component
+public class McqStudentViewCache {
+
+    static final String CACHE_NAME = "mcqStudentView";
+
+    private final ObjectMapper objectMapper;
+    private final TwoTierCacheManager cacheManager;
+    private final Cache<Long, byte[]> views;
+
+    public McqStudentViewCache(
+            ObjectMapper objectMapper,
+            TwoTierCacheManager cacheManager,
+            MeterRegistry meterRegistry,
+            @Value("${assignment.mcq.student-view-cache.max-size:1000}") long maxSize,
+            @Value("${assignment.mcq.student-view-cache.ttl:10m}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.cacheManager = cacheManager;
+        this.views = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, views, CACHE_NAME);
+        cacheManager.registerLocalCache(CACHE_NAME, this::invalidateLocal);
+    }
+
+    public McqAssignmentResponseDto get(Long assignmentId, Function<Long, McqAssignmentResponseDto> loader) {
+        byte[] json = views.get(assignmentId, id -> write(loader.apply(id)));
+        try {
+            return objectMapper.readValue(json, McqAssignmentResponseDto.class);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public void evict(Long assignmentId) {
+        views.invalidate(assignmentId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    views.invalidate(assignmentId);
+                    cacheManager.publishEviction(CACHE_NAME, assignmentId);
+                }
+            });
+        } else {
+            cacheManager.publishEviction(CACHE_NAME, assignmentId);
+        }
+    }
+
+    private byte[] write(McqAssignmentResponseDto view) {
+        try {
+            return objectMapper.writeValueAsBytes(view);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void invalidateLocal(String key) {
+        if (key == null) {
+            views.invalidateAll();
+        } else {
+            views.invalidate(Long.valueOf(key));
+        }
+    }
+}
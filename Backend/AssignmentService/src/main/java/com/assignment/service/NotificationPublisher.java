@@ -7,6 +7,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.UUID;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -24,4 +26,18 @@ public class NotificationPublisher {
             log.error("Failed to publish notification event: {}", ex.getMessage(), ex);
         }
     }
+
+    /**
+     * One in-app event for every student of the batch, whatever its size. The
+     * event id lets NotificationService ignore a redelivery of the same event.
+     */
+    public void publishToBatch(Long batchId, String title, String message) {
+        NotificationEvent event = new NotificationEvent(
+                null, null, "STUDENT", "IN_APP", title, message, batchId, UUID.randomUUID().toString());
+        try {
+            kafkaTemplate.send(topic, "batch-" + batchId, event);
+        } catch (Exception ex) {
+            log.error("Failed to publish notification event for batch {}: {}", batchId, ex.getMessage(), ex);
+        }
+    }
 }
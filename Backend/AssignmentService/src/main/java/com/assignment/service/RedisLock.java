@@ -0,0 +1,36 @@
+package com.assignment.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Short-lived lock shared by all instances (SET NX PX). The token makes sure
+ * only the holder releases it; the TTL frees it if the holder dies.
+ */
+@Component
+@RequiredArgsConstructor
+public class RedisLock {
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('get', KEYS[1]) == ARGV[1] then
+                return redis.call('del', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public boolean tryAcquire(String key, String token, Duration ttl) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, token, ttl));
+    }
+
+    public void release(String key, String token) {
+        redisTemplate.execute(RELEASE_SCRIPT, List.of(key), token);
+    }
+}
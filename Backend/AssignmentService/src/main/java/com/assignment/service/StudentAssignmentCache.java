@@ -0,0 +1,312 @@
+package com.assignment.service;
+
+import com.assignment.dto.StudentAssignmentDto;
+import com.assignment.dto.StudentAssignmentPageSnapshot;
+import com.assignment.dto.StudentAssignmentsSnapshot;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Per-student assignment lists, invalidated per batch with version stamps.
+ * Every snapshot records the version of each batch it was built from; a
+ * publish, close or delete replaces the batch's version (one write, whatever
+ * the batch size), which makes all snapshots built from that batch stale.
+ * Changes that only concern one student still evict that student's key.
+ *
+ * <p>Loads are single-flight: concurrent misses for a student on one instance
+ * share one load, and across instances a short Redis lock lets one node load
+ * while the others wait for its result. Snapshots older than
+ * {@code refresh-after} are served as they are and refreshed in the background.
+ *
+ * <p>Pages of the filtered listing are cached per student, filter and cursor.
+ * Besides the batch versions they record a per-student version, which
+ * {@link #evictStudent} replaces, so one write drops all pages of a student.
+ */
+@Slf4j
+@Component
+public class StudentAssignmentCache {
+
+    public static final String SNAPSHOTS_CACHE = "studentAssignmentSnapshots";
+    public static final String BATCH_VERSIONS_CACHE = "assignmentBatchVersions";
+    public static final String PAGES_CACHE = "studentAssignmentPages";
+    public static final String STUDENT_VERSIONS_CACHE = "assignmentStudentVersions";
+
+    private static final String LOCK_KEY_PREFIX = "lock:" + SNAPSHOTS_CACHE + ":";
+    private static final long LOCK_POLL_MS = 50;
+
+    private final Cache snapshots;
+    private final Cache batchVersions;
+    private final Cache pages;
+    private final Cache studentVersions;
+    private final RedisLock redisLock;
+    private final Duration refreshAfter;
+    private final Duration lockTtl;
+    private final Duration lockWait;
+
+    private final Map<Long, CompletableFuture<StudentAssignmentsSnapshot>> inFlight = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor refresher;
+
+    public StudentAssignmentCache(
+            CacheManager cacheManager,
+            RedisLock redisLock,
+            @Value("${assignment.cache.student-assignments.refresh-after:4m}") Duration refreshAfter,
+            @Value("${assignment.cache.student-assignments.lock-ttl:5s}") Duration lockTtl,
+            @Value("${assignment.cache.student-assignments.lock-wait:2s}") Duration lockWait) {
+        this.snapshots = cacheManager.getCache(SNAPSHOTS_CACHE);
+        this.batchVersions = cacheManager.getCache(BATCH_VERSIONS_CACHE);
+        this.pages = cacheManager.getCache(PAGES_CACHE);
+        this.studentVersions = cacheManager.getCache(STUDENT_VERSIONS_CACHE);
+        this.redisLock = redisLock;
+        this.refreshAfter = refreshAfter;
+        this.lockTtl = lockTtl;
+        this.lockWait = lockWait;
+
+        this.refresher = new ThreadPoolExecutor(
+                1, 2,
+                30L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(256),
+                r -> {
+                    Thread t = new Thread(r, "student-assignments-refresh");
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.DiscardPolicy() // a skipped refresh is retried on the next read
+        );
+    }
+
+    /**
+     * @param loader builds a snapshot; it must read {@link #versionsOf} before loading the data
+     */
+    public List<StudentAssignmentDto> get(Long studentId, Function<Long, StudentAssignmentsSnapshot> loader) {
+        StudentAssignmentsSnapshot snapshot = snapshots.get(studentId, StudentAssignmentsSnapshot.class);
+        if (snapshot != null && isCurrent(snapshot)) {
+            if (System.currentTimeMillis() - snapshot.getBuiltAt() > refreshAfter.toMillis()
+                    && !inFlight.containsKey(studentId)) {
+                refresher.execute(() -> {
+                    try {
+                        load(studentId, loader, false);
+                    } catch (RuntimeException ex) {
+                        log.warn("Background refresh of assignments for student {} failed: {}",
+                                studentId, ex.getMessage());
+                    }
+                });
+            }
+            return snapshot.getAssignments();
+        }
+
+        StudentAssignmentsSnapshot loaded = load(studentId, loader, true);
+        return loaded == null ? List.of() : loaded.getAssignments();
+    }
+
+    /**
+     * @param pageKey identifies the filters, cursor and page size within the student's listing
+     * @param loader  builds the page; it must read {@link #studentVersionOf} and
+     *                {@link #versionsOf} before loading the data, and may return null
+     */
+    public StudentAssignmentPageSnapshot getPage(
+            Long studentId,
+            String pageKey,
+            Supplier<StudentAssignmentPageSnapshot> loader) {
+
+        String key = studentId + ":" + pageKey;
+        StudentAssignmentPageSnapshot page = pages.get(key, StudentAssignmentPageSnapshot.class);
+        if (page != null
+                && studentVersionOf(studentId).equals(page.getStudentVersion())
+                && versionsOf(page.getBatchIds()).equals(page.getBatchVersions())) {
+            return page;
+        }
+
+        page = loader.get();
+        if (page != null) {
+            pages.put(key, page);
+        }
+        return page;
+    }
+
+    /**
+     * Read before loading the data a snapshot is built from, so a concurrent
+     * bump makes the new snapshot stale instead of being lost.
+     */
+    public List<String> versionsOf(List<Long> batchIds) {
+        List<String> versions = new ArrayList<>(batchIds.size());
+        for (Long batchId : batchIds) {
+            versions.add(currentVersion(batchVersions, batchId));
+        }
+        return versions;
+    }
+
+    /**
+     * Like {@link #versionsOf}, for the pages of one student.
+     */
+    public String studentVersionOf(Long studentId) {
+        return currentVersion(studentVersions, studentId);
+    }
+
+    public void evictStudent(Long studentId) {
+        snapshots.evict(studentId);
+        studentVersions.put(studentId, newVersion());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    studentVersions.put(studentId, newVersion());
+                }
+            });
+        }
+    }
+
+    public void invalidateBatch(Long batchId) {
+        batchVersions.put(batchId, newVersion());
+
+        // Bump again once committed, so a list rebuilt from pre-commit rows is not kept.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    batchVersions.put(batchId, newVersion());
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private boolean isCurrent(StudentAssignmentsSnapshot snapshot) {
+        return versionsOf(snapshot.getBatchIds()).equals(snapshot.getBatchVersions());
+    }
+
+    private StudentAssignmentsSnapshot load(
+            Long studentId,
+            Function<Long, StudentAssignmentsSnapshot> loader,
+            boolean waitForOtherNode) {
+
+        CompletableFuture<StudentAssignmentsSnapshot> mine = new CompletableFuture<>();
+        CompletableFuture<StudentAssignmentsSnapshot> running = inFlight.putIfAbsent(studentId, mine);
+        if (running != null) {
+            return waitForOtherNode ? join(running) : null;
+        }
+
+        try {
+            StudentAssignmentsSnapshot snapshot = loadOnce(studentId, loader, waitForOtherNode);
+            mine.complete(snapshot);
+            return snapshot;
+        } catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(studentId, mine);
+        }
+    }
+
+    private StudentAssignmentsSnapshot loadOnce(
+            Long studentId,
+            Function<Long, StudentAssignmentsSnapshot> loader,
+            boolean waitForOtherNode) {
+
+        String lockKey = LOCK_KEY_PREFIX + studentId;
+        String token = UUID.randomUUID().toString();
+        boolean locked = tryLock(lockKey, token);
+
+        if (!locked) {
+            if (!waitForOtherNode) {
+                return null; // another node is already refreshing
+            }
+            StudentAssignmentsSnapshot loadedElsewhere = awaitOtherNode(studentId);
+            if (loadedElsewhere != null) {
+                return loadedElsewhere;
+            }
+            // the other node is slow or died; load without the lock rather than keep the caller waiting
+        }
+
+        try {
+            StudentAssignmentsSnapshot snapshot = loader.apply(studentId);
+            if (snapshot != null && !snapshot.getAssignments().isEmpty()) {
+                snapshots.put(studentId, snapshot);
+            }
+            return snapshot;
+        } finally {
+            if (locked) {
+                unlock(lockKey, token);
+            }
+        }
+    }
+
+    private StudentAssignmentsSnapshot awaitOtherNode(Long studentId) {
+        long deadline = System.currentTimeMillis() + lockWait.toMillis();
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(LOCK_POLL_MS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            StudentAssignmentsSnapshot snapshot = snapshots.get(studentId, StudentAssignmentsSnapshot.class);
+            if (snapshot != null && isCurrent(snapshot)) {
+                return snapshot;
+            }
+        }
+        return null;
+    }
+
+    private boolean tryLock(String lockKey, String token) {
+        try {
+            return redisLock.tryAcquire(lockKey, token, lockTtl);
+        } catch (RuntimeException ex) {
+            log.warn("Assignment cache lock unavailable, loading without it: {}", ex.getMessage());
+            return true; // behave as before the lock existed
+        }
+    }
+
+    private void unlock(String lockKey, String token) {
+        try {
+            redisLock.release(lockKey, token);
+        } catch (RuntimeException ex) {
+            log.warn("Releasing assignment cache lock {} failed: {}", lockKey, ex.getMessage());
+        }
+    }
+
+    private static StudentAssignmentsSnapshot join(CompletableFuture<StudentAssignmentsSnapshot> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private static String currentVersion(Cache versions, Long id) {
+        String version = versions.get(id, String.class);
+        if (version == null) {
+            // unknown (new or expired) key: start a version; anything cached before is treated as stale
+            String fresh = newVersion();
+            Cache.ValueWrapper existing = versions.putIfAbsent(id, fresh);
+            version = existing == null ? fresh : (String) existing.get();
+        }
+        return version;
+    }
+
+    private static String newVersion() {
+        return UUID.randomUUID().toString();
+    }
+}
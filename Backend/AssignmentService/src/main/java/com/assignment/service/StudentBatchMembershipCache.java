@@ -0,0 +1,74 @@
+package com.assignment.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-instance cache of the batch ids each student is enrolled in. Kept current
+ * by BatchService enrollment events (see {@link EnrollmentEventListener}); a
+ * miss falls back to {@link BatchServiceGateway#getStudentBatchIds}. The TTL
+ * only bounds staleness if an event is lost.
+ */
+@Component
+public class StudentBatchMembershipCache {
+
+    private static final String CACHE_NAME = "studentBatchMembership";
+
+    private final BatchServiceGateway batchServiceGateway;
+    private final Cache<Long, List<Long>> memberships;
+
+    public StudentBatchMembershipCache(
+            BatchServiceGateway batchServiceGateway,
+            MeterRegistry meterRegistry,
+            @Value("${assignment.membership-cache.max-size:50000}") long maxSize,
+            @Value("${assignment.membership-cache.ttl:30m}") Duration ttl) {
+        this.batchServiceGateway = batchServiceGateway;
+        this.memberships = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, memberships, CACHE_NAME);
+    }
+
+    /**
+     * @return the student's batch ids; cached lists are shared and read-only
+     */
+    public List<Long> getStudentBatchIds(Long studentId) {
+        return memberships.get(studentId, this::load);
+    }
+
+    /**
+     * Adds the batch to a cached entry. An uncached student is left alone: the
+     * next lookup loads the full list, which already includes the new batch.
+     */
+    public void onEnrolled(Long studentId, Long batchId) {
+        memberships.asMap().computeIfPresent(studentId, (id, batchIds) -> {
+            if (batchIds.contains(batchId)) {
+                return batchIds;
+            }
+            List<Long> updated = new ArrayList<>(batchIds.size() + 1);
+            updated.addAll(batchIds);
+            updated.add(batchId);
+            return List.copyOf(updated);
+        });
+    }
+
+    public void evict(Long studentId) {
+        memberships.invalidate(studentId);
+    }
+
+    private List<Long> load(Long studentId) {
+        List<Long> batchIds = batchServiceGateway.getStudentBatchIds(studentId);
+        return batchIds == null ? List.of() : List.copyOf(batchIds);
+    }
+}
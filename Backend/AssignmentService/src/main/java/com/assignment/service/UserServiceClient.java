@@ -5,10 +5,17 @@ import com.assignment.dto.UserSummaryDto;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
 
 @FeignClient(name = "USERSERVICE")
 public interface UserServiceClient {
 
     @GetMapping("/internal/users/{id}")
     ApiResponse<UserSummaryDto> getUserSummary(@PathVariable Long id);
+
+    @PostMapping("/internal/users:batchGet")
+    ApiResponse<List<UserSummaryDto>> getUserSummaries(@RequestBody List<Long> ids);
 }
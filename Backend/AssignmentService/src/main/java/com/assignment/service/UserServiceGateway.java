@@ -6,6 +6,8 @@ import io.github.resilience4j.retry.annotation.Retry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 public class UserServiceGateway {
@@ -18,6 +20,12 @@ public class UserServiceGateway {
         return userServiceClient.getUserSummary(userId).getData();
     }
 
+    @CircuitBreaker(name = "userService", fallbackMethod = "getUserSummariesFallback")
+    @Retry(name = "userService")
+    public List<UserSummaryDto> getUserSummaries(List<Long> userIds) {
+        return userServiceClient.getUserSummaries(userIds).getData();
+    }
+
     private UserSummaryDto getUserSummaryFallback(Long userId, Throwable ex) {
         UserSummaryDto fallback = new UserSummaryDto();
         fallback.setId(userId);
@@ -25,4 +33,8 @@ public class UserServiceGateway {
         fallback.setLastName("#" + userId);
         return fallback;
     }
+
+    private List<UserSummaryDto> getUserSummariesFallback(List<Long> userIds, Throwable ex) {
+        return List.of();
+    }
 }
@@ -0,0 +1,88 @@
+package com.assignment.service;
+
+import com.assignment.dto.UserSummaryDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Short-lived, per-instance cache of user summaries for submission listings.
+ * Misses are fetched with one batch call per {@link #CHUNK_SIZE} ids. Users the
+ * batch call did not return (unknown id, or UserService unavailable) get a
+ * placeholder that is not cached, so they are retried on the next listing.
+ */
+@Component
+public class UserSummaryCache {
+
+    static final int CHUNK_SIZE = 500;
+
+    private static final String CACHE_NAME = "userSummary";
+
+    private final UserServiceGateway userServiceGateway;
+    private final Cache<Long, UserSummaryDto> summaries;
+
+    public UserSummaryCache(
+            UserServiceGateway userServiceGateway,
+            MeterRegistry meterRegistry,
+            @Value("${assignment.user-summary-cache.max-size:20000}") long maxSize,
+            @Value("${assignment.user-summary-cache.ttl:2m}") Duration ttl) {
+        this.userServiceGateway = userServiceGateway;
+        this.summaries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, summaries, CACHE_NAME);
+    }
+
+    /**
+     * @return a summary for every requested id; entries are shared and read-only
+     */
+    public Map<Long, UserSummaryDto> getAll(Collection<Long> userIds) {
+        Map<Long, UserSummaryDto> result = new HashMap<>(summaries.getAllPresent(userIds));
+
+        List<Long> missing = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(userIds)) {
+            if (id != null && !result.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+
+        for (int from = 0; from < missing.size(); from += CHUNK_SIZE) {
+            List<UserSummaryDto> fetched = userServiceGateway.getUserSummaries(
+                    missing.subList(from, Math.min(from + CHUNK_SIZE, missing.size())));
+            if (fetched == null) {
+                continue;
+            }
+            for (UserSummaryDto user : fetched) {
+                summaries.put(user.getId(), user);
+                result.put(user.getId(), user);
+            }
+        }
+
+        for (Long id : missing) {
+            result.computeIfAbsent(id, UserSummaryCache::placeholder);
+        }
+        return result;
+    }
+
+    private static UserSummaryDto placeholder(Long userId) {
+        UserSummaryDto user = new UserSummaryDto();
+        user.setId(userId);
+        user.setFirstName("Student");
+        user.setLastName("#" + userId);
+        return user;
+    }
+}
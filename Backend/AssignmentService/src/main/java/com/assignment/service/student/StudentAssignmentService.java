@@ -1,7 +1,10 @@
 package com.assignment.service.student;
 
 import com.assignment.dto.AssignmentSubmitRequest;
+import com.assignment.dto.CursorPageDto;
 import com.assignment.dto.StudentAssignmentDto;
+import com.assignment.entity.AssignmentType;
+import org.springframework.data.domain.Sort;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
@@ -10,6 +13,21 @@ public interface StudentAssignmentService {
 
     List<StudentAssignmentDto> listAssignments(Long studentId);
 
+    /**
+     * One page of the student's published assignments ordered by creation
+     * date. Null filters are not applied; {@code submitted} selects submitted
+     * ({@code true}) or pending ({@code false}) assignments.
+     */
+    CursorPageDto<StudentAssignmentDto> listAssignmentsPage(
+            Long studentId,
+            Long batchId,
+            AssignmentType type,
+            Boolean submitted,
+            Sort.Direction direction,
+            String cursor,
+            int size
+    );
+
     void submitAssignment(
             Long assignmentId,
             AssignmentSubmitRequest request,
@@ -23,4 +41,9 @@ public interface StudentAssignmentService {
     );
 
     void evictStudentAssignments(Long studentId);
+
+    /**
+     * Invalidates the cached lists of every student in the batch in O(1).
+     */
+    void evictBatchAssignments(Long batchId);
 }
@@ -1,24 +1,30 @@
 package com.assignment.service.student;
 
 import com.assignment.dto.AssignmentSubmitRequest;
+import com.assignment.dto.CursorPageDto;
 import com.assignment.dto.StudentAssignmentDto;
+import com.assignment.dto.StudentAssignmentPageSnapshot;
+import com.assignment.dto.StudentAssignmentsSnapshot;
 import com.assignment.entity.Assignment;
 import com.assignment.entity.AssignmentStatus;
 import com.assignment.entity.AssignmentSubmission;
 import com.assignment.entity.AssignmentType;
 import com.assignment.exception.BadRequestException;
+import com.assignment.exception.ForbiddenException;
 import com.assignment.repository.AssignmentRepository;
 import com.assignment.repository.AssignmentSubmissionRepository;
-import com.assignment.repository.McqAssignmentRepository;
-import com.assignment.repository.McqSubmissionRepository;
-import com.assignment.service.BatchServiceGateway;
+import com.assignment.repository.StudentAssignmentRow;
+import com.assignment.service.AssignmentCursor;
 import com.assignment.service.FileStorageService;
 import com.assignment.service.NotificationPublisher;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import com.assignment.service.StudentAssignmentCache;
+import com.assignment.service.StudentBatchMembershipCache;
 import lombok.extern.slf4j.Slf4j;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDateTime;
@@ -32,29 +38,52 @@ public class StudentAssignmentServiceImpl implements StudentAssignmentService {
 
     private final AssignmentRepository assignmentRepo;
     private final AssignmentSubmissionRepository submissionRepo;
-    private final McqAssignmentRepository mcqAssignmentRepository;
-    private final McqSubmissionRepository mcqSubmissionRepository;
-    private final BatchServiceGateway batchServiceGateway;
+    private final StudentBatchMembershipCache studentBatchMembershipCache;
     private final NotificationPublisher notificationPublisher;
     private final FileStorageService fileStorageService;
+    private final StudentAssignmentCache studentAssignmentCache;
 
     @Override
-    @Cacheable(
-            value = "studentAssignments",
-            key = "#studentId",
-            unless = "#result == null || #result.isEmpty()"
-    )
     public List<StudentAssignmentDto> listAssignments(Long studentId) {
-List<Long> batchIds = batchServiceGateway.getStudentBatchIds(studentId);
+        return studentAssignmentCache.get(studentId, this::loadAssignments);
+    }
 
-        return assignmentRepo
-                .findByBatchIdInAndStatus(batchIds, AssignmentStatus.PUBLISHED)
-                .stream()
-                .map(a -> toDto(a, studentId))
-                .collect(Collectors.toList());
+    @Override
+    public CursorPageDto<StudentAssignmentDto> listAssignmentsPage(
+            Long studentId,
+            Long batchId,
+            AssignmentType type,
+            Boolean submitted,
+            Sort.Direction direction,
+            String cursor,
+            int size) {
+
+        AssignmentCursor after = AssignmentCursor.decode(cursor);
+        List<Long> batchIds = studentBatchMembershipCache.getStudentBatchIds(studentId);
+        if (batchId != null) {
+            if (batchIds == null || !batchIds.contains(batchId)) {
+                throw new ForbiddenException("You are not enrolled in this batch");
+            }
+            batchIds = List.of(batchId);
+        }
+        if (batchIds == null || batchIds.isEmpty()) {
+            return CursorPageDto.<StudentAssignmentDto>builder().items(List.of()).build();
+        }
+
+        List<Long> scope = batchIds;
+        String pageKey = batchId + ":" + type + ":" + submitted + ":" + direction + ":" + size + ":" + cursor;
+        StudentAssignmentPageSnapshot page = studentAssignmentCache.getPage(studentId, pageKey,
+                () -> loadPage(studentId, scope, type, submitted, direction, after, size));
+
+        return CursorPageDto.<StudentAssignmentDto>builder()
+                .items(page.getItems())
+                .nextCursor(page.getNextCursor())
+                .hasMore(page.isHasMore())
+                .build();
     }
 
     @Override
+    @Transactional
     public void submitAssignment(Long assignmentId, AssignmentSubmitRequest req, Long studentId) {
 
         Assignment a = assignmentRepo.findById(assignmentId)
@@ -80,6 +109,7 @@ List<Long> batchIds = batchServiceGateway.getStudentBatchIds(studentId);
                         .submittedAt(LocalDateTime.now())
                         .build()
         );
+        assignmentRepo.incrementCounters(a.getId(), 1, 0, 0);
 
         notificationPublisher.publish(
                 new com.assignment.dto.NotificationEvent(
@@ -96,6 +126,7 @@ List<Long> batchIds = batchServiceGateway.getStudentBatchIds(studentId);
     }
 
     @Override
+    @Transactional
     public void submitFileAssignment(Long assignmentId, MultipartFile file, Long studentId) {
         Assignment a = assignmentRepo.findById(assignmentId)
                 .orElseThrow(() -> new RuntimeException("Assignment not found"));
@@ -122,6 +153,7 @@ List<Long> batchIds = batchServiceGateway.getStudentBatchIds(studentId);
                         .submittedAt(LocalDateTime.now())
                         .build()
         );
+        assignmentRepo.incrementCounters(a.getId(), 1, 0, 0);
 
         notificationPublisher.publish(
                 new com.assignment.dto.NotificationEvent(
@@ -137,47 +169,86 @@ List<Long> batchIds = batchServiceGateway.getStudentBatchIds(studentId);
         evictStudentAssignments(studentId);
     }
 
-    @CacheEvict(value = "studentAssignments", key = "#studentId")
+    @Override
     public void evictStudentAssignments(Long studentId) {
+        studentAssignmentCache.evictStudent(studentId);
     }
-    private StudentAssignmentDto toDto(Assignment assignment, Long studentId) {
-        StudentAssignmentDto dto = new StudentAssignmentDto();
-        dto.setAssignmentId(assignment.getId());  // Explicit mapping
-        dto.setBatchId(assignment.getBatchId());
-        dto.setTitle(assignment.getTitle());
-        dto.setDescription(assignment.getDescription());
-        dto.setType(assignment.getType());
-        dto.setMaxMarks(assignment.getMaxMarks());
-        if (assignment.getType() == AssignmentType.MCQ) {
-            mcqAssignmentRepository.findByAssignment_Id(assignment.getId())
-                    .flatMap(mcq -> mcqSubmissionRepository
-                            .findByMcqAssignment_IdAndStudentId(mcq.getId(), studentId))
-                    .ifPresentOrElse(submission -> {
-                        dto.setSubmitted(true);
-                        dto.setObtainedMarks(submission.getObtainedMarks());
-                        dto.setEvaluatedAt(submission.getSubmittedAt());
-                    }, () -> dto.setSubmitted(false));
-        } else {
-            submissionRepo.findByAssignment_IdAndStudentId(assignment.getId(), studentId)
-                    .ifPresentOrElse(submission -> {
-                        dto.setSubmitted(true);
-                        dto.setObtainedMarks(submission.getObtainedMarks());
-                        dto.setFeedback(submission.getFeedback());
-                        dto.setEvaluatedAt(submission.getEvaluatedAt());
-                    }, () -> dto.setSubmitted(false));
-        }
-        return dto;
+
+    @Override
+    public void evictBatchAssignments(Long batchId) {
+        studentAssignmentCache.invalidateBatch(batchId);
     }
 
-    private boolean isSubmitted(Assignment assignment, Long studentId) {
-        if (assignment.getType() == AssignmentType.MCQ) {
-            return mcqAssignmentRepository
-                    .findByAssignment_Id(assignment.getId())
-                    .map(mcq -> mcqSubmissionRepository
-                            .existsByMcqAssignment_IdAndStudentId(mcq.getId(), studentId))
-                    .orElse(false);
+    private StudentAssignmentsSnapshot loadAssignments(Long studentId) {
+        List<Long> batchIds = studentBatchMembershipCache.getStudentBatchIds(studentId);
+        if (batchIds == null || batchIds.isEmpty()) {
+            return null;
         }
+        List<String> batchVersions = studentAssignmentCache.versionsOf(batchIds);
+        long builtAt = System.currentTimeMillis();
+
+        // one query for the assignments and the student's submission status
+        List<StudentAssignmentDto> assignments = assignmentRepo
+                .findPublishedForStudent(batchIds, studentId)
+                .stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+
+        return new StudentAssignmentsSnapshot(batchIds, batchVersions, assignments, builtAt);
+    }
 
-        return submissionRepo.existsByAssignment_IdAndStudentId(assignment.getId(), studentId);
+    private StudentAssignmentPageSnapshot loadPage(
+            Long studentId,
+            List<Long> batchIds,
+            AssignmentType type,
+            Boolean submitted,
+            Sort.Direction direction,
+            AssignmentCursor after,
+            int size) {
+
+        String studentVersion = studentAssignmentCache.studentVersionOf(studentId);
+        List<String> batchVersions = studentAssignmentCache.versionsOf(batchIds);
+
+        LocalDateTime afterCreatedAt = after == null ? null : after.createdAt();
+        Long afterId = after == null ? null : after.id();
+        // one extra row tells whether another page exists
+        PageRequest limit = PageRequest.of(0, size + 1, Sort.by(direction, "createdAt", "id"));
+        List<StudentAssignmentRow> rows = assignmentRepo.findPublishedForStudentPage(
+                batchIds, studentId, type, submitted, direction == Sort.Direction.ASC,
+                afterCreatedAt, afterId, limit);
+
+        boolean hasMore = rows.size() > size;
+        List<StudentAssignmentRow> items = hasMore ? rows.subList(0, size) : rows;
+        StudentAssignmentRow last = hasMore ? items.get(items.size() - 1) : null;
+
+        return new StudentAssignmentPageSnapshot(
+                batchIds,
+                batchVersions,
+                studentVersion,
+                items.stream().map(this::toDto).collect(Collectors.toList()),
+                last == null ? null : new AssignmentCursor(last.getCreatedAt(), last.getAssignmentId()).encode(),
+                hasMore);
+    }
+
+    private StudentAssignmentDto toDto(StudentAssignmentRow row) {
+        StudentAssignmentDto dto = new StudentAssignmentDto();
+        dto.setAssignmentId(row.getAssignmentId());  // Explicit mapping
+        dto.setBatchId(row.getBatchId());
+        dto.setTitle(row.getTitle());
+        dto.setDescription(row.getDescription());
+        dto.setType(row.getType());
+        dto.setMaxMarks(row.getMaxMarks());
+        dto.setCreatedAt(row.getCreatedAt());
+        if (row.getType() == AssignmentType.MCQ) {
+            dto.setSubmitted(row.getMcqSubmissionId() != null);
+            dto.setObtainedMarks(row.getMcqObtainedMarks());
+            dto.setEvaluatedAt(row.getMcqSubmittedAt());
+        } else {
+            dto.setSubmitted(row.getSubmissionId() != null);
+            dto.setObtainedMarks(row.getSubmissionMarks());
+            dto.setFeedback(row.getFeedback());
+            dto.setEvaluatedAt(row.getEvaluatedAt());
+        }
+        return dto;
     }
 }
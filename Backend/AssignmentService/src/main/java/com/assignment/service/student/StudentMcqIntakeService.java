@@ -0,0 +1,11 @@
+package com.assignment.service.student;
+
+import com.assignment.dto.McqSubmissionReceiptDto;
+import com.assignment.dto.McqSubmissionRequest;
+
+public interface StudentMcqIntakeService {
+
+    McqSubmissionReceiptDto acceptMcqSubmission(Long assignmentId, McqSubmissionRequest request, Long studentId);
+
+    McqSubmissionReceiptDto getReceipt(String receiptId, Long studentId);
+}
@@ -0,0 +1,121 @@
+package com.assignment.service.student;
+
+import com.assignment.dto.McqSubmissionReceiptDto;
+import com.assignment.dto.McqSubmissionRequest;
+import com.assignment.entity.*;
+import com.assignment.exception.BadRequestException;
+import com.assignment.exception.ResourceNotFoundException;
+import com.assignment.repository.AssignmentRepository;
+import com.assignment.repository.McqAssignmentRepository;
+import com.assignment.repository.McqSubmissionIntakeRepository;
+import com.assignment.repository.McqSubmissionRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class StudentMcqIntakeServiceImpl implements StudentMcqIntakeService {
+
+    private final AssignmentRepository assignmentRepository;
+    private final McqAssignmentRepository mcqAssignmentRepository;
+    private final McqSubmissionRepository mcqSubmissionRepository;
+    private final McqSubmissionIntakeRepository intakeRepository;
+    private final StudentMcqService studentMcqService;
+    private final StudentMcqSessionService studentMcqSessionService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${assignment.mcq.async-intake.enabled:false}")
+    private boolean enabled;
+
+    @Override
+    @Transactional
+    public McqSubmissionReceiptDto acceptMcqSubmission(
+            Long assignmentId,
+            McqSubmissionRequest request,
+            Long studentId) {
+
+        if (!enabled) {
+            throw new BadRequestException("Asynchronous MCQ submission is not enabled");
+        }
+
+        Assignment assignment = assignmentRepository.findById(assignmentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Assignment not found"));
+
+        if (assignment.getStatus() != AssignmentStatus.PUBLISHED) {
+            throw new BadRequestException("Assignment not open for submission");
+        }
+
+        McqAssignment mcq = mcqAssignmentRepository
+                .findByAssignment_Id(assignmentId)
+                .orElseThrow(() -> new ResourceNotFoundException("MCQ assignment not found"));
+
+        if (mcqSubmissionRepository.existsByMcqAssignment_IdAndStudentId(mcq.getId(), studentId)
+                || intakeRepository.existsByMcqAssignmentIdAndStudentIdAndStatusNot(
+                        mcq.getId(), studentId, McqIntakeStatus.REJECTED)) {
+            throw new BadRequestException("Assignment already submitted");
+        }
+
+        Integer timeTaken = studentMcqSessionService
+                .completeForSubmission(mcq, studentId, request.getTimeTaken());
+
+        McqSubmissionIntake intake;
+        try {
+            intake = McqSubmissionIntake.builder()
+                    .id(UUID.randomUUID().toString())
+                    .mcqAssignmentId(mcq.getId())
+                    .assignmentId(assignmentId)
+                    .studentId(studentId)
+                    .answersJson(objectMapper.writeValueAsString(request.getAnswers()))
+                    .timeTaken(timeTaken)
+                    .status(McqIntakeStatus.PENDING)
+                    .acceptedAt(LocalDateTime.now())
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to accept submission", e);
+        }
+
+        try {
+            // a rejected earlier attempt does not count as a submission; this one replaces it
+            intakeRepository.deleteRejected(mcq.getId(), studentId);
+            intakeRepository.saveAndFlush(intake);
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent request from the same student won the unique (mcq_assignment_id, student_id)
+            throw new BadRequestException("Assignment already submitted");
+        }
+
+        return toReceipt(intake);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public McqSubmissionReceiptDto getReceipt(String receiptId, Long studentId) {
+        McqSubmissionIntake intake = intakeRepository.findById(receiptId)
+                .filter(i -> i.getStudentId().equals(studentId))
+                .orElseThrow(() -> new ResourceNotFoundException("Submission receipt not found"));
+
+        McqSubmissionReceiptDto dto = toReceipt(intake);
+        if (intake.getStatus() == McqIntakeStatus.COMPLETED) {
+            dto.setResult(studentMcqService.getMcqSubmissionResult(intake.getAssignmentId(), studentId));
+        }
+        return dto;
+    }
+
+    private McqSubmissionReceiptDto toReceipt(McqSubmissionIntake intake) {
+        return McqSubmissionReceiptDto.builder()
+                .receiptId(intake.getId())
+                .assignmentId(intake.getAssignmentId())
+                .status(intake.getStatus())
+                .message(intake.getMessage())
+                .acceptedAt(intake.getAcceptedAt())
+                .processedAt(intake.getProcessedAt())
+                .build();
+    }
+}
@@ -10,4 +10,10 @@ public interface StudentMcqService {
     McqSubmissionResponseDto submitMcqAssignment(Long assignmentId, McqSubmissionRequest request, Long studentId);
 
     McqSubmissionResponseDto getMcqSubmissionResult(Long assignmentId, Long studentId);
+
+    /**
+     * Submits the saved answers of a session whose deadline has passed, or
+     * expires it when the assignment can no longer be submitted.
+     */
+    void autoSubmitExpiredSession(String sessionId);
 }
@@ -6,20 +6,19 @@ import com.assignment.exception.BadRequestException;
 import com.assignment.exception.ForbiddenException;
 import com.assignment.exception.ResourceNotFoundException;
 import com.assignment.repository.*;
-import com.assignment.service.BatchServiceGateway;
+import com.assignment.service.McqAnswerKey;
+import com.assignment.service.McqAnswerKeyCache;
+import com.assignment.service.McqStudentViewCache;
 import com.assignment.service.NotificationPublisher;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.assignment.service.StudentBatchMembershipCache;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -30,50 +29,27 @@ public class StudentMcqServiceImpl implements StudentMcqService {
     private final McqAssignmentRepository mcqAssignmentRepository;
     private final McqQuestionRepository mcqQuestionRepository;
     private final McqSubmissionRepository mcqSubmissionRepository;
-    private final BatchServiceGateway batchServiceGateway;
+    private final StudentBatchMembershipCache studentBatchMembershipCache;
     private final NotificationPublisher notificationPublisher;
-    private final ObjectMapper objectMapper;
+    private final McqAnswerKeyCache mcqAnswerKeyCache;
+    private final McqStudentViewCache mcqStudentViewCache;
+    private final McqExamSessionRepository mcqExamSessionRepository;
+    private final StudentMcqSessionService studentMcqSessionService;
     private final ModelMapper modelMapper;
     @Override
     public McqAssignmentResponseDto getMcqAssignmentForStudent(
             Long assignmentId,
             Long studentId) {
 
-        Assignment assignment = assignmentRepository.findById(assignmentId)
-                .orElseThrow(() -> new ResourceNotFoundException("Assignment not found"));
+        McqAssignmentResponseDto view =
+                mcqStudentViewCache.get(assignmentId, this::loadStudentView);
 
-        if (assignment.getStatus() != AssignmentStatus.PUBLISHED) {
-            throw new BadRequestException("Assignment not available");
-        }
-
-        List<Long> batchIds = batchServiceGateway.getStudentBatchIds(studentId);
-        if (batchIds == null || !batchIds.contains(assignment.getBatchId())) {
+        List<Long> batchIds = studentBatchMembershipCache.getStudentBatchIds(studentId);
+        if (batchIds == null || !batchIds.contains(view.getBatchId())) {
             throw new ForbiddenException("You are not enrolled in this batch");
         }
 
-        McqAssignment mcq = mcqAssignmentRepository
-                .findByAssignment_Id(assignmentId)
-                .orElseThrow(() -> new ResourceNotFoundException("MCQ assignment not found"));
-
-        List<McqQuestion> questions =
-                mcqQuestionRepository
-                        .findByMcqAssignment_IdOrderByQuestionNumberAsc(mcq.getId());
-
-        McqAssignmentResponseDto response = new McqAssignmentResponseDto();
-        modelMapper.map(assignment, response);
-
-        response.setPassingPercentage(mcq.getPassingPercentage());
-        response.setShowCorrectAnswers(mcq.getShowCorrectAnswers());
-        response.setTimeLimit(mcq.getTimeLimit());
-        response.setTotalQuestions(questions.size());
-
-        response.setQuestions(
-                questions.stream()
-                        .map(this::mapQuestionForStudent)
-                        .toList()
-        );
-
-        return response;
+        return view;
     }
 
     @Override
@@ -98,22 +74,11 @@ public class StudentMcqServiceImpl implements StudentMcqService {
             throw new BadRequestException("Assignment already submitted");
         }
 
-        List<McqQuestion> questions =
-                mcqQuestionRepository
-                        .findByMcqAssignment_IdOrderByQuestionNumberAsc(mcq.getId());
-
-        EvaluationSummary summary = evaluateMcqDetailed(questions, request);
-        int obtainedMarks = summary.obtainedMarks();
-
-        double percentage =
-                (obtainedMarks * 100.0) / assignment.getMaxMarks();
-
-        boolean passed =
-                percentage >= mcq.getPassingPercentage();
+        Integer timeTaken = studentMcqSessionService
+                .completeForSubmission(mcq, studentId, request.getTimeTaken());
 
-        McqSubmission submission = saveSubmission(
-                mcq, studentId, request, assignment, obtainedMarks, percentage, passed
-        );
+        McqSubmission submission = gradeAndSave(
+                mcq, assignment, studentId, McqAnswerKey.packAnswers(request.getAnswers()), timeTaken);
 
         notificationPublisher.publish(
                 new com.assignment.dto.NotificationEvent(
@@ -130,183 +95,184 @@ public class StudentMcqServiceImpl implements StudentMcqService {
         dto.setAssignmentId(assignment.getId());
         dto.setAssignmentTitle(assignment.getTitle());
         dto.setTotalMarks(assignment.getMaxMarks());
-        dto.setObtainedMarks(obtainedMarks);
-        dto.setPercentage(percentage);
-        dto.setPassed(passed);
+        dto.setObtainedMarks(submission.getObtainedMarks());
+        dto.setPercentage(submission.getPercentage());
+        dto.setPassed(submission.getPassed());
         dto.setSubmittedAt(submission.getSubmittedAt());
         dto.setTimeTaken(submission.getTimeTaken());
-        dto.setCorrectCount(summary.correctCount());
-        dto.setIncorrectCount(summary.incorrectCount());
-        dto.setTotalQuestions(questions.size());
+        dto.setCorrectCount(submission.getCorrectCount());
+        dto.setIncorrectCount(submission.getIncorrectCount());
+        dto.setTotalQuestions(submission.getCorrectCount() + submission.getIncorrectCount());
         return dto;
     }
 
     @Override
+    public void autoSubmitExpiredSession(String sessionId) {
+        McqExamSession session = mcqExamSessionRepository.findById(sessionId)
+                .filter(s -> s.getStatus() == McqExamSessionStatus.ACTIVE)
+                .orElse(null);
+        if (session == null) {
+            return;
+        }
+
+        Assignment assignment = assignmentRepository.findById(session.getAssignmentId()).orElse(null);
+        McqAssignment mcq = mcqAssignmentRepository.findById(session.getMcqAssignmentId()).orElse(null);
+        boolean submittable = assignment != null
+                && mcq != null
+                && assignment.getStatus() == AssignmentStatus.PUBLISHED
+                && !mcqSubmissionRepository.existsByMcqAssignment_IdAndStudentId(mcq.getId(), session.getStudentId());
+
+        if (!submittable) {
+            studentMcqSessionService.finish(session, McqExamSessionStatus.EXPIRED);
+            return;
+        }
+        if (!studentMcqSessionService.finish(session, McqExamSessionStatus.AUTO_SUBMITTED)) {
+            return;
+        }
+
+        Integer timeTaken = mcq.getTimeLimit() == null ? null : mcq.getTimeLimit() * 60;
+        McqSubmission submission = gradeAndSave(
+                mcq, assignment, session.getStudentId(), studentMcqSessionService.currentAnswers(session), timeTaken);
+
+        notificationPublisher.publish(
+                new com.assignment.dto.NotificationEvent(
+                        assignment.getTeacherId(),
+                        null,
+                        "TEACHER",
+                        "IN_APP",
+                        "New MCQ submission",
+                        "A student submitted \"" + assignment.getTitle() + "\"."
+                )
+        );
+        notificationPublisher.publish(
+                new com.assignment.dto.NotificationEvent(
+                        session.getStudentId(),
+                        null,
+                        "STUDENT",
+                        "IN_APP",
+                        "MCQ auto-submitted",
+                        "Time ran out on \"" + assignment.getTitle() + "\". Your saved answers were submitted ("
+                                + submission.getObtainedMarks() + "/" + submission.getTotalMarks() + ")."
+                )
+        );
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public McqSubmissionResponseDto getMcqSubmissionResult(
             Long assignmentId,
             Long studentId) {
 
-        McqAssignment mcq = mcqAssignmentRepository
-                .findByAssignment_Id(assignmentId)
-                .orElseThrow(() -> new ResourceNotFoundException("MCQ assignment not found"));
-
         McqSubmission submission =
                 mcqSubmissionRepository
-                        .findByMcqAssignment_IdAndStudentId(mcq.getId(), studentId)
+                        .findResultByAssignmentIdAndStudentId(assignmentId, studentId)
                         .orElseThrow(() -> new ResourceNotFoundException("Result not found"));
 
-        List<McqQuestion> questions =
-                mcqQuestionRepository
-                        .findByMcqAssignment_IdOrderByQuestionNumberAsc(mcq.getId());
-
-        List<McqAnswerDto> answers = parseAnswersJson(submission.getAnswersJson());
-        EvaluationSummary summary = evaluateMcqDetailed(questions, answers);
+        Integer correctCount = submission.getCorrectCount();
+        Integer incorrectCount = submission.getIncorrectCount();
+        if (correctCount == null && submission.getAnswers() != null) {
+            // Submitted before outcomes were stored and not yet backfilled; the
+            // backfill job persists them, a read only reports them.
+            McqAnswerKey.Result summary = mcqAnswerKeyCache.gradeStoredAnswers(submission);
+            correctCount = summary.correctCount();
+            incorrectCount = summary.incorrectCount();
+        }
 
         McqSubmissionResponseDto dto = modelMapper.map(submission, McqSubmissionResponseDto.class);
         dto.setAssignmentId(assignmentId);
-        dto.setAssignmentTitle(
-                assignmentRepository.findById(assignmentId)
-                        .map(Assignment::getTitle)
-                        .orElse(null));
+        dto.setAssignmentTitle(submission.getMcqAssignment().getAssignment().getTitle());
         dto.setTotalMarks(submission.getTotalMarks());
         dto.setObtainedMarks(submission.getObtainedMarks());
         dto.setPercentage(submission.getPercentage());
         dto.setPassed(submission.getPassed());
         dto.setSubmittedAt(submission.getSubmittedAt());
         dto.setTimeTaken(submission.getTimeTaken());
-        dto.setCorrectCount(summary.correctCount());
-        dto.setIncorrectCount(summary.incorrectCount());
-        dto.setTotalQuestions(questions.size());
+        dto.setCorrectCount(correctCount);
+        dto.setIncorrectCount(incorrectCount);
+        // null until the answers are migrated and the outcome is known
+        dto.setTotalQuestions(correctCount == null || incorrectCount == null ? null : correctCount + incorrectCount);
         return dto;
     }
 
-    private McqQuestionDto mapQuestionForStudent(McqQuestion q) {
-        try {
-            return new McqQuestionDto(
-                    q.getId(),
-                    q.getQuestionNumber(),
-                    q.getQuestionText(),
-                    q.getMarks(),
-                    objectMapper.readValue(
-                            q.getOptionsJson(),
-                            new TypeReference<>() {}),
-                    null // ❌ no correct answers
-            );
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Failed to parse MCQ options", e);
+    private McqAssignmentResponseDto loadStudentView(Long assignmentId) {
+        Assignment assignment = assignmentRepository.findById(assignmentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Assignment not found"));
+
+        if (assignment.getStatus() != AssignmentStatus.PUBLISHED) {
+            throw new BadRequestException("Assignment not available");
         }
-    }
 
-    private EvaluationSummary evaluateMcqDetailed(
-            List<McqQuestion> questions,
-            McqSubmissionRequest request) {
+        McqAssignment mcq = mcqAssignmentRepository
+                .findByAssignment_Id(assignmentId)
+                .orElseThrow(() -> new ResourceNotFoundException("MCQ assignment not found"));
+
+        List<McqQuestion> questions =
+                mcqQuestionRepository
+                        .findByMcqAssignment_IdOrderByQuestionNumberAsc(mcq.getId());
 
-        List<McqAnswerDto> submittedAnswers = request.getAnswers() == null
-                ? List.of()
-                : request.getAnswers();
-        Map<Integer, McqAnswerDto> answerByQuestion = submittedAnswers.stream()
-                .filter(a -> a != null && a.getQuestionNumber() != null)
-                .collect(Collectors.toMap(McqAnswerDto::getQuestionNumber, a -> a, (a, b) -> a));
+        McqAssignmentResponseDto response = new McqAssignmentResponseDto();
+        modelMapper.map(assignment, response);
 
-        Map<Integer, McqQuestion> questionMap =
-                questions.stream()
-                        .collect(Collectors.toMap(McqQuestion::getQuestionNumber, q -> q));
-
-        int marks = 0;
-        int correctCount = 0;
-
-        for (McqQuestion q : questions) {
-            McqAnswerDto ans = answerByQuestion.get(q.getQuestionNumber());
-            if (ans == null) {
-                continue; // no answer for this question = 0 marks
-            }
-
-            try {
-                List<Integer> correctIndexes =
-                        objectMapper.readValue(
-                                q.getCorrectAnswersJson(),
-                                new TypeReference<>() {});
-
-                if (correctIndexes == null || correctIndexes.isEmpty()) {
-                    throw new BadRequestException(
-                            "No correct option configured for question " + ans.getQuestionNumber());
-                }
-
-                List<McqOptionDto> options =
-                        objectMapper.readValue(
-                                q.getOptionsJson(),
-                                new TypeReference<>() {});
-
-                int selectedIndex = ans.getSelectedOptionIndex() != null
-                        ? ans.getSelectedOptionIndex()
-                        : -1;
-
-                if (options == null || selectedIndex < 0 || selectedIndex >= options.size()) {
-                    continue; // invalid option = 0 marks for this question
-                }
-
-                if (correctIndexes.contains(selectedIndex)) {
-                    marks += q.getMarks();
-                    correctCount++;
-                }
-
-            } catch (JsonProcessingException e) {
-                throw new RuntimeException("Evaluation failed", e);
-            }
-        }
+        response.setPassingPercentage(mcq.getPassingPercentage());
+        response.setShowCorrectAnswers(mcq.getShowCorrectAnswers());
+        response.setTimeLimit(mcq.getTimeLimit());
+        response.setTotalQuestions(questions.size());
 
-        int incorrectCount = questions.size() - correctCount;
-        return new EvaluationSummary(marks, correctCount, incorrectCount);
-    }
+        response.setQuestions(
+                questions.stream()
+                        .map(this::mapQuestionForStudent)
+                        .toList()
+        );
 
-    private EvaluationSummary evaluateMcqDetailed(
-            List<McqQuestion> questions,
-            List<McqAnswerDto> answers) {
-        McqSubmissionRequest req = new McqSubmissionRequest();
-        req.setAnswers(answers);
-        return evaluateMcqDetailed(questions, req);
+        return response;
     }
 
-    private List<McqAnswerDto> parseAnswersJson(String json) {
-        try {
-            return objectMapper.readValue(json, new TypeReference<>() {});
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Failed to parse submitted answers", e);
+    private McqQuestionDto mapQuestionForStudent(McqQuestion q) {
+        List<McqOptionDto> options = new ArrayList<>(q.getOptions().size());
+        for (int i = 0; i < q.getOptions().size(); i++) {
+            options.add(new McqOptionDto(i, q.getOptions().get(i)));
         }
-    }
 
-    private record EvaluationSummary(
-            int obtainedMarks,
-            int correctCount,
-            int incorrectCount
-    ) {}
+        return new McqQuestionDto(
+                q.getId(),
+                q.getQuestionNumber(),
+                q.getQuestionText(),
+                q.getMarks(),
+                options,
+                null // ❌ no correct answers
+        );
+    }
 
-    private McqSubmission saveSubmission(
+    private McqSubmission gradeAndSave(
             McqAssignment mcq,
-            Long studentId,
-            McqSubmissionRequest request,
             Assignment assignment,
-            int obtainedMarks,
-            double percentage,
-            boolean passed) {
-
-        try {
-            return mcqSubmissionRepository.save(
-                    McqSubmission.builder()
-                            .mcqAssignment(mcq)
-                            .studentId(studentId)
-                            .answersJson(
-                                    objectMapper.writeValueAsString(request.getAnswers()))
-                            .totalMarks(assignment.getMaxMarks())
-                            .obtainedMarks(obtainedMarks)
-                            .percentage(percentage)
-                            .passed(passed)
-                            .submittedAt(LocalDateTime.now())
-                            .timeTaken(request.getTimeTaken())
-                            .build()
-            );
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Failed to save submission", e);
-        }
+            Long studentId,
+            byte[] packedAnswers,
+            Integer timeTaken) {
+
+        McqAnswerKey answerKey = mcqAnswerKeyCache.get(mcq.getId());
+        McqAnswerKey.Result summary = answerKey.grade(packedAnswers);
+        double percentage = (summary.obtainedMarks() * 100.0) / assignment.getMaxMarks();
+
+        McqSubmission submission = mcqSubmissionRepository.save(
+                McqSubmission.builder()
+                        .mcqAssignment(mcq)
+                        .studentId(studentId)
+                        .answers(packedAnswers)
+                        .totalMarks(assignment.getMaxMarks())
+                        .obtainedMarks(summary.obtainedMarks())
+                        .percentage(percentage)
+                        .passed(percentage >= mcq.getPassingPercentage())
+                        .submittedAt(LocalDateTime.now())
+                        .timeTaken(timeTaken)
+                        .correctCount(summary.correctCount())
+                        .incorrectCount(summary.incorrectCount())
+                        .correctnessBitmap(summary.correctness())
+                        .build()
+        );
+        // MCQ submissions are graded on arrival, so they count as evaluated too
+        assignmentRepository.incrementCounters(
+                assignment.getId(), 1, 1, Boolean.TRUE.equals(submission.getPassed()) ? 1 : 0);
+        return submission;
     }
 }
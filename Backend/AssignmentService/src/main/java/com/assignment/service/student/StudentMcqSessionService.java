@@ -0,0 +1,48 @@
+package com.assignment.service.student;
+
+import com.assignment.dto.McqAnswerDto;
+import com.assignment.dto.McqExamSessionDto;
+import com.assignment.entity.McqAssignment;
+import com.assignment.entity.McqExamSession;
+import com.assignment.entity.McqExamSessionStatus;
+
+import java.util.List;
+
+public interface StudentMcqSessionService {
+    McqExamSessionDto startExam(Long assignmentId, Long studentId);
+
+    McqExamSessionDto saveAnswers(String sessionId, List<McqAnswerDto> answers, Long studentId);
+
+    McqExamSessionDto getSession(String sessionId, Long studentId);
+
+    /**
+     * Closes the student's session for a manual submission and returns the
+     * time taken in seconds, measured on the server when a session exists.
+     */
+    Integer completeForSubmission(McqAssignment mcq, Long studentId, Integer claimedTimeTaken);
+
+    /**
+     * Reopens the session a submission closed when that submission is rejected
+     * later on, keeping {@code answers} (packed) when given. The student can
+     * submit again, or the sweeper submits the answers once the deadline passed.
+     */
+    void reopenAfterRejection(Long mcqAssignmentId, Long studentId, byte[] answers);
+
+    /**
+     * Moves an ACTIVE session to {@code status}; false when it was already finished.
+     */
+    boolean finish(McqExamSession session, McqExamSessionStatus status);
+
+    /**
+     * Counts a failed auto-submit of an expired session and marks it FAILED,
+     * with its answers kept, once {@code maxAttempts} have failed.
+     *
+     * @return whether the session was marked FAILED
+     */
+    boolean recordAutoSubmitFailure(String sessionId, int maxAttempts);
+
+    /**
+     * @return the session's answers, packed, including autosaves not flushed yet
+     */
+    byte[] currentAnswers(McqExamSession session);
+}
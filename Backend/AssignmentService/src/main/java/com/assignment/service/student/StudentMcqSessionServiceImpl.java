@@ -0,0 +1,324 @@
+package com.assignment.service.student;
+
+import com.assignment.dto.McqAnswerDto;
+import com.assignment.dto.McqExamSessionDto;
+import com.assignment.entity.*;
+import com.assignment.exception.BadRequestException;
+import com.assignment.exception.ForbiddenException;
+import com.assignment.exception.ResourceNotFoundException;
+import com.assignment.repository.AssignmentRepository;
+import com.assignment.repository.McqAssignmentRepository;
+import com.assignment.repository.McqExamSessionRepository;
+import com.assignment.repository.McqSubmissionRepository;
+import com.assignment.service.McqAnswerKey;
+import com.assignment.service.McqAutosaveBuffer;
+import com.assignment.service.StudentBatchMembershipCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Server-side MCQ exam sessions. The deadline is fixed when the exam starts;
+ * autosaves only touch the Redis buffer (flushed by McqExamSessionSweeper), so
+ * a save is one Redis round trip and no database access. The owner and deadline
+ * come from a short-lived local copy of the session; whether it is still open is
+ * checked against the closed marker {@link #finish} leaves in Redis, which every
+ * instance sees.
+ */
+@Service
+public class StudentMcqSessionServiceImpl implements StudentMcqSessionService {
+
+    private final AssignmentRepository assignmentRepository;
+    private final McqAssignmentRepository mcqAssignmentRepository;
+    private final McqSubmissionRepository mcqSubmissionRepository;
+    private final McqExamSessionRepository sessionRepository;
+    private final StudentBatchMembershipCache studentBatchMembershipCache;
+    private final McqAutosaveBuffer autosaveBuffer;
+
+    private final Duration gracePeriod;
+    private final Duration bufferTtl;
+    private final boolean required;
+    private final Cache<String, SessionInfo> sessions;
+
+    public StudentMcqSessionServiceImpl(
+            AssignmentRepository assignmentRepository,
+            McqAssignmentRepository mcqAssignmentRepository,
+            McqSubmissionRepository mcqSubmissionRepository,
+            McqExamSessionRepository sessionRepository,
+            StudentBatchMembershipCache studentBatchMembershipCache,
+            McqAutosaveBuffer autosaveBuffer,
+            @Value("${assignment.mcq.exam-session.grace-period:30s}") Duration gracePeriod,
+            @Value("${assignment.mcq.exam-session.buffer-ttl:24h}") Duration bufferTtl,
+            @Value("${assignment.mcq.exam-session.required:false}") boolean required,
+            @Value("${assignment.mcq.exam-session.cache-ttl:1m}") Duration cacheTtl) {
+        this.assignmentRepository = assignmentRepository;
+        this.mcqAssignmentRepository = mcqAssignmentRepository;
+        this.mcqSubmissionRepository = mcqSubmissionRepository;
+        this.sessionRepository = sessionRepository;
+        this.studentBatchMembershipCache = studentBatchMembershipCache;
+        this.autosaveBuffer = autosaveBuffer;
+        this.gracePeriod = gracePeriod;
+        this.bufferTtl = bufferTtl;
+        this.required = required;
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(cacheTtl)
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public McqExamSessionDto startExam(Long assignmentId, Long studentId) {
+        Assignment assignment = assignmentRepository.findById(assignmentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Assignment not found"));
+
+        if (assignment.getStatus() != AssignmentStatus.PUBLISHED) {
+            throw new BadRequestException("Assignment not open for submission");
+        }
+
+        List<Long> batchIds = studentBatchMembershipCache.getStudentBatchIds(studentId);
+        if (batchIds == null || !batchIds.contains(assignment.getBatchId())) {
+            throw new ForbiddenException("You are not enrolled in this batch");
+        }
+
+        McqAssignment mcq = mcqAssignmentRepository
+                .findByAssignment_Id(assignmentId)
+                .orElseThrow(() -> new ResourceNotFoundException("MCQ assignment not found"));
+
+        if (mcqSubmissionRepository.existsByMcqAssignment_IdAndStudentId(mcq.getId(), studentId)) {
+            throw new BadRequestException("Assignment already submitted");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        McqExamSession session = sessionRepository
+                .findByMcqAssignmentIdAndStudentId(mcq.getId(), studentId)
+                .orElse(null);
+
+        if (session == null) {
+            session = McqExamSession.builder()
+                    .id(UUID.randomUUID().toString())
+                    .mcqAssignmentId(mcq.getId())
+                    .assignmentId(assignmentId)
+                    .studentId(studentId)
+                    .status(McqExamSessionStatus.ACTIVE)
+                    .startedAt(now)
+                    .deadline(mcq.getTimeLimit() == null ? null : now.plusMinutes(mcq.getTimeLimit()))
+                    .build();
+            try {
+                sessionRepository.saveAndFlush(session);
+            } catch (DataIntegrityViolationException e) {
+                // a concurrent start from the same student won the unique (mcq_assignment_id, student_id)
+                throw new BadRequestException("Exam already started, reload to resume it");
+            }
+            return toDto(session, null, now);
+        }
+
+        if (session.getStatus() != McqExamSessionStatus.ACTIVE) {
+            throw new BadRequestException("Assignment already submitted");
+        }
+        return toDto(session, currentAnswers(session), now);
+    }
+
+    @Override
+    public McqExamSessionDto saveAnswers(String sessionId, List<McqAnswerDto> answers, Long studentId) {
+        SessionInfo info = sessions.get(sessionId, id -> sessionRepository.findById(id)
+                .map(SessionInfo::of)
+                .orElse(null));
+        if (info == null || !info.studentId().equals(studentId)) {
+            throw new ResourceNotFoundException("Exam session not found");
+        }
+        if (info.status() != McqExamSessionStatus.ACTIVE) {
+            throw new BadRequestException("Exam session is closed");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (isOverdue(info.deadline(), now)) {
+            throw new BadRequestException("Exam time is over");
+        }
+
+        if (!autosaveBuffer.save(sessionId, answers, bufferTtl)) {
+            // finished on another instance since it was cached here
+            sessions.invalidate(sessionId);
+            throw new BadRequestException("Exam session is closed");
+        }
+
+        return McqExamSessionDto.builder()
+                .sessionId(sessionId)
+                .assignmentId(info.assignmentId())
+                .status(info.status())
+                .startedAt(info.startedAt())
+                .deadline(info.deadline())
+                .remainingSeconds(remainingSeconds(info.deadline(), now))
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public McqExamSessionDto getSession(String sessionId, Long studentId) {
+        McqExamSession session = sessionRepository.findById(sessionId)
+                .filter(s -> s.getStudentId().equals(studentId))
+                .orElseThrow(() -> new ResourceNotFoundException("Exam session not found"));
+
+        byte[] answers = session.getStatus() == McqExamSessionStatus.ACTIVE
+                ? currentAnswers(session)
+                : session.getAnswers();
+        return toDto(session, answers, LocalDateTime.now());
+    }
+
+    @Override
+    @Transactional
+    public Integer completeForSubmission(McqAssignment mcq, Long studentId, Integer claimedTimeTaken) {
+        McqExamSession session = sessionRepository
+                .findByMcqAssignmentIdAndStudentId(mcq.getId(), studentId)
+                .orElse(null);
+
+        if (session == null) {
+            if (required && mcq.getTimeLimit() != null) {
+                throw new BadRequestException("Start the exam before submitting");
+            }
+            return claimedTimeTaken;
+        }
+
+        if (session.getStatus() != McqExamSessionStatus.ACTIVE) {
+            throw new BadRequestException("Assignment already submitted");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (isOverdue(session.getDeadline(), now)) {
+            // the sweeper submits the autosaved answers instead
+            throw new BadRequestException("Exam time is over");
+        }
+        if (!finish(session, McqExamSessionStatus.SUBMITTED)) {
+            throw new BadRequestException("Assignment already submitted");
+        }
+
+        long elapsed = Duration.between(session.getStartedAt(), now).toSeconds();
+        if (mcq.getTimeLimit() != null) {
+            elapsed = Math.min(elapsed, mcq.getTimeLimit() * 60L);
+        }
+        return (int) elapsed;
+    }
+
+    @Override
+    @Transactional
+    public boolean finish(McqExamSession session, McqExamSessionStatus status) {
+        String sessionId = session.getId();
+        if (sessionRepository.finish(sessionId, status, LocalDateTime.now()) == 0) {
+            return false;
+        }
+        sessions.invalidate(sessionId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sessions.invalidate(sessionId);
+                    autosaveBuffer.close(sessionId, bufferTtl);
+                }
+            });
+        }
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public void reopenAfterRejection(Long mcqAssignmentId, Long studentId, byte[] answers) {
+        McqExamSession session = sessionRepository
+                .findByMcqAssignmentIdAndStudentId(mcqAssignmentId, studentId)
+                .filter(s -> s.getStatus() == McqExamSessionStatus.SUBMITTED)
+                .orElse(null);
+        if (session == null) {
+            return;
+        }
+
+        session.setStatus(McqExamSessionStatus.ACTIVE);
+        session.setFinishedAt(null);
+        if (answers != null) {
+            // the buffer was dropped when the session closed; these are the submitted answers
+            session.setAnswers(answers);
+        }
+
+        String sessionId = session.getId();
+        sessions.invalidate(sessionId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sessions.invalidate(sessionId);
+                    autosaveBuffer.reopen(sessionId);
+                }
+            });
+        }
+    }
+
+    @Override
+    @Transactional
+    public boolean recordAutoSubmitFailure(String sessionId, int maxAttempts) {
+        McqExamSession session = sessionRepository.findById(sessionId)
+                .filter(s -> s.getStatus() == McqExamSessionStatus.ACTIVE)
+                .orElse(null);
+        if (session == null) {
+            return false;
+        }
+
+        session.setAutoSubmitAttempts(session.getAutoSubmitAttempts() + 1);
+        if (session.getAutoSubmitAttempts() < maxAttempts) {
+            return false;
+        }
+        // keep the autosaved answers with the session, the buffer is dropped on finish
+        session.setAnswers(currentAnswers(session));
+        return finish(session, McqExamSessionStatus.FAILED);
+    }
+
+    @Override
+    public byte[] currentAnswers(McqExamSession session) {
+        return autosaveBuffer.read(session.getId(), session.getAnswers());
+    }
+
+    private boolean isOverdue(LocalDateTime deadline, LocalDateTime now) {
+        return deadline != null && now.isAfter(deadline.plus(gracePeriod));
+    }
+
+    private static Long remainingSeconds(LocalDateTime deadline, LocalDateTime now) {
+        return deadline == null ? null : Math.max(0, Duration.between(now, deadline).toSeconds());
+    }
+
+    private static McqExamSessionDto toDto(McqExamSession session, byte[] answers, LocalDateTime now) {
+        return McqExamSessionDto.builder()
+                .sessionId(session.getId())
+                .assignmentId(session.getAssignmentId())
+                .status(session.getStatus())
+                .startedAt(session.getStartedAt())
+                .deadline(session.getDeadline())
+                .remainingSeconds(remainingSeconds(session.getDeadline(), now))
+                .answers(McqAnswerKey.unpackAnswers(answers))
+                .build();
+    }
+
+    private record SessionInfo(
+            Long studentId,
+            Long assignmentId,
+            McqExamSessionStatus status,
+            LocalDateTime startedAt,
+            LocalDateTime deadline
+    ) {
+        static SessionInfo of(McqExamSession session) {
+            return new SessionInfo(
+                    session.getStudentId(),
+                    session.getAssignmentId(),
+                    session.getStatus(),
+                    session.getStartedAt(),
+                    session.getDeadline());
+        }
+    }
+}
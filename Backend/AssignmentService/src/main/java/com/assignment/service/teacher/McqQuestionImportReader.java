@@ -0,0 +1,152 @@
+package com.assignment.service.teacher;
+
+import com.assignment.dto.McqOptionCreateDto;
+import com.assignment.dto.McqQuestionCreateDto;
+import com.assignment.exception.BadRequestException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads an uploaded question bank one row at a time so only the current line
+ * is held in memory.
+ *
+ * <p>JSONL: one {@link McqQuestionCreateDto} JSON object per line.
+ * <p>CSV: {@code questionText,optionText,isCorrect,optionText,isCorrect,...};
+ * an optional header row starting with {@code questionText} is skipped.
+ * Quoted fields may contain commas and doubled quotes but not line breaks.
+ */
+class McqQuestionImportReader implements Closeable {
+
+    enum Format { CSV, JSONL }
+
+    record Row(long lineNumber, McqQuestionCreateDto question, String error) {}
+
+    private final BufferedReader reader;
+    private final Format format;
+    private final ObjectMapper objectMapper;
+    private long lineNumber;
+
+    McqQuestionImportReader(InputStream in, Format format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    static Format formatOf(String contentType) {
+        String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+        if (type.startsWith("text/csv")) {
+            return Format.CSV;
+        }
+        if (type.startsWith("application/x-ndjson") || type.startsWith("application/jsonl")) {
+            return Format.JSONL;
+        }
+        throw new BadRequestException("Unsupported import format. Use text/csv or application/x-ndjson");
+    }
+
+    /**
+     * @return the next non-blank row, or {@code null} at end of input
+     */
+    Row next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (lineNumber == 1 && !line.isEmpty() && line.charAt(0) == '﻿') {
+                line = line.substring(1);
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && lineNumber == 1 && isCsvHeader(line)) {
+                continue;
+            }
+            try {
+                McqQuestionCreateDto question = format == Format.CSV
+                        ? parseCsv(line)
+                        : objectMapper.readValue(line, McqQuestionCreateDto.class);
+                return new Row(lineNumber, question, null);
+            } catch (JsonProcessingException e) {
+                return new Row(lineNumber, null, "Invalid JSON: " + e.getOriginalMessage());
+            } catch (BadRequestException e) {
+                return new Row(lineNumber, null, e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private boolean isCsvHeader(String line) {
+        return line.trim().replace("\"", "").toLowerCase(Locale.ROOT).startsWith("questiontext");
+    }
+
+    private McqQuestionCreateDto parseCsv(String line) {
+        List<String> cells = splitCsv(line);
+        if (cells.size() < 3 || cells.size() % 2 == 0) {
+            throw new BadRequestException(
+                    "Expected questionText followed by optionText,isCorrect pairs");
+        }
+
+        McqQuestionCreateDto question = new McqQuestionCreateDto();
+        question.setQuestionText(cells.get(0));
+
+        List<McqOptionCreateDto> options = new ArrayList<>((cells.size() - 1) / 2);
+        for (int i = 1; i < cells.size(); i += 2) {
+            McqOptionCreateDto option = new McqOptionCreateDto();
+            option.setText(cells.get(i));
+            option.setIsCorrect(parseBoolean(cells.get(i + 1)));
+            options.add(option);
+        }
+        question.setOptions(options);
+        return question;
+    }
+
+    private Boolean parseBoolean(String value) {
+        String v = value.trim().toLowerCase(Locale.ROOT);
+        return switch (v) {
+            case "true", "1", "yes", "y" -> Boolean.TRUE;
+            case "false", "0", "no", "n", "" -> Boolean.FALSE;
+            default -> throw new BadRequestException("Invalid isCorrect value: " + value);
+        };
+    }
+
+    private List<String> splitCsv(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        if (quoted) {
+            throw new BadRequestException("Unterminated quoted field");
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+}
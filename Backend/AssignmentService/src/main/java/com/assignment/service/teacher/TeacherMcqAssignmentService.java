@@ -1,10 +1,14 @@
 package com.assignment.service.teacher;
 
+import com.assignment.dto.McqAnalyticsDto;
 import com.assignment.dto.McqAssignmentCreateRequest;
 import com.assignment.dto.McqAssignmentResponseDto;
 import com.assignment.dto.McqAssignmentUpdateRequest;
+import com.assignment.dto.McqQuestionImportResultDto;
+import com.assignment.dto.McqRegradeStatusDto;
 import com.assignment.dto.McqSubmissionSummaryDto;
 
+import java.io.InputStream;
 import java.util.List;
 
 public interface TeacherMcqAssignmentService {
@@ -35,4 +39,17 @@ public interface TeacherMcqAssignmentService {
             Long assignmentId,
             Long teacherId
     );
+
+    McqQuestionImportResultDto importQuestions(
+            Long assignmentId,
+            InputStream content,
+            String contentType,
+            Long teacherId
+    );
+
+    McqAnalyticsDto getMcqAnalytics(Long assignmentId, Long teacherId);
+
+    McqRegradeStatusDto regradeSubmissions(Long assignmentId, Long teacherId);
+
+    McqRegradeStatusDto getRegradeStatus(Long assignmentId, Long teacherId);
 }
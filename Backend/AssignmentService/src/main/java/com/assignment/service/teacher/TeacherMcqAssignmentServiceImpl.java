@@ -5,23 +5,36 @@ import com.assignment.entity.*;
 import com.assignment.exception.BadRequestException;
 import com.assignment.exception.ForbiddenException;
 import com.assignment.exception.ResourceNotFoundException;
+import com.assignment.job.McqRegradeJob;
 import com.assignment.repository.*;
 import com.assignment.service.BatchServiceGateway;
+import com.assignment.service.McqAnalyticsStore;
+import com.assignment.service.McqAnswerKey;
+import com.assignment.service.McqAnswerKeyCache;
+import com.assignment.service.McqStudentViewCache;
 import com.assignment.service.NotificationPublisher;
-import com.assignment.service.UserServiceGateway;
+import com.assignment.service.UserSummaryCache;
 import com.assignment.service.student.StudentAssignmentServiceImpl;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;;
 
 @Slf4j
@@ -29,16 +42,29 @@ import java.util.stream.Collectors;;
 @RequiredArgsConstructor
 public class TeacherMcqAssignmentServiceImpl implements TeacherMcqAssignmentService {
 
+    private static final int MAX_IMPORT_ERRORS = 100;
+    private static final int MAX_QUESTION_TEXT_LENGTH = 1000;
+    // staged rows of an import that never finished (instance crash) are purged after this
+    private static final Duration ABANDONED_IMPORT_AGE = Duration.ofDays(1);
+
     private final AssignmentRepository assignmentRepository;
     private final McqAssignmentRepository mcqAssignmentRepository;
     private final McqQuestionRepository mcqQuestionRepository;
+    private final McqQuestionBatchWriter mcqQuestionBatchWriter;
+    private final McqQuestionImportStaging mcqQuestionImportStaging;
     private final McqSubmissionRepository mcqSubmissionRepository;
     private final BatchServiceGateway batchServiceGateway;
     private final NotificationPublisher notificationPublisher;
     private final StudentAssignmentServiceImpl studentAssignmentService;
-    private final UserServiceGateway userServiceGateway;
+    private final UserSummaryCache userSummaryCache;
+    private final McqAnswerKeyCache mcqAnswerKeyCache;
+    private final McqStudentViewCache mcqStudentViewCache;
+    private final McqRegradeJob mcqRegradeJob;
+    private final McqAnalyticsStore mcqAnalyticsStore;
     private final ObjectMapper objectMapper;
     private final ModelMapper modelMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     @Transactional
@@ -79,59 +105,12 @@ public class TeacherMcqAssignmentServiceImpl implements TeacherMcqAssignmentServ
                 .build();
 
         mcqAssignment = mcqAssignmentRepository.save(mcqAssignment);
-        List<McqQuestion> questions = new ArrayList<>();
-
-        int questionNumber = 1;
-
-        for (McqQuestionCreateDto questionDto : questionDtos) {
-            try {
-                List<McqOptionCreateDto> createOptions = questionDto.getOptions();
 
-                int correctIndex = -1;
-
-                for (int i = 0; i < createOptions.size(); i++) {
-                    if (Boolean.TRUE.equals(createOptions.get(i).getIsCorrect())) {
-                        if (correctIndex != -1) {
-                            throw new BadRequestException(
-                                    "Each question must have exactly one correct option");
-                        }
-                        correctIndex = i;
-                    }
-                }
-
-                if (correctIndex == -1) {
-                    throw new BadRequestException(
-                            "Each question must have exactly one correct option");
-                }
-                List<McqOptionDto> responseOptions = new ArrayList<>();
-                for (int i = 0; i < createOptions.size(); i++) {
-                    responseOptions.add(
-                            new McqOptionDto(i, createOptions.get(i).getText())
-                    );
-                }
-
-                McqQuestion question = McqQuestion.builder()
-                        .mcqAssignment(mcqAssignment)
-                        .questionNumber(questionNumber++)
-                        .questionText(questionDto.getQuestionText())
-                        .marks(marksPerQuestion)
-                        .optionsJson(
-                                objectMapper.writeValueAsString(responseOptions)
-                        )
-                        .correctAnswersJson(
-                                objectMapper.writeValueAsString(List.of(correctIndex))
-                        )
-                        .build();
-
-                questions.add(question);
-
-            } catch (JsonProcessingException e) {
-                throw new RuntimeException("Failed to serialize MCQ question data", e);
-            }
-        }
+        mcqQuestionBatchWriter.insertAll(buildQuestions(mcqAssignment, questionDtos, marksPerQuestion));
 
-        mcqQuestionRepository.saveAll(questions);
-return buildMcqAssignmentResponse(mcqAssignment, questions, true);
+        List<McqQuestion> questions = mcqQuestionRepository
+                .findByMcqAssignment_IdOrderByQuestionNumberAsc(mcqAssignment.getId());
+        return buildMcqAssignmentResponse(mcqAssignment, questions, true);
     }
 
     @Override
@@ -145,20 +124,13 @@ Assignment assignment = getAssignmentAndValidateTeacher(assignmentId, teacherId)
 
         assignment.setStatus(AssignmentStatus.PUBLISHED);
         assignmentRepository.save(assignment);
-List<Long> studentIds = batchServiceGateway.getBatchStudentIds(assignment.getBatchId());
-        for (Long studentId : studentIds) {
-            notificationPublisher.publish(
-                    new com.assignment.dto.NotificationEvent(
-                            studentId,
-                            null,
-                            "STUDENT",
-                            "IN_APP",
-                            "New MCQ published",
-                            "MCQ \"" + assignment.getTitle() + "\" has been published."
-                    )
-            );
-            studentAssignmentService.evictStudentAssignments(studentId);
-        }
+        mcqStudentViewCache.evict(assignmentId);
+        notificationPublisher.publishToBatch(
+                assignment.getBatchId(),
+                "New MCQ published",
+                "MCQ \"" + assignment.getTitle() + "\" has been published."
+        );
+        studentAssignmentService.evictBatchAssignments(assignment.getBatchId());
     }
 
     @Override
@@ -172,20 +144,13 @@ Assignment assignment = getAssignmentAndValidateTeacher(assignmentId, teacherId)
 
         assignment.setStatus(AssignmentStatus.CLOSED);
         assignmentRepository.save(assignment);
-List<Long> studentIds = batchServiceGateway.getBatchStudentIds(assignment.getBatchId());
-        for (Long studentId : studentIds) {
-            notificationPublisher.publish(
-                    new com.assignment.dto.NotificationEvent(
-                            studentId,
-                            null,
-                            "STUDENT",
-                            "IN_APP",
-                            "MCQ closed",
-                            "MCQ \"" + assignment.getTitle() + "\" has been closed."
-                    )
-            );
-            studentAssignmentService.evictStudentAssignments(studentId);
-        }
+        mcqStudentViewCache.evict(assignmentId);
+        notificationPublisher.publishToBatch(
+                assignment.getBatchId(),
+                "MCQ closed",
+                "MCQ \"" + assignment.getTitle() + "\" has been closed."
+        );
+        studentAssignmentService.evictBatchAssignments(assignment.getBatchId());
     }
 
     @Override
@@ -237,68 +202,29 @@ Assignment assignment = getAssignmentAndValidateTeacher(assignmentId, teacherId)
             mcqAssignment.setTimeLimit(request.getTimeLimit());
         }
 
+        boolean regradeNeeded = request.getMaxMarks() != null || request.getPassingPercentage() != null;
+
         List<McqQuestionCreateDto> questionDtos = request.getQuestions();
         if (questionDtos != null && !questionDtos.isEmpty()) {
+            regradeNeeded = true;
             int questionCount = questionDtos.size();
             int marksPerQuestion = assignment.getMaxMarks() / questionCount;
 
-            mcqQuestionRepository.deleteByMcqAssignment_Id(mcqAssignment.getId());
-
-            List<McqQuestion> questions = new ArrayList<>();
-            int questionNumber = 1;
-
-            for (McqQuestionCreateDto questionDto : questionDtos) {
-                try {
-                    List<McqOptionCreateDto> createOptions = questionDto.getOptions();
-
-                    int correctIndex = -1;
-                    for (int i = 0; i < createOptions.size(); i++) {
-                        if (Boolean.TRUE.equals(createOptions.get(i).getIsCorrect())) {
-                            if (correctIndex != -1) {
-                                throw new BadRequestException(
-                                        "Each question must have exactly one correct option");
-                            }
-                            correctIndex = i;
-                        }
-                    }
-
-                    if (correctIndex == -1) {
-                        throw new BadRequestException(
-                                "Each question must have exactly one correct option");
-                    }
-
-                    List<McqOptionDto> responseOptions = new ArrayList<>();
-                    for (int i = 0; i < createOptions.size(); i++) {
-                        responseOptions.add(
-                                new McqOptionDto(i, createOptions.get(i).getText())
-                        );
-                    }
-
-                    McqQuestion question = McqQuestion.builder()
-                            .mcqAssignment(mcqAssignment)
-                            .questionNumber(questionNumber++)
-                            .questionText(questionDto.getQuestionText())
-                            .marks(marksPerQuestion)
-                            .optionsJson(
-                                    objectMapper.writeValueAsString(responseOptions)
-                            )
-                            .correctAnswersJson(
-                                    objectMapper.writeValueAsString(List.of(correctIndex))
-                            )
-                            .build();
-
-                    questions.add(question);
+            List<McqQuestion> questions = buildQuestions(mcqAssignment, questionDtos, marksPerQuestion);
 
-                } catch (JsonProcessingException e) {
-                    throw new RuntimeException("Failed to serialize MCQ question data", e);
-                }
-            }
-
-            mcqQuestionRepository.saveAll(questions);
+            mcqQuestionRepository.deleteOptionsByMcqAssignmentId(mcqAssignment.getId());
+            mcqQuestionRepository.deleteAllByMcqAssignmentId(mcqAssignment.getId());
+            mcqQuestionBatchWriter.insertAll(questions);
         }
 
         assignmentRepository.save(assignment);
         mcqAssignmentRepository.save(mcqAssignment);
+        mcqAnswerKeyCache.evict(mcqAssignment.getId());
+        mcqStudentViewCache.evict(assignmentId);
+        if (regradeNeeded) {
+            mcqAnalyticsStore.markStale(mcqAssignment.getId());
+            mcqRegradeJob.requestAfterCommit(assignmentId);
+        }
 
         List<McqQuestion> questions = mcqQuestionRepository
                 .findByMcqAssignment_IdOrderByQuestionNumberAsc(mcqAssignment.getId());
@@ -321,11 +247,11 @@ Assignment assignment = getAssignmentAndValidateTeacher(assignmentId, teacherId)
         assignment.setStatus(AssignmentStatus.DELETED);
         assignment.setDeletedAt(LocalDateTime.now());
         assignmentRepository.save(assignment);
+        mcqAnswerKeyCache.evict(mcqAssignment.getId());
+        mcqStudentViewCache.evict(assignmentId);
+        mcqAnalyticsStore.delete(mcqAssignment.getId());
 
-        List<Long> studentIds = batchServiceGateway.getBatchStudentIds(assignment.getBatchId());
-        for (Long studentId : studentIds) {
-            studentAssignmentService.evictStudentAssignments(studentId);
-        }
+        studentAssignmentService.evictBatchAssignments(assignment.getBatchId());
     }
 
     @Override
@@ -342,9 +268,12 @@ Assignment assignment = getAssignmentAndValidateTeacher(assignmentId, teacherId)
         List<McqSubmission> submissions =
                 mcqSubmissionRepository.findByMcqAssignment_IdOrderBySubmittedAtDesc(mcqAssignment.getId());
 
+        Map<Long, UserSummaryDto> users = userSummaryCache.getAll(
+                submissions.stream().map(McqSubmission::getStudentId).toList());
+
         return submissions.stream()
                 .map(submission -> {
-                    var user = userServiceGateway.getUserSummary(submission.getStudentId());
+                    var user = users.get(submission.getStudentId());
                     String fullName = ((user.getFirstName() == null ? "" : user.getFirstName()) + " " +
                             (user.getLastName() == null ? "" : user.getLastName())).trim();
                     if (fullName.isEmpty()) {
@@ -367,6 +296,252 @@ Assignment assignment = getAssignmentAndValidateTeacher(assignmentId, teacherId)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Not one transaction: accepted rows are staged in chunks that commit on
+     * their own while the upload is read, however slowly it arrives, and are
+     * copied into the bank in one transaction once the whole file was read.
+     */
+    @Override
+    public McqQuestionImportResultDto importQuestions(
+            Long assignmentId,
+            InputStream content,
+            String contentType,
+            Long teacherId) {
+
+        Assignment assignment = getAssignmentAndValidateTeacher(assignmentId, teacherId);
+        McqQuestionImportReader.Format format = McqQuestionImportReader.formatOf(contentType);
+
+        McqAssignment mcqAssignment = mcqAssignmentRepository.findByAssignment_Id(assignmentId)
+                .orElseThrow(() -> new ResourceNotFoundException("MCQ assignment not found"));
+
+        // Rows are appended after the existing bank; numbers and marks are assigned
+        // when the staged rows are copied in, so each chunk is staged without them.
+        int existingCount = mcqQuestionRepository.findMaxQuestionNumber(mcqAssignment.getId());
+
+        List<McqQuestion> chunk = new ArrayList<>(McqQuestionBatchWriter.BATCH_SIZE);
+        List<McqImportRowErrorDto> errors = new ArrayList<>();
+        int staged = 0;
+        long rejected = 0;
+
+        mcqQuestionImportStaging.deleteStagedBefore(LocalDateTime.now().minus(ABANDONED_IMPORT_AGE));
+        String importId = UUID.randomUUID().toString();
+        try {
+            try (McqQuestionImportReader reader = new McqQuestionImportReader(content, format, objectMapper)) {
+                McqQuestionImportReader.Row row;
+                while ((row = reader.next()) != null) {
+                    String error = row.error() != null ? row.error() : validateImportedQuestion(row.question());
+                    if (error == null && existingCount + staged + chunk.size() >= McqAnswerKey.MAX_QUESTION_NUMBER) {
+                        error = "An assignment can have at most " + McqAnswerKey.MAX_QUESTION_NUMBER + " questions";
+                    }
+                    McqQuestion question = null;
+                    if (error == null) {
+                        try {
+                            question = buildQuestion(mcqAssignment, row.question(), 0, 0);
+                        } catch (BadRequestException ex) {
+                            error = ex.getMessage();
+                        }
+                    }
+
+                    if (error != null) {
+                        rejected++;
+                        if (errors.size() < MAX_IMPORT_ERRORS) {
+                            errors.add(new McqImportRowErrorDto(row.lineNumber(), error));
+                        }
+                        continue;
+                    }
+
+                    chunk.add(question);
+                    if (chunk.size() == McqQuestionBatchWriter.BATCH_SIZE) {
+                        mcqQuestionImportStaging.stage(importId, staged + 1, chunk, LocalDateTime.now());
+                        staged += chunk.size();
+                        chunk.clear();
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read MCQ question import", e);
+            }
+
+            if (!chunk.isEmpty()) {
+                mcqQuestionImportStaging.stage(importId, staged + 1, chunk, LocalDateTime.now());
+                staged += chunk.size();
+            }
+
+            int imported = staged;
+            int totalQuestions = imported == 0
+                    ? existingCount
+                    : transactionTemplate.execute(status ->
+                            copyStagedQuestions(importId, imported, assignment, mcqAssignment));
+            Integer marksPerQuestion = imported == 0 ? null : assignment.getMaxMarks() / totalQuestions;
+
+            log.info("Imported {} MCQ questions into assignment {} ({} rejected)",
+                    imported, assignmentId, rejected);
+
+            return McqQuestionImportResultDto.builder()
+                    .assignmentId(assignmentId)
+                    .importedCount((long) imported)
+                    .rejectedCount(rejected)
+                    .totalQuestions(totalQuestions)
+                    .marksPerQuestion(marksPerQuestion)
+                    .errors(errors)
+                    .build();
+        } finally {
+            mcqQuestionImportStaging.delete(importId);
+        }
+    }
+
+    /**
+     * Appends the staged rows to the bank and spreads the marks again.
+     *
+     * @return the question count of the bank afterwards
+     */
+    private int copyStagedQuestions(
+            String importId,
+            int staged,
+            Assignment assignment,
+            McqAssignment mcqAssignment) {
+
+        // read again: another import may have added questions since this one started
+        int questionNumber = mcqQuestionRepository.findMaxQuestionNumber(mcqAssignment.getId());
+        if (questionNumber + staged > McqAnswerKey.MAX_QUESTION_NUMBER) {
+            throw new BadRequestException(
+                    "An assignment can have at most " + McqAnswerKey.MAX_QUESTION_NUMBER + " questions");
+        }
+
+        for (int after = 0; after < staged; after += McqQuestionBatchWriter.BATCH_SIZE) {
+            List<McqQuestion> questions = mcqQuestionImportStaging
+                    .read(importId, after, McqQuestionBatchWriter.BATCH_SIZE);
+            for (McqQuestion question : questions) {
+                question.setMcqAssignment(mcqAssignment);
+                question.setQuestionNumber(questionNumber + question.getQuestionNumber());
+                question.setMarks(0);
+            }
+            mcqQuestionBatchWriter.insertAll(questions);
+        }
+
+        int totalQuestions = questionNumber + staged;
+        mcqQuestionRepository.updateMarksByMcqAssignmentId(
+                mcqAssignment.getId(), assignment.getMaxMarks() / totalQuestions);
+        mcqAnswerKeyCache.evict(mcqAssignment.getId());
+        mcqStudentViewCache.evict(assignment.getId());
+        mcqAnalyticsStore.markStale(mcqAssignment.getId());
+        mcqRegradeJob.requestAfterCommit(assignment.getId());
+        return totalQuestions;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public McqAnalyticsDto getMcqAnalytics(Long assignmentId, Long teacherId) {
+        Assignment assignment = getAssignmentAndValidateTeacher(assignmentId, teacherId);
+
+        McqAssignment mcqAssignment = mcqAssignmentRepository.findByAssignment_Id(assignmentId)
+                .orElseThrow(() -> new ResourceNotFoundException("MCQ assignment not found"));
+
+        return mcqAnalyticsStore.get(
+                assignmentId,
+                mcqAssignment.getId(),
+                assignment.getMaxMarks(),
+                mcqAssignment.getPassingPercentage());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public McqRegradeStatusDto regradeSubmissions(Long assignmentId, Long teacherId) {
+        getAssignmentAndValidateTeacher(assignmentId, teacherId);
+        return mcqRegradeJob.request(assignmentId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public McqRegradeStatusDto getRegradeStatus(Long assignmentId, Long teacherId) {
+        getAssignmentAndValidateTeacher(assignmentId, teacherId);
+        return mcqRegradeJob.status(assignmentId);
+    }
+
+    private String validateImportedQuestion(McqQuestionCreateDto questionDto) {
+        Set<ConstraintViolation<McqQuestionCreateDto>> violations = validator.validate(questionDto);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<McqQuestionCreateDto> v = violations.iterator().next();
+            return v.getPropertyPath() + " " + v.getMessage();
+        }
+        if (questionDto.getQuestionText().length() > MAX_QUESTION_TEXT_LENGTH) {
+            return "questionText must be at most " + MAX_QUESTION_TEXT_LENGTH + " characters";
+        }
+        for (int i = 0; i < questionDto.getOptions().size(); i++) {
+            McqOptionCreateDto option = questionDto.getOptions().get(i);
+            if (option == null) {
+                return "options[" + i + "] must not be null";
+            }
+            Set<ConstraintViolation<McqOptionCreateDto>> optionViolations = validator.validate(option);
+            if (!optionViolations.isEmpty()) {
+                ConstraintViolation<McqOptionCreateDto> v = optionViolations.iterator().next();
+                return "options[" + i + "]." + v.getPropertyPath() + " " + v.getMessage();
+            }
+        }
+        return null;
+    }
+
+    private List<McqQuestion> buildQuestions(
+            McqAssignment mcqAssignment,
+            List<McqQuestionCreateDto> questionDtos,
+            int marksPerQuestion) {
+
+        if (questionDtos.size() > McqAnswerKey.MAX_QUESTION_NUMBER) {
+            throw new BadRequestException(
+                    "An assignment can have at most " + McqAnswerKey.MAX_QUESTION_NUMBER + " questions");
+        }
+
+        List<McqQuestion> questions = new ArrayList<>(questionDtos.size());
+        int questionNumber = 1;
+
+        for (McqQuestionCreateDto questionDto : questionDtos) {
+            questions.add(buildQuestion(mcqAssignment, questionDto, questionNumber++, marksPerQuestion));
+        }
+        return questions;
+    }
+
+    private McqQuestion buildQuestion(
+            McqAssignment mcqAssignment,
+            McqQuestionCreateDto questionDto,
+            int questionNumber,
+            int marks) {
+        List<McqOptionCreateDto> createOptions = questionDto.getOptions();
+
+        if (createOptions.size() > McqAnswerKey.MAX_OPTIONS) {
+            throw new BadRequestException(
+                    "A question can have at most " + McqAnswerKey.MAX_OPTIONS + " options");
+        }
+
+        int correctIndex = -1;
+        for (int i = 0; i < createOptions.size(); i++) {
+            if (Boolean.TRUE.equals(createOptions.get(i).getIsCorrect())) {
+                if (correctIndex != -1) {
+                    throw new BadRequestException(
+                            "Each question must have exactly one correct option");
+                }
+                correctIndex = i;
+            }
+        }
+
+        if (correctIndex == -1) {
+            throw new BadRequestException(
+                    "Each question must have exactly one correct option");
+        }
+
+        List<String> options = new ArrayList<>(createOptions.size());
+        for (McqOptionCreateDto option : createOptions) {
+            options.add(option.getText());
+        }
+
+        return McqQuestion.builder()
+                .mcqAssignment(mcqAssignment)
+                .questionNumber(questionNumber)
+                .questionText(questionDto.getQuestionText())
+                .marks(marks)
+                .options(options)
+                .correctOptionMask(1L << correctIndex)
+                .build();
+    }
+
     private Assignment getAssignmentAndValidateTeacher(Long assignmentId, Long teacherId) {
         Assignment assignment = assignmentRepository.findById(assignmentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Assignment not found"));
@@ -412,29 +587,30 @@ Assignment assignment = getAssignmentAndValidateTeacher(assignmentId, teacherId)
     }
 
     private McqQuestionDto parseQuestion(McqQuestion question, boolean includeCorrectAnswers) {
-        try {
-            List<McqOptionDto> options = objectMapper.readValue(
-                    question.getOptionsJson(),
-                    new TypeReference<List<McqOptionDto>>() {}
-            );
-
-            List<Integer> correctAnswers = null;
-            if (includeCorrectAnswers) {
-                correctAnswers = objectMapper.readValue(
-                        question.getCorrectAnswersJson(),
-                        new TypeReference<List<Integer>>() {}
-                );
-            }
-
-            McqQuestionDto dto = modelMapper.map(question, McqQuestionDto.class);
-            dto.setOptions(options);
-            dto.setCorrectAnswers(correctAnswers);
-
-            return dto;
+        List<McqOptionDto> options = new ArrayList<>(question.getOptions().size());
+        for (int i = 0; i < question.getOptions().size(); i++) {
+            options.add(new McqOptionDto(i, question.getOptions().get(i)));
+        }
 
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Failed to parse question data", e);
+        List<Integer> correctAnswers = null;
+        if (includeCorrectAnswers) {
+            correctAnswers = new ArrayList<>(1);
+            long mask = question.getCorrectOptionMask() == null ? 0L : question.getCorrectOptionMask();
+            for (int i = 0; i < McqAnswerKey.MAX_OPTIONS; i++) {
+                if ((mask & (1L << i)) != 0) {
+                    correctAnswers.add(i);
+                }
+            }
         }
+
+        return new McqQuestionDto(
+                question.getId(),
+                question.getQuestionNumber(),
+                question.getQuestionText(),
+                question.getMarks(),
+                options,
+                correctAnswers
+        );
     }
 
 }
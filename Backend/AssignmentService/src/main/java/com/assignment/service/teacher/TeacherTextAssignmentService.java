@@ -25,6 +25,21 @@ public interface TeacherTextAssignmentService {
             Pageable pageable
     );
 
+    /**
+     * Seek-paginated variant of {@link #myAssignments}: newest first, continuing
+     * after {@code cursor}. {@code search} matches a title prefix; the total is
+     * only counted when {@code includeTotal} is set.
+     */
+    CursorPageDto<AssignmentResponseDto> myAssignmentsAfter(
+            Long teacherId,
+            String search,
+            AssignmentType type,
+            AssignmentStatus status,
+            String cursor,
+            int size,
+            boolean includeTotal
+    );
+
     AssignmentResponseDto getAssignment(Long assignmentId, Long teacherId);
 
     AssignmentResponseDto updateAssignment(
@@ -10,20 +10,25 @@ import com.assignment.exception.ForbiddenException;
 import com.assignment.exception.ResourceNotFoundException;
 import com.assignment.repository.AssignmentRepository;
 import com.assignment.repository.AssignmentSubmissionRepository;
-import com.assignment.repository.McqSubmissionRepository;
+import com.assignment.service.AssignmentCursor;
+import com.assignment.service.BatchCodeCache;
 import com.assignment.service.BatchServiceGateway;
 import com.assignment.service.FileStorageService;
 import com.assignment.service.NotificationPublisher;
-import com.assignment.service.UserServiceGateway;
+import com.assignment.service.UserSummaryCache;
 import com.assignment.service.student.StudentAssignmentServiceImpl;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -31,11 +36,11 @@ public class TeacherTextAssignmentServiceImpl implements TeacherTextAssignmentSe
 
     private final AssignmentRepository assignmentRepo;
     private final BatchServiceGateway batchServiceGateway;
+    private final BatchCodeCache batchCodeCache;
     private final NotificationPublisher notificationPublisher;
     private final StudentAssignmentServiceImpl studentAssignmentService;
-    private final UserServiceGateway userServiceGateway;
+    private final UserSummaryCache userSummaryCache;
     private final AssignmentSubmissionRepository submissionRepo;
-    private final McqSubmissionRepository mcqSubmissionRepository;
     private final ModelMapper modelMapper;
     private final FileStorageService fileStorageService;
 
@@ -88,20 +93,12 @@ public class TeacherTextAssignmentServiceImpl implements TeacherTextAssignmentSe
         assignment.setStatus(AssignmentStatus.PUBLISHED);
         assignmentRepo.save(assignment);
 
-        List<Long> studentIds = batchServiceGateway.getBatchStudentIds(assignment.getBatchId());
-        for (Long studentId : studentIds) {
-            notificationPublisher.publish(
-                    new NotificationEvent(
-                            studentId,
-                            null,
-                            "STUDENT",
-                            "IN_APP",
-                            "New assignment published",
-                            "Assignment \"" + assignment.getTitle() + "\" has been published."
-                    )
-            );
-            studentAssignmentService.evictStudentAssignments(studentId);
-        }
+        notificationPublisher.publishToBatch(
+                assignment.getBatchId(),
+                "New assignment published",
+                "Assignment \"" + assignment.getTitle() + "\" has been published."
+        );
+        studentAssignmentService.evictBatchAssignments(assignment.getBatchId());
     }
 
     @Override
@@ -122,20 +119,12 @@ public class TeacherTextAssignmentServiceImpl implements TeacherTextAssignmentSe
         assignment.setStatus(AssignmentStatus.CLOSED);
         assignmentRepo.save(assignment);
 
-        List<Long> studentIds = batchServiceGateway.getBatchStudentIds(assignment.getBatchId());
-        for (Long studentId : studentIds) {
-            notificationPublisher.publish(
-                    new com.assignment.dto.NotificationEvent(
-                            studentId,
-                            null,
-                            "STUDENT",
-                            "IN_APP",
-                            "Assignment closed",
-                            "Assignment \"" + assignment.getTitle() + "\" has been closed."
-                    )
-            );
-            studentAssignmentService.evictStudentAssignments(studentId);
-        }
+        notificationPublisher.publishToBatch(
+                assignment.getBatchId(),
+                "Assignment closed",
+                "Assignment \"" + assignment.getTitle() + "\" has been closed."
+        );
+        studentAssignmentService.evictBatchAssignments(assignment.getBatchId());
     }
 
     @Override
@@ -148,28 +137,78 @@ public class TeacherTextAssignmentServiceImpl implements TeacherTextAssignmentSe
 
         String searchTerm = (search == null || search.isBlank()) ? null : search.trim();
 
-        return assignmentRepo.findTeacherAssignmentsPage(
-                        teacherId,
-                        searchTerm,
-                        type,
-                        status,
-                        pageable)
+        Page<Assignment> page = assignmentRepo.findTeacherAssignmentsPage(
+                teacherId,
+                searchTerm,
+                type,
+                status,
+                pageable);
+
+        return new PageImpl<>(toListingDtos(page.getContent()), page.getPageable(), page.getTotalElements());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<AssignmentResponseDto> myAssignmentsAfter(
+            Long teacherId,
+            String search,
+            AssignmentType type,
+            AssignmentStatus status,
+            String cursor,
+            int size,
+            boolean includeTotal) {
+
+        AssignmentCursor after = AssignmentCursor.decode(cursor);
+        String titlePrefix = titlePrefixPattern(search);
+
+        // one extra row tells whether another page exists, without a COUNT
+        List<Assignment> rows = assignmentRepo.findTeacherAssignmentsAfter(
+                teacherId,
+                titlePrefix,
+                type,
+                status,
+                after == null ? null : after.createdAt(),
+                after == null ? null : after.id(),
+                PageRequest.of(0, size + 1));
+
+        boolean hasMore = rows.size() > size;
+        List<Assignment> items = hasMore ? rows.subList(0, size) : rows;
+
+        return CursorPageDto.<AssignmentResponseDto>builder()
+                .items(toListingDtos(items))
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? AssignmentCursor.after(items.get(items.size() - 1)).encode() : null)
+                .totalElements(includeTotal
+                        ? assignmentRepo.countTeacherAssignments(teacherId, titlePrefix, type, status)
+                        : null)
+                .build();
+    }
+
+    private List<AssignmentResponseDto> toListingDtos(List<Assignment> assignments) {
+        if (assignments.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, String> batchCodes = batchCodeCache.getAll(
+                assignments.stream().map(Assignment::getBatchId).toList());
+
+        return assignments.stream()
                 .map(a -> {
-                    AssignmentResponseDto dto = modelMapper.map(
-                            a, AssignmentResponseDto.class);
-                    dto.setBatchCode(batchServiceGateway.getBatchCode(a.getBatchId()));
-                    long totalSubmissions;
-                    if (a.getType() == AssignmentType.MCQ) {
-                        totalSubmissions =
-                                mcqSubmissionRepository
-                                        .countByMcqAssignment_Assignment_Id(a.getId());
-                    } else {
-                        totalSubmissions =
-                                submissionRepo.countByAssignment_Id(a.getId());
-                    }
-                    dto.setTotalSubmissions((int) totalSubmissions);
+                    AssignmentResponseDto dto = modelMapper.map(a, AssignmentResponseDto.class);
+                    dto.setBatchCode(batchCodes.get(a.getBatchId()));
+                    setCounters(dto, a);
                     return dto;
-                });
+                })
+                .toList();
+    }
+
+    private static String titlePrefixPattern(String search) {
+        if (search == null || search.isBlank()) {
+            return null;
+        }
+        return search.trim()
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_") + "%";
     }
 
     @Override
@@ -192,11 +231,9 @@ public class TeacherTextAssignmentServiceImpl implements TeacherTextAssignmentSe
 
         AssignmentResponseDto dto =
                 modelMapper.map(assignment, AssignmentResponseDto.class);
-        dto.setBatchCode(batchServiceGateway.getBatchCode(assignment.getBatchId()));
+        dto.setBatchCode(batchCodeCache.get(assignment.getBatchId()));
 
-        long totalSubmissions =
-                submissionRepo.countByAssignment_Id(assignmentId);
-        dto.setTotalSubmissions((int) totalSubmissions);
+        setCounters(dto, assignment);
 
         return dto;
     }
@@ -236,7 +273,7 @@ public class TeacherTextAssignmentServiceImpl implements TeacherTextAssignmentSe
         assignmentRepo.save(assignment);
 
         AssignmentResponseDto dto = modelMapper.map(assignment, AssignmentResponseDto.class);
-        dto.setBatchCode(batchServiceGateway.getBatchCode(assignment.getBatchId()));
+        dto.setBatchCode(batchCodeCache.get(assignment.getBatchId()));
         return dto;
     }
 
@@ -262,10 +299,7 @@ public class TeacherTextAssignmentServiceImpl implements TeacherTextAssignmentSe
         assignment.setDeletedAt(LocalDateTime.now());
         assignmentRepo.save(assignment);
 
-        List<Long> studentIds = batchServiceGateway.getBatchStudentIds(assignment.getBatchId());
-        for (Long studentId : studentIds) {
-            studentAssignmentService.evictStudentAssignments(studentId);
-        }
+        studentAssignmentService.evictBatchAssignments(assignment.getBatchId());
     }
 
     @Override
@@ -289,9 +323,12 @@ public class TeacherTextAssignmentServiceImpl implements TeacherTextAssignmentSe
         List<AssignmentSubmission> submissions =
                 submissionRepo.findByAssignment_IdOrderBySubmittedAtDesc(assignmentId);
 
+        Map<Long, UserSummaryDto> users = userSummaryCache.getAll(
+                submissions.stream().map(AssignmentSubmission::getStudentId).toList());
+
         return submissions.stream()
                 .map(submission -> {
-                    var user = userServiceGateway.getUserSummary(submission.getStudentId());
+                    var user = users.get(submission.getStudentId());
                     String fullName = ((user.getFirstName() == null ? "" : user.getFirstName()) + " " +
                             (user.getLastName() == null ? "" : user.getLastName())).trim();
                     if (fullName.isEmpty()) {
@@ -350,6 +387,7 @@ public class TeacherTextAssignmentServiceImpl implements TeacherTextAssignmentSe
     }
 
     @Override
+    @Transactional
     public void evaluateTextAssignment(
             Long assignmentId,
             Long studentId,
@@ -382,10 +420,20 @@ public class TeacherTextAssignmentServiceImpl implements TeacherTextAssignmentSe
                                 new ResourceNotFoundException(
                                         "Student has not submitted this assignment"));
 
+        boolean firstEvaluation = submission.getEvaluatedAt() == null;
         submission.setObtainedMarks(request.getObtainedMarks());
         submission.setFeedback(request.getFeedback());
         submission.setEvaluatedAt(LocalDateTime.now());
 
         submissionRepo.save(submission);
+        if (firstEvaluation) {
+            assignmentRepo.incrementCounters(assignmentId, 0, 1, 0);
+        }
+    }
+
+    private void setCounters(AssignmentResponseDto dto, Assignment assignment) {
+        dto.setTotalSubmissions(assignment.getSubmittedCount());
+        dto.setEvaluatedSubmissions(assignment.getEvaluatedCount());
+        dto.setPassedSubmissions(assignment.getPassedCount());
     }
 }
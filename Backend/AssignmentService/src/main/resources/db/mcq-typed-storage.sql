@@ -0,0 +1,7 @@
+-- Apply once, before the first instance with typed MCQ storage starts.
+-- New rows no longer write the legacy JSON columns, so they must accept NULL.
+-- McqStorageMigration then moves the existing rows off these columns; they
+-- can be dropped after it has completed (see migration_markers).
+ALTER TABLE mcq_questions MODIFY options_json JSON NULL;
+ALTER TABLE mcq_questions MODIFY correct_answers_json JSON NULL;
+ALTER TABLE mcq_submissions MODIFY answers_json JSON NULL;
@@ -0,0 +1,89 @@
+package com.assignment.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TwoTierCacheTest {
+
+    private ConcurrentMapCache remote;
+    private SimpleMeterRegistry meterRegistry;
+    private List<String> published;
+    private TwoTierCache cache;
+
+    @BeforeEach
+    void setUp() {
+        remote = new ConcurrentMapCache("studentAssignments");
+        meterRegistry = new SimpleMeterRegistry();
+        published = new ArrayList<>();
+        cache = new TwoTierCache(
+                "studentAssignments",
+                Caffeine.newBuilder().maximumSize(100).build(),
+                remote,
+                (name, key) -> published.add(name + ":" + key),
+                meterRegistry);
+    }
+
+    @Test
+    void get_fillsLocalTierFromRemoteOnce() {
+        remote.put(11L, "list");
+
+        assertEquals("list", cache.get(11L).get());
+        remote.evict(11L); // only the local copy can answer now
+        assertEquals("list", cache.get(11L).get());
+
+        assertEquals(1, count("local", "hit"));
+        assertEquals(1, count("local", "miss"));
+        assertEquals(1, count("redis", "hit"));
+    }
+
+    @Test
+    void get_withLoader_loadsOnceAndWritesBothTiers() {
+        int[] loads = {0};
+
+        cache.get(11L, () -> "list-" + ++loads[0]);
+        Object value = cache.get(11L, () -> "list-" + ++loads[0]);
+
+        assertEquals("list-1", value);
+        assertEquals(1, loads[0]);
+        assertEquals("list-1", remote.get(11L).get());
+        assertEquals(1, count("redis", "miss"));
+    }
+
+    @Test
+    void evict_clearsBothTiersAndPublishes() {
+        cache.put(11L, "list");
+
+        cache.evict(11L);
+
+        assertNull(cache.get(11L));
+        assertNull(remote.get(11L));
+        assertEquals(List.of("studentAssignments:11", "studentAssignments:11"), published);
+    }
+
+    @Test
+    void invalidateLocal_dropsOnlyTheLocalCopy() {
+        cache.put(11L, "old");
+        remote.put(11L, "new"); // another instance rewrote the shared tier
+
+        assertEquals("old", cache.get(11L).get());
+        cache.invalidateLocal("11");
+        assertEquals("new", cache.get(11L).get());
+    }
+
+    private double count(String tier, String result) {
+        return meterRegistry.get("cache.tier.requests")
+                .tag("tier", tier)
+                .tag("result", result)
+                .counter()
+                .count();
+    }
+}
@@ -0,0 +1,121 @@
+package com.assignment.job;
+
+import com.assignment.entity.*;
+import com.assignment.repository.AssignmentRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+class AssignmentCounterReconciliationJobTest {
+
+    @Autowired private EntityManager entityManager;
+    @Autowired private AssignmentRepository assignmentRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private AssignmentCounterReconciliationJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new AssignmentCounterReconciliationJob(assignmentRepository, new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(job, "batchSize", 2);
+    }
+
+    @Test
+    void run_correctsDriftedCountersPerSubmissionType() {
+        Assignment text = assignment(AssignmentType.TEXT, 0);
+        textSubmission(text, 11L, true);
+        textSubmission(text, 12L, false);
+        textSubmission(text, 13L, false);
+
+        Assignment mcq = assignment(AssignmentType.MCQ, 5);
+        McqAssignment mcqAssignment = McqAssignment.builder()
+                .assignment(mcq)
+                .passingPercentage(50)
+                .showCorrectAnswers(false)
+                .build();
+        entityManager.persist(mcqAssignment);
+        mcqSubmission(mcqAssignment, 11L, true);
+        mcqSubmission(mcqAssignment, 12L, false);
+
+        Assignment empty = assignment(AssignmentType.FILE, 0);
+
+        entityManager.flush();
+        entityManager.clear();
+        job.run();
+        entityManager.clear();
+
+        assertCounters(text, 3, 1, 0);
+        assertCounters(mcq, 2, 2, 1);
+        assertCounters(empty, 0, 0, 0);
+    }
+
+    @Test
+    void incrementCounters_addsToStoredValues() {
+        Assignment assignment = assignment(AssignmentType.MCQ, 2);
+        entityManager.flush();
+
+        assignmentRepository.incrementCounters(assignment.getId(), 1, 1, 1);
+        entityManager.clear();
+
+        assertCounters(assignment, 3, 1, 1);
+    }
+
+    private void assertCounters(Assignment assignment, int submitted, int evaluated, int passed) {
+        Assignment stored = entityManager.find(Assignment.class, assignment.getId());
+        assertEquals(submitted, stored.getSubmittedCount());
+        assertEquals(evaluated, stored.getEvaluatedCount());
+        assertEquals(passed, stored.getPassedCount());
+    }
+
+    private Assignment assignment(AssignmentType type, int submittedCount) {
+        Assignment assignment = Assignment.builder()
+                .teacherId(3L)
+                .batchId(10L)
+                .title(type + " assignment")
+                .type(type)
+                .maxMarks(10)
+                .status(AssignmentStatus.PUBLISHED)
+                .createdAt(LocalDateTime.now())
+                .submittedCount(submittedCount)
+                .build();
+        entityManager.persist(assignment);
+        return assignment;
+    }
+
+    private void textSubmission(Assignment assignment, Long studentId, boolean evaluated) {
+        entityManager.persist(AssignmentSubmission.builder()
+                .assignment(assignment)
+                .studentId(studentId)
+                .submissionContent("answer")
+                .submittedAt(LocalDateTime.now())
+                .obtainedMarks(evaluated ? 8 : null)
+                .evaluatedAt(evaluated ? LocalDateTime.now() : null)
+                .build());
+    }
+
+    private void mcqSubmission(McqAssignment mcq, Long studentId, boolean passed) {
+        entityManager.persist(McqSubmission.builder()
+                .mcqAssignment(mcq)
+                .studentId(studentId)
+                .answers(new byte[]{1})
+                .totalMarks(10)
+                .obtainedMarks(passed ? 7 : 2)
+                .percentage(passed ? 70.0 : 20.0)
+                .passed(passed)
+                .submittedAt(LocalDateTime.now())
+                .build());
+    }
+}
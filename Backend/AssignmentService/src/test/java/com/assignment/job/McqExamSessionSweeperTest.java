@@ -0,0 +1,65 @@
+package com.assignment.job;
+
+import com.assignment.repository.McqExamSessionBatchWriter;
+import com.assignment.repository.McqExamSessionRepository;
+import com.assignment.service.McqAutosaveBuffer;
+import com.assignment.service.student.StudentMcqService;
+import com.assignment.service.student.StudentMcqSessionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class McqExamSessionSweeperTest {
+
+    @Mock private McqAutosaveBuffer autosaveBuffer;
+    @Mock private McqExamSessionBatchWriter sessionBatchWriter;
+    @Mock private McqExamSessionRepository sessionRepository;
+    @Mock private StudentMcqService studentMcqService;
+    @Mock private StudentMcqSessionService studentMcqSessionService;
+
+    private McqExamSessionSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        sweeper = new McqExamSessionSweeper(autosaveBuffer, sessionBatchWriter, sessionRepository,
+                studentMcqService, studentMcqSessionService, 10, Duration.ofSeconds(30), 3);
+    }
+
+    @Test
+    void autoSubmitExpired_countsFailures_andKeepsGoingWithTheRestOfThePage() {
+        when(sessionRepository.findExpiredIds(any(), any())).thenReturn(List.of("s-1", "s-2"));
+        doThrow(new IllegalStateException("no correct option")).when(studentMcqService).autoSubmitExpiredSession("s-1");
+
+        sweeper.autoSubmitExpired();
+
+        verify(studentMcqSessionService).recordAutoSubmitFailure("s-1", 3);
+        verify(studentMcqService).autoSubmitExpiredSession("s-2");
+        verify(studentMcqSessionService, never()).recordAutoSubmitFailure("s-2", 3);
+    }
+
+    @Test
+    void autoSubmitExpired_whenRecordingTheFailureFails_stillFinishesTheSweep() {
+        when(sessionRepository.findExpiredIds(any(), any())).thenReturn(List.of("s-1"));
+        doThrow(new IllegalStateException("boom")).when(studentMcqService).autoSubmitExpiredSession("s-1");
+        when(studentMcqSessionService.recordAutoSubmitFailure(anyString(), anyInt()))
+                .thenThrow(new IllegalStateException("database down"));
+
+        sweeper.autoSubmitExpired();
+
+        verify(studentMcqSessionService).recordAutoSubmitFailure("s-1", 3);
+    }
+}
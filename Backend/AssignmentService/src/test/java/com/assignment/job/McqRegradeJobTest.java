@@ -0,0 +1,260 @@
+package com.assignment.job;
+
+import com.assignment.dto.McqRegradeStatusDto;
+import com.assignment.entity.Assignment;
+import com.assignment.entity.McqAssignment;
+import com.assignment.entity.McqQuestion;
+import com.assignment.entity.McqRegradeRun;
+import com.assignment.entity.McqRegradeState;
+import com.assignment.entity.McqSubmission;
+import com.assignment.repository.AssignmentRepository;
+import com.assignment.repository.McqAssignmentRepository;
+import com.assignment.repository.McqRegradeRunRepository;
+import com.assignment.repository.McqSubmissionAnswers;
+import com.assignment.repository.McqSubmissionBatchWriter;
+import com.assignment.repository.McqSubmissionRepository;
+import com.assignment.service.McqAnswerKey;
+import com.assignment.service.McqAnswerKeyCache;
+import com.assignment.service.student.StudentAssignmentServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Run state goes through the real {@code mcq_regrade_runs} table on H2, as
+ * every instance shares it in production; grading inputs are mocked.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // the job commits on its own threads
+class McqRegradeJobTest {
+
+    @Autowired private McqRegradeRunRepository runRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private final AssignmentRepository assignmentRepository = mock(AssignmentRepository.class);
+    private final McqAssignmentRepository mcqAssignmentRepository = mock(McqAssignmentRepository.class);
+    private final McqSubmissionRepository mcqSubmissionRepository = mock(McqSubmissionRepository.class);
+    private final McqSubmissionBatchWriter mcqSubmissionBatchWriter = mock(McqSubmissionBatchWriter.class);
+    private final McqAnswerKeyCache mcqAnswerKeyCache = mock(McqAnswerKeyCache.class);
+    private final StudentAssignmentServiceImpl studentAssignmentService = mock(StudentAssignmentServiceImpl.class);
+
+    private McqRegradeJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = newJob();
+    }
+
+    @AfterEach
+    void tearDown() {
+        job.shutdown();
+        runRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void request_rewritesOnlyChangedResults_andReportsProgress() throws InterruptedException {
+        stubSingleQuestionAssignment();
+        when(mcqSubmissionRepository.countByMcqAssignment_Id(7L)).thenReturn(3L);
+
+        McqSubmissionAnswers stale = row(11L, 101L, 1, 0, false, 0);      // answered B, was graded wrong
+        McqSubmissionAnswers unchanged = row(12L, 102L, 1, 10, true, 1);  // answered B, already correct
+        McqSubmissionAnswers wasCorrect = row(13L, 103L, 0, 10, true, 1); // answered A, no longer correct
+
+        when(mcqSubmissionRepository.findAnswersAfter(eq(7L), eq(0L), any()))
+                .thenReturn(List.of(stale, unchanged));
+        when(mcqSubmissionRepository.findAnswersAfter(eq(7L), eq(12L), any()))
+                .thenReturn(List.of(wasCorrect));
+        when(mcqSubmissionRepository.findAnswersAfter(eq(7L), eq(13L), any()))
+                .thenReturn(List.of());
+
+        job.request(1L);
+        McqRegradeStatusDto status = awaitFinished(1L);
+
+        assertEquals("COMPLETED", status.getState());
+        assertEquals(3L, status.getProcessed());
+        assertEquals(2L, status.getUpdated());
+        assertEquals(0L, status.getFailed());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<McqSubmission>> written = ArgumentCaptor.forClass(List.class);
+        verify(mcqSubmissionBatchWriter, times(2)).updateResults(written.capture(), anyInt());
+
+        McqSubmission first = written.getAllValues().get(0).get(0);
+        assertEquals(11L, first.getId());
+        assertEquals(10, first.getObtainedMarks());
+        assertEquals(true, first.getPassed());
+
+        McqSubmission second = written.getAllValues().get(1).get(0);
+        assertEquals(13L, second.getId());
+        assertEquals(0, second.getObtainedMarks());
+
+        verify(studentAssignmentService).evictStudentAssignments(101L);
+        verify(studentAssignmentService).evictStudentAssignments(103L);
+        verify(assignmentRepository).incrementCounters(1L, 0, 0, 1);
+        verify(assignmentRepository).incrementCounters(1L, 0, 0, -1);
+    }
+
+    @Test
+    void request_rowWithoutAnswers_keepsItsScore_andCountsAsFailed() throws InterruptedException {
+        stubSingleQuestionAssignment();
+        when(mcqSubmissionRepository.countByMcqAssignment_Id(7L)).thenReturn(1L);
+
+        McqSubmissionAnswers notMigrated = row(11L, 101L, null, 10, true, 1);
+        when(mcqSubmissionRepository.findAnswersAfter(eq(7L), eq(0L), any()))
+                .thenReturn(List.of(notMigrated));
+        when(mcqSubmissionRepository.findAnswersAfter(eq(7L), eq(11L), any()))
+                .thenReturn(List.of());
+
+        job.request(1L);
+        McqRegradeStatusDto status = awaitFinished(1L);
+
+        assertEquals("COMPLETED", status.getState());
+        assertEquals(1L, status.getProcessed());
+        assertEquals(0L, status.getUpdated());
+        assertEquals(1L, status.getFailed());
+        verify(mcqSubmissionBatchWriter, never()).updateResults(any(), anyInt());
+        verify(assignmentRepository, never()).incrementCounters(any(), anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    void status_isReadFromTheSharedRunRow_onAnyInstance() {
+        runRepository.save(McqRegradeRun.builder()
+                .assignmentId(1L)
+                .state(McqRegradeState.RUNNING)
+                .claimToken("other-instance")
+                .heartbeatAt(LocalDateTime.now())
+                .processed(40)
+                .requestedAt(LocalDateTime.now())
+                .build());
+
+        McqRegradeStatusDto status = job.status(1L);
+
+        assertEquals("RUNNING", status.getState());
+        assertEquals(40L, status.getProcessed());
+        assertEquals("NONE", job.status(2L).getState());
+    }
+
+    @Test
+    void request_whileAnotherInstanceRuns_onlyAsksForOneMorePass() {
+        runRepository.save(McqRegradeRun.builder()
+                .assignmentId(1L)
+                .state(McqRegradeState.RUNNING)
+                .claimToken("other-instance")
+                .heartbeatAt(LocalDateTime.now())
+                .requestedAt(LocalDateTime.now())
+                .build());
+
+        job.request(1L);
+
+        McqRegradeRun run = runRepository.findById(1L).orElseThrow();
+        assertEquals(McqRegradeState.RUNNING, run.getState());
+        assertEquals("other-instance", run.getClaimToken());
+        assertEquals(true, run.isRerunRequested());
+        verify(mcqSubmissionBatchWriter, never()).updateResults(any(), anyInt());
+    }
+
+    @Test
+    void poll_takesOverStaleRuns_andPrunesOldFinishedOnes() throws InterruptedException {
+        runRepository.save(McqRegradeRun.builder()
+                .assignmentId(1L)
+                .state(McqRegradeState.RUNNING)
+                .claimToken("dead-instance")
+                .heartbeatAt(LocalDateTime.now().minusHours(1))
+                .requestedAt(LocalDateTime.now().minusHours(1))
+                .build());
+        runRepository.save(McqRegradeRun.builder()
+                .assignmentId(2L)
+                .state(McqRegradeState.COMPLETED)
+                .requestedAt(LocalDateTime.now().minusDays(3))
+                .finishedAt(LocalDateTime.now().minusDays(2))
+                .build());
+        stubSingleQuestionAssignment();
+        when(mcqSubmissionRepository.findAnswersAfter(eq(7L), eq(0L), any())).thenReturn(List.of());
+
+        job.poll();
+        McqRegradeStatusDto status = awaitFinished(1L);
+
+        assertEquals("COMPLETED", status.getState());
+        assertEquals(false, runRepository.existsById(2L));
+    }
+
+    private McqRegradeJob newJob() {
+        return new McqRegradeJob(
+                assignmentRepository,
+                mcqAssignmentRepository,
+                mcqSubmissionRepository,
+                mcqSubmissionBatchWriter,
+                runRepository,
+                mcqAnswerKeyCache,
+                studentAssignmentService,
+                new TransactionTemplate(transactionManager),
+                2,
+                2,
+                Duration.ofMinutes(5),
+                Duration.ofDays(1));
+    }
+
+    private void stubSingleQuestionAssignment() {
+        Assignment assignment = Assignment.builder().id(1L).maxMarks(10).build();
+        McqAssignment mcq = McqAssignment.builder().id(7L).assignment(assignment).passingPercentage(50).build();
+        when(mcqAssignmentRepository.findByAssignment_Id(1L)).thenReturn(Optional.of(mcq));
+
+        // New key: option 1 is correct, worth 10 marks.
+        when(mcqAnswerKeyCache.get(7L)).thenReturn(McqAnswerKey.compile(List.of(McqQuestion.builder()
+                .questionNumber(1)
+                .questionText("Q1")
+                .marks(10)
+                .options(List.of("A", "B"))
+                .correctOptionMask(0b10L)
+                .build())));
+    }
+
+    private McqRegradeStatusDto awaitFinished(Long assignmentId) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            McqRegradeStatusDto status = job.status(assignmentId);
+            if ("COMPLETED".equals(status.getState()) || "FAILED".equals(status.getState())) {
+                return status;
+            }
+            Thread.sleep(25);
+        }
+        throw new AssertionError("Regrade did not finish");
+    }
+
+    private McqSubmissionAnswers row(Long id, Long studentId, Integer selected,
+                                     int obtained, boolean passed, int correctCount) {
+        return new McqSubmissionAnswers() {
+            @Override public Long getId() { return id; }
+            @Override public Long getStudentId() { return studentId; }
+            @Override public byte[] getAnswers() { return selected == null ? null : new byte[]{(byte) (selected + 1)}; }
+            @Override public Integer getTotalMarks() { return 10; }
+            @Override public Integer getObtainedMarks() { return obtained; }
+            @Override public Boolean getPassed() { return passed; }
+            @Override public Integer getCorrectCount() { return correctCount; }
+        };
+    }
+}
@@ -0,0 +1,132 @@
+package com.assignment.job;
+
+import com.assignment.entity.*;
+import com.assignment.exception.BadRequestException;
+import com.assignment.repository.McqSubmissionRepository;
+import com.assignment.service.McqAnswerKey;
+import com.assignment.service.McqAnswerKeyCache;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+class McqResultBackfillJobTest {
+
+    @Autowired private EntityManager entityManager;
+    @Autowired private McqSubmissionRepository mcqSubmissionRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private McqAnswerKeyCache mcqAnswerKeyCache;
+    private McqResultBackfillJob job;
+    private McqAssignment mcq;
+
+    @BeforeEach
+    void setUp() {
+        mcqAnswerKeyCache = mock(McqAnswerKeyCache.class);
+        job = new McqResultBackfillJob(
+                mcqSubmissionRepository, mcqAnswerKeyCache, new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(job, "batchSize", 2);
+
+        Assignment assignment = Assignment.builder()
+                .teacherId(3L)
+                .batchId(10L)
+                .title("Quiz")
+                .type(AssignmentType.MCQ)
+                .maxMarks(10)
+                .status(AssignmentStatus.PUBLISHED)
+                .createdAt(LocalDateTime.now())
+                .build();
+        entityManager.persist(assignment);
+        mcq = McqAssignment.builder()
+                .assignment(assignment)
+                .passingPercentage(50)
+                .showCorrectAnswers(false)
+                .build();
+        entityManager.persist(mcq);
+    }
+
+    @Test
+    void run_storesOutcomes_andMarksUngradableRowsSoTheyAreNotRetried() {
+        McqSubmission good = submission(11L, new byte[]{1});
+        McqSubmission bad = submission(12L, new byte[]{2});
+        McqSubmission notMigrated = submission(13L, null);
+        entityManager.flush();
+
+        when(mcqAnswerKeyCache.gradeStoredAnswers(any())).thenAnswer(inv -> {
+            McqSubmission s = inv.getArgument(0);
+            if (s.getId().equals(bad.getId())) {
+                throw new BadRequestException("No correct option configured for question 1");
+            }
+            return new McqAnswerKey.Result(5, 1, 1, new byte[]{1});
+        });
+
+        job.run();
+        entityManager.flush();
+        entityManager.clear();
+
+        McqSubmission storedGood = entityManager.find(McqSubmission.class, good.getId());
+        assertEquals(1, storedGood.getCorrectCount());
+        assertEquals(1, storedGood.getIncorrectCount());
+        assertArrayEquals(new byte[]{1}, storedGood.getCorrectnessBitmap());
+        assertNull(storedGood.getGradingError());
+
+        McqSubmission storedBad = entityManager.find(McqSubmission.class, bad.getId());
+        assertEquals(0, storedBad.getCorrectCount());
+        assertEquals(0, storedBad.getIncorrectCount());
+        assertEquals("No correct option configured for question 1", storedBad.getGradingError());
+
+        // waits for the storage migration, so the job keeps running
+        assertNull(entityManager.find(McqSubmission.class, notMigrated.getId()).getCorrectCount());
+        assertFalse(job.isFinished());
+    }
+
+    @Test
+    void run_stopsOnceNoSubmissionLacksAnOutcome() {
+        submission(11L, new byte[]{1});
+        entityManager.flush();
+        when(mcqAnswerKeyCache.gradeStoredAnswers(any()))
+                .thenReturn(new McqAnswerKey.Result(5, 1, 0, new byte[]{1}));
+
+        job.run();
+        assertTrue(job.isFinished());
+
+        job.run();
+        verify(mcqAnswerKeyCache, times(1)).gradeStoredAnswers(any());
+    }
+
+    private McqSubmission submission(Long studentId, byte[] answers) {
+        McqSubmission submission = McqSubmission.builder()
+                .mcqAssignment(mcq)
+                .studentId(studentId)
+                .answers(answers)
+                .totalMarks(10)
+                .obtainedMarks(5)
+                .percentage(50.0)
+                .passed(true)
+                .submittedAt(LocalDateTime.now())
+                .build();
+        entityManager.persist(submission);
+        return submission;
+    }
+}
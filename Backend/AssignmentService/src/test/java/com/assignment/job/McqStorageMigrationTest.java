@@ -0,0 +1,194 @@
+package com.assignment.job;
+
+import com.assignment.entity.*;
+import com.assignment.repository.AssignmentRepository;
+import com.assignment.repository.McqAssignmentRepository;
+import com.assignment.repository.McqQuestionRepository;
+import com.assignment.repository.McqSubmissionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Converts rows written in the legacy JSON format on H2. The legacy columns
+ * are added for the test and dropped afterwards, as the entities no longer
+ * map them.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // DDL and each page commit on their own
+class McqStorageMigrationTest {
+
+    @Autowired private AssignmentRepository assignmentRepository;
+    @Autowired private McqAssignmentRepository mcqAssignmentRepository;
+    @Autowired private McqQuestionRepository mcqQuestionRepository;
+    @Autowired private McqSubmissionRepository mcqSubmissionRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private McqAssignment mcq;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("ALTER TABLE mcq_questions ADD COLUMN options_json VARCHAR(4000)");
+        jdbcTemplate.execute("ALTER TABLE mcq_questions ADD COLUMN correct_answers_json VARCHAR(4000)");
+        jdbcTemplate.execute("ALTER TABLE mcq_submissions ADD COLUMN answers_json VARCHAR(4000)");
+
+        Assignment assignment = assignmentRepository.save(Assignment.builder()
+                .teacherId(3L)
+                .batchId(10L)
+                .title("Quiz")
+                .type(AssignmentType.MCQ)
+                .maxMarks(10)
+                .status(AssignmentStatus.PUBLISHED)
+                .createdAt(LocalDateTime.now())
+                .build());
+        mcq = mcqAssignmentRepository.save(McqAssignment.builder()
+                .assignment(assignment)
+                .passingPercentage(50)
+                .showCorrectAnswers(false)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM migration_markers");
+        mcqSubmissionRepository.deleteAllInBatch();
+        jdbcTemplate.update("DELETE FROM mcq_options");
+        mcqQuestionRepository.deleteAllInBatch();
+        mcqAssignmentRepository.deleteAllInBatch();
+        assignmentRepository.deleteAllInBatch();
+
+        jdbcTemplate.execute("ALTER TABLE mcq_questions DROP COLUMN options_json");
+        jdbcTemplate.execute("ALTER TABLE mcq_questions DROP COLUMN correct_answers_json");
+        jdbcTemplate.execute("ALTER TABLE mcq_submissions DROP COLUMN answers_json");
+    }
+
+    @Test
+    void run_convertsLegacyJsonRows_andCompletesTheMarker() {
+        long q1 = legacyQuestion(1, "[{\"text\":\"A\"},{\"text\":\"B\"},{\"text\":\"C\"}]", "[2]");
+        long q2 = legacyQuestion(2, "[{\"text\":\"Yes\"},{\"text\":\"No\"}]", "[0]");
+        long broken = legacyQuestion(3, "not json", "[0]");
+        long submission = legacySubmission(11L,
+                "[{\"questionNumber\":1,\"selectedOptionIndex\":2},{\"questionNumber\":3,\"selectedOptionIndex\":0}]");
+
+        McqStorageMigration migration = migration(1);
+        migration.run();
+
+        assertTrue(migration.isFinished());
+        assertEquals(List.of("A", "B", "C"), options(q1));
+        assertEquals(0b100L, mask(q1));
+        assertEquals(List.of("Yes", "No"), options(q2));
+        assertEquals(0b1L, mask(q2));
+        assertEquals(List.of(), options(broken));
+        assertEquals(0L, mask(broken));
+        assertArrayEquals(new byte[]{3, 0, 1}, jdbcTemplate.queryForObject(
+                "SELECT answers FROM mcq_submissions WHERE id = ?", byte[].class, submission));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM migration_markers WHERE name = ? AND completed_at IS NOT NULL",
+                Integer.class, McqStorageMigration.MARKER));
+    }
+
+    @Test
+    void run_replacesOptionsLeftByAnEarlierAttempt_insteadOfFailingOnDuplicates() {
+        long q1 = legacyQuestion(1, "[{\"text\":\"A\"},{\"text\":\"B\"}]", "[1]");
+        jdbcTemplate.update("INSERT INTO mcq_options (question_id, option_index, option_text) VALUES (?, 0, 'A')", q1);
+
+        McqStorageMigration migration = migration(10);
+        migration.run();
+
+        assertTrue(migration.isFinished());
+        assertEquals(List.of("A", "B"), options(q1));
+        assertEquals(0b10L, mask(q1));
+    }
+
+    @Test
+    void run_leavesTheRowsAlone_whileAnotherInstanceHoldsTheLease() {
+        long q1 = legacyQuestion(1, "[{\"text\":\"A\"},{\"text\":\"B\"}]", "[1]");
+        jdbcTemplate.update("INSERT INTO migration_markers (name, locked_by, locked_until) VALUES (?, ?, ?)",
+                McqStorageMigration.MARKER, "other-instance", LocalDateTime.now().plusMinutes(5));
+
+        McqStorageMigration migration = migration(10);
+        migration.run();
+
+        assertFalse(migration.isFinished());
+        assertNull(mask(q1));
+        assertEquals(List.of(), options(q1));
+    }
+
+    @Test
+    void run_onceCompletedElsewhere_doesNothing() {
+        long q1 = legacyQuestion(1, "[{\"text\":\"A\"},{\"text\":\"B\"}]", "[1]");
+        jdbcTemplate.update("INSERT INTO migration_markers (name, completed_at) VALUES (?, ?)",
+                McqStorageMigration.MARKER, LocalDateTime.now());
+
+        McqStorageMigration migration = migration(10);
+        migration.run();
+
+        assertTrue(migration.isFinished());
+        assertNull(mask(q1));
+    }
+
+    private McqStorageMigration migration(int batchSize) {
+        return new McqStorageMigration(
+                jdbcTemplate, new TransactionTemplate(transactionManager), new ObjectMapper(),
+                batchSize, Duration.ofMinutes(5));
+    }
+
+    private long legacyQuestion(int questionNumber, String optionsJson, String correctAnswersJson) {
+        McqQuestion question = mcqQuestionRepository.save(McqQuestion.builder()
+                .mcqAssignment(mcq)
+                .questionNumber(questionNumber)
+                .questionText("Q" + questionNumber)
+                .marks(5)
+                .build());
+        jdbcTemplate.update("UPDATE mcq_questions SET options_json = ?, correct_answers_json = ? WHERE id = ?",
+                optionsJson, correctAnswersJson, question.getId());
+        return question.getId();
+    }
+
+    private long legacySubmission(Long studentId, String answersJson) {
+        McqSubmission submission = mcqSubmissionRepository.save(McqSubmission.builder()
+                .mcqAssignment(mcq)
+                .studentId(studentId)
+                .totalMarks(10)
+                .obtainedMarks(5)
+                .percentage(50.0)
+                .passed(true)
+                .submittedAt(LocalDateTime.now())
+                .build());
+        jdbcTemplate.update("UPDATE mcq_submissions SET answers_json = ? WHERE id = ?", answersJson, submission.getId());
+        return submission.getId();
+    }
+
+    private List<String> options(long questionId) {
+        return jdbcTemplate.queryForList(
+                "SELECT option_text FROM mcq_options WHERE question_id = ? ORDER BY option_index",
+                String.class, questionId);
+    }
+
+    private Long mask(long questionId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT correct_option_mask FROM mcq_questions WHERE id = ?", Long.class, questionId);
+    }
+}
@@ -0,0 +1,298 @@
+package com.assignment.job;
+
+import com.assignment.entity.*;
+import com.assignment.exception.ServiceUnavailableException;
+import com.assignment.repository.AssignmentRepository;
+import com.assignment.repository.McqAssignmentRepository;
+import com.assignment.repository.McqSubmissionBatchWriter;
+import com.assignment.repository.McqSubmissionIntakeRepository;
+import com.assignment.repository.McqSubmissionRepository;
+import com.assignment.service.McqAnswerKey;
+import com.assignment.service.McqAnswerKeyCache;
+import com.assignment.service.NotificationPublisher;
+import com.assignment.service.student.StudentMcqSessionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the worker against H2 with its real claim queries and JDBC batch
+ * writer; each step commits on its own, as it does in production.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // the worker commits on its own threads
+class McqSubmissionIntakeWorkerTest {
+
+    private static final String CORRECT = "[{\"questionNumber\":1,\"selectedOptionIndex\":0}]";
+    private static final String WRONG = "[{\"questionNumber\":1,\"selectedOptionIndex\":1}]";
+
+    @Autowired private McqSubmissionIntakeRepository intakeRepository;
+    @Autowired private AssignmentRepository assignmentRepository;
+    @Autowired private McqAssignmentRepository mcqAssignmentRepository;
+    @Autowired private McqSubmissionRepository mcqSubmissionRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private McqSubmissionBatchWriter batchWriter;
+    private NotificationPublisher notificationPublisher;
+    private StudentMcqSessionService studentMcqSessionService;
+    private McqAnswerKeyCache answerKeyCache;
+    private McqAnswerKey answerKey;
+    private McqSubmissionIntakeWorker worker;
+    private Assignment assignment;
+    private McqAssignment mcq;
+
+    @BeforeEach
+    void setUp() {
+        assignment = assignmentRepository.save(Assignment.builder()
+                .teacherId(3L)
+                .batchId(10L)
+                .title("Quiz")
+                .type(AssignmentType.MCQ)
+                .maxMarks(10)
+                .status(AssignmentStatus.PUBLISHED)
+                .createdAt(LocalDateTime.now())
+                .build());
+        mcq = mcqAssignmentRepository.save(McqAssignment.builder()
+                .assignment(assignment)
+                .passingPercentage(50)
+                .showCorrectAnswers(false)
+                .build());
+
+        answerKey = McqAnswerKey.compile(List.of(McqQuestion.builder()
+                .questionNumber(1)
+                .questionText("Q1")
+                .marks(10)
+                .options(List.of("A", "B"))
+                .correctOptionMask(1L)
+                .build()));
+        answerKeyCache = mock(McqAnswerKeyCache.class);
+        when(answerKeyCache.get(mcq.getId())).thenReturn(answerKey);
+
+        batchWriter = spy(new McqSubmissionBatchWriter(jdbcTemplate));
+        notificationPublisher = mock(NotificationPublisher.class);
+        studentMcqSessionService = mock(StudentMcqSessionService.class);
+        worker = new McqSubmissionIntakeWorker(
+                intakeRepository, assignmentRepository, mcqAssignmentRepository, mcqSubmissionRepository,
+                batchWriter, answerKeyCache, notificationPublisher, studentMcqSessionService,
+                new ObjectMapper(), new TransactionTemplate(transactionManager),
+                2, 10, 2, Duration.ofMinutes(5), Duration.ZERO, Duration.ZERO);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        worker.shutdown();
+        intakeRepository.deleteAllInBatch();
+        mcqSubmissionRepository.deleteAllInBatch();
+        mcqAssignmentRepository.deleteAllInBatch();
+        assignmentRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void drain_gradesAndStoresClaimedRows_exactlyOnce() {
+        McqSubmissionIntake passed = intake(11L, CORRECT);
+        McqSubmissionIntake failed = intake(12L, WRONG);
+
+        drainUntil(() -> settled(passed) && settled(failed));
+        worker.drain();
+
+        assertEquals(McqIntakeStatus.COMPLETED, reload(passed).getStatus());
+        assertEquals(McqIntakeStatus.COMPLETED, reload(failed).getStatus());
+        assertEquals(1, reload(passed).getAttempts());
+        assertEquals(2, mcqSubmissionRepository.count());
+        assertEquals(10, mcqSubmissionRepository.findByMcqAssignment_IdAndStudentId(mcq.getId(), 11L)
+                .orElseThrow().getObtainedMarks());
+        assertTrue(mcqSubmissionRepository.findByMcqAssignment_IdAndStudentId(mcq.getId(), 12L)
+                .orElseThrow().getPassed() == Boolean.FALSE);
+
+        Assignment counters = assignmentRepository.findById(assignment.getId()).orElseThrow();
+        assertEquals(2, counters.getSubmittedCount());
+        assertEquals(1, counters.getPassedCount());
+        verify(notificationPublisher, times(2)).publish(any());
+    }
+
+    @Test
+    void drain_rejectsDuplicatesAndUnknownAssignments() {
+        McqSubmissionIntake first = intake(11L, CORRECT);
+        drainUntil(() -> settled(first));
+        // a second intake row for a student who already has a stored submission
+        intakeRepository.deleteAllInBatch();
+        McqSubmissionIntake duplicate = intake(11L, WRONG);
+        McqSubmissionIntake unknown = intakeRepository.save(McqSubmissionIntake.builder()
+                .id(UUID.randomUUID().toString())
+                .mcqAssignmentId(-1L)
+                .assignmentId(-1L)
+                .studentId(12L)
+                .answersJson(CORRECT)
+                .status(McqIntakeStatus.PENDING)
+                .acceptedAt(LocalDateTime.now())
+                .build());
+
+        drainUntil(() -> settled(duplicate) && settled(unknown));
+
+        assertEquals(McqIntakeStatus.REJECTED, reload(duplicate).getStatus());
+        assertEquals("Assignment already submitted", reload(duplicate).getMessage());
+        assertEquals(McqIntakeStatus.REJECTED, reload(unknown).getStatus());
+        assertEquals("MCQ assignment not found", reload(unknown).getMessage());
+        assertEquals(1, mcqSubmissionRepository.count());
+    }
+
+    @Test
+    void drain_retriesAFailedBatchRowByRow_andRejectsTheBadRowAfterMaxAttempts() {
+        doAnswer(inv -> {
+            List<McqSubmission> submissions = inv.getArgument(0);
+            if (submissions.stream().anyMatch(s -> s.getStudentId() == 99L)) {
+                throw new DataIntegrityViolationException("row rejected by the database");
+            }
+            return inv.callRealMethod();
+        }).when(batchWriter).insertAll(any(), anyInt());
+
+        McqSubmissionIntake good = intake(11L, CORRECT);
+        McqSubmissionIntake poison = intake(99L, CORRECT);
+
+        drainUntil(() -> settled(good) && settled(poison));
+
+        assertEquals(McqIntakeStatus.COMPLETED, reload(good).getStatus());
+        McqSubmissionIntake rejected = reload(poison);
+        assertEquals(McqIntakeStatus.REJECTED, rejected.getStatus());
+        assertEquals(2, rejected.getAttempts());
+        assertNull(rejected.getClaimToken());
+        assertTrue(rejected.getMessage().startsWith("Submission could not be processed"));
+        assertEquals(1, mcqSubmissionRepository.count());
+        verify(studentMcqSessionService).reopenAfterRejection(
+                eq(mcq.getId()), eq(99L), aryEq(new byte[]{(byte) McqAnswerKey.packOption(0)}));
+        verify(studentMcqSessionService, never()).reopenAfterRejection(eq(mcq.getId()), eq(11L), any());
+    }
+
+    @Test
+    void drain_transientFailures_releaseTheClaimWithoutUsingAnAttempt() {
+        when(answerKeyCache.get(mcq.getId()))
+                .thenThrow(new ServiceUnavailableException("answer key migration in progress"))
+                .thenThrow(new ServiceUnavailableException("answer key migration in progress"))
+                .thenThrow(new ServiceUnavailableException("answer key migration in progress"))
+                .thenReturn(answerKey);
+
+        McqSubmissionIntake intake = intake(11L, CORRECT);
+
+        drainUntil(() -> settled(intake));
+
+        // three failed claims, more than max-attempts, and still graded
+        assertEquals(McqIntakeStatus.COMPLETED, reload(intake).getStatus());
+        assertEquals(1, reload(intake).getAttempts());
+        assertEquals(1, mcqSubmissionRepository.count());
+        verify(studentMcqSessionService, never()).reopenAfterRejection(any(), any(), any());
+    }
+
+    @Test
+    void drain_holdsBackReleasedRowsUntilTheirBackoffEnds() {
+        McqSubmissionIntake waiting = intakeRepository.save(McqSubmissionIntake.builder()
+                .id(UUID.randomUUID().toString())
+                .mcqAssignmentId(mcq.getId())
+                .assignmentId(assignment.getId())
+                .studentId(11L)
+                .answersJson(CORRECT)
+                .status(McqIntakeStatus.PENDING)
+                .nextAttemptAt(LocalDateTime.now().plusMinutes(1))
+                .acceptedAt(LocalDateTime.now())
+                .build());
+
+        worker.drain();
+
+        assertEquals(McqIntakeStatus.PENDING, reload(waiting).getStatus());
+        assertEquals(0, reload(waiting).getAttempts());
+    }
+
+    @Test
+    void drain_releasesStaleClaims_andProcessesThem() {
+        McqSubmissionIntake stuck = intakeRepository.save(McqSubmissionIntake.builder()
+                .id(UUID.randomUUID().toString())
+                .mcqAssignmentId(mcq.getId())
+                .assignmentId(assignment.getId())
+                .studentId(11L)
+                .answersJson(CORRECT)
+                .status(McqIntakeStatus.PROCESSING)
+                .claimToken(UUID.randomUUID().toString())
+                .claimedAt(LocalDateTime.now().minusMinutes(10))
+                .attempts(1)
+                .acceptedAt(LocalDateTime.now().minusMinutes(10))
+                .build());
+
+        drainUntil(() -> settled(stuck));
+
+        assertEquals(McqIntakeStatus.COMPLETED, reload(stuck).getStatus());
+        assertEquals(2, reload(stuck).getAttempts());
+        assertEquals(1, mcqSubmissionRepository.count());
+    }
+
+    private McqSubmissionIntake intake(Long studentId, String answersJson) {
+        return intakeRepository.save(McqSubmissionIntake.builder()
+                .id(UUID.randomUUID().toString())
+                .mcqAssignmentId(mcq.getId())
+                .assignmentId(assignment.getId())
+                .studentId(studentId)
+                .answersJson(answersJson)
+                .status(McqIntakeStatus.PENDING)
+                .acceptedAt(LocalDateTime.now())
+                .build());
+    }
+
+    private McqSubmissionIntake reload(McqSubmissionIntake intake) {
+        return intakeRepository.findById(intake.getId()).orElseThrow();
+    }
+
+    private boolean settled(McqSubmissionIntake intake) {
+        McqIntakeStatus status = reload(intake).getStatus();
+        return status == McqIntakeStatus.COMPLETED || status == McqIntakeStatus.REJECTED;
+    }
+
+    private void drainUntil(BooleanSupplier done) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            worker.drain();
+            if (done.getAsBoolean()) {
+                return;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        fail("intake rows were not processed in time");
+    }
+}
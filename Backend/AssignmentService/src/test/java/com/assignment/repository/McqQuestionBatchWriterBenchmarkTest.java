@@ -0,0 +1,159 @@
+package com.assignment.repository;
+
+import com.assignment.entity.McqAssignment;
+import com.assignment.entity.McqQuestion;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the old per-row write path (derived delete + IDENTITY saveAll, one
+ * statement per question) with the bulk delete + JDBC batch path.
+ *
+ * Run with {@code mvn test -Dtest=McqQuestionBatchWriterBenchmarkTest -Dbenchmark=true}.
+ * Defaults to in-memory H2; point {@code benchmark.jdbc.url/user/password} at a
+ * MySQL instance (with rewriteBatchedStatements=true) for realistic numbers.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class McqQuestionBatchWriterBenchmarkTest {
+
+    private static final int[] BANK_SIZES = {50, 500, 5_000};
+    private static final int ROUNDS = 5;
+    private static final long MCQ_ASSIGNMENT_ID = 900_000_001L;
+
+    private static JdbcTemplate jdbcTemplate;
+    private static McqQuestionBatchWriter writer;
+
+    @BeforeAll
+    static void setUp() {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                System.getProperty("benchmark.jdbc.url", "jdbc:h2:mem:bench;MODE=MySQL;DB_CLOSE_DELAY=-1"),
+                System.getProperty("benchmark.jdbc.user", "sa"),
+                System.getProperty("benchmark.jdbc.password", ""),
+                true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS mcq_questions (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    mcq_assignment_id BIGINT NOT NULL,
+                    question_number INT NOT NULL,
+                    question_text VARCHAR(1000) NOT NULL,
+                    marks INT NOT NULL,
+                    correct_option_mask BIGINT
+                )
+                """);
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS mcq_options (
+                    question_id BIGINT NOT NULL,
+                    option_index INT NOT NULL,
+                    option_text VARCHAR(1000) NOT NULL,
+                    PRIMARY KEY (question_id, option_index)
+                )
+                """);
+        writer = new McqQuestionBatchWriter(jdbcTemplate);
+    }
+
+    @Test
+    void compareQuestionBankWrites() {
+        System.out.printf("%n%-10s %18s %18s %10s%n", "questions", "per-row (ms)", "bulk (ms)", "speedup");
+
+        for (int size : BANK_SIZES) {
+            List<McqQuestion> bank = questionBank(size);
+
+            // warm-up
+            perRowReplace(bank);
+            bulkReplace(bank);
+
+            long perRow = 0;
+            long bulk = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                perRowReplace(bank);
+                perRow += System.nanoTime() - start;
+
+                start = System.nanoTime();
+                bulkReplace(bank);
+                bulk += System.nanoTime() - start;
+            }
+
+            assertEquals(size, countQuestions());
+            double perRowMs = perRow / 1e6 / ROUNDS;
+            double bulkMs = bulk / 1e6 / ROUNDS;
+            System.out.printf("%-10d %18.2f %18.2f %9.1fx%n", size, perRowMs, bulkMs, perRowMs / bulkMs);
+        }
+
+        bulkReplace(List.of());
+    }
+
+    // What deleteByMcqAssignment_Id + saveAll did: load, delete row by row, insert row by row.
+    private void perRowReplace(List<McqQuestion> bank) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM mcq_questions WHERE mcq_assignment_id = ?", Long.class, MCQ_ASSIGNMENT_ID);
+        for (Long id : ids) {
+            jdbcTemplate.update("DELETE FROM mcq_options WHERE question_id = ?", id);
+            jdbcTemplate.update("DELETE FROM mcq_questions WHERE id = ?", id);
+        }
+        for (McqQuestion q : bank) {
+            GeneratedKeyHolder key = new GeneratedKeyHolder();
+            jdbcTemplate.update(con -> {
+                PreparedStatement ps = con.prepareStatement("""
+                        INSERT INTO mcq_questions
+                            (mcq_assignment_id, question_number, question_text, marks, correct_option_mask)
+                        VALUES (?, ?, ?, ?, ?)
+                        """, Statement.RETURN_GENERATED_KEYS);
+                ps.setLong(1, MCQ_ASSIGNMENT_ID);
+                ps.setInt(2, q.getQuestionNumber());
+                ps.setString(3, q.getQuestionText());
+                ps.setInt(4, q.getMarks());
+                ps.setLong(5, q.getCorrectOptionMask());
+                return ps;
+            }, key);
+            for (int i = 0; i < q.getOptions().size(); i++) {
+                jdbcTemplate.update(
+                        "INSERT INTO mcq_options (question_id, option_index, option_text) VALUES (?, ?, ?)",
+                        key.getKey().longValue(), i, q.getOptions().get(i));
+            }
+        }
+    }
+
+    private void bulkReplace(List<McqQuestion> bank) {
+        jdbcTemplate.update("""
+                DELETE FROM mcq_options
+                WHERE question_id IN (SELECT id FROM mcq_questions WHERE mcq_assignment_id = ?)
+                """, MCQ_ASSIGNMENT_ID);
+        jdbcTemplate.update("DELETE FROM mcq_questions WHERE mcq_assignment_id = ?", MCQ_ASSIGNMENT_ID);
+        writer.insertAll(bank);
+    }
+
+    private int countQuestions() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM mcq_questions WHERE mcq_assignment_id = ?", Integer.class, MCQ_ASSIGNMENT_ID);
+        return count == null ? 0 : count;
+    }
+
+    private static List<McqQuestion> questionBank(int size) {
+        McqAssignment mcq = McqAssignment.builder().id(MCQ_ASSIGNMENT_ID).build();
+        List<McqQuestion> bank = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            bank.add(McqQuestion.builder()
+                    .mcqAssignment(mcq)
+                    .questionNumber(i)
+                    .questionText("Benchmark question " + i)
+                    .marks(1)
+                    .options(List.of("A", "B", "C", "D"))
+                    .correctOptionMask(1L << (i % 4))
+                    .build());
+        }
+        return bank;
+    }
+}
@@ -0,0 +1,76 @@
+package com.assignment.repository;
+
+import com.assignment.entity.McqQuestion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the staging SQL against the tables Hibernate generates for
+ * {@link com.assignment.entity.McqQuestionImportRow}.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+class McqQuestionImportStagingTest {
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private McqQuestionImportStaging staging;
+
+    @BeforeEach
+    void setUp() {
+        staging = new McqQuestionImportStaging(jdbcTemplate);
+    }
+
+    @Test
+    void read_returnsStagedRowsInOrder_pageByPage() {
+        LocalDateTime now = LocalDateTime.now();
+        staging.stage("import-1", 1, List.of(question("Q1", "a", "b"), question("Q2", "c", "d", "e")), now);
+        staging.stage("import-1", 3, List.of(question("Q3", "f", "g")), now);
+        staging.stage("import-2", 1, List.of(question("other", "x", "y")), now);
+
+        List<McqQuestion> first = staging.read("import-1", 0, 2);
+        List<McqQuestion> second = staging.read("import-1", 2, 2);
+
+        assertEquals(List.of(1, 2), first.stream().map(McqQuestion::getQuestionNumber).toList());
+        assertEquals(List.of("c", "d", "e"), first.get(1).getOptions());
+        assertEquals(1L, first.get(1).getCorrectOptionMask());
+        assertEquals(1, second.size());
+        assertEquals("Q3", second.get(0).getQuestionText());
+    }
+
+    @Test
+    void delete_dropsOnlyTheGivenImport_andAbandonedOnes() {
+        LocalDateTime now = LocalDateTime.now();
+        staging.stage("import-1", 1, List.of(question("Q1", "a", "b")), now);
+        staging.stage("import-2", 1, List.of(question("Q1", "a", "b")), now);
+        staging.stage("abandoned", 1, List.of(question("Q1", "a", "b")), now.minusDays(2));
+
+        staging.delete("import-1");
+        staging.deleteStagedBefore(now.minusDays(1));
+
+        assertTrue(staging.read("import-1", 0, 10).isEmpty());
+        assertTrue(staging.read("abandoned", 0, 10).isEmpty());
+        assertEquals(1, staging.read("import-2", 0, 10).size());
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM mcq_question_import_options", Integer.class));
+    }
+
+    private static McqQuestion question(String text, String... options) {
+        return McqQuestion.builder()
+                .questionText(text)
+                .options(List.of(options))
+                .correctOptionMask(1L)
+                .build();
+    }
+}
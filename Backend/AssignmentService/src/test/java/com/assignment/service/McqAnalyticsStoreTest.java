@@ -0,0 +1,173 @@
+package com.assignment.service;
+
+import com.assignment.dto.McqAnalyticsDto;
+import com.assignment.dto.McqAnswerDto;
+import com.assignment.entity.*;
+import com.assignment.repository.AssignmentRepository;
+import com.assignment.repository.McqAnalyticsStateRepository;
+import com.assignment.repository.McqAssignmentRepository;
+import com.assignment.repository.McqSubmissionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Counts submissions into the persisted aggregate on H2; every page commits
+ * on its own, as it does when the analytics job runs.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class McqAnalyticsStoreTest {
+
+    @Autowired private AssignmentRepository assignmentRepository;
+    @Autowired private McqAssignmentRepository mcqAssignmentRepository;
+    @Autowired private McqSubmissionRepository mcqSubmissionRepository;
+    @Autowired private McqAnalyticsStateRepository stateRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private McqAnswerKeyCache answerKeyCache;
+    private McqAnalyticsStore store;
+    private Assignment assignment;
+    private McqAssignment mcq;
+
+    @BeforeEach
+    void setUp() {
+        assignment = assignmentRepository.save(Assignment.builder()
+                .teacherId(3L)
+                .batchId(10L)
+                .title("Quiz")
+                .type(AssignmentType.MCQ)
+                .maxMarks(10)
+                .status(AssignmentStatus.PUBLISHED)
+                .createdAt(LocalDateTime.now())
+                .build());
+        mcq = mcqAssignmentRepository.save(McqAssignment.builder()
+                .assignment(assignment)
+                .passingPercentage(50)
+                .showCorrectAnswers(false)
+                .build());
+
+        answerKeyCache = mock(McqAnswerKeyCache.class);
+        when(answerKeyCache.get(mcq.getId())).thenReturn(key(0b01L));
+        store = new McqAnalyticsStore(stateRepository, mcqAssignmentRepository, mcqSubmissionRepository,
+                answerKeyCache, new TransactionTemplate(transactionManager), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stateRepository.deleteAllInBatch();
+        mcqSubmissionRepository.deleteAllInBatch();
+        mcqAssignmentRepository.deleteAllInBatch();
+        assignmentRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void get_beforeTheJobHasRun_reportsBuilding_withoutReadingSubmissions() {
+        submit(11L, 0);
+
+        McqAnalyticsDto dto = get();
+
+        assertEquals("BUILDING", dto.getStatus());
+        assertEquals(0L, dto.getSubmissionCount());
+    }
+
+    @Test
+    void countPage_countsEverySubmissionExactlyOnce_acrossPagesAndRuns() {
+        submit(11L, 0);
+        submit(12L, 0);
+        submit(13L, 1);
+
+        drain();
+        drain();
+
+        McqAnalyticsDto dto = get();
+        assertEquals("READY", dto.getStatus());
+        assertEquals(3L, dto.getSubmissionCount());
+        assertEquals(2L, dto.getPassCount());
+        assertEquals(List.of(2L, 1L), dto.getQuestions().get(0).getOptionCounts());
+
+        submit(14L, 1);
+        assertEquals(List.of(mcq.getId()), store.findPending(10));
+        drain();
+
+        assertEquals(4L, get().getSubmissionCount());
+        assertTrue(store.findPending(10).isEmpty());
+    }
+
+    @Test
+    void countPage_afterTheKeyChanges_rebuildsFromScratch() {
+        submit(11L, 0);
+        submit(12L, 1);
+        drain();
+        assertEquals(1L, get().getPassCount());
+
+        // option B becomes the correct one
+        when(answerKeyCache.get(mcq.getId())).thenReturn(key(0b10L));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> store.markStale(mcq.getId()));
+        assertEquals("BUILDING", get().getStatus());
+
+        drain();
+
+        McqAnalyticsDto dto = get();
+        assertEquals("READY", dto.getStatus());
+        assertEquals(2L, dto.getSubmissionCount());
+        assertEquals(1L, dto.getPassCount());
+        assertEquals(1L, dto.getQuestions().get(0).getCorrectCount());
+        assertEquals(2, stateRepository.findById(mcq.getId()).orElseThrow().getGeneration());
+    }
+
+    private void drain() {
+        for (Long id : store.findPending(10)) {
+            int pages = 0;
+            while (store.countPage(id)) {
+                assertFalse(++pages > 10, "counting did not finish");
+            }
+        }
+    }
+
+    private McqAnalyticsDto get() {
+        return new TransactionTemplate(transactionManager).execute(status ->
+                store.get(assignment.getId(), mcq.getId(), 10, 50));
+    }
+
+    private void submit(Long studentId, int selectedOption) {
+        mcqSubmissionRepository.save(McqSubmission.builder()
+                .mcqAssignment(mcq)
+                .studentId(studentId)
+                .answers(McqAnswerKey.packAnswers(List.of(new McqAnswerDto(1, selectedOption))))
+                .totalMarks(10)
+                .obtainedMarks(0)
+                .percentage(0.0)
+                .passed(false)
+                .submittedAt(LocalDateTime.now())
+                .build());
+    }
+
+    private static McqAnswerKey key(long correctMask) {
+        return McqAnswerKey.compile(List.of(McqQuestion.builder()
+                .questionNumber(1)
+                .questionText("Q1")
+                .marks(10)
+                .options(List.of("A", "B"))
+                .correctOptionMask(correctMask)
+                .build()));
+    }
+}
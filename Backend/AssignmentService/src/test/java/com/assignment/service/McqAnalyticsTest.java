@@ -0,0 +1,95 @@
+package com.assignment.service;
+
+import com.assignment.dto.McqAnalyticsDto;
+import com.assignment.dto.McqAnswerDto;
+import com.assignment.dto.McqQuestionAnalyticsDto;
+import com.assignment.entity.McqQuestion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class McqAnalyticsTest {
+
+    private McqAnswerKey key;
+    private McqAnalytics analytics;
+
+    @BeforeEach
+    void setUp() {
+        key = McqAnswerKey.compile(List.of(
+                question(1, List.of("A", "B", "C"), 0b001),
+                question(2, List.of("A", "B"), 0b10)
+        ));
+        analytics = new McqAnalytics(key, 10, 50);
+    }
+
+    @Test
+    void record_tracksOptionCountsHistogramAndPassRate() {
+        record(new McqAnswerDto(1, 0), new McqAnswerDto(2, 1)); // 10/10
+        record(new McqAnswerDto(1, 0), new McqAnswerDto(2, 0)); //  5/10
+        record(new McqAnswerDto(1, 2));                          //  0/10
+        record(new McqAnswerDto(1, 9), new McqAnswerDto(2, 0)); //  0/10
+
+        McqAnalyticsDto dto = analytics.toDto(100L);
+
+        assertEquals(4L, dto.getSubmissionCount());
+        assertEquals(2L, dto.getPassCount());
+        assertEquals(50.0, dto.getPassRate());
+        assertEquals(37.5, dto.getAveragePercentage());
+        assertEquals(2L, dto.getScoreHistogram().get(0).getCount());
+        assertEquals(1L, dto.getScoreHistogram().get(5).getCount());
+        assertEquals(1L, dto.getScoreHistogram().get(9).getCount());
+
+        McqQuestionAnalyticsDto q1 = dto.getQuestions().get(0);
+        assertEquals(List.of(2L, 0L, 1L), q1.getOptionCounts());
+        assertEquals(1L, q1.getInvalidCount());
+        assertEquals(50.0, q1.getPercentCorrect());
+        assertTrue(q1.getDiscriminationIndex() > 0);
+
+        McqQuestionAnalyticsDto q2 = dto.getQuestions().get(1);
+        assertEquals(List.of(2L, 1L), q2.getOptionCounts());
+        assertEquals(1L, q2.getUnansweredCount());
+        assertEquals(25.0, q2.getPercentCorrect());
+    }
+
+    @Test
+    void encode_roundTripsTheCounters_andDiscriminationStaysUndefinedWithoutVariance() {
+        record(new McqAnswerDto(1, 0));
+
+        McqAnalytics restored = McqAnalytics.decode(key, 10, 50, analytics.encode());
+        byte[] packed = McqAnswerKey.packAnswers(List.of(new McqAnswerDto(1, 0)));
+        restored.record(packed, key.grade(packed));
+        McqAnalyticsDto dto = restored.toDto(100L);
+
+        assertEquals(2L, dto.getSubmissionCount());
+        assertEquals(List.of(2L, 0L, 0L), dto.getQuestions().get(0).getOptionCounts());
+        assertNull(dto.getQuestions().get(0).getDiscriminationIndex());
+    }
+
+    @Test
+    void decode_rejectsCountersOfAnotherKey() {
+        McqAnswerKey other = McqAnswerKey.compile(List.of(question(1, List.of("A", "B"), 0b1)));
+
+        assertThrows(IllegalStateException.class, () -> McqAnalytics.decode(other, 10, 50, analytics.encode()));
+    }
+
+    private void record(McqAnswerDto... answers) {
+        byte[] packed = McqAnswerKey.packAnswers(List.of(answers));
+        analytics.record(packed, key.grade(packed));
+    }
+
+    private McqQuestion question(int number, List<String> options, long correctMask) {
+        return McqQuestion.builder()
+                .questionNumber(number)
+                .questionText("Question " + number)
+                .marks(5)
+                .options(options)
+                .correctOptionMask(correctMask)
+                .build();
+    }
+}
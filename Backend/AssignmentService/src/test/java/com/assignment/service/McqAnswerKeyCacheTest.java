@@ -0,0 +1,86 @@
+package com.assignment.service;
+
+import com.assignment.config.TwoTierCacheManager;
+import com.assignment.entity.McqQuestion;
+import com.assignment.repository.McqQuestionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class McqAnswerKeyCacheTest {
+
+    private static final String CHANNEL = "assignment:cache:invalidate";
+
+    @Mock private McqQuestionRepository mcqQuestionRepository;
+    @Mock private CacheManager remoteCacheManager;
+    @Mock private StringRedisTemplate redisTemplate;
+
+    private TwoTierCacheManager cacheManager;
+    private McqAnswerKeyCache cache;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new TwoTierCacheManager(
+                remoteCacheManager, redisTemplate, meterRegistry, CHANNEL, 100, Duration.ofMinutes(1));
+        cache = new McqAnswerKeyCache(
+                mcqQuestionRepository, cacheManager, meterRegistry, 100, Duration.ofMinutes(5));
+        when(mcqQuestionRepository.findByMcqAssignment_IdOrderByQuestionNumberAsc(7L))
+                .thenReturn(List.of(McqQuestion.builder()
+                        .questionNumber(1)
+                        .questionText("Q1")
+                        .marks(1)
+                        .options(List.of("A", "B"))
+                        .correctOptionMask(1L)
+                        .build()));
+    }
+
+    @Test
+    void get_compilesOncePerAssignment() {
+        McqAnswerKey first = cache.get(7L);
+
+        assertSame(first, cache.get(7L));
+        verify(mcqQuestionRepository, times(1)).findByMcqAssignment_IdOrderByQuestionNumberAsc(7L);
+    }
+
+    @Test
+    void evict_dropsTheKeyAndBroadcastsTheEviction() {
+        McqAnswerKey first = cache.get(7L);
+
+        cache.evict(7L);
+
+        assertNotSame(first, cache.get(7L));
+        verify(redisTemplate).convertAndSend(eq(CHANNEL), endsWith("\nE\n" + McqAnswerKeyCache.CACHE_NAME + "\n7"));
+    }
+
+    @Test
+    void evictionFromAnotherInstance_dropsTheLocalKey() {
+        McqAnswerKey first = cache.get(7L);
+
+        String body = "other-instance\nE\n" + McqAnswerKeyCache.CACHE_NAME + "\n7";
+        cacheManager.onMessage(new DefaultMessage(
+                CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8)), null);
+
+        assertNotSame(first, cache.get(7L));
+        verify(mcqQuestionRepository, times(2)).findByMcqAssignment_IdOrderByQuestionNumberAsc(7L);
+    }
+}
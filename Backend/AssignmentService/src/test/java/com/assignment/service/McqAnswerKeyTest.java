@@ -0,0 +1,107 @@
+package com.assignment.service;
+
+import com.assignment.dto.McqAnswerDto;
+import com.assignment.entity.McqQuestion;
+import com.assignment.exception.BadRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class McqAnswerKeyTest {
+
+    private McqAnswerKey answerKey;
+
+    @BeforeEach
+    void setUp() {
+        answerKey = McqAnswerKey.compile(List.of(
+                question(1, 5, List.of("A", "B"), 0b10),
+                question(2, 5, List.of("A", "B", "C"), 0b01),
+                question(3, 10, List.of("A", "B"), 0b01)
+        ));
+    }
+
+    @Test
+    void grade_countsCorrectAnswersAndMarks() {
+        McqAnswerKey.Result result = answerKey.grade(List.of(
+                new McqAnswerDto(1, 1),
+                new McqAnswerDto(2, 2),
+                new McqAnswerDto(3, 0)
+        ));
+
+        assertEquals(15, result.obtainedMarks());
+        assertEquals(2, result.correctCount());
+        assertEquals(1, result.incorrectCount());
+        assertEquals(3, answerKey.questionCount());
+        assertArrayEquals(new byte[]{0b101}, result.correctness());
+    }
+
+    @Test
+    void grade_ignoresInvalidUnknownAndDuplicateAnswers() {
+        McqAnswerKey.Result result = answerKey.grade(List.of(
+                new McqAnswerDto(1, 0),
+                new McqAnswerDto(1, 1),
+                new McqAnswerDto(2, 7),
+                new McqAnswerDto(9, 0),
+                new McqAnswerDto(null, 0)
+        ));
+
+        assertEquals(0, result.obtainedMarks());
+        assertEquals(0, result.correctCount());
+        assertEquals(3, result.incorrectCount());
+    }
+
+    @Test
+    void grade_nullAnswers_scoresZero() {
+        McqAnswerKey.Result result = answerKey.grade((byte[]) null);
+
+        assertEquals(0, result.obtainedMarks());
+        assertEquals(3, result.incorrectCount());
+    }
+
+    @Test
+    void grade_answeredQuestionWithoutCorrectOption_throwsBadRequest() {
+        McqAnswerKey key = McqAnswerKey.compile(List.of(
+                question(1, 5, List.of("A"), 0L)
+        ));
+
+        assertThrows(BadRequestException.class,
+                () -> key.grade(List.of(new McqAnswerDto(1, 0))));
+    }
+
+    @Test
+    void packAnswers_roundTripsThroughGrading() {
+        byte[] packed = McqAnswerKey.packAnswers(List.of(
+                new McqAnswerDto(3, 0),
+                new McqAnswerDto(1, 1),
+                new McqAnswerDto(1, 0),
+                new McqAnswerDto(2, -1),
+                new McqAnswerDto(0, 1)
+        ));
+
+        assertArrayEquals(new byte[]{2, (byte) 0xFF, 1}, packed);
+        assertEquals(15, answerKey.grade(packed).obtainedMarks());
+        assertEquals(0, McqAnswerKey.packAnswers(null).length);
+    }
+
+    @Test
+    void unpackAnswers_skipsUnansweredAndNullsInvalidSelections() {
+        List<McqAnswerDto> answers = McqAnswerKey.unpackAnswers(new byte[]{2, 0, (byte) 0xFF});
+
+        assertEquals(List.of(new McqAnswerDto(1, 1), new McqAnswerDto(3, null)), answers);
+    }
+
+    private McqQuestion question(int number, int marks, List<String> options, long correctMask) {
+        return McqQuestion.builder()
+                .questionNumber(number)
+                .questionText("Question " + number)
+                .marks(marks)
+                .options(options)
+                .correctOptionMask(correctMask)
+                .build();
+    }
+}
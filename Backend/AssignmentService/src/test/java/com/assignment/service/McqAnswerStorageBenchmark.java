@@ -0,0 +1,103 @@
+package com.assignment.service;
+
+import com.assignment.dto.McqAnswerDto;
+import com.assignment.entity.McqQuestion;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of the per-submission parse cost of the legacy JSON columns
+ * against the typed storage format (option list + correct mask, packed answers).
+ *
+ * Run through {@link McqAnswerStorageBenchmarkTest}.
+ */
+public class McqAnswerStorageBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Storage {
+
+        @Param({"20", "100", "500"})
+        public int questions;
+
+        final ObjectMapper objectMapper = new ObjectMapper();
+
+        List<String> optionsJson;
+        List<String> correctAnswersJson;
+        String answersJson;
+
+        List<McqQuestion> typedQuestions;
+        byte[] packedAnswers;
+        McqAnswerKey answerKey;
+
+        @Setup
+        public void setUp() throws Exception {
+            optionsJson = new ArrayList<>(questions);
+            correctAnswersJson = new ArrayList<>(questions);
+            typedQuestions = new ArrayList<>(questions);
+            List<McqAnswerDto> answers = new ArrayList<>(questions);
+
+            for (int n = 1; n <= questions; n++) {
+                optionsJson.add("[{\"id\":0,\"text\":\"Option A\"},{\"id\":1,\"text\":\"Option B\"},"
+                        + "{\"id\":2,\"text\":\"Option C\"},{\"id\":3,\"text\":\"Option D\"}]");
+                correctAnswersJson.add("[" + (n % 4) + "]");
+                typedQuestions.add(McqQuestion.builder()
+                        .questionNumber(n)
+                        .questionText("Question " + n)
+                        .marks(1)
+                        .options(List.of("Option A", "Option B", "Option C", "Option D"))
+                        .correctOptionMask(1L << (n % 4))
+                        .build());
+                answers.add(new McqAnswerDto(n, (n * 7) % 4));
+            }
+
+            answersJson = objectMapper.writeValueAsString(answers);
+            packedAnswers = McqAnswerKey.packAnswers(answers);
+            answerKey = McqAnswerKey.compile(typedQuestions);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void gradeFromJsonAnswers(Storage s, Blackhole bh) throws Exception {
+        List<McqAnswerDto> answers = s.objectMapper.readValue(s.answersJson, new TypeReference<>() {});
+        bh.consume(s.answerKey.grade(answers));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void gradeFromPackedAnswers(Storage s, Blackhole bh) {
+        bh.consume(s.answerKey.grade(s.packedAnswers));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void compileKeyFromJsonColumns(Storage s, Blackhole bh) throws Exception {
+        long[] masks = new long[s.questions];
+        int[] optionCounts = new int[s.questions];
+        for (int i = 0; i < s.questions; i++) {
+            optionCounts[i] = s.objectMapper.readTree(s.optionsJson.get(i)).size();
+            for (JsonNode index : s.objectMapper.readTree(s.correctAnswersJson.get(i))) {
+                masks[i] |= 1L << index.asInt();
+            }
+        }
+        bh.consume(masks);
+        bh.consume(optionCounts);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void compileKeyFromTypedColumns(Storage s, Blackhole bh) {
+        bh.consume(McqAnswerKey.compile(s.typedQuestions));
+    }
+}
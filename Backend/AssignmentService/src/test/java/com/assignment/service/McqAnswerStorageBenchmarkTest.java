@@ -0,0 +1,31 @@
+package com.assignment.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Runs {@link McqAnswerStorageBenchmark}.
+ *
+ * Run with {@code mvn test -Dtest=McqAnswerStorageBenchmarkTest -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class McqAnswerStorageBenchmarkTest {
+
+    @Test
+    void compareStorageFormats() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(McqAnswerStorageBenchmark.class.getName() + ".*")
+                .forks(0) // surefire's manifest-only classpath cannot be forked
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .build();
+        new Runner(options).run();
+    }
+}
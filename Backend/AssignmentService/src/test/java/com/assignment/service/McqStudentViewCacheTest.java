@@ -0,0 +1,103 @@
+package com.assignment.service;
+
+import com.assignment.config.TwoTierCacheManager;
+import com.assignment.dto.McqAssignmentResponseDto;
+import com.assignment.dto.McqOptionDto;
+import com.assignment.dto.McqQuestionDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class McqStudentViewCacheTest {
+
+    private static final String CHANNEL = "assignment:cache:invalidate";
+
+    @Mock private CacheManager remoteCacheManager;
+    @Mock private StringRedisTemplate redisTemplate;
+
+    private TwoTierCacheManager cacheManager;
+    private McqStudentViewCache cache;
+    private int loads;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new TwoTierCacheManager(
+                remoteCacheManager, redisTemplate, meterRegistry, CHANNEL, 100, Duration.ofMinutes(1));
+        cache = new McqStudentViewCache(
+                new ObjectMapper().registerModule(new JavaTimeModule()),
+                cacheManager, meterRegistry, 100, Duration.ofMinutes(10));
+        loads = 0;
+    }
+
+    @Test
+    void get_loadsOnce_andHandsEveryCallerItsOwnCopy() {
+        McqAssignmentResponseDto first = cache.get(5L, this::load);
+        first.setTitle("changed by a caller");
+        first.getQuestions().get(0).setQuestionText("changed too");
+
+        McqAssignmentResponseDto second = cache.get(5L, this::load);
+
+        assertEquals(1, loads);
+        assertEquals("Quiz 1", second.getTitle());
+        assertEquals("Question 1", second.getQuestions().get(0).getQuestionText());
+        assertEquals(List.of(new McqOptionDto(0, "A"), new McqOptionDto(1, "B")),
+                second.getQuestions().get(0).getOptions());
+    }
+
+    @Test
+    void evict_reloads_andBroadcastsTheEviction() {
+        cache.get(5L, this::load);
+
+        cache.evict(5L);
+        McqAssignmentResponseDto reloaded = cache.get(5L, this::load);
+
+        assertEquals("Quiz 2", reloaded.getTitle());
+        verify(redisTemplate).convertAndSend(eq(CHANNEL), endsWith("\nE\n" + McqStudentViewCache.CACHE_NAME + "\n5"));
+    }
+
+    @Test
+    void evictionFromAnotherInstance_dropsTheLocalView() {
+        cache.get(5L, this::load);
+
+        String body = "other-instance\nE\n" + McqStudentViewCache.CACHE_NAME + "\n5";
+        cacheManager.onMessage(new DefaultMessage(
+                CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8)), null);
+
+        assertEquals("Quiz 2", cache.get(5L, this::load).getTitle());
+    }
+
+    private McqAssignmentResponseDto load(Long assignmentId) {
+        loads++;
+        List<McqOptionDto> options = new ArrayList<>(List.of(new McqOptionDto(0, "A"), new McqOptionDto(1, "B")));
+        return McqAssignmentResponseDto.builder()
+                .assignmentId(assignmentId)
+                .batchId(10L)
+                .title("Quiz " + loads)
+                .maxMarks(10)
+                .createdAt(LocalDateTime.of(2026, 1, 1, 9, 0))
+                .questions(new ArrayList<>(List.of(
+                        new McqQuestionDto(1L, 1, "Question 1", 10, options, null))))
+                .build();
+    }
+}
@@ -0,0 +1,216 @@
+package com.assignment.service;
+
+import com.assignment.dto.StudentAssignmentDto;
+import com.assignment.dto.StudentAssignmentPageSnapshot;
+import com.assignment.dto.StudentAssignmentsSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StudentAssignmentCacheTest {
+
+    private CacheManager cacheManager;
+    private RedisLock redisLock;
+    private StudentAssignmentCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager();
+        redisLock = mock(RedisLock.class);
+        when(redisLock.tryAcquire(any(), any(), any())).thenReturn(true);
+        cache = new StudentAssignmentCache(
+                cacheManager, redisLock, Duration.ofMinutes(4), Duration.ofSeconds(5), Duration.ofMillis(200));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_servesCachedSnapshotWhileItsBatchesAreUnchanged() {
+        cache.get(11L, loader(List.of(10L, 20L)));
+        cache.get(11L, loader(List.of(10L, 20L)));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidateBatch_makesEverySnapshotOfTheBatchStale() {
+        cache.get(11L, loader(List.of(10L, 20L)));
+        cache.get(12L, loader(List.of(10L)));
+        cache.get(13L, loader(List.of(20L)));
+
+        cache.invalidateBatch(10L);
+        cache.get(11L, loader(List.of(10L, 20L)));
+        cache.get(12L, loader(List.of(10L)));
+        cache.get(13L, loader(List.of(20L)));
+
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void versionsOf_isStableUntilTheBatchIsInvalidated() {
+        List<String> first = cache.versionsOf(List.of(10L));
+
+        assertEquals(first, cache.versionsOf(List.of(10L)));
+        cache.invalidateBatch(10L);
+        assertNotEquals(first, cache.versionsOf(List.of(10L)));
+    }
+
+    @Test
+    void evictStudent_dropsOnlyThatStudent() {
+        cache.get(11L, loader(List.of(10L)));
+        cache.get(12L, loader(List.of(10L)));
+
+        cache.evictStudent(11L);
+        cache.get(11L, loader(List.of(10L)));
+        cache.get(12L, loader(List.of(10L)));
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void get_concurrentMisses_shareOneLoad() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Function<Long, StudentAssignmentsSnapshot> slowLoader = studentId -> {
+            await(release);
+            return loader(List.of(10L)).apply(studentId);
+        };
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<StudentAssignmentDto>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> cache.get(11L, slowLoader)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<List<StudentAssignmentDto>> result : results) {
+                assertEquals(1, result.get(5, TimeUnit.SECONDS).size());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_lockHeldByAnotherNode_waitsForItsSnapshot() {
+        when(redisLock.tryAcquire(any(), any(), any())).thenReturn(false);
+        StudentAssignmentsSnapshot loadedElsewhere = loader(List.of(10L)).apply(11L);
+        loads.set(0);
+        new Thread(() -> {
+            sleep(50);
+            cacheManager.getCache(StudentAssignmentCache.SNAPSHOTS_CACHE).put(11L, loadedElsewhere);
+        }).start();
+
+        List<StudentAssignmentDto> result = cache.get(11L, loader(List.of(10L)));
+
+        assertEquals(loadedElsewhere.getAssignments(), result);
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void get_oldSnapshot_isServedAndRefreshedInBackground() throws Exception {
+        StudentAssignmentsSnapshot old = loader(List.of(10L)).apply(11L);
+        old.setBuiltAt(System.currentTimeMillis() - Duration.ofMinutes(5).toMillis());
+        cacheManager.getCache(StudentAssignmentCache.SNAPSHOTS_CACHE).put(11L, old);
+        loads.set(0);
+
+        assertEquals(old.getAssignments(), cache.get(11L, loader(List.of(10L))));
+
+        for (int i = 0; i < 100 && loads.get() == 0; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(1, loads.get());
+        StudentAssignmentsSnapshot refreshed = cacheManager.getCache(StudentAssignmentCache.SNAPSHOTS_CACHE)
+                .get(11L, StudentAssignmentsSnapshot.class);
+        assertTrue(refreshed.getBuiltAt() > old.getBuiltAt());
+    }
+
+    @Test
+    void getPage_isCachedPerKey_untilTheStudentOrABatchChanges() {
+        cache.getPage(11L, "p1", pageLoader(11L, List.of(10L)));
+        cache.getPage(11L, "p1", pageLoader(11L, List.of(10L)));
+        cache.getPage(11L, "p2", pageLoader(11L, List.of(10L)));
+        assertEquals(2, loads.get());
+
+        cache.evictStudent(11L);
+        cache.getPage(11L, "p1", pageLoader(11L, List.of(10L)));
+        cache.getPage(11L, "p2", pageLoader(11L, List.of(10L)));
+        assertEquals(4, loads.get());
+
+        cache.invalidateBatch(10L);
+        cache.getPage(11L, "p1", pageLoader(11L, List.of(10L)));
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void evictStudent_leavesOtherStudentsPages() {
+        cache.getPage(11L, "p1", pageLoader(11L, List.of(10L)));
+        cache.getPage(12L, "p1", pageLoader(12L, List.of(10L)));
+
+        cache.evictStudent(11L);
+        cache.getPage(12L, "p1", pageLoader(12L, List.of(10L)));
+
+        assertEquals(2, loads.get());
+    }
+
+    private Supplier<StudentAssignmentPageSnapshot> pageLoader(Long studentId, List<Long> batchIds) {
+        return () -> {
+            loads.incrementAndGet();
+            return new StudentAssignmentPageSnapshot(
+                    batchIds,
+                    cache.versionsOf(batchIds),
+                    cache.studentVersionOf(studentId),
+                    List.of(new StudentAssignmentDto()),
+                    null,
+                    false);
+        };
+    }
+
+    private Function<Long, StudentAssignmentsSnapshot> loader(List<Long> batchIds) {
+        return studentId -> {
+            loads.incrementAndGet();
+            return new StudentAssignmentsSnapshot(
+                    batchIds,
+                    cache.versionsOf(batchIds),
+                    List.of(new StudentAssignmentDto()),
+                    System.currentTimeMillis());
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.assignment.service;
+
+import com.assignment.dto.EnrollmentEvent;
+import com.assignment.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class StudentBatchMembershipCacheTest {
+
+    private BatchServiceGateway batchServiceGateway;
+    private StudentAssignmentCache studentAssignmentCache;
+    private StudentBatchMembershipCache cache;
+    private EnrollmentEventListener listener;
+
+    @BeforeEach
+    void setUp() {
+        batchServiceGateway = mock(BatchServiceGateway.class);
+        studentAssignmentCache = mock(StudentAssignmentCache.class);
+        cache = new StudentBatchMembershipCache(
+                batchServiceGateway, new SimpleMeterRegistry(), 100, Duration.ofMinutes(30));
+        listener = new EnrollmentEventListener(cache, studentAssignmentCache);
+    }
+
+    @Test
+    void getStudentBatchIds_callsBatchServiceOnlyOnMiss() {
+        when(batchServiceGateway.getStudentBatchIds(11L)).thenReturn(List.of(10L));
+
+        assertEquals(List.of(10L), cache.getStudentBatchIds(11L));
+        assertEquals(List.of(10L), cache.getStudentBatchIds(11L));
+
+        verify(batchServiceGateway, times(1)).getStudentBatchIds(11L);
+    }
+
+    @Test
+    void getStudentBatchIds_doesNotCacheFailures() {
+        when(batchServiceGateway.getStudentBatchIds(11L))
+                .thenThrow(new ServiceUnavailableException("down"))
+                .thenReturn(List.of(10L));
+
+        assertThrows(ServiceUnavailableException.class, () -> cache.getStudentBatchIds(11L));
+        assertEquals(List.of(10L), cache.getStudentBatchIds(11L));
+    }
+
+    @Test
+    void enrolledEvent_addsBatchToCachedMembershipWithoutRemoteCall() {
+        when(batchServiceGateway.getStudentBatchIds(11L)).thenReturn(List.of(10L));
+        cache.getStudentBatchIds(11L);
+
+        listener.handle(new EnrollmentEvent(11L, 20L, EnrollmentEventListener.ENROLLED, 0L));
+        listener.handle(new EnrollmentEvent(11L, 20L, EnrollmentEventListener.ENROLLED, 0L));
+
+        assertEquals(List.of(10L, 20L), cache.getStudentBatchIds(11L));
+        verify(batchServiceGateway, times(1)).getStudentBatchIds(11L);
+        verify(studentAssignmentCache, times(2)).evictStudent(11L);
+    }
+
+    @Test
+    void enrolledEvent_leavesUncachedStudentToTheNextLookup() {
+        listener.handle(new EnrollmentEvent(12L, 20L, EnrollmentEventListener.ENROLLED, 0L));
+
+        verifyNoInteractions(batchServiceGateway);
+        when(batchServiceGateway.getStudentBatchIds(12L)).thenReturn(List.of(20L));
+        assertEquals(List.of(20L), cache.getStudentBatchIds(12L));
+    }
+}
@@ -0,0 +1,70 @@
+package com.assignment.service;
+
+import com.assignment.dto.UserSummaryDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserSummaryCacheTest {
+
+    private UserServiceGateway userServiceGateway;
+    private UserSummaryCache cache;
+
+    @BeforeEach
+    void setUp() {
+        userServiceGateway = mock(UserServiceGateway.class);
+        cache = new UserSummaryCache(userServiceGateway, new SimpleMeterRegistry(), 1000, Duration.ofMinutes(2));
+    }
+
+    @Test
+    void getAll_fetchesOnlyMissingIdsInOneCall() {
+        when(userServiceGateway.getUserSummaries(List.of(11L, 12L))).thenReturn(List.of(user(11L), user(12L)));
+        when(userServiceGateway.getUserSummaries(List.of(13L))).thenReturn(List.of(user(13L)));
+
+        cache.getAll(List.of(11L, 12L, 11L));
+        Map<Long, UserSummaryDto> users = cache.getAll(List.of(11L, 12L, 13L));
+
+        assertEquals(3, users.size());
+        assertEquals("First13", users.get(13L).getFirstName());
+        verify(userServiceGateway, times(2)).getUserSummaries(anyList());
+    }
+
+    @Test
+    void getAll_unreturnedUserGetsUncachedPlaceholder() {
+        when(userServiceGateway.getUserSummaries(List.of(11L)))
+                .thenReturn(List.of())
+                .thenReturn(List.of(user(11L)));
+
+        assertEquals("#11", cache.getAll(List.of(11L)).get(11L).getLastName());
+        assertEquals("Last11", cache.getAll(List.of(11L)).get(11L).getLastName());
+    }
+
+    @Test
+    void getAll_splitsLargeListsIntoChunks() {
+        List<Long> ids = LongStream.rangeClosed(1, UserSummaryCache.CHUNK_SIZE + 1).boxed().toList();
+        when(userServiceGateway.getUserSummaries(anyList())).thenReturn(List.of());
+
+        assertEquals(ids.size(), cache.getAll(ids).size());
+        verify(userServiceGateway, times(2)).getUserSummaries(anyList());
+    }
+
+    private UserSummaryDto user(Long id) {
+        UserSummaryDto user = new UserSummaryDto();
+        user.setId(id);
+        user.setFirstName("First" + id);
+        user.setLastName("Last" + id);
+        return user;
+    }
+}
@@ -0,0 +1,268 @@
+package com.assignment.service.student;
+
+import com.assignment.dto.CursorPageDto;
+import com.assignment.dto.StudentAssignmentDto;
+import com.assignment.dto.StudentAssignmentPageSnapshot;
+import com.assignment.dto.StudentAssignmentsSnapshot;
+import com.assignment.entity.*;
+import com.assignment.exception.ForbiddenException;
+import com.assignment.repository.AssignmentRepository;
+import com.assignment.repository.AssignmentSubmissionRepository;
+import com.assignment.service.FileStorageService;
+import com.assignment.service.NotificationPublisher;
+import com.assignment.service.StudentAssignmentCache;
+import com.assignment.service.StudentBatchMembershipCache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs listAssignments against H2 and counts the SQL statements it issues, so
+ * a per-assignment lookup creeping back into the read path fails the build.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+class StudentAssignmentListQueryCountTest {
+
+    private static final long BATCH_ID = 10L;
+    private static final long STUDENT_ID = 11L;
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+    @Autowired private EntityManager entityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private AssignmentRepository assignmentRepository;
+    @Autowired private AssignmentSubmissionRepository submissionRepository;
+
+    private StudentAssignmentServiceImpl service;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        StudentBatchMembershipCache studentBatchMembershipCache = mock(StudentBatchMembershipCache.class);
+        when(studentBatchMembershipCache.getStudentBatchIds(STUDENT_ID)).thenReturn(List.of(BATCH_ID));
+
+        // no caching: every call goes to the database
+        StudentAssignmentCache studentAssignmentCache = mock(StudentAssignmentCache.class);
+        when(studentAssignmentCache.get(eq(STUDENT_ID), any())).thenAnswer(invocation -> {
+            Function<Long, StudentAssignmentsSnapshot> loader = invocation.getArgument(1);
+            return loader.apply(STUDENT_ID).getAssignments();
+        });
+        when(studentAssignmentCache.getPage(eq(STUDENT_ID), anyString(), any())).thenAnswer(invocation -> {
+            Supplier<StudentAssignmentPageSnapshot> loader = invocation.getArgument(2);
+            return loader.get();
+        });
+
+        service = new StudentAssignmentServiceImpl(
+                assignmentRepository,
+                submissionRepository,
+                studentBatchMembershipCache,
+                mock(NotificationPublisher.class),
+                mock(FileStorageService.class),
+                studentAssignmentCache);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void listAssignments_queryCountDoesNotGrowWithAssignments() {
+        seed(4);
+        long fewQueries = countQueries();
+
+        seed(40);
+        long manyQueries = countQueries();
+
+        assertEquals(1, fewQueries);
+        assertEquals(fewQueries, manyQueries);
+    }
+
+    @Test
+    void listAssignments_mapsSubmissionStatusPerType() {
+        List<Assignment> seeded = seed(4);
+        entityManager.clear();
+
+        Map<Long, StudentAssignmentDto> byId = service.listAssignments(STUDENT_ID).stream()
+                .collect(Collectors.toMap(StudentAssignmentDto::getAssignmentId, Function.identity()));
+
+        StudentAssignmentDto evaluatedText = byId.get(seeded.get(0).getId());
+        assertEquals(true, evaluatedText.getSubmitted());
+        assertEquals(8, evaluatedText.getObtainedMarks());
+        assertEquals("Good", evaluatedText.getFeedback());
+
+        StudentAssignmentDto submittedMcq = byId.get(seeded.get(1).getId());
+        assertEquals(true, submittedMcq.getSubmitted());
+        assertEquals(7, submittedMcq.getObtainedMarks());
+        assertNull(submittedMcq.getFeedback());
+
+        assertEquals(false, byId.get(seeded.get(2).getId()).getSubmitted());
+        assertEquals(false, byId.get(seeded.get(3).getId()).getSubmitted());
+    }
+
+    @Test
+    void listAssignmentsPage_walksAllPagesInOrder_withOneQueryPerPage() {
+        List<Assignment> seeded = seed(7);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        statistics.clear();
+        do {
+            CursorPageDto<StudentAssignmentDto> page = service.listAssignmentsPage(
+                    STUDENT_ID, null, null, null, Sort.Direction.ASC, cursor, 3);
+            page.getItems().forEach(dto -> seen.add(dto.getAssignmentId()));
+            cursor = page.getNextCursor();
+            assertEquals(cursor != null, page.isHasMore());
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(seeded.stream().map(Assignment::getId).toList(), seen);
+        assertEquals(3, pages);
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void listAssignmentsPage_newestFirst_walksAllPagesInReverseOrder() {
+        List<Assignment> seeded = seed(7);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageDto<StudentAssignmentDto> page = service.listAssignmentsPage(
+                    STUDENT_ID, null, null, null, Sort.Direction.DESC, cursor, 3);
+            page.getItems().forEach(dto -> seen.add(dto.getAssignmentId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(seeded.stream().map(Assignment::getId).toList().reversed(), seen);
+    }
+
+    @Test
+    void listAssignmentsPage_filtersByTypeAndSubmissionStatus() {
+        List<Assignment> seeded = seed(6);
+        entityManager.flush();
+        entityManager.clear();
+
+        CursorPageDto<StudentAssignmentDto> pendingMcq = service.listAssignmentsPage(
+                STUDENT_ID, BATCH_ID, AssignmentType.MCQ, false, Sort.Direction.DESC, null, 10);
+        assertEquals(List.of(seeded.get(5).getId(), seeded.get(3).getId()),
+                pendingMcq.getItems().stream().map(StudentAssignmentDto::getAssignmentId).toList());
+        assertFalse(pendingMcq.isHasMore());
+
+        CursorPageDto<StudentAssignmentDto> submitted = service.listAssignmentsPage(
+                STUDENT_ID, null, null, true, Sort.Direction.DESC, null, 10);
+        assertEquals(List.of(seeded.get(1).getId(), seeded.get(0).getId()),
+                submitted.getItems().stream().map(StudentAssignmentDto::getAssignmentId).toList());
+        assertTrue(submitted.getItems().stream().allMatch(StudentAssignmentDto::getSubmitted));
+    }
+
+    @Test
+    void listAssignmentsPage_batchTheStudentIsNotIn_isForbidden() {
+        assertThrows(ForbiddenException.class, () -> service.listAssignmentsPage(
+                STUDENT_ID, BATCH_ID + 1, null, null, Sort.Direction.DESC, null, 10));
+    }
+
+    private long countQueries() {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        service.listAssignments(STUDENT_ID);
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * Alternates TEXT and MCQ assignments; the first of each type is submitted
+     * by the student, the rest are not. Another student's submissions are added
+     * to every assignment.
+     */
+    private List<Assignment> seed(int count) {
+        List<Assignment> assignments = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            AssignmentType type = i % 2 == 0 ? AssignmentType.TEXT : AssignmentType.MCQ;
+            Assignment assignment = Assignment.builder()
+                    .teacherId(3L)
+                    .batchId(BATCH_ID)
+                    .title("Assignment " + i)
+                    .type(type)
+                    .maxMarks(10)
+                    .status(AssignmentStatus.PUBLISHED)
+                    .createdAt(CREATED_AT.plusMinutes(i))
+                    .build();
+            entityManager.persist(assignment);
+            assignments.add(assignment);
+
+            if (type == AssignmentType.TEXT) {
+                textSubmission(assignment, STUDENT_ID + 1, null);
+                if (i == 0) {
+                    textSubmission(assignment, STUDENT_ID, "Good");
+                }
+            } else {
+                McqAssignment mcq = McqAssignment.builder()
+                        .assignment(assignment)
+                        .passingPercentage(50)
+                        .showCorrectAnswers(false)
+                        .build();
+                entityManager.persist(mcq);
+                mcqSubmission(mcq, STUDENT_ID + 1);
+                if (i == 1) {
+                    mcqSubmission(mcq, STUDENT_ID);
+                }
+            }
+        }
+        return assignments;
+    }
+
+    private void textSubmission(Assignment assignment, Long studentId, String feedback) {
+        entityManager.persist(AssignmentSubmission.builder()
+                .assignment(assignment)
+                .studentId(studentId)
+                .submissionContent("answer")
+                .obtainedMarks(feedback == null ? null : 8)
+                .feedback(feedback)
+                .submittedAt(LocalDateTime.now())
+                .evaluatedAt(feedback == null ? null : LocalDateTime.now())
+                .build());
+    }
+
+    private void mcqSubmission(McqAssignment mcq, Long studentId) {
+        entityManager.persist(McqSubmission.builder()
+                .mcqAssignment(mcq)
+                .studentId(studentId)
+                .answers(new byte[]{1})
+                .totalMarks(10)
+                .obtainedMarks(7)
+                .percentage(70.0)
+                .passed(true)
+                .submittedAt(LocalDateTime.now())
+                .build());
+    }
+}
@@ -2,17 +2,18 @@ package com.assignment.service.student;
 
 import com.assignment.dto.AssignmentSubmitRequest;
 import com.assignment.dto.StudentAssignmentDto;
+import com.assignment.dto.StudentAssignmentsSnapshot;
 import com.assignment.entity.Assignment;
 import com.assignment.entity.AssignmentStatus;
 import com.assignment.entity.AssignmentType;
 import com.assignment.exception.BadRequestException;
 import com.assignment.repository.AssignmentRepository;
 import com.assignment.repository.AssignmentSubmissionRepository;
-import com.assignment.repository.McqAssignmentRepository;
-import com.assignment.repository.McqSubmissionRepository;
-import com.assignment.service.BatchServiceGateway;
+import com.assignment.repository.StudentAssignmentRow;
 import com.assignment.service.FileStorageService;
 import com.assignment.service.NotificationPublisher;
+import com.assignment.service.StudentAssignmentCache;
+import com.assignment.service.StudentBatchMembershipCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -23,12 +24,15 @@ import org.springframework.mock.web.MockMultipartFile;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,11 +40,10 @@ class StudentAssignmentServiceImplTest {
 
     @Mock private AssignmentRepository assignmentRepo;
     @Mock private AssignmentSubmissionRepository submissionRepo;
-    @Mock private McqAssignmentRepository mcqAssignmentRepository;
-    @Mock private McqSubmissionRepository mcqSubmissionRepository;
-    @Mock private BatchServiceGateway batchServiceGateway;
+    @Mock private StudentBatchMembershipCache studentBatchMembershipCache;
     @Mock private NotificationPublisher notificationPublisher;
     @Mock private FileStorageService fileStorageService;
+    @Mock private StudentAssignmentCache studentAssignmentCache;
 
     @InjectMocks
     private StudentAssignmentServiceImpl studentAssignmentService;
@@ -63,11 +66,14 @@ class StudentAssignmentServiceImplTest {
 
     @Test
     void listAssignments_success() {
-        when(batchServiceGateway.getStudentBatchIds(11L)).thenReturn(List.of(10L));
-        when(assignmentRepo.findByBatchIdInAndStatus(List.of(10L), AssignmentStatus.PUBLISHED))
-                .thenReturn(List.of(assignment));
-        when(submissionRepo.findByAssignment_IdAndStudentId(1L, 11L))
-                .thenReturn(Optional.empty());
+        loadThroughCache(11L);
+        when(studentBatchMembershipCache.getStudentBatchIds(11L)).thenReturn(List.of(10L));
+        StudentAssignmentRow row = mock(StudentAssignmentRow.class);
+        when(row.getTitle()).thenReturn("Spring Boot Assignment");
+        when(row.getType()).thenReturn(AssignmentType.TEXT);
+        when(row.getSubmissionId()).thenReturn(null);
+        when(assignmentRepo.findPublishedForStudent(List.of(10L), 11L))
+                .thenReturn(List.of(row));
 
         List<StudentAssignmentDto> result = studentAssignmentService.listAssignments(11L);
 
@@ -87,6 +93,7 @@ class StudentAssignmentServiceImplTest {
         studentAssignmentService.submitAssignment(1L, request, 11L);
 
         verify(submissionRepo).save(any());
+        verify(assignmentRepo).incrementCounters(1L, 1, 0, 0);
         verify(notificationPublisher).publish(any());
     }
 
@@ -189,11 +196,19 @@ class StudentAssignmentServiceImplTest {
 
     @Test
     void listAssignments_emptyWhenNoBatches() {
-        when(batchServiceGateway.getStudentBatchIds(11L)).thenReturn(List.of());
-        when(assignmentRepo.findByBatchIdInAndStatus(List.of(), AssignmentStatus.PUBLISHED))
-                .thenReturn(List.of());
+        loadThroughCache(11L);
+        when(studentBatchMembershipCache.getStudentBatchIds(11L)).thenReturn(List.of());
 
         List<StudentAssignmentDto> result = studentAssignmentService.listAssignments(11L);
         assertEquals(0, result.size());
+        verifyNoInteractions(assignmentRepo);
+    }
+
+    private void loadThroughCache(Long studentId) {
+        when(studentAssignmentCache.get(eq(studentId), any())).thenAnswer(invocation -> {
+            Function<Long, StudentAssignmentsSnapshot> loader = invocation.getArgument(1);
+            StudentAssignmentsSnapshot snapshot = loader.apply(studentId);
+            return snapshot == null ? List.of() : snapshot.getAssignments();
+        });
     }
 }
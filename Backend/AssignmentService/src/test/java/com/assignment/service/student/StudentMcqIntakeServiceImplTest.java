@@ -0,0 +1,153 @@
+package com.assignment.service.student;
+
+import com.assignment.dto.McqAnswerDto;
+import com.assignment.dto.McqSubmissionReceiptDto;
+import com.assignment.dto.McqSubmissionRequest;
+import com.assignment.dto.McqSubmissionResponseDto;
+import com.assignment.entity.*;
+import com.assignment.exception.BadRequestException;
+import com.assignment.exception.ResourceNotFoundException;
+import com.assignment.repository.AssignmentRepository;
+import com.assignment.repository.McqAssignmentRepository;
+import com.assignment.repository.McqSubmissionIntakeRepository;
+import com.assignment.repository.McqSubmissionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StudentMcqIntakeServiceImplTest {
+
+    @Mock private AssignmentRepository assignmentRepository;
+    @Mock private McqAssignmentRepository mcqAssignmentRepository;
+    @Mock private McqSubmissionRepository mcqSubmissionRepository;
+    @Mock private McqSubmissionIntakeRepository intakeRepository;
+    @Mock private StudentMcqService studentMcqService;
+    @Mock private StudentMcqSessionService studentMcqSessionService;
+
+    private StudentMcqIntakeServiceImpl service;
+    private Assignment assignment;
+    private McqAssignment mcq;
+    private McqSubmissionRequest request;
+
+    @BeforeEach
+    void setUp() {
+        service = new StudentMcqIntakeServiceImpl(
+                assignmentRepository, mcqAssignmentRepository, mcqSubmissionRepository, intakeRepository,
+                studentMcqService, studentMcqSessionService, new ObjectMapper());
+        ReflectionTestUtils.setField(service, "enabled", true);
+
+        assignment = Assignment.builder()
+                .id(1L)
+                .type(AssignmentType.MCQ)
+                .status(AssignmentStatus.PUBLISHED)
+                .build();
+        mcq = McqAssignment.builder().id(7L).assignment(assignment).build();
+        request = new McqSubmissionRequest();
+        request.setAnswers(List.of(new McqAnswerDto(1, 0)));
+        request.setTimeTaken(60);
+    }
+
+    @Test
+    void accept_storesAPendingIntakeRow_andReturnsItsReceipt() {
+        stubPublishedMcq();
+        when(studentMcqSessionService.completeForSubmission(mcq, 11L, 60)).thenReturn(45);
+
+        McqSubmissionReceiptDto receipt = service.acceptMcqSubmission(1L, request, 11L);
+
+        ArgumentCaptor<McqSubmissionIntake> saved = ArgumentCaptor.forClass(McqSubmissionIntake.class);
+        verify(intakeRepository).saveAndFlush(saved.capture());
+        assertEquals(McqIntakeStatus.PENDING, saved.getValue().getStatus());
+        assertEquals(45, saved.getValue().getTimeTaken());
+        assertEquals("[{\"questionNumber\":1,\"selectedOptionIndex\":0}]", saved.getValue().getAnswersJson());
+        assertEquals(saved.getValue().getId(), receipt.getReceiptId());
+        assertEquals(McqIntakeStatus.PENDING, receipt.getStatus());
+    }
+
+    @Test
+    void accept_alreadySubmittedOrQueued_isRejected() {
+        stubPublishedMcq();
+        when(intakeRepository.existsByMcqAssignmentIdAndStudentIdAndStatusNot(7L, 11L, McqIntakeStatus.REJECTED))
+                .thenReturn(true);
+
+        assertThrows(BadRequestException.class, () -> service.acceptMcqSubmission(1L, request, 11L));
+        verify(intakeRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void accept_afterARejectedAttempt_replacesTheRejectedRow() {
+        stubPublishedMcq();
+
+        service.acceptMcqSubmission(1L, request, 11L);
+
+        InOrder inOrder = inOrder(intakeRepository);
+        inOrder.verify(intakeRepository).existsByMcqAssignmentIdAndStudentIdAndStatusNot(
+                7L, 11L, McqIntakeStatus.REJECTED);
+        inOrder.verify(intakeRepository).deleteRejected(7L, 11L);
+        inOrder.verify(intakeRepository).saveAndFlush(any());
+    }
+
+    @Test
+    void accept_concurrentDuplicate_losesOnTheUniqueKey() {
+        stubPublishedMcq();
+        when(intakeRepository.saveAndFlush(any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        BadRequestException ex = assertThrows(BadRequestException.class,
+                () -> service.acceptMcqSubmission(1L, request, 11L));
+        assertEquals("Assignment already submitted", ex.getMessage());
+    }
+
+    @Test
+    void accept_whenDisabled_isRejectedBeforeAnyLookup() {
+        ReflectionTestUtils.setField(service, "enabled", false);
+
+        assertThrows(BadRequestException.class, () -> service.acceptMcqSubmission(1L, request, 11L));
+        verify(intakeRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void getReceipt_includesTheResultOnlyOnceCompleted() {
+        McqSubmissionIntake intake = McqSubmissionIntake.builder()
+                .id("r-1")
+                .assignmentId(1L)
+                .studentId(11L)
+                .status(McqIntakeStatus.PROCESSING)
+                .acceptedAt(LocalDateTime.now())
+                .build();
+        when(intakeRepository.findById("r-1")).thenReturn(Optional.of(intake));
+
+        assertNull(service.getReceipt("r-1", 11L).getResult());
+
+        intake.setStatus(McqIntakeStatus.COMPLETED);
+        when(studentMcqService.getMcqSubmissionResult(1L, 11L)).thenReturn(new McqSubmissionResponseDto());
+        assertNotNull(service.getReceipt("r-1", 11L).getResult());
+
+        assertThrows(ResourceNotFoundException.class, () -> service.getReceipt("r-1", 12L));
+    }
+
+    private void stubPublishedMcq() {
+        when(assignmentRepository.findById(1L)).thenReturn(Optional.of(assignment));
+        when(mcqAssignmentRepository.findByAssignment_Id(1L)).thenReturn(Optional.of(mcq));
+    }
+}
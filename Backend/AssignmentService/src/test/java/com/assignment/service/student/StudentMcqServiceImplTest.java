@@ -0,0 +1,101 @@
+package com.assignment.service.student;
+
+import com.assignment.dto.McqSubmissionResponseDto;
+import com.assignment.entity.Assignment;
+import com.assignment.entity.McqAssignment;
+import com.assignment.entity.McqSubmission;
+import com.assignment.repository.AssignmentRepository;
+import com.assignment.repository.McqAssignmentRepository;
+import com.assignment.repository.McqExamSessionRepository;
+import com.assignment.repository.McqQuestionRepository;
+import com.assignment.repository.McqSubmissionRepository;
+import com.assignment.service.McqAnswerKey;
+import com.assignment.service.McqAnswerKeyCache;
+import com.assignment.service.McqStudentViewCache;
+import com.assignment.service.NotificationPublisher;
+import com.assignment.service.StudentBatchMembershipCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.modelmapper.ModelMapper;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StudentMcqServiceImplTest {
+
+    @Mock private AssignmentRepository assignmentRepository;
+    @Mock private McqAssignmentRepository mcqAssignmentRepository;
+    @Mock private McqQuestionRepository mcqQuestionRepository;
+    @Mock private McqSubmissionRepository mcqSubmissionRepository;
+    @Mock private StudentBatchMembershipCache studentBatchMembershipCache;
+    @Mock private NotificationPublisher notificationPublisher;
+    @Mock private McqAnswerKeyCache mcqAnswerKeyCache;
+    @Mock private McqStudentViewCache mcqStudentViewCache;
+    @Mock private McqExamSessionRepository mcqExamSessionRepository;
+    @Mock private StudentMcqSessionService studentMcqSessionService;
+
+    private StudentMcqServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new StudentMcqServiceImpl(
+                assignmentRepository, mcqAssignmentRepository, mcqQuestionRepository, mcqSubmissionRepository,
+                studentBatchMembershipCache, notificationPublisher, mcqAnswerKeyCache, mcqStudentViewCache,
+                mcqExamSessionRepository, studentMcqSessionService, new ModelMapper());
+    }
+
+    @Test
+    void getMcqSubmissionResult_notBackfilled_reportsTheOutcomeWithoutStoringIt() {
+        McqSubmission submission = submission(new byte[]{2, 1});
+        when(mcqSubmissionRepository.findResultByAssignmentIdAndStudentId(1L, 11L))
+                .thenReturn(Optional.of(submission));
+        when(mcqAnswerKeyCache.gradeStoredAnswers(submission))
+                .thenReturn(new McqAnswerKey.Result(5, 1, 1, new byte[]{1}));
+
+        McqSubmissionResponseDto dto = service.getMcqSubmissionResult(1L, 11L);
+
+        assertEquals(1, dto.getCorrectCount());
+        assertEquals(1, dto.getIncorrectCount());
+        assertEquals(2, dto.getTotalQuestions());
+        assertNull(submission.getCorrectCount());
+        assertNull(submission.getCorrectnessBitmap());
+    }
+
+    @Test
+    void getMcqSubmissionResult_answersNotMigratedYet_returnsNullCounts() {
+        McqSubmission submission = submission(null);
+        when(mcqSubmissionRepository.findResultByAssignmentIdAndStudentId(1L, 11L))
+                .thenReturn(Optional.of(submission));
+
+        McqSubmissionResponseDto dto = service.getMcqSubmissionResult(1L, 11L);
+
+        assertNull(dto.getCorrectCount());
+        assertNull(dto.getTotalQuestions());
+        assertEquals(7, dto.getObtainedMarks());
+        verify(mcqAnswerKeyCache, never()).gradeStoredAnswers(any());
+    }
+
+    private static McqSubmission submission(byte[] answers) {
+        Assignment assignment = Assignment.builder().id(1L).title("Quiz").maxMarks(10).build();
+        return McqSubmission.builder()
+                .id(3L)
+                .mcqAssignment(McqAssignment.builder().id(7L).assignment(assignment).build())
+                .studentId(11L)
+                .answers(answers)
+                .totalMarks(10)
+                .obtainedMarks(7)
+                .percentage(70.0)
+                .passed(true)
+                .build();
+    }
+}
@@ -0,0 +1,179 @@
+package com.assignment.service.student;
+
+import com.assignment.dto.McqAnswerDto;
+import com.assignment.entity.McqAssignment;
+import com.assignment.entity.McqExamSession;
+import com.assignment.entity.McqExamSessionStatus;
+import com.assignment.exception.BadRequestException;
+import com.assignment.exception.ResourceNotFoundException;
+import com.assignment.repository.AssignmentRepository;
+import com.assignment.repository.McqAssignmentRepository;
+import com.assignment.repository.McqExamSessionRepository;
+import com.assignment.repository.McqSubmissionRepository;
+import com.assignment.service.McqAutosaveBuffer;
+import com.assignment.service.StudentBatchMembershipCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StudentMcqSessionServiceImplTest {
+
+    @Mock private AssignmentRepository assignmentRepository;
+    @Mock private McqAssignmentRepository mcqAssignmentRepository;
+    @Mock private McqSubmissionRepository mcqSubmissionRepository;
+    @Mock private McqExamSessionRepository sessionRepository;
+    @Mock private StudentBatchMembershipCache studentBatchMembershipCache;
+    @Mock private McqAutosaveBuffer autosaveBuffer;
+
+    private StudentMcqSessionServiceImpl sessionService;
+    private McqAssignment mcq;
+
+    @BeforeEach
+    void setUp() {
+        sessionService = new StudentMcqSessionServiceImpl(
+                assignmentRepository, mcqAssignmentRepository, mcqSubmissionRepository,
+                sessionRepository, studentBatchMembershipCache, autosaveBuffer,
+                Duration.ofSeconds(30), Duration.ofHours(1), false, Duration.ofMinutes(1));
+        mcq = McqAssignment.builder().id(5L).timeLimit(10).build();
+    }
+
+    @Test
+    void completeForSubmission_withoutSession_keepsClientTime() {
+        when(sessionRepository.findByMcqAssignmentIdAndStudentId(5L, 7L)).thenReturn(Optional.empty());
+
+        assertEquals(123, sessionService.completeForSubmission(mcq, 7L, 123));
+    }
+
+    @Test
+    void completeForSubmission_withinGrace_capsTimeAtLimit() {
+        McqExamSession session = session(LocalDateTime.now().minusMinutes(10).minusSeconds(10));
+        when(sessionRepository.findByMcqAssignmentIdAndStudentId(5L, 7L)).thenReturn(Optional.of(session));
+        when(sessionRepository.finish(eq("s-1"), eq(McqExamSessionStatus.SUBMITTED), any())).thenReturn(1);
+
+        assertEquals(600, sessionService.completeForSubmission(mcq, 7L, 5));
+    }
+
+    @Test
+    void completeForSubmission_afterGrace_throwsBadRequest() {
+        McqExamSession session = session(LocalDateTime.now().minusMinutes(11));
+        when(sessionRepository.findByMcqAssignmentIdAndStudentId(5L, 7L)).thenReturn(Optional.of(session));
+
+        assertThrows(BadRequestException.class, () -> sessionService.completeForSubmission(mcq, 7L, 5));
+        verify(sessionRepository, never()).finish(any(), any(), any());
+    }
+
+    @Test
+    void completeForSubmission_lostRace_throwsBadRequest() {
+        McqExamSession session = session(LocalDateTime.now().minusMinutes(1));
+        when(sessionRepository.findByMcqAssignmentIdAndStudentId(5L, 7L)).thenReturn(Optional.of(session));
+        when(sessionRepository.finish(eq("s-1"), eq(McqExamSessionStatus.SUBMITTED), any())).thenReturn(0);
+
+        assertThrows(BadRequestException.class, () -> sessionService.completeForSubmission(mcq, 7L, 5));
+    }
+
+    @Test
+    void saveAnswers_buffersWithoutTouchingTheDatabaseAgain() {
+        when(sessionRepository.findById("s-1"))
+                .thenReturn(Optional.of(session(LocalDateTime.now().minusMinutes(1))));
+        List<McqAnswerDto> answers = List.of(new McqAnswerDto(1, 2));
+        when(autosaveBuffer.save("s-1", answers, Duration.ofHours(1))).thenReturn(true);
+
+        sessionService.saveAnswers("s-1", answers, 7L);
+        long remaining = sessionService.saveAnswers("s-1", answers, 7L).getRemainingSeconds();
+
+        assertTrue(remaining > 500 && remaining <= 540);
+        verify(sessionRepository).findById("s-1");
+        verify(autosaveBuffer, times(2)).save("s-1", answers, Duration.ofHours(1));
+    }
+
+    @Test
+    void saveAnswers_otherStudentOrOverdue_isRejected() {
+        when(sessionRepository.findById("s-1"))
+                .thenReturn(Optional.of(session(LocalDateTime.now().minusMinutes(11))));
+
+        assertThrows(ResourceNotFoundException.class, () -> sessionService.saveAnswers("s-1", List.of(), 8L));
+        assertThrows(BadRequestException.class, () -> sessionService.saveAnswers("s-1", List.of(), 7L));
+        verify(autosaveBuffer, never()).save(any(), anyList(), any());
+    }
+
+    @Test
+    void saveAnswers_afterTheSessionClosedOnAnotherInstance_isRejected() {
+        when(sessionRepository.findById("s-1"))
+                .thenReturn(Optional.of(session(LocalDateTime.now().minusMinutes(1))));
+        List<McqAnswerDto> answers = List.of(new McqAnswerDto(1, 2));
+        when(autosaveBuffer.save("s-1", answers, Duration.ofHours(1))).thenReturn(true, false);
+
+        sessionService.saveAnswers("s-1", answers, 7L);
+        // the local copy still says ACTIVE; the closed marker in Redis wins
+        assertThrows(BadRequestException.class, () -> sessionService.saveAnswers("s-1", answers, 7L));
+    }
+
+    @Test
+    void recordAutoSubmitFailure_marksTheSessionFailed_onceAttemptsRunOut() {
+        McqExamSession session = session(LocalDateTime.now().minusMinutes(11));
+        session.setAnswers(new byte[]{1});
+        when(sessionRepository.findById("s-1")).thenReturn(Optional.of(session));
+        when(autosaveBuffer.read("s-1", session.getAnswers())).thenReturn(new byte[]{1, 3});
+        when(sessionRepository.finish(eq("s-1"), eq(McqExamSessionStatus.FAILED), any())).thenReturn(1);
+
+        assertFalse(sessionService.recordAutoSubmitFailure("s-1", 2));
+        verify(sessionRepository, never()).finish(any(), any(), any());
+
+        assertTrue(sessionService.recordAutoSubmitFailure("s-1", 2));
+        assertEquals(2, session.getAutoSubmitAttempts());
+        assertArrayEquals(new byte[]{1, 3}, session.getAnswers());
+    }
+
+    @Test
+    void reopenAfterRejection_reactivatesOnlyASubmittedSession_withTheSubmittedAnswers() {
+        McqExamSession session = session(LocalDateTime.now().minusMinutes(1));
+        session.setStatus(McqExamSessionStatus.SUBMITTED);
+        session.setFinishedAt(LocalDateTime.now());
+        session.setAnswers(new byte[]{1});
+        when(sessionRepository.findByMcqAssignmentIdAndStudentId(5L, 7L)).thenReturn(Optional.of(session));
+
+        sessionService.reopenAfterRejection(5L, 7L, new byte[]{2, 3});
+
+        assertEquals(McqExamSessionStatus.ACTIVE, session.getStatus());
+        assertNull(session.getFinishedAt());
+        assertArrayEquals(new byte[]{2, 3}, session.getAnswers());
+
+        session.setStatus(McqExamSessionStatus.AUTO_SUBMITTED);
+        sessionService.reopenAfterRejection(5L, 7L, null);
+        assertEquals(McqExamSessionStatus.AUTO_SUBMITTED, session.getStatus());
+    }
+
+    private McqExamSession session(LocalDateTime startedAt) {
+        return McqExamSession.builder()
+                .id("s-1")
+                .mcqAssignmentId(5L)
+                .assignmentId(1L)
+                .studentId(7L)
+                .status(McqExamSessionStatus.ACTIVE)
+                .startedAt(startedAt)
+                .deadline(startedAt.plusMinutes(10))
+                .build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.assignment.service.teacher;
+
+import com.assignment.exception.BadRequestException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class McqQuestionImportReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void csv_skipsHeaderAndBlankLines_andParsesQuotedFields() throws IOException {
+        McqQuestionImportReader reader = reader(McqQuestionImportReader.Format.CSV, """
+                questionText,option1,isCorrect1,option2,isCorrect2
+                "What is 2, plus 2?",4,true,"say ""five""\",false
+
+                Capital of France?,Paris,1,Rome,0
+                """);
+
+        McqQuestionImportReader.Row first = reader.next();
+        assertEquals(2, first.lineNumber());
+        assertEquals("What is 2, plus 2?", first.question().getQuestionText());
+        assertEquals("say \"five\"", first.question().getOptions().get(1).getText());
+        assertTrue(first.question().getOptions().get(0).getIsCorrect());
+
+        McqQuestionImportReader.Row second = reader.next();
+        assertEquals(4, second.lineNumber());
+        assertEquals(2, second.question().getOptions().size());
+
+        assertNull(reader.next());
+    }
+
+    @Test
+    void csv_malformedRow_reportsErrorAndContinues() throws IOException {
+        McqQuestionImportReader reader = reader(McqQuestionImportReader.Format.CSV, """
+                Q1,A,true,B
+                Q2,A,maybe
+                Q3,A,true,B,false
+                """);
+
+        assertNotNull(reader.next().error());
+        assertNotNull(reader.next().error());
+        McqQuestionImportReader.Row row = reader.next();
+        assertNull(row.error());
+        assertEquals(3, row.lineNumber());
+    }
+
+    @Test
+    void jsonl_parsesEachLine_andReportsInvalidJson() throws IOException {
+        McqQuestionImportReader reader = reader(McqQuestionImportReader.Format.JSONL, """
+                {"questionText":"Q1","options":[{"text":"A","isCorrect":true},{"text":"B","isCorrect":false}]}
+                {not json}
+                """);
+
+        assertEquals("Q1", reader.next().question().getQuestionText());
+        McqQuestionImportReader.Row bad = reader.next();
+        assertEquals(2, bad.lineNumber());
+        assertNotNull(bad.error());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void formatOf_unsupportedContentType_throwsBadRequest() {
+        assertEquals(McqQuestionImportReader.Format.CSV,
+                McqQuestionImportReader.formatOf("text/csv; charset=UTF-8"));
+        assertThrows(BadRequestException.class,
+                () -> McqQuestionImportReader.formatOf("application/json"));
+    }
+
+    private McqQuestionImportReader reader(McqQuestionImportReader.Format format, String content) {
+        return new McqQuestionImportReader(
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), format, objectMapper);
+    }
+}
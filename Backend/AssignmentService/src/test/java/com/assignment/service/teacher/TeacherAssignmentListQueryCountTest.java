@@ -0,0 +1,173 @@
+package com.assignment.service.teacher;
+
+import com.assignment.dto.AssignmentResponseDto;
+import com.assignment.dto.CursorPageDto;
+import com.assignment.entity.*;
+import com.assignment.exception.BadRequestException;
+import com.assignment.repository.AssignmentRepository;
+import com.assignment.repository.AssignmentSubmissionRepository;
+import com.assignment.service.BatchCodeCache;
+import com.assignment.service.BatchServiceGateway;
+import com.assignment.service.FileStorageService;
+import com.assignment.service.NotificationPublisher;
+import com.assignment.service.UserSummaryCache;
+import com.assignment.service.student.StudentAssignmentServiceImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs myAssignments against H2 and counts the SQL statements it issues, so a
+ * per-row or aggregate count query creeping back into the listing fails the build.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+class TeacherAssignmentListQueryCountTest {
+
+    private static final long TEACHER_ID = 3L;
+    private static final long BATCH_ID = 10L;
+
+    @Autowired private EntityManager entityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private AssignmentRepository assignmentRepository;
+
+    private TeacherTextAssignmentServiceImpl service;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        BatchCodeCache batchCodeCache = mock(BatchCodeCache.class);
+        when(batchCodeCache.getAll(anyCollection())).thenReturn(Map.of(BATCH_ID, "BATCH-JAVA"));
+
+        service = new TeacherTextAssignmentServiceImpl(
+                assignmentRepository,
+                mock(BatchServiceGateway.class),
+                batchCodeCache,
+                mock(NotificationPublisher.class),
+                mock(StudentAssignmentServiceImpl.class),
+                mock(UserSummaryCache.class),
+                mock(AssignmentSubmissionRepository.class),
+                new ModelMapper(),
+                mock(FileStorageService.class));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void myAssignments_readsStoredCountersWithoutAggregateQueries() {
+        seed(4);
+        long fewQueries = countQueries();
+
+        seed(40);
+        long manyQueries = countQueries();
+
+        assertEquals(1, fewQueries);
+        assertEquals(fewQueries, manyQueries);
+        assertEquals(3, list().get(3).getTotalSubmissions());
+    }
+
+    @Test
+    void myAssignmentsAfter_walksEveryRowOnceWithOneQueryPerPage() {
+        seed(23);
+        entityManager.flush();
+        entityManager.clear();
+
+        Set<Long> seen = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            statistics.clear();
+            CursorPageDto<AssignmentResponseDto> page =
+                    service.myAssignmentsAfter(TEACHER_ID, null, null, null, cursor, 5, false);
+            assertEquals(1, statistics.getPrepareStatementCount());
+            assertNull(page.getTotalElements());
+
+            for (AssignmentResponseDto dto : page.getItems()) {
+                assertTrue(seen.add(dto.getId()), "row repeated: " + dto.getId());
+            }
+            cursor = page.getNextCursor();
+            assertEquals(page.isHasMore(), cursor != null);
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(23, seen.size());
+        assertEquals(5, pages);
+    }
+
+    @Test
+    void myAssignmentsAfter_matchesTitlePrefixAndCountsOnRequest() {
+        seed(12);
+        entityManager.flush();
+        entityManager.clear();
+
+        CursorPageDto<AssignmentResponseDto> page =
+                service.myAssignmentsAfter(TEACHER_ID, "Assignment 1", null, null, null, 50, true);
+
+        // "Assignment 1", "Assignment 10", "Assignment 11"
+        assertEquals(3, page.getItems().size());
+        assertEquals(3L, page.getTotalElements());
+        assertFalse(page.isHasMore());
+        assertEquals(0, service.myAssignmentsAfter(TEACHER_ID, "ssignment", null, null, null, 50, false)
+                .getItems().size());
+    }
+
+    @Test
+    void myAssignmentsAfter_rejectsMalformedCursor() {
+        assertThrows(BadRequestException.class,
+                () -> service.myAssignmentsAfter(TEACHER_ID, null, null, null, "not-a-cursor", 5, false));
+    }
+
+    private long countQueries() {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        list();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private List<AssignmentResponseDto> list() {
+        return service.myAssignments(TEACHER_ID, null, null, null,
+                PageRequest.of(0, 100, Sort.by("id"))).getContent();
+    }
+
+    private void seed(int count) {
+        for (int i = 0; i < count; i++) {
+            Assignment assignment = Assignment.builder()
+                    .teacherId(TEACHER_ID)
+                    .batchId(BATCH_ID)
+                    .title("Assignment " + i)
+                    .type(i % 2 == 0 ? AssignmentType.TEXT : AssignmentType.MCQ)
+                    .maxMarks(10)
+                    .status(AssignmentStatus.PUBLISHED)
+                    .createdAt(LocalDateTime.now())
+                    .submittedCount(i)
+                    .build();
+            entityManager.persist(assignment);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.assignment.service.teacher;
+
+import com.assignment.dto.McqAssignmentResponseDto;
+import com.assignment.dto.McqAssignmentUpdateRequest;
+import com.assignment.dto.McqQuestionImportResultDto;
+import com.assignment.entity.Assignment;
+import com.assignment.entity.AssignmentStatus;
+import com.assignment.entity.AssignmentType;
+import com.assignment.entity.McqAssignment;
+import com.assignment.entity.McqQuestion;
+import com.assignment.exception.BadRequestException;
+import com.assignment.job.McqRegradeJob;
+import com.assignment.repository.*;
+import com.assignment.service.BatchServiceGateway;
+import com.assignment.service.McqAnalyticsStore;
+import com.assignment.service.McqAnswerKey;
+import com.assignment.service.McqAnswerKeyCache;
+import com.assignment.service.McqStudentViewCache;
+import com.assignment.service.NotificationPublisher;
+import com.assignment.service.UserSummaryCache;
+import com.assignment.service.student.StudentAssignmentServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.modelmapper.ModelMapper;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TeacherMcqAssignmentServiceImplTest {
+
+    @Mock private AssignmentRepository assignmentRepository;
+    @Mock private McqAssignmentRepository mcqAssignmentRepository;
+    @Mock private McqQuestionRepository mcqQuestionRepository;
+    @Mock private McqQuestionBatchWriter mcqQuestionBatchWriter;
+    @Mock private McqSubmissionRepository mcqSubmissionRepository;
+    @Mock private BatchServiceGateway batchServiceGateway;
+    @Mock private NotificationPublisher notificationPublisher;
+    @Mock private StudentAssignmentServiceImpl studentAssignmentService;
+    @Mock private UserSummaryCache userSummaryCache;
+    @Mock private McqAnswerKeyCache mcqAnswerKeyCache;
+    @Mock private McqStudentViewCache mcqStudentViewCache;
+    @Mock private McqRegradeJob mcqRegradeJob;
+    @Mock private McqAnalyticsStore mcqAnalyticsStore;
+    @Mock private ObjectMapper objectMapper;
+    @Mock private ModelMapper modelMapper;
+    @Mock private Validator validator;
+    @Mock private McqQuestionImportStaging mcqQuestionImportStaging;
+    @Mock private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private TeacherMcqAssignmentServiceImpl service;
+
+    private Assignment assignment;
+    private McqAssignment mcqAssignment;
+
+    @BeforeEach
+    void setUp() {
+        assignment = Assignment.builder()
+                .id(1L)
+                .teacherId(3L)
+                .batchId(10L)
+                .title("Quiz")
+                .type(AssignmentType.MCQ)
+                .maxMarks(10)
+                .status(AssignmentStatus.PUBLISHED)
+                .createdAt(LocalDateTime.now())
+                .build();
+        mcqAssignment = McqAssignment.builder()
+                .id(7L)
+                .assignment(assignment)
+                .passingPercentage(50)
+                .showCorrectAnswers(false)
+                .build();
+        when(assignmentRepository.findById(1L)).thenReturn(Optional.of(assignment));
+    }
+
+    @Test
+    void closeMcqAssignment_evictsTheStudentView() {
+        service.closeMcqAssignment(1L, 3L);
+
+        verify(mcqStudentViewCache).evict(1L);
+    }
+
+    @Test
+    void deleteMcqAssignment_evictsTheStudentViewAndAnswerKey() {
+        when(mcqAssignmentRepository.findByAssignment_Id(1L)).thenReturn(Optional.of(mcqAssignment));
+
+        service.deleteMcqAssignment(1L, 3L);
+
+        verify(mcqStudentViewCache).evict(1L);
+        verify(mcqAnswerKeyCache).evict(7L);
+    }
+
+    @Test
+    void updateMcqAssignment_evictsTheStudentViewAndAnswerKey() {
+        when(mcqAssignmentRepository.findByAssignment_Id(1L)).thenReturn(Optional.of(mcqAssignment));
+        when(mcqQuestionRepository.findByMcqAssignment_IdOrderByQuestionNumberAsc(7L)).thenReturn(List.of());
+        when(modelMapper.map(mcqAssignment, McqAssignmentResponseDto.class)).thenReturn(new McqAssignmentResponseDto());
+        McqAssignmentUpdateRequest request = new McqAssignmentUpdateRequest();
+        request.setTitle("Renamed");
+
+        service.updateMcqAssignment(1L, request, 3L);
+
+        verify(mcqStudentViewCache).evict(1L);
+        verify(mcqAnswerKeyCache).evict(7L);
+    }
+
+    @Test
+    void importQuestions_rejectsRowsBeyondTheQuestionNumberCap() {
+        when(mcqAssignmentRepository.findByAssignment_Id(1L)).thenReturn(Optional.of(mcqAssignment));
+        when(mcqQuestionRepository.findMaxQuestionNumber(7L)).thenReturn(McqAnswerKey.MAX_QUESTION_NUMBER - 1);
+        runTransactionsInline();
+
+        McqQuestionImportResultDto result = service.importQuestions(
+                1L, csv("Q1,a,true,b,false\nQ2,a,true,b,false\n"), "text/csv", 3L);
+
+        assertEquals(1, result.getImportedCount());
+        assertEquals(1, result.getRejectedCount());
+        assertEquals(McqAnswerKey.MAX_QUESTION_NUMBER, result.getTotalQuestions());
+        assertEquals(2L, result.getErrors().get(0).getRow());
+    }
+
+    @Test
+    void importQuestions_stagesALargeFileInChunks_andCopiesItInOneTransaction() {
+        when(mcqAssignmentRepository.findByAssignment_Id(1L)).thenReturn(Optional.of(mcqAssignment));
+        when(mcqQuestionRepository.findMaxQuestionNumber(7L)).thenReturn(2);
+        when(mcqQuestionImportStaging.read(any(), anyInt(), anyInt())).thenAnswer(inv -> List.of(
+                McqQuestion.builder().questionNumber(inv.<Integer>getArgument(1) + 1).build()));
+        runTransactionsInline();
+        int rows = 12 * McqQuestionBatchWriter.BATCH_SIZE;
+
+        McqQuestionImportResultDto result = service.importQuestions(
+                1L, csv("Q,a,true,b,false\n".repeat(rows)), "text/csv", 3L);
+
+        assertEquals(rows, result.getImportedCount());
+        assertEquals(rows + 2, result.getTotalQuestions());
+        verify(mcqQuestionImportStaging, times(12)).stage(any(), anyInt(), anyList(), any());
+        verify(mcqQuestionImportStaging).stage(
+                any(), eq(11 * McqQuestionBatchWriter.BATCH_SIZE + 1), anyList(), any());
+        verify(transactionTemplate, times(1)).execute(any());
+        verify(mcqQuestionBatchWriter, times(12)).insertAll(anyList());
+        verify(mcqQuestionImportStaging).delete(any());
+        verify(mcqAnswerKeyCache).evict(7L);
+    }
+
+    @Test
+    void importQuestions_dropsTheStagedRows_whenTheCopyFails() {
+        when(mcqAssignmentRepository.findByAssignment_Id(1L)).thenReturn(Optional.of(mcqAssignment));
+        when(transactionTemplate.execute(any())).thenThrow(new IllegalStateException("database down"));
+
+        assertThrows(IllegalStateException.class,
+                () -> service.importQuestions(1L, csv("Q,a,true,b,false\n"), "text/csv", 3L));
+        verify(mcqQuestionImportStaging).delete(any());
+        verify(mcqAnswerKeyCache, never()).evict(7L);
+    }
+
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -15,11 +15,11 @@ import com.assignment.exception.ForbiddenException;
 import com.assignment.exception.ResourceNotFoundException;
 import com.assignment.repository.AssignmentRepository;
 import com.assignment.repository.AssignmentSubmissionRepository;
-import com.assignment.repository.McqSubmissionRepository;
+import com.assignment.service.BatchCodeCache;
 import com.assignment.service.BatchServiceGateway;
 import com.assignment.service.FileStorageService;
 import com.assignment.service.NotificationPublisher;
-import com.assignment.service.UserServiceGateway;
+import com.assignment.service.UserSummaryCache;
 import com.assignment.service.student.StudentAssignmentServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -34,6 +34,7 @@ import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -41,6 +42,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -50,12 +52,12 @@ class TeacherTextAssignmentServiceImplTest {
 
     @Mock private AssignmentRepository assignmentRepo;
     @Mock private BatchServiceGateway batchServiceGateway;
+    @Mock private BatchCodeCache batchCodeCache;
     @Mock private NotificationPublisher notificationPublisher;
     @Mock private StudentAssignmentServiceImpl studentAssignmentService;
-    @Mock private UserServiceGateway userServiceGateway;
+    @Mock private UserSummaryCache userSummaryCache;
     @Mock private FileStorageService fileStorageService;
     @Mock private AssignmentSubmissionRepository submissionRepo;
-    @Mock private McqSubmissionRepository mcqSubmissionRepository;
     @Mock private ModelMapper modelMapper;
 
     @InjectMocks
@@ -115,13 +117,15 @@ class TeacherTextAssignmentServiceImplTest {
     @Test
     void publishAssignment_success() {
         when(assignmentRepo.findById(1L)).thenReturn(Optional.of(assignment));
-        when(batchServiceGateway.getBatchStudentIds(10L)).thenReturn(List.of(11L, 12L));
 
         teacherTextAssignmentService.publishAssignment(1L, 3L);
 
         assertEquals(AssignmentStatus.PUBLISHED, assignment.getStatus());
-        verify(notificationPublisher, times(2)).publish(any());
-        verify(studentAssignmentService, times(2)).evictStudentAssignments(any());
+        verify(notificationPublisher).publishToBatch(eq(10L), eq("New assignment published"), any());
+        verify(notificationPublisher, never()).publish(any());
+        verify(batchServiceGateway, never()).getBatchStudentIds(any());
+        verify(studentAssignmentService).evictBatchAssignments(10L);
+        verify(studentAssignmentService, never()).evictStudentAssignments(any());
     }
 
     @Test
@@ -146,13 +150,13 @@ class TeacherTextAssignmentServiceImplTest {
     void closeAssignment_success() {
         assignment.setStatus(AssignmentStatus.PUBLISHED);
         when(assignmentRepo.findById(1L)).thenReturn(Optional.of(assignment));
-        when(batchServiceGateway.getBatchStudentIds(10L)).thenReturn(List.of(11L, 12L));
 
         teacherTextAssignmentService.closeAssignment(1L, 3L);
 
         assertEquals(AssignmentStatus.CLOSED, assignment.getStatus());
-        verify(notificationPublisher, times(2)).publish(any());
-        verify(studentAssignmentService, times(2)).evictStudentAssignments(any());
+        verify(notificationPublisher).publishToBatch(eq(10L), eq("Assignment closed"), any());
+        verify(studentAssignmentService).evictBatchAssignments(10L);
+        verify(studentAssignmentService, never()).evictStudentAssignments(any());
     }
 
     @Test
@@ -172,8 +176,8 @@ class TeacherTextAssignmentServiceImplTest {
 
         when(assignmentRepo.findById(1L)).thenReturn(Optional.of(assignment));
         when(modelMapper.map(assignment, AssignmentResponseDto.class)).thenReturn(dto);
-        when(batchServiceGateway.getBatchCode(10L)).thenReturn("BATCH-JAVA");
-        when(submissionRepo.countByAssignment_Id(1L)).thenReturn(2L);
+        when(batchCodeCache.get(10L)).thenReturn("BATCH-JAVA");
+        assignment.setSubmittedCount(2);
 
         AssignmentResponseDto result = teacherTextAssignmentService.getAssignment(1L, 3L);
 
@@ -207,13 +211,13 @@ class TeacherTextAssignmentServiceImplTest {
         assignment.setType(AssignmentType.FILE);
         assignment.setStatus(AssignmentStatus.PUBLISHED);
         when(assignmentRepo.findById(1L)).thenReturn(Optional.of(assignment));
-        when(batchServiceGateway.getBatchStudentIds(10L)).thenReturn(List.of(11L, 12L));
 
         teacherTextAssignmentService.deleteAssignment(1L, 3L);
 
         assertEquals(AssignmentStatus.DELETED, assignment.getStatus());
         verify(assignmentRepo).save(assignment);
-        verify(studentAssignmentService, times(2)).evictStudentAssignments(any());
+        verify(studentAssignmentService).evictBatchAssignments(10L);
+        verify(batchServiceGateway, never()).getBatchStudentIds(any());
     }
 
     @Test
@@ -236,7 +240,7 @@ class TeacherTextAssignmentServiceImplTest {
         when(assignmentRepo.findById(1L)).thenReturn(Optional.of(assignment));
         when(submissionRepo.findByAssignment_IdOrderBySubmittedAtDesc(1L))
                 .thenReturn(List.of(submission));
-        when(userServiceGateway.getUserSummary(11L)).thenReturn(user);
+        when(userSummaryCache.getAll(List.of(11L))).thenReturn(Map.of(11L, user));
         when(fileStorageService.extractFileName("uploads/1/11/answer.zip")).thenReturn("answer.zip");
 
         List<SubmissionResponseDto> result = teacherTextAssignmentService.getSubmissions(1L, 3L);
@@ -285,7 +289,7 @@ class TeacherTextAssignmentServiceImplTest {
     }
 
     @Test
-    void myAssignments_mapsSubmissionCountsForText() {
+    void myAssignments_readsCodesInBulkAndStoredCounters() {
         assignment.setType(AssignmentType.TEXT);
         assignment.setStatus(AssignmentStatus.PUBLISHED);
         AssignmentResponseDto mapped = new AssignmentResponseDto();
@@ -293,14 +297,16 @@ class TeacherTextAssignmentServiceImplTest {
         when(assignmentRepo.findTeacherAssignmentsPage(eq(3L), any(), any(), any(), any()))
                 .thenReturn(new PageImpl<>(List.of(assignment), PageRequest.of(0, 10), 1));
         when(modelMapper.map(assignment, AssignmentResponseDto.class)).thenReturn(mapped);
-        when(batchServiceGateway.getBatchCode(10L)).thenReturn("BATCH-JAVA");
-        when(submissionRepo.countByAssignment_Id(1L)).thenReturn(4L);
+        when(batchCodeCache.getAll(List.of(10L))).thenReturn(Map.of(10L, "BATCH-JAVA"));
+        assignment.setSubmittedCount(4);
+        assignment.setEvaluatedCount(1);
 
         var page = teacherTextAssignmentService.myAssignments(
                 3L, null, null, null, PageRequest.of(0, 10));
 
         assertEquals(1, page.getContent().size());
         assertEquals(4, page.getContent().get(0).getTotalSubmissions());
+        assertEquals(1, page.getContent().get(0).getEvaluatedSubmissions());
         assertEquals("BATCH-JAVA", page.getContent().get(0).getBatchCode());
     }
 }
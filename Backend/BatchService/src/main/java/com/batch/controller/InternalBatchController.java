@@ -1,5 +1,7 @@
 package com.batch.controller;
 
+import com.batch.entity.Batch;
+import com.batch.exception.BadRequestException;
 import com.batch.repository.BatchEnrollmentRepository;
 import com.batch.repository.BatchRepository;
 import com.batch.repository.BatchTeacherRepository;
@@ -8,7 +10,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -17,6 +21,8 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class InternalBatchController {
 
+    private static final int MAX_CODE_LOOKUP = 500;
+
     private final BatchTeacherRepository batchTeacherRepository;
     private final BatchEnrollmentRepository batchEnrollmentRepository;
     private final BatchRepository batchRepository;
@@ -54,4 +60,22 @@ List<Long> batchIds = batchEnrollmentRepository.findByStudentId(studentId)
                 .map(batch -> batch.getBatchCode() != null ? batch.getBatchCode() : ("BATCH-" + batchId))
                 .orElse("BATCH-" + batchId);
     }
+
+    @GetMapping("/codes")
+    @Transactional(readOnly = true)
+    public Map<Long, String> getBatchCodes(@RequestParam List<Long> ids) {
+        List<Long> batchIds = ids.stream().distinct().toList();
+        if (batchIds.size() > MAX_CODE_LOOKUP) {
+            throw new BadRequestException("At most " + MAX_CODE_LOOKUP + " batch ids per request");
+        }
+
+        Map<Long, String> codes = new LinkedHashMap<>();
+        for (Batch batch : batchRepository.findAllById(batchIds)) {
+            if (batch.getBatchCode() != null) {
+                codes.put(batch.getId(), batch.getBatchCode());
+            }
+        }
+        // unknown batches are left out so callers do not cache a placeholder
+        return codes;
+    }
 }
@@ -0,0 +1,52 @@
+package com.batch.service;
+
+import com.batch.dto.EnrollmentEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Publishes enrollment changes so other services can keep local membership
+ * caches current. Keyed by student id, so one student's events stay ordered.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EnrollmentEventPublisher {
+
+    public static final String ENROLLED = "ENROLLED";
+
+    private final KafkaTemplate<String, EnrollmentEvent> kafkaTemplate;
+
+    @Value("${batch.enrollment.kafka.topic}")
+    private String topic;
+
+    /**
+     * Sends once the current transaction commits, so consumers never see an
+     * enrollment that was rolled back.
+     */
+    public void publishAfterCommit(EnrollmentEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(event);
+                }
+            });
+        } else {
+            publish(event);
+        }
+    }
+
+    private void publish(EnrollmentEvent event) {
+        try {
+            kafkaTemplate.send(topic, event.getStudentId().toString(), event);
+        } catch (Exception ex) {
+            log.error("Failed to publish enrollment event: {}", ex.getMessage(), ex);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.batch.service;
 
 import com.batch.dto.BatchResponseDto;
 import com.batch.dto.BatchContentDto;
+import com.batch.dto.EnrollmentEvent;
 import com.batch.entity.Batch;
 import com.batch.entity.BatchContent;
 import com.batch.entity.BatchEnrollment;
@@ -35,6 +36,7 @@ public class StudentBatchServiceImpl implements StudentBatchService {
     private final StudentContentProgressRepository studentContentProgressRepository;
     private final ModelMapper modelMapper;
     private final NotificationPublisher notificationPublisher;
+    private final EnrollmentEventPublisher enrollmentEventPublisher;
 
     @Override
     @Transactional(readOnly = true)
@@ -65,6 +67,8 @@ Batch batch = batchRepository.findById(batchId)
         enrollment.setStudentId(studentId);
 
         enrollmentRepository.save(enrollment);
+        enrollmentEventPublisher.publishAfterCommit(new EnrollmentEvent(
+                studentId, batchId, EnrollmentEventPublisher.ENROLLED, System.currentTimeMillis()));
 notificationPublisher.publish(
                 new com.batch.dto.NotificationEvent(
                         studentId,
@@ -23,6 +23,7 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -33,6 +34,7 @@ class StudentBatchServiceImplTest {
     @Mock private BatchEnrollmentRepository enrollmentRepository;
     @Mock private ModelMapper modelMapper;
     @Mock private NotificationPublisher notificationPublisher;
+    @Mock private EnrollmentEventPublisher enrollmentEventPublisher;
 
     @InjectMocks
     private StudentBatchServiceImpl studentBatchService;
@@ -80,6 +82,9 @@ class StudentBatchServiceImplTest {
 
         verify(enrollmentRepository).save(any(BatchEnrollment.class));
         verify(notificationPublisher).publish(any());
+        verify(enrollmentEventPublisher).publishAfterCommit(argThat(e ->
+                e.getStudentId().equals(11L) && e.getBatchId().equals(1L)
+                        && EnrollmentEventPublisher.ENROLLED.equals(e.getType())));
     }
 
     @Test
@@ -0,0 +1,44 @@
+package com.notification.config;
+
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+
+import java.time.Duration;
+
+/**
+ * Error handling for the notification listener. A record whose handling
+ * fails is redelivered with exponential backoff, starting from that record;
+ * once the retries are used up it is published to {@code <topic>.DLT} and
+ * consumption moves on. Events that can never succeed skip the retries.
+ */
+@Configuration
+public class KafkaConsumerConfig {
+
+    @Bean
+    public DefaultErrorHandler kafkaErrorHandler(
+            KafkaTemplate<Object, Object> kafkaTemplate,
+            @Value("${notification.kafka.retry.max-retries:5}") int maxRetries,
+            @Value("${notification.kafka.retry.initial-backoff:1s}") Duration initialBackoff,
+            @Value("${notification.kafka.retry.max-backoff:30s}") Duration maxBackoff) {
+
+        // partition -1 lets the producer pick one, so the DLT may have fewer partitions
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, ex) -> new TopicPartition(record.topic() + ".DLT", -1));
+
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(maxRetries);
+        backOff.setInitialInterval(initialBackoff.toMillis());
+        backOff.setMultiplier(2.0);
+        backOff.setMaxInterval(maxBackoff.toMillis());
+
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(recoverer, backOff);
+        // unknown role or channel: retrying cannot help
+        errorHandler.addNotRetryableExceptions(IllegalArgumentException.class);
+        return errorHandler;
+    }
+}
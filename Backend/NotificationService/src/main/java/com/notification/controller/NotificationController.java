@@ -1,5 +1,6 @@
 package com.notification.controller;
 
+import com.notification.dto.CursorPageDto;
 import com.notification.dto.NotificationResponse;
 import com.notification.entity.NotificationRole;
 import com.notification.service.NotificationService;
@@ -8,44 +9,79 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping
 @RequiredArgsConstructor
 public class NotificationController {
 
+    private static final int MAX_LIST_LIMIT = 100;
+    private static final int MAX_PAGE_SIZE = 50;
+
     private final NotificationService notificationService;
 
     @GetMapping("/student/notification")
     public ResponseEntity<List<NotificationResponse>> getStudentNotifications(
-            @RequestParam(required = false) Long userId) {
+            @RequestParam(required = false) Long userId,
+            @RequestParam(defaultValue = "50") int limit) {
+        int bounded = clamp(limit, MAX_LIST_LIMIT);
         return ResponseEntity.ok(
                 userId != null
-                        ? notificationService.getForUser(userId)
-                        : notificationService.getForRole(NotificationRole.STUDENT)
+                        ? notificationService.getForUser(userId, bounded)
+                        : notificationService.getForRole(NotificationRole.STUDENT, bounded)
         );
     }
 
     @GetMapping("/teacher/notification")
     public ResponseEntity<List<NotificationResponse>> getTeacherNotifications(
-            @RequestParam(required = false) Long userId) {
+            @RequestParam(required = false) Long userId,
+            @RequestParam(defaultValue = "50") int limit) {
+        int bounded = clamp(limit, MAX_LIST_LIMIT);
         return ResponseEntity.ok(
                 userId != null
-                        ? notificationService.getForUser(userId)
-                        : notificationService.getForRole(NotificationRole.TEACHER)
+                        ? notificationService.getForUser(userId, bounded)
+                        : notificationService.getForRole(NotificationRole.TEACHER, bounded)
         );
     }
 
     @GetMapping("/admin/notification")
     public ResponseEntity<List<NotificationResponse>> getAdminNotifications(
-            @RequestParam(required = false) Long userId) {
+            @RequestParam(required = false) Long userId,
+            @RequestParam(defaultValue = "50") int limit) {
+        int bounded = clamp(limit, MAX_LIST_LIMIT);
         return ResponseEntity.ok(
                 userId != null
-                        ? notificationService.getForUser(userId)
-                        : notificationService.getForRole(NotificationRole.ADMIN)
+                        ? notificationService.getForUser(userId, bounded)
+                        : notificationService.getForRole(NotificationRole.ADMIN, bounded)
         );
     }
 
+    @GetMapping("/notification/inbox")
+    public ResponseEntity<CursorPageDto<NotificationResponse>> getInbox(
+            @RequestParam Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(notificationService.getInbox(userId, cursor, clamp(size, MAX_PAGE_SIZE)));
+    }
+
+    @GetMapping("/notification/unread-count")
+    public ResponseEntity<Map<String, Long>> getUnreadCount(@RequestParam Long userId) {
+        return ResponseEntity.ok(Map.of("unreadCount", notificationService.countUnread(userId)));
+    }
+
+    /**
+     * Marks the listed ids read (at most 500), or every notification of the user
+     * with {@code all=true}. An empty list changes nothing.
+     */
+    @PutMapping("/notification/read")
+    public ResponseEntity<Map<String, Integer>> markRead(
+            @RequestParam Long userId,
+            @RequestParam(defaultValue = "false") boolean all,
+            @RequestBody(required = false) List<Long> ids) {
+        return ResponseEntity.ok(Map.of("updated", notificationService.markRead(userId, ids, all)));
+    }
+
     @PutMapping("/notification/{id}/read")
     public ResponseEntity<NotificationResponse> markRead(@PathVariable Long id) {
         return ResponseEntity.ok(notificationService.markRead(id));
@@ -62,5 +98,8 @@ public class NotificationController {
         notificationService.deleteById(id);
         return ResponseEntity.noContent().build();
     }
-}
 
+    private static int clamp(int value, int max) {
+        return Math.min(Math.max(value, 1), max);
+    }
+}
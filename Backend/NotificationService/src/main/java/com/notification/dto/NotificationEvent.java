@@ -4,6 +4,11 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+/**
+ * Addressed to one user, or with {@code batchId} set and no {@code userId} to
+ * every student of the batch. Batch events carry an {@code eventId} so a
+ * redelivery does not fan out twice.
+ */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -14,4 +19,10 @@ public class NotificationEvent {
     private String channel;
     private String title;
     private String message;
+    private Long batchId;
+    private String eventId;
+
+    public NotificationEvent(Long userId, String email, String role, String channel, String title, String message) {
+        this(userId, email, role, channel, title, message, null, null);
+    }
 }
@@ -6,7 +6,23 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications",
+        uniqueConstraints = {
+                // a redelivered batch event cannot notify the same user twice
+                @UniqueConstraint(name = "uk_notification_event_user", columnNames = {"event_id", "user_id"})
+        },
+        indexes = {
+                // seek pagination of a user's inbox
+                @Index(name = "idx_notification_user_created", columnList = "user_id, created_at, id"),
+                // covers the unread count
+                @Index(name = "idx_notification_user_read", columnList = "user_id, is_read"),
+                @Index(name = "idx_notification_role_created", columnList = "role, created_at"),
+                // retention scans read rows by age
+                @Index(name = "idx_notification_read_created", columnList = "is_read, created_at"),
+                // email delivery polls due PENDING rows and claims them by token
+                @Index(name = "idx_notification_status_next_attempt", columnList = "status, channel, next_attempt_at"),
+                @Index(name = "idx_notification_claim_token", columnList = "claim_token")
+        })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -46,4 +62,29 @@ public class Notification {
     private LocalDateTime createdAt;
 
     private LocalDateTime sentAt;
+
+    // id of the Kafka event a batch fan-out came from; null for everything else
+    @Column(name = "event_id", length = 36)
+    private String eventId;
+
+    /*
+     * Email delivery state, unused for IN_APP. EMAIL rows are stored PENDING and
+     * sent by EmailDeliveryWorker, which retries failures with exponential backoff.
+     */
+    @Column(length = 255)
+    private String email;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private int attempts = 0;
+
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 36)
+    private String claimToken;
+
+    private LocalDateTime claimedAt;
+
+    @Column(length = 255)
+    private String lastError;
 }
@@ -0,0 +1,261 @@
+package com.notification.job;
+
+import com.notification.entity.Notification;
+import com.notification.entity.NotificationStatus;
+import com.notification.repository.NotificationRepository;
+import com.notification.service.EmailService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends EMAIL notifications stored as PENDING, off the Kafka consumer thread.
+ * Due rows are claimed in batches with a claim token (safe across instances)
+ * and each batch is sent over one SMTP connection on a bounded worker pool.
+ * A failed send is retried with exponential backoff until
+ * {@code max-attempts}, then marked FAILED. When all workers are busy the
+ * scheduler thread sends the batch itself, which throttles claiming.
+ *
+ * <p>A claim that is older than {@code stale-claim-timeout} is released for
+ * another worker. The timeout is raised when needed to cover the worst case of
+ * one batch, derived from the batch size and the SMTP timeouts, so rows still
+ * being sent are never sent twice.
+ *
+ * <p>Metrics: {@code notification.email.delivery.lag} (created to sent),
+ * {@code notification.email.delivery.attempts} by outcome and
+ * {@code notification.email.backlog.age} (age of the oldest undelivered email).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "notification.email.delivery.enabled", havingValue = "true", matchIfMissing = true)
+public class EmailDeliveryWorker {
+
+    private static final int MAX_ERROR_LENGTH = 255;
+    private static final Duration STALE_CLAIM_MARGIN = Duration.ofMinutes(1);
+
+    private final NotificationRepository notificationRepository;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration staleClaimTimeout;
+    private final ThreadPoolExecutor executor;
+
+    private final Timer deliveryLag;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+    private final AtomicLong backlogAgeSeconds = new AtomicLong();
+
+    public EmailDeliveryWorker(
+            NotificationRepository notificationRepository,
+            EmailService emailService,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${notification.email.delivery.workers:4}") int workers,
+            @Value("${notification.email.delivery.batch-size:50}") int batchSize,
+            @Value("${notification.email.delivery.max-attempts:5}") int maxAttempts,
+            @Value("${notification.email.delivery.initial-backoff:30s}") Duration initialBackoff,
+            @Value("${notification.email.delivery.max-backoff:30m}") Duration maxBackoff,
+            @Value("${notification.email.delivery.stale-claim-timeout:20m}") Duration staleClaimTimeout,
+            @Value("${spring.mail.properties.mail.smtp.connectiontimeout:5000}") long smtpConnectionTimeoutMs,
+            @Value("${spring.mail.properties.mail.smtp.timeout:10000}") long smtpTimeoutMs,
+            @Value("${spring.mail.properties.mail.smtp.writetimeout:10000}") long smtpWriteTimeoutMs) {
+        this.notificationRepository = notificationRepository;
+        this.emailService = emailService;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+
+        Duration minStaleClaimTimeout = minStaleClaimTimeout(batchSize,
+                Duration.ofMillis(smtpConnectionTimeoutMs),
+                Duration.ofMillis(smtpTimeoutMs),
+                Duration.ofMillis(smtpWriteTimeoutMs));
+        if (staleClaimTimeout.compareTo(minStaleClaimTimeout) < 0) {
+            log.warn("Email stale-claim-timeout {} is shorter than one batch can take to send, using {}",
+                    staleClaimTimeout, minStaleClaimTimeout);
+            staleClaimTimeout = minStaleClaimTimeout;
+        }
+        this.staleClaimTimeout = staleClaimTimeout;
+
+        this.deliveryLag = Timer.builder("notification.email.delivery.lag")
+                .description("Time from an email notification being stored to it being sent")
+                .register(meterRegistry);
+        this.sent = attempts(meterRegistry, "sent");
+        this.retried = attempts(meterRegistry, "retry");
+        this.failed = attempts(meterRegistry, "failed");
+        Gauge.builder("notification.email.backlog.age", backlogAgeSeconds, AtomicLong::get)
+                .description("Age in seconds of the oldest email notification not yet sent")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                workers, workers,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers),
+                r -> {
+                    Thread t = new Thread(r, "email-delivery-" + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
+
+    @Scheduled(fixedDelayString = "${notification.email.delivery.poll-interval-ms:1000}")
+    public void drain() {
+        transactionTemplate.executeWithoutResult(status ->
+                notificationRepository.releaseStaleClaims(LocalDateTime.now().minus(staleClaimTimeout)));
+
+        String token;
+        while ((token = claimBatch()) != null) {
+            String claimed = token;
+            executor.execute(() -> deliverBatch(claimed));
+        }
+
+        LocalDateTime oldest = notificationRepository.findOldestUndeliveredEmailCreatedAt();
+        backlogAgeSeconds.set(oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toSeconds());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private String claimBatch() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = notificationRepository.findDueEmailIds(now, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                return null;
+            }
+            String token = UUID.randomUUID().toString();
+            int claimed = notificationRepository.claim(ids, token, now);
+            // claimed == 0 means another instance took these rows first; try the next page
+            return claimed > 0 || ids.size() == batchSize ? token : null;
+        });
+    }
+
+    private void deliverBatch(String token) {
+        try {
+            Integer claimed = transactionTemplate.execute(status ->
+                    notificationRepository.refreshClaim(token, LocalDateTime.now()));
+            if (claimed == null || claimed == 0) {
+                return; // released as stale while queued; another worker has the rows
+            }
+
+            List<Notification> notifications = notificationRepository.findByClaimToken(token);
+            if (notifications.isEmpty()) {
+                return;
+            }
+
+            List<Notification> sendable = new ArrayList<>();
+            List<SimpleMailMessage> messages = new ArrayList<>();
+            Map<Notification, Exception> failures = new IdentityHashMap<>();
+            for (Notification n : notifications) {
+                if (n.getEmail() == null || n.getEmail().isBlank()) {
+                    failures.put(n, new IllegalArgumentException("No email address"));
+                    continue;
+                }
+                sendable.add(n);
+                messages.add(emailService.message(n.getEmail(), n.getTitle(), n.getMessage()));
+            }
+
+            // network I/O outside any transaction
+            Map<Integer, Exception> notSent = messages.isEmpty() ? Map.of() : emailService.sendAll(messages);
+
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> sentIds = new ArrayList<>();
+            for (int i = 0; i < sendable.size(); i++) {
+                Exception cause = notSent.get(i);
+                if (cause == null) {
+                    sentIds.add(sendable.get(i).getId());
+                    deliveryLag.record(Duration.between(sendable.get(i).getCreatedAt(), now));
+                } else {
+                    failures.put(sendable.get(i), cause);
+                }
+            }
+
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!sentIds.isEmpty()) {
+                    notificationRepository.markSent(sentIds, now);
+                }
+                failures.forEach((n, cause) -> recordFailure(n, cause, now));
+            });
+            sent.increment(sentIds.size());
+        } catch (RuntimeException ex) {
+            log.error("Email delivery batch {} failed, claim is released after the stale timeout: {}",
+                    token, ex.getMessage(), ex);
+        }
+    }
+
+    private void recordFailure(Notification n, Exception cause, LocalDateTime now) {
+        int attempts = n.getAttempts() + 1;
+        String error = cause.getMessage() == null ? cause.getClass().getSimpleName() : cause.getMessage();
+        if (error.length() > MAX_ERROR_LENGTH) {
+            error = error.substring(0, MAX_ERROR_LENGTH);
+        }
+
+        if (attempts >= maxAttempts || n.getEmail() == null || n.getEmail().isBlank()) {
+            log.warn("Email notification {} failed after {} attempts: {}", n.getId(), attempts, error);
+            notificationRepository.recordFailure(n.getId(), NotificationStatus.FAILED, attempts, null, error);
+            failed.increment();
+        } else {
+            notificationRepository.recordFailure(
+                    n.getId(), NotificationStatus.PENDING, attempts, now.plus(backoff(attempts)), error);
+            retried.increment();
+        }
+    }
+
+    /**
+     * Longest one claimed batch can take once it starts: connecting, then every
+     * message waiting out both the SMTP read and write timeouts, plus a margin.
+     */
+    static Duration minStaleClaimTimeout(int batchSize, Duration connect, Duration read, Duration write) {
+        return connect.plus(read.plus(write).multipliedBy(batchSize)).plus(STALE_CLAIM_MARGIN);
+    }
+
+    /**
+     * {@code initial-backoff * 2^(attempts - 1)}, capped at {@code max-backoff}.
+     */
+    Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private static Counter attempts(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("notification.email.delivery.attempts")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,100 @@
+package com.notification.job;
+
+import com.notification.repository.NotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Deletes read notifications older than {@code max-age}. Rows are removed in
+ * chunks of {@code chunk-size} ids, each in its own short transaction with an
+ * optional pause in between, so the job never holds locks on a large range
+ * of the table. Reclaimed rows are logged per run and counted in
+ * {@code notification.retention.reclaimed}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "notification.retention.enabled", havingValue = "true", matchIfMissing = true)
+public class NotificationRetentionJob {
+
+    private final NotificationRepository notificationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration maxAge;
+    private final int chunkSize;
+    private final Duration chunkPause;
+    private final Counter reclaimed;
+
+    public NotificationRetentionJob(
+            NotificationRepository notificationRepository,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${notification.retention.max-age:30d}") Duration maxAge,
+            @Value("${notification.retention.chunk-size:1000}") int chunkSize,
+            @Value("${notification.retention.chunk-pause:100ms}") Duration chunkPause) {
+        this.notificationRepository = notificationRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.maxAge = maxAge;
+        this.chunkSize = chunkSize;
+        this.chunkPause = chunkPause;
+        this.reclaimed = Counter.builder("notification.retention.reclaimed")
+                .description("Read notifications deleted by the retention job")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${notification.retention.initial-delay-ms:300000}",
+            fixedDelayString = "${notification.retention.interval-ms:3600000}"
+    )
+    public void run() {
+        int deleted = purge(LocalDateTime.now().minus(maxAge));
+        if (deleted > 0) {
+            log.info("Notification retention reclaimed {} read notifications older than {}", deleted, maxAge);
+        }
+    }
+
+    /**
+     * @return the number of rows deleted
+     */
+    int purge(LocalDateTime cutoff) {
+        int total = 0;
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<Long> ids = notificationRepository.findReadIdsCreatedBefore(
+                        cutoff, PageRequest.of(0, chunkSize));
+                return ids.isEmpty() ? 0 : notificationRepository.deleteByIds(ids);
+            });
+            if (deleted == null || deleted == 0) {
+                break;
+            }
+            total += deleted;
+            reclaimed.increment(deleted);
+            if (deleted < chunkSize || !pause()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private boolean pause() {
+        if (chunkPause.isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(chunkPause);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
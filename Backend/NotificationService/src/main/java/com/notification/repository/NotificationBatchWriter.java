@@ -0,0 +1,72 @@
+package com.notification.repository;
+
+import com.notification.entity.Notification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * JDBC batch insert for {@link Notification}. The entity uses IDENTITY keys,
+ * which stops Hibernate from batching, so fan-out writes go through here.
+ * With {@code rewriteBatchedStatements=true} the driver sends multi-row INSERTs.
+ */
+@Repository
+@RequiredArgsConstructor
+public class NotificationBatchWriter {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO notifications
+                (user_id, role, channel, status, title, message, is_read, created_at, sent_at,
+                 email, attempts, next_attempt_at, event_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String EVENT_STORED_SQL = "SELECT id FROM notifications WHERE event_id = ? LIMIT 1";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertAll(List<Notification> notifications, int batchSize) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, notifications, batchSize, (ps, n) -> {
+            if (n.getUserId() != null) {
+                ps.setLong(1, n.getUserId());
+            } else {
+                ps.setNull(1, Types.BIGINT);
+            }
+            ps.setString(2, n.getRole() == null ? null : n.getRole().name());
+            ps.setString(3, n.getChannel().name());
+            ps.setString(4, n.getStatus().name());
+            ps.setString(5, n.getTitle());
+            ps.setString(6, n.getMessage());
+            ps.setBoolean(7, n.getIsRead());
+            ps.setTimestamp(8, Timestamp.valueOf(n.getCreatedAt()));
+            ps.setTimestamp(9, n.getSentAt() == null ? null : Timestamp.valueOf(n.getSentAt()));
+            ps.setString(10, n.getEmail());
+            ps.setInt(11, n.getAttempts());
+            ps.setTimestamp(12, n.getNextAttemptAt() == null ? null : Timestamp.valueOf(n.getNextAttemptAt()));
+            ps.setString(13, n.getEventId());
+        });
+    }
+
+    /**
+     * Stores the fan-out of one event in a single transaction, so it lands
+     * completely or not at all. A redelivered event finds its rows already
+     * there and stores nothing; two deliveries racing each other are stopped
+     * by the unique (event_id, user_id) key. Events published without an id
+     * are stored without that check.
+     *
+     * @return the number of notifications stored
+     */
+    @Transactional
+    public int insertFanOut(String eventId, List<Notification> notifications, int batchSize) {
+        if (eventId != null && !jdbcTemplate.queryForList(EVENT_STORED_SQL, Long.class, eventId).isEmpty()) {
+            return 0;
+        }
+        insertAll(notifications, batchSize);
+        return notifications.size();
+    }
+}
@@ -2,12 +2,173 @@ package com.notification.repository;
 
 import com.notification.entity.Notification;
 import com.notification.entity.NotificationRole;
+import com.notification.entity.NotificationStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
-    List<Notification> findByUserIdOrderByCreatedAtDesc(Long userId);
-    List<Notification> findByRoleOrderByCreatedAtDesc(NotificationRole role);
+    List<Notification> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
+    List<Notification> findByRoleOrderByCreatedAtDesc(NotificationRole role, Pageable pageable);
     void deleteByUserId(Long userId);
+
+    /**
+     * One seek page of a user's notifications, newest first.
+     */
+    @Query("""
+            SELECT n FROM Notification n
+            WHERE n.userId = :userId
+              AND (:afterCreatedAt IS NULL
+                   OR n.createdAt < :afterCreatedAt
+                   OR (n.createdAt = :afterCreatedAt AND n.id < :afterId))
+            ORDER BY n.createdAt DESC, n.id DESC
+            """)
+    List<Notification> findInboxPage(
+            @Param("userId") Long userId,
+            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+
+    long countByUserIdAndIsReadFalse(Long userId);
+
+    @Modifying
+    @Query("""
+            UPDATE Notification n
+            SET n.isRead = true
+            WHERE n.userId = :userId
+              AND n.isRead = false
+            """)
+    int markAllRead(@Param("userId") Long userId);
+
+    /**
+     * Ids that do not belong to {@code userId} are ignored.
+     */
+    @Modifying
+    @Query("""
+            UPDATE Notification n
+            SET n.isRead = true
+            WHERE n.userId = :userId
+              AND n.id IN :ids
+              AND n.isRead = false
+            """)
+    int markRead(@Param("userId") Long userId, @Param("ids") List<Long> ids);
+
+    /*
+     * Retention. Expired rows are selected by id and deleted in chunks so each
+     * DELETE is a short transaction over a bounded set of primary keys.
+     */
+
+    @Query("""
+            SELECT n.id FROM Notification n
+            WHERE n.isRead = true
+              AND n.createdAt < :cutoff
+            ORDER BY n.createdAt ASC
+            """)
+    List<Long> findReadIdsCreatedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.id IN :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
+
+    List<Notification> findByClaimToken(String claimToken);
+
+    /*
+     * Email delivery. A PENDING row with a claim token is being sent by one
+     * worker; the token is cleared when the attempt is recorded.
+     */
+
+    @Query("""
+            SELECT n.id FROM Notification n
+            WHERE n.status = com.notification.entity.NotificationStatus.PENDING
+              AND n.channel = com.notification.entity.NotificationChannel.EMAIL
+              AND n.nextAttemptAt <= :now
+              AND n.claimToken IS NULL
+            ORDER BY n.nextAttemptAt ASC
+            """)
+    List<Long> findDueEmailIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("""
+            UPDATE Notification n
+            SET n.claimToken = :token,
+                n.claimedAt = :now
+            WHERE n.id IN :ids
+              AND n.status = com.notification.entity.NotificationStatus.PENDING
+              AND n.claimToken IS NULL
+            """)
+    int claim(@Param("ids") List<Long> ids,
+              @Param("token") String token,
+              @Param("now") LocalDateTime now);
+
+    /**
+     * Restarts the stale-claim clock when a claimed batch starts sending, so
+     * time spent queued for a worker does not count. Returns 0 when the claim
+     * was already released as stale.
+     */
+    @Modifying
+    @Query("""
+            UPDATE Notification n
+            SET n.claimedAt = :now
+            WHERE n.status = com.notification.entity.NotificationStatus.PENDING
+              AND n.claimToken = :token
+            """)
+    int refreshClaim(@Param("token") String token, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            UPDATE Notification n
+            SET n.claimToken = NULL,
+                n.claimedAt = NULL
+            WHERE n.status = com.notification.entity.NotificationStatus.PENDING
+              AND n.claimToken IS NOT NULL
+              AND n.claimedAt < :claimedBefore
+            """)
+    int releaseStaleClaims(@Param("claimedBefore") LocalDateTime claimedBefore);
+
+    @Modifying
+    @Query("""
+            UPDATE Notification n
+            SET n.status = com.notification.entity.NotificationStatus.SENT,
+                n.sentAt = :sentAt,
+                n.attempts = n.attempts + 1,
+                n.claimToken = NULL,
+                n.claimedAt = NULL,
+                n.lastError = NULL
+            WHERE n.id IN :ids
+            """)
+    int markSent(@Param("ids") List<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    /**
+     * Records a failed attempt: {@code status} is PENDING with the next attempt
+     * time for a retry, FAILED once attempts are used up.
+     */
+    @Modifying
+    @Query("""
+            UPDATE Notification n
+            SET n.status = :status,
+                n.attempts = :attempts,
+                n.nextAttemptAt = :nextAttemptAt,
+                n.lastError = :lastError,
+                n.claimToken = NULL,
+                n.claimedAt = NULL
+            WHERE n.id = :id
+            """)
+    int recordFailure(@Param("id") Long id,
+                      @Param("status") NotificationStatus status,
+                      @Param("attempts") int attempts,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                      @Param("lastError") String lastError);
+
+    @Query("""
+            SELECT MIN(n.createdAt) FROM Notification n
+            WHERE n.channel = com.notification.entity.NotificationChannel.EMAIL
+              AND n.status = com.notification.entity.NotificationStatus.PENDING
+            """)
+    LocalDateTime findOldestUndeliveredEmailCreatedAt();
 }
@@ -0,0 +1,16 @@
+package com.notification.service;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import java.util.List;
+
+@FeignClient(name = "BATCHSERVICE")
+public interface BatchServiceClient {
+
+    @GetMapping("/internal/batches/{batchId}/students")
+    List<Long> getBatchStudentIds(
+            @PathVariable Long batchId
+    );
+}
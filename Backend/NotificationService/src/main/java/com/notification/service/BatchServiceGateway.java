@@ -0,0 +1,26 @@
+package com.notification.service;
+
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.retry.annotation.Retry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * BatchService calls made while consuming notification events. Failures are
+ * retried and trip a circuit breaker, then propagate so the Kafka error
+ * handler retries the event or moves it to the dead-letter topic.
+ */
+@Service
+@RequiredArgsConstructor
+public class BatchServiceGateway {
+
+    private final BatchServiceClient batchServiceClient;
+
+    @CircuitBreaker(name = "batchService")
+    @Retry(name = "batchService")
+    public List<Long> getBatchStudentIds(Long batchId) {
+        return batchServiceClient.getBatchStudentIds(batchId);
+    }
+}
@@ -1,12 +1,20 @@
 package com.notification.service;
 
+import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMailMessage;
 import org.springframework.stereotype.Service;
 
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -18,11 +26,60 @@ public class EmailService {
     private String fromEmail;
 
     public void send(String to, String subject, String body) {
+        mailSender.send(message(to, subject, body));
+    }
+
+    public SimpleMailMessage message(String to, String subject, String body) {
         SimpleMailMessage message = new SimpleMailMessage();
         message.setFrom(fromEmail);
         message.setTo(to);
         message.setSubject(subject);
         message.setText(body);
-        mailSender.send(message);
-}
+        return message;
+    }
+
+    /**
+     * Sends all messages over one SMTP connection. They go out as MIME messages,
+     * which compare by identity: identical messages in one batch, which are
+     * equal as {@link SimpleMailMessage}s, are still told apart in the failures.
+     *
+     * @return the positions in {@code messages} that were not sent, with the reason;
+     * empty when all were sent
+     */
+    public Map<Integer, Exception> sendAll(List<SimpleMailMessage> messages) {
+        Map<MimeMessage, Integer> positions = new IdentityHashMap<>();
+        try {
+            MimeMessage[] mimeMessages = new MimeMessage[messages.size()];
+            for (int i = 0; i < mimeMessages.length; i++) {
+                mimeMessages[i] = mailSender.createMimeMessage();
+                messages.get(i).copyTo(new MimeMailMessage(mimeMessages[i]));
+                positions.put(mimeMessages[i], i);
+            }
+            mailSender.send(mimeMessages);
+            return Map.of();
+        } catch (MailSendException ex) {
+            if (!ex.getFailedMessages().isEmpty()) {
+                Map<Integer, Exception> failed = new TreeMap<>();
+                ex.getFailedMessages().forEach((message, cause) -> {
+                    Integer position = positions.get(message);
+                    if (position != null) {
+                        failed.put(position, cause);
+                    }
+                });
+                return failed;
+            }
+            return allFailed(messages.size(), ex);
+        } catch (RuntimeException ex) {
+            // connection or authentication failure: nothing was sent
+            return allFailed(messages.size(), ex);
+        }
+    }
+
+    private static Map<Integer, Exception> allFailed(int count, Exception ex) {
+        Map<Integer, Exception> failed = new TreeMap<>();
+        for (int i = 0; i < count; i++) {
+            failed.put(i, ex);
+        }
+        return failed;
+    }
 }
@@ -7,8 +7,12 @@ import com.notification.entity.NotificationRole;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -16,20 +20,104 @@ public class NotificationEventListener {
 
     private final NotificationService notificationService;
 
-    @KafkaListener(topics = "${notification.kafka.topic}", groupId = "notification-service")
+    /**
+     * Takes one poll's worth of events; offsets are committed once the batch
+     * returns. Single-user events are stored with one multi-row insert (emails
+     * as PENDING, sent later); if that fails they are retried one by one, so a
+     * bad event does not drop the rest of the poll.
+     *
+     * <p>Batch events are fanned out in poll order, after the user events that
+     * precede them are stored. A failed fan-out is reported with its index, so
+     * the error handler commits everything before it and retries from that
+     * event, or moves it to the dead-letter topic once retries run out.
+     */
+    @KafkaListener(topics = "${notification.kafka.topic}", groupId = "notification-service", batch = "true")
+    public void handleBatch(List<NotificationEvent> events) {
+        List<NotificationEvent> userEvents = new ArrayList<>();
+
+        for (int i = 0; i < events.size(); i++) {
+            NotificationEvent event = events.get(i);
+            if (!isBatchAddressed(event)) {
+                userEvents.add(event);
+                continue;
+            }
+
+            storeUserEvents(userEvents);
+            userEvents.clear();
+            try {
+                fanOut(event);
+            } catch (RuntimeException ex) {
+                throw new BatchListenerFailedException(
+                        "Fan-out to batch " + event.getBatchId() + " failed", ex, i);
+            }
+        }
+        storeUserEvents(userEvents);
+    }
+
+    /**
+     * Handles one event. A failed batch fan-out propagates, so it is retried;
+     * a single-user event that cannot be stored is logged and skipped.
+     */
     public void handle(NotificationEvent event) {
+        if (isBatchAddressed(event)) {
+            fanOut(event);
+            return;
+        }
+
         try {
-            SendNotificationRequest request = new SendNotificationRequest();
-            request.setUserId(event.getUserId());
-            request.setEmail(event.getEmail());
-            request.setRole(NotificationRole.valueOf(event.getRole()));
-            request.setChannel(NotificationChannel.valueOf(event.getChannel()));
-            request.setTitle(event.getTitle());
-            request.setMessage(event.getMessage());
-
-            notificationService.sendNotification(request);
+            notificationService.sendNotification(toRequest(event));
         } catch (Exception ex) {
             log.error("Failed to handle notification event: {}", ex.getMessage(), ex);
         }
     }
+
+    private void storeUserEvents(List<NotificationEvent> userEvents) {
+        List<NotificationEvent> valid = new ArrayList<>();
+        List<SendNotificationRequest> requests = new ArrayList<>();
+        for (NotificationEvent event : userEvents) {
+            try {
+                requests.add(toRequest(event));
+                valid.add(event);
+            } catch (Exception ex) {
+                log.error("Failed to handle notification event: {}", ex.getMessage(), ex);
+            }
+        }
+
+        if (requests.isEmpty()) {
+            return;
+        }
+        try {
+            notificationService.sendAll(requests);
+        } catch (Exception ex) {
+            log.warn("Bulk insert of {} notifications failed, storing them one by one: {}",
+                    requests.size(), ex.getMessage());
+            valid.forEach(this::handle);
+        }
+    }
+
+    private void fanOut(NotificationEvent event) {
+        int sent = notificationService.sendToBatch(
+                event.getEventId(),
+                event.getBatchId(),
+                NotificationRole.valueOf(event.getRole()),
+                NotificationChannel.valueOf(event.getChannel()),
+                event.getTitle(),
+                event.getMessage());
+        log.debug("Fanned out notification to {} students of batch {}", sent, event.getBatchId());
+    }
+
+    private static boolean isBatchAddressed(NotificationEvent event) {
+        return event.getUserId() == null && event.getBatchId() != null;
+    }
+
+    private static SendNotificationRequest toRequest(NotificationEvent event) {
+        SendNotificationRequest request = new SendNotificationRequest();
+        request.setUserId(event.getUserId());
+        request.setEmail(event.getEmail());
+        request.setRole(NotificationRole.valueOf(event.getRole()));
+        request.setChannel(NotificationChannel.valueOf(event.getChannel()));
+        request.setTitle(event.getTitle());
+        request.setMessage(event.getMessage());
+        return request;
+    }
 }
@@ -1,17 +1,23 @@
 package com.notification.service;
 
+import com.notification.dto.CursorPageDto;
 import com.notification.dto.NotificationResponse;
 import com.notification.dto.SendNotificationRequest;
 import com.notification.entity.Notification;
 import com.notification.entity.NotificationChannel;
 import com.notification.entity.NotificationRole;
 import com.notification.entity.NotificationStatus;
+import com.notification.repository.NotificationBatchWriter;
 import com.notification.repository.NotificationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -21,10 +27,21 @@ import java.util.List;
 @Slf4j
 public class NotificationService {
 
+    static final int MAX_MARK_READ_IDS = 500;
+
     private final NotificationRepository notificationRepository;
-    private final EmailService emailService;
     private final ModelMapper modelMapper;
+    private final BatchServiceGateway batchServiceGateway;
+    private final NotificationBatchWriter notificationBatchWriter;
+
+    @Value("${notification.fan-out.batch-size:500}")
+    private int fanOutBatchSize;
 
+    /**
+     * IN_APP notifications are stored as SENT. EMAIL notifications are stored
+     * as PENDING and sent by {@link com.notification.job.EmailDeliveryWorker},
+     * so the caller never waits on SMTP.
+     */
     @Transactional
     public NotificationResponse sendNotification(SendNotificationRequest request) {
         Notification notification = Notification.builder()
@@ -38,19 +55,12 @@ public class NotificationService {
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        notification = notificationRepository.save(notification);
-
         if (request.getChannel() == NotificationChannel.EMAIL) {
-            try {
-                emailService.send(request.getEmail(), request.getTitle(), request.getMessage());
-                notification.setStatus(NotificationStatus.SENT);
-                notification.setSentAt(LocalDateTime.now());
-            } catch (Exception ex) {
-                log.error("Failed to send email to {}: {}", request.getEmail(), ex.getMessage(), ex);
-                notification.setStatus(NotificationStatus.FAILED);
-            }
+            notification.setEmail(request.getEmail());
+            notification.setNextAttemptAt(notification.getCreatedAt());
             notification = notificationRepository.save(notification);
         } else {
+            notification = notificationRepository.save(notification);
             notification.setStatus(NotificationStatus.SENT);
             notification = notificationRepository.save(notification);
         }
@@ -58,22 +68,97 @@ public class NotificationService {
         return mapToResponse(notification);
     }
 
+    /**
+     * Stores the notifications with one JDBC batch insert, instead of the
+     * per-row saves of {@link #sendNotification}; same resulting state.
+     */
+    public void sendAll(List<SendNotificationRequest> requests) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> notifications = requests.stream()
+                .map(request -> request.getChannel() == NotificationChannel.EMAIL
+                        ? pendingEmail(request, now)
+                        : inAppNotification(request.getUserId(), request.getRole(),
+                                request.getTitle(), request.getMessage(), now))
+                .toList();
+        notificationBatchWriter.insertAll(notifications, fanOutBatchSize);
+    }
+
+    /**
+     * Stores one in-app notification per student of the batch with JDBC batch
+     * inserts. The student ids are fetched before a connection is taken; the
+     * rows are then written in one transaction. With an {@code eventId} a
+     * repeated call for the same event stores nothing. Failures propagate so
+     * the event is retried.
+     *
+     * @return the number of notifications stored
+     */
+    public int sendToBatch(String eventId, Long batchId, NotificationRole role, NotificationChannel channel,
+                           String title, String message) {
+        if (channel != NotificationChannel.IN_APP) {
+            throw new IllegalArgumentException("Batch notifications support IN_APP only");
+        }
+
+        List<Long> studentIds = batchServiceGateway.getBatchStudentIds(batchId);
+        if (studentIds == null || studentIds.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> notifications = studentIds.stream()
+                .map(studentId -> {
+                    Notification notification = inAppNotification(studentId, role, title, message, now);
+                    notification.setEventId(eventId);
+                    return notification;
+                })
+                .toList();
+        return notificationBatchWriter.insertFanOut(eventId, notifications, fanOutBatchSize);
+    }
+
+    /**
+     * The user's latest {@code limit} notifications.
+     */
     @Transactional(readOnly = true)
-    public List<NotificationResponse> getForUser(Long userId) {
-        return notificationRepository.findByUserIdOrderByCreatedAtDesc(userId)
+    public List<NotificationResponse> getForUser(Long userId, int limit) {
+        return notificationRepository.findByUserIdOrderByCreatedAtDesc(userId, PageRequest.of(0, limit))
                 .stream()
                 .map(this::mapToResponse)
                 .toList();
     }
 
     @Transactional(readOnly = true)
-    public List<NotificationResponse> getForRole(NotificationRole role) {
-        return notificationRepository.findByRoleOrderByCreatedAtDesc(role)
+    public List<NotificationResponse> getForRole(NotificationRole role, int limit) {
+        return notificationRepository.findByRoleOrderByCreatedAtDesc(role, PageRequest.of(0, limit))
                 .stream()
                 .map(this::mapToResponse)
                 .toList();
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageDto<NotificationResponse> getInbox(Long userId, String cursor, int size) {
+        NotificationCursor after = NotificationCursor.decode(cursor);
+
+        // one extra row tells whether another page exists
+        List<Notification> rows = notificationRepository.findInboxPage(
+                userId,
+                after == null ? null : after.createdAt(),
+                after == null ? null : after.id(),
+                PageRequest.of(0, size + 1));
+
+        boolean hasMore = rows.size() > size;
+        List<Notification> items = hasMore ? rows.subList(0, size) : rows;
+
+        return CursorPageDto.<NotificationResponse>builder()
+                .items(items.stream().map(this::mapToResponse).toList())
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? NotificationCursor.after(items.get(items.size() - 1)).encode() : null)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public long countUnread(Long userId) {
+        return notificationRepository.countByUserIdAndIsReadFalse(userId);
+    }
+
     @Transactional
     public NotificationResponse markRead(Long id) {
         Notification notification = notificationRepository.findById(id)
@@ -83,6 +168,32 @@ public class NotificationService {
         return mapToResponse(notification);
     }
 
+    /**
+     * Marks the given notifications of a user read, or all of them when
+     * {@code all} is set, with one UPDATE. No ids and no {@code all} changes
+     * nothing.
+     *
+     * @return the number of notifications that changed from unread to read
+     */
+    @Transactional
+    public int markRead(Long userId, List<Long> ids, boolean all) {
+        boolean hasIds = ids != null && !ids.isEmpty();
+        if (all) {
+            if (hasIds) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Send either ids or all=true, not both");
+            }
+            return notificationRepository.markAllRead(userId);
+        }
+        if (!hasIds) {
+            return 0;
+        }
+        if (ids.size() > MAX_MARK_READ_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + MAX_MARK_READ_IDS + " ids can be marked read at once");
+        }
+        return notificationRepository.markRead(userId, ids);
+    }
+
     @Transactional
     public void clearForUser(Long userId) {
         notificationRepository.deleteByUserId(userId);
@@ -93,6 +204,36 @@ public class NotificationService {
         notificationRepository.deleteById(id);
     }
 
+    private static Notification inAppNotification(
+            Long userId, NotificationRole role, String title, String message, LocalDateTime now) {
+        return Notification.builder()
+                .userId(userId)
+                .role(role)
+                .channel(NotificationChannel.IN_APP)
+                .status(NotificationStatus.SENT)
+                .title(title)
+                .message(message)
+                .isRead(false)
+                .createdAt(now)
+                .sentAt(now)
+                .build();
+    }
+
+    private static Notification pendingEmail(SendNotificationRequest request, LocalDateTime now) {
+        return Notification.builder()
+                .userId(request.getUserId())
+                .role(request.getRole())
+                .channel(NotificationChannel.EMAIL)
+                .status(NotificationStatus.PENDING)
+                .title(request.getTitle())
+                .message(request.getMessage())
+                .isRead(false)
+                .createdAt(now)
+                .email(request.getEmail())
+                .nextAttemptAt(now)
+                .build();
+    }
+
     private NotificationResponse mapToResponse(Notification notification) {
         return modelMapper.map(notification, NotificationResponse.class);
     }
@@ -0,0 +1,197 @@
+package com.notification.job;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.notification.entity.Notification;
+import com.notification.entity.NotificationChannel;
+import com.notification.entity.NotificationRole;
+import com.notification.entity.NotificationStatus;
+import com.notification.repository.NotificationRepository;
+import com.notification.service.EmailService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Delivers through a real SMTP client to a local GreenMail server, with the
+ * notification rows in H2.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // the worker commits on its own threads
+class EmailDeliveryWorkerTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired private NotificationRepository repository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAllInBatch();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void drain_sendsDueEmailsOverSmtp_andMarksThemSent() throws Exception {
+        Notification first = repository.save(pendingEmail("a@example.com"));
+        Notification second = repository.save(pendingEmail("b@example.com"));
+        Notification noAddress = repository.save(pendingEmail(null));
+        Notification notDue = pendingEmail("c@example.com");
+        notDue.setNextAttemptAt(LocalDateTime.now().plusHours(1));
+        notDue = repository.save(notDue);
+
+        EmailDeliveryWorker worker = worker(ServerSetupTest.SMTP.getPort(), 3);
+        worker.drain();
+        worker.shutdown();
+
+        assertEquals(2, greenMail.getReceivedMessages().length);
+        assertSent(first.getId());
+        assertSent(second.getId());
+
+        Notification rejected = repository.findById(noAddress.getId()).orElseThrow();
+        assertEquals(NotificationStatus.FAILED, rejected.getStatus());
+        assertEquals("No email address", rejected.getLastError());
+
+        assertEquals(NotificationStatus.PENDING, repository.findById(notDue.getId()).orElseThrow().getStatus());
+        assertEquals(2, meterRegistry.get("notification.email.delivery.lag").timer().count());
+    }
+
+    @Test
+    void drain_smtpUnreachable_retriesWithBackoff_thenFails() throws Exception {
+        Notification email = repository.save(pendingEmail("a@example.com"));
+        int closedPort = ServerSetupTest.SMTP.getPort() + 1;
+
+        LocalDateTime beforeFirstAttempt = LocalDateTime.now();
+        EmailDeliveryWorker worker = worker(closedPort, 2);
+        worker.drain();
+
+        Notification retrying = awaitAttempted(email.getId());
+        assertEquals(NotificationStatus.PENDING, retrying.getStatus());
+        assertEquals(1, retrying.getAttempts());
+        assertNull(retrying.getClaimToken());
+        assertNotNull(retrying.getLastError());
+        assertTrue(retrying.getNextAttemptAt().isAfter(beforeFirstAttempt.plusSeconds(29)));
+
+        retrying.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        repository.save(retrying);
+        worker.drain();
+        worker.shutdown();
+
+        Notification failed = repository.findById(email.getId()).orElseThrow();
+        assertEquals(NotificationStatus.FAILED, failed.getStatus());
+        assertEquals(2, failed.getAttempts());
+        assertEquals(1.0, meterRegistry.get("notification.email.delivery.attempts")
+                .tag("outcome", "failed").counter().count());
+    }
+
+    @Test
+    void backoff_doublesPerAttempt_upToTheCap() {
+        EmailDeliveryWorker worker = worker(ServerSetupTest.SMTP.getPort(), 5);
+
+        assertEquals(Duration.ofSeconds(30), worker.backoff(1));
+        assertEquals(Duration.ofSeconds(120), worker.backoff(3));
+        assertEquals(Duration.ofMinutes(30), worker.backoff(12));
+    }
+
+    @Test
+    void drain_identicalEmailsInOneBatch_areEachMarkedSent() throws Exception {
+        Notification first = repository.save(pendingEmail("a@example.com"));
+        Notification same = repository.save(pendingEmail("a@example.com"));
+
+        EmailDeliveryWorker worker = worker(ServerSetupTest.SMTP.getPort(), 3);
+        worker.drain();
+        worker.shutdown();
+
+        assertEquals(2, greenMail.getReceivedMessages().length);
+        assertSent(first.getId());
+        assertSent(same.getId());
+    }
+
+    @Test
+    void minStaleClaimTimeout_coversEveryMessageOfABatchTimingOut() {
+        Duration timeout = EmailDeliveryWorker.minStaleClaimTimeout(
+                50, Duration.ofSeconds(5), Duration.ofSeconds(10), Duration.ofSeconds(10));
+
+        assertEquals(Duration.ofSeconds(5 + 50 * 20 + 60), timeout);
+    }
+
+    private Notification awaitAttempted(Long id) throws InterruptedException {
+        for (int i = 0; i < 250; i++) {
+            Notification n = repository.findById(id).orElseThrow();
+            if (n.getClaimToken() == null) {
+                return n;
+            }
+            Thread.sleep(20);
+        }
+        return repository.findById(id).orElseThrow();
+    }
+
+    private void assertSent(Long id) {
+        Notification sent = repository.findById(id).orElseThrow();
+        assertEquals(NotificationStatus.SENT, sent.getStatus());
+        assertEquals(1, sent.getAttempts());
+        assertNotNull(sent.getSentAt());
+        assertNull(sent.getClaimToken());
+    }
+
+    private EmailDeliveryWorker worker(int smtpPort, int maxAttempts) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpPort);
+        EmailService emailService = new EmailService(mailSender);
+        ReflectionTestUtils.setField(emailService, "fromEmail", "noreply@example.com");
+
+        return new EmailDeliveryWorker(
+                repository,
+                emailService,
+                new TransactionTemplate(transactionManager),
+                meterRegistry,
+                1,
+                10,
+                maxAttempts,
+                Duration.ofSeconds(30),
+                Duration.ofMinutes(30),
+                Duration.ofMinutes(5),
+                1000, 1000, 1000);
+    }
+
+    private static Notification pendingEmail(String address) {
+        LocalDateTime now = LocalDateTime.now();
+        return Notification.builder()
+                .userId(1L)
+                .role(NotificationRole.STUDENT)
+                .channel(NotificationChannel.EMAIL)
+                .status(NotificationStatus.PENDING)
+                .title("Subject")
+                .message("Body")
+                .isRead(false)
+                .createdAt(now)
+                .email(address)
+                .nextAttemptAt(now)
+                .build();
+    }
+}
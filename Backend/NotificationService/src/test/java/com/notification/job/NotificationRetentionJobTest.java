@@ -0,0 +1,92 @@
+package com.notification.job;
+
+import com.notification.entity.Notification;
+import com.notification.entity.NotificationChannel;
+import com.notification.entity.NotificationRole;
+import com.notification.entity.NotificationStatus;
+import com.notification.repository.NotificationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // each chunk commits on its own
+class NotificationRetentionJobTest {
+
+    @Autowired private NotificationRepository repository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private MeterRegistry meterRegistry;
+    private NotificationRetentionJob job;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAllInBatch();
+        meterRegistry = new SimpleMeterRegistry();
+        job = new NotificationRetentionJob(
+                repository, new TransactionTemplate(transactionManager), meterRegistry,
+                Duration.ofDays(30), 3, Duration.ZERO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAllInBatch();
+    }
+
+    @Test
+    void purge_deletesOnlyOldReadNotifications_acrossChunks() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 7; i++) {
+            repository.save(notification(now.minusDays(40 + i), true));
+        }
+        Notification oldUnread = repository.save(notification(now.minusDays(40), false));
+        Notification recentRead = repository.save(notification(now.minusDays(1), true));
+
+        int deleted = job.purge(now.minusDays(30));
+
+        assertEquals(7, deleted);
+        assertEquals(2, repository.count());
+        assertTrue(repository.existsById(oldUnread.getId()));
+        assertTrue(repository.existsById(recentRead.getId()));
+        assertEquals(7.0, meterRegistry.counter("notification.retention.reclaimed").count());
+    }
+
+    @Test
+    void purge_nothingExpired_deletesNothing() {
+        repository.save(notification(LocalDateTime.now(), true));
+
+        assertEquals(0, job.purge(LocalDateTime.now().minusDays(30)));
+        assertEquals(1, repository.count());
+    }
+
+    private static Notification notification(LocalDateTime createdAt, boolean read) {
+        return Notification.builder()
+                .userId(1L)
+                .role(NotificationRole.STUDENT)
+                .channel(NotificationChannel.IN_APP)
+                .status(NotificationStatus.SENT)
+                .title("Title")
+                .message("Body")
+                .isRead(read)
+                .createdAt(createdAt)
+                .sentAt(createdAt)
+                .build();
+    }
+}
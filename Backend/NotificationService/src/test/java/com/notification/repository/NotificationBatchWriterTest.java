@@ -0,0 +1,78 @@
+package com.notification.repository;
+
+import com.notification.entity.Notification;
+import com.notification.entity.NotificationChannel;
+import com.notification.entity.NotificationRole;
+import com.notification.entity.NotificationStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Import(NotificationBatchWriter.class)
+class NotificationBatchWriterTest {
+
+    @Autowired private NotificationBatchWriter writer;
+    @Autowired private NotificationRepository repository;
+
+    @Test
+    void insertAll_storesEveryRowReadableThroughTheEntity() {
+        List<Notification> notifications = fanOut(null, 7);
+
+        writer.insertAll(notifications, 3);
+
+        assertEquals(7, repository.count());
+        List<Notification> stored = repository.findByUserIdOrderByCreatedAtDesc(4L, PageRequest.of(0, 10));
+        assertEquals(1, stored.size());
+        assertEquals(NotificationStatus.SENT, stored.get(0).getStatus());
+        assertEquals(NotificationRole.STUDENT, stored.get(0).getRole());
+        assertFalse(stored.get(0).getIsRead());
+    }
+
+    @Test
+    void insertFanOut_redeliveredEvent_storesNothing() {
+        assertEquals(5, writer.insertFanOut("e-1", fanOut("e-1", 5), 2));
+        assertEquals(0, writer.insertFanOut("e-1", fanOut("e-1", 5), 2));
+        assertEquals(3, writer.insertFanOut("e-2", fanOut("e-2", 3), 2));
+
+        assertEquals(8, repository.count());
+    }
+
+    @Test
+    void insertAll_sameEventAndUserTwice_isRejectedByTheUniqueKey() {
+        assertThrows(DataIntegrityViolationException.class,
+                () -> writer.insertAll(List.of(fanOut("e-1", 1).get(0), fanOut("e-1", 1).get(0)), 10));
+    }
+
+    private static List<Notification> fanOut(String eventId, int students) {
+        LocalDateTime now = LocalDateTime.now();
+        return LongStream.rangeClosed(1, students)
+                .mapToObj(userId -> Notification.builder()
+                        .userId(userId)
+                        .role(NotificationRole.STUDENT)
+                        .channel(NotificationChannel.IN_APP)
+                        .status(NotificationStatus.SENT)
+                        .title("Published")
+                        .message("Body")
+                        .isRead(false)
+                        .createdAt(now)
+                        .sentAt(now)
+                        .eventId(eventId)
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,41 @@
+package com.notification.service;
+
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EmailServiceTest {
+
+    @Test
+    void sendAll_reportsFailuresByPosition_evenForIdenticalMessages() {
+        MailSendException refused = new MailSendException("mailbox full");
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl() {
+            @Override
+            protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) {
+                // only the second of two identical messages fails
+                Map<Object, Exception> failed = new LinkedHashMap<>();
+                failed.put(mimeMessages[1], refused);
+                throw new MailSendException(failed);
+            }
+        };
+        EmailService emailService = new EmailService(mailSender);
+        ReflectionTestUtils.setField(emailService, "fromEmail", "noreply@example.com");
+
+        SimpleMailMessage message = emailService.message("a@example.com", "Subject", "Body");
+        Map<Integer, Exception> notSent = emailService.sendAll(
+                List.of(message, emailService.message("a@example.com", "Subject", "Body")));
+
+        assertEquals(Set.of(1), notSent.keySet());
+        assertEquals(refused, notSent.get(1));
+    }
+}
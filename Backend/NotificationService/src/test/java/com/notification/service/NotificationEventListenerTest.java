@@ -2,18 +2,27 @@ package com.notification.service;
 
 import com.notification.dto.NotificationEvent;
 import com.notification.dto.SendNotificationRequest;
+import com.notification.entity.NotificationChannel;
+import com.notification.entity.NotificationRole;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class NotificationEventListenerTest {
@@ -77,5 +86,72 @@ class NotificationEventListenerTest {
 
         verify(notificationService, times(1)).sendNotification(any(SendNotificationRequest.class));
     }
-}
 
+    @Test
+    void handle_batchEvent_fansOutOnceWithoutPerUserSends() {
+        NotificationEvent event = new NotificationEvent(
+                null, null, "STUDENT", "IN_APP", "Published", "Assignment published", 10L, "e-1");
+
+        notificationEventListener.handle(event);
+
+        verify(notificationService).sendToBatch(
+                "e-1", 10L, NotificationRole.STUDENT, NotificationChannel.IN_APP, "Published", "Assignment published");
+        verify(notificationService, never()).sendNotification(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void handleBatch_storesUserEventsWithOneBulkWrite_andSkipsInvalidOnes() {
+        NotificationEvent inApp1 = new NotificationEvent(1L, null, "STUDENT", "IN_APP", "A", "a");
+        NotificationEvent email = new NotificationEvent(2L, "t@example.com", "TEACHER", "EMAIL", "B", "b");
+        NotificationEvent invalid = new NotificationEvent(3L, null, "INVALID_ROLE", "IN_APP", "C", "c");
+        NotificationEvent inApp2 = new NotificationEvent(4L, null, "TEACHER", "IN_APP", "D", "d");
+
+        notificationEventListener.handleBatch(List.of(inApp1, email, invalid, inApp2));
+
+        ArgumentCaptor<List<SendNotificationRequest>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationService, times(1)).sendAll(captor.capture());
+        assertEquals(List.of(1L, 2L, 4L), captor.getValue().stream().map(SendNotificationRequest::getUserId).toList());
+        verify(notificationService, never()).sendNotification(any(SendNotificationRequest.class));
+    }
+
+    @Test
+    void handleBatch_bulkWriteFails_fallsBackToOneByOne() {
+        doThrow(new RuntimeException("constraint")).when(notificationService).sendAll(anyList());
+
+        notificationEventListener.handleBatch(List.of(
+                new NotificationEvent(1L, null, "STUDENT", "IN_APP", "A", "a"),
+                new NotificationEvent(2L, null, "STUDENT", "IN_APP", "B", "b")));
+
+        verify(notificationService, times(2)).sendNotification(any(SendNotificationRequest.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void handleBatch_fanOutFails_storesEarlierEventsAndReportsTheFailedIndex() {
+        NotificationEvent before = new NotificationEvent(1L, null, "STUDENT", "IN_APP", "A", "a");
+        NotificationEvent batch = new NotificationEvent(
+                null, null, "STUDENT", "IN_APP", "Published", "Body", 10L, "e-1");
+        NotificationEvent after = new NotificationEvent(2L, null, "STUDENT", "IN_APP", "B", "b");
+        when(notificationService.sendToBatch("e-1", 10L, NotificationRole.STUDENT, NotificationChannel.IN_APP,
+                "Published", "Body")).thenThrow(new RuntimeException("BatchService unavailable"));
+
+        BatchListenerFailedException ex = assertThrows(BatchListenerFailedException.class,
+                () -> notificationEventListener.handleBatch(List.of(before, batch, after)));
+
+        assertEquals(1, ex.getIndex());
+        ArgumentCaptor<List<SendNotificationRequest>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationService, times(1)).sendAll(captor.capture());
+        assertEquals(List.of(1L), captor.getValue().stream().map(SendNotificationRequest::getUserId).toList());
+    }
+
+    @Test
+    void handle_batchEventFails_propagates() {
+        NotificationEvent event = new NotificationEvent(
+                null, null, "STUDENT", "IN_APP", "Published", "Body", 10L, "e-1");
+        doThrow(new RuntimeException("BatchService unavailable")).when(notificationService)
+                .sendToBatch(any(), any(), any(), any(), any(), any());
+
+        assertThrows(RuntimeException.class, () -> notificationEventListener.handle(event));
+    }
+}
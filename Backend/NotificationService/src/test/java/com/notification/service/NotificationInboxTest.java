@@ -0,0 +1,161 @@
+package com.notification.service;
+
+import com.notification.dto.CursorPageDto;
+import com.notification.dto.NotificationResponse;
+import com.notification.entity.Notification;
+import com.notification.entity.NotificationChannel;
+import com.notification.entity.NotificationRole;
+import com.notification.entity.NotificationStatus;
+import com.notification.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+class NotificationInboxTest {
+
+    @Autowired private NotificationRepository repository;
+
+    private NotificationService notificationService;
+
+    @BeforeEach
+    void setUp() {
+        notificationService = new NotificationService(repository, new ModelMapper(), null, null);
+    }
+
+    @Test
+    void getInbox_walksEveryNotificationOnceAcrossPages() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        List<Notification> saved = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            // three rows share each createdAt, so ties must be broken by id
+            saved.add(save(1L, now.minusMinutes(i / 3), i % 2 == 0));
+        }
+        save(2L, now, false);
+        List<Long> expected = saved.stream()
+                .sorted(Comparator.comparing(Notification::getCreatedAt)
+                        .thenComparing(Notification::getId)
+                        .reversed())
+                .map(Notification::getId)
+                .toList();
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPageDto<NotificationResponse> page = notificationService.getInbox(1L, cursor, 3);
+            page.getItems().forEach(n -> seen.add(n.getId()));
+            assertEquals(page.isHasMore(), page.getNextCursor() != null);
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void getInbox_lastPageHasNoCursor() {
+        save(1L, LocalDateTime.now(), false);
+
+        CursorPageDto<NotificationResponse> page = notificationService.getInbox(1L, null, 20);
+
+        assertEquals(1, page.getItems().size());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getInbox_malformedCursor_isRejected() {
+        assertThrows(ResponseStatusException.class,
+                () -> notificationService.getInbox(1L, "not-a-cursor", 20));
+    }
+
+    @Test
+    void countUnread_countsOnlyTheUsersUnreadNotifications() {
+        LocalDateTime now = LocalDateTime.now();
+        save(1L, now, false);
+        save(1L, now, false);
+        save(1L, now, true);
+        save(2L, now, false);
+
+        assertEquals(2, notificationService.countUnread(1L));
+        assertEquals(0, notificationService.countUnread(3L));
+    }
+
+    @Test
+    void markRead_withIds_updatesOnlyTheUsersListedUnreadNotifications() {
+        LocalDateTime now = LocalDateTime.now();
+        Notification first = save(1L, now, false);
+        Notification second = save(1L, now, false);
+        save(1L, now, false);
+        Notification otherUser = save(2L, now, false);
+
+        int updated = notificationService.markRead(1L, List.of(first.getId(), second.getId(), otherUser.getId()), false);
+
+        assertEquals(2, updated);
+        assertEquals(1, notificationService.countUnread(1L));
+        assertEquals(1, notificationService.countUnread(2L));
+    }
+
+    @Test
+    void markRead_all_marksEveryUnreadNotificationOfTheUser() {
+        LocalDateTime now = LocalDateTime.now();
+        save(1L, now, false);
+        save(1L, now, false);
+        save(1L, now, true);
+        save(2L, now, false);
+
+        assertEquals(2, notificationService.markRead(1L, null, true));
+        assertEquals(0, notificationService.countUnread(1L));
+        assertEquals(1, notificationService.countUnread(2L));
+    }
+
+    @Test
+    void markRead_emptyIdsWithoutAll_changesNothing() {
+        save(1L, LocalDateTime.now(), false);
+
+        assertEquals(0, notificationService.markRead(1L, List.of(), false));
+        assertEquals(0, notificationService.markRead(1L, null, false));
+        assertEquals(1, notificationService.countUnread(1L));
+    }
+
+    @Test
+    void markRead_tooManyIdsOrIdsWithAll_isRejected() {
+        List<Long> tooMany = LongStream.rangeClosed(1, NotificationService.MAX_MARK_READ_IDS + 1).boxed().toList();
+
+        assertThrows(ResponseStatusException.class, () -> notificationService.markRead(1L, tooMany, false));
+        assertThrows(ResponseStatusException.class, () -> notificationService.markRead(1L, List.of(1L), true));
+    }
+
+    private Notification save(Long userId, LocalDateTime createdAt, boolean read) {
+        return repository.save(Notification.builder()
+                .userId(userId)
+                .role(NotificationRole.STUDENT)
+                .channel(NotificationChannel.IN_APP)
+                .status(NotificationStatus.SENT)
+                .title("Title")
+                .message("Body")
+                .isRead(read)
+                .createdAt(createdAt)
+                .sentAt(createdAt)
+                .build());
+    }
+}
@@ -0,0 +1,152 @@
+package com.notification.service;
+
+import com.notification.config.ModelMapperConfig;
+import com.notification.dto.NotificationEvent;
+import com.notification.repository.NotificationBatchWriter;
+import com.notification.repository.NotificationRepository;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Events per second through the per-record path ({@link NotificationEventListener#handle},
+ * save then update per event) and the batch listener ({@link NotificationEventListener#handleBatch},
+ * one multi-row insert per poll), consuming the same events from an embedded broker
+ * into H2.
+ *
+ * Run with {@code mvn test -Dtest=NotificationListenerThroughputBenchmarkTest -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Import({NotificationService.class, NotificationEventListener.class, NotificationBatchWriter.class,
+        ModelMapperConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // listener threads write in their own transactions
+class NotificationListenerThroughputBenchmarkTest {
+
+    private static final int EVENTS = 20_000;
+    private static final String RECORD_TOPIC = "notifications-per-record";
+    private static final String BATCH_TOPIC = "notifications-batch";
+
+    private static EmbeddedKafkaBroker broker;
+
+    @MockitoBean private EmailService emailService;
+    @MockitoBean private BatchServiceGateway batchServiceGateway;
+
+    @Autowired private NotificationEventListener listener;
+    @Autowired private NotificationRepository repository;
+
+    @BeforeAll
+    static void startBroker() {
+        broker = new EmbeddedKafkaKraftBroker(1, 1, RECORD_TOPIC, BATCH_TOPIC);
+        broker.afterPropertiesSet();
+        produce(RECORD_TOPIC);
+        produce(BATCH_TOPIC);
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        broker.destroy();
+    }
+
+    @BeforeEach
+    void clean() {
+        repository.deleteAllInBatch();
+    }
+
+    @Test
+    void compareRecordAndBatchListeners() throws Exception {
+        double perRecord = consume(RECORD_TOPIC, false);
+        assertEquals(EVENTS, repository.count());
+        repository.deleteAllInBatch();
+
+        double batched = consume(BATCH_TOPIC, true);
+        assertEquals(EVENTS, repository.count());
+
+        System.out.printf("per-record listener: %,.0f events/s%n", perRecord);
+        System.out.printf("batch listener:      %,.0f events/s (%.1fx)%n", batched, batched / perRecord);
+        assertTrue(batched > perRecord);
+    }
+
+    private double consume(String topic, boolean batch) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(EVENTS);
+        ContainerProperties containerProperties = new ContainerProperties(topic);
+        if (batch) {
+            containerProperties.setMessageListener((BatchMessageListener<String, NotificationEvent>) records -> {
+                listener.handleBatch(records.stream().map(ConsumerRecord::value).toList());
+                records.forEach(r -> done.countDown());
+            });
+        } else {
+            containerProperties.setMessageListener((MessageListener<String, NotificationEvent>) record -> {
+                listener.handle(record.value());
+                done.countDown();
+            });
+        }
+
+        KafkaMessageListenerContainer<String, NotificationEvent> container =
+                new KafkaMessageListenerContainer<>(consumerFactory(), containerProperties);
+        long start = System.nanoTime();
+        container.start();
+        try {
+            assertTrue(done.await(5, TimeUnit.MINUTES), "listener did not drain " + topic);
+            return EVENTS / ((System.nanoTime() - start) / 1e9);
+        } finally {
+            container.stop();
+        }
+    }
+
+    private static DefaultKafkaConsumerFactory<String, NotificationEvent> consumerFactory() {
+        Map<String, Object> props = KafkaTestUtils.consumerProps("benchmark-" + UUID.randomUUID(), "false", broker);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 500);
+        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(),
+                new JsonDeserializer<>(NotificationEvent.class, false));
+    }
+
+    private static void produce(String topic) {
+        Map<String, Object> props = KafkaTestUtils.producerProps(broker);
+        DefaultKafkaProducerFactory<String, NotificationEvent> producerFactory =
+                new DefaultKafkaProducerFactory<>(props, new StringSerializer(), new JsonSerializer<>());
+        KafkaTemplate<String, NotificationEvent> template = new KafkaTemplate<>(producerFactory);
+        for (long i = 0; i < EVENTS; i++) {
+            template.send(topic, String.valueOf(i), new NotificationEvent(
+                    i, null, "STUDENT", "IN_APP", "New assignment published", "Assignment " + i + " published."));
+        }
+        template.flush();
+        producerFactory.destroy();
+    }
+}
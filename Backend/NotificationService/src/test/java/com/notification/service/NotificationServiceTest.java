@@ -6,22 +6,27 @@ import com.notification.entity.Notification;
 import com.notification.entity.NotificationChannel;
 import com.notification.entity.NotificationRole;
 import com.notification.entity.NotificationStatus;
+import com.notification.repository.NotificationBatchWriter;
 import com.notification.repository.NotificationRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -30,8 +35,9 @@ import static org.mockito.Mockito.when;
 class NotificationServiceTest {
 
     @Mock private NotificationRepository notificationRepository;
-    @Mock private EmailService emailService;
     @Mock private ModelMapper modelMapper;
+    @Mock private BatchServiceGateway batchServiceGateway;
+    @Mock private NotificationBatchWriter notificationBatchWriter;
 
     @InjectMocks
     private NotificationService notificationService;
@@ -77,58 +83,50 @@ class NotificationServiceTest {
     }
 
     @Test
-    void sendNotification_email_success_marksSent() {
-        Notification pending = Notification.builder()
-                .id(20L)
-                .userId(2L)
-                .channel(NotificationChannel.EMAIL)
-                .status(NotificationStatus.PENDING)
-                .build();
-        Notification sent = Notification.builder()
-                .id(20L)
-                .userId(2L)
-                .channel(NotificationChannel.EMAIL)
-                .status(NotificationStatus.SENT)
-                .build();
-        NotificationResponse response = NotificationResponse.builder().id(20L).status(NotificationStatus.SENT).build();
-
-        when(notificationRepository.save(any(Notification.class))).thenReturn(pending, sent);
-        when(modelMapper.map(any(Notification.class), eq(NotificationResponse.class))).thenReturn(response);
+    void sendNotification_email_storesPendingWithoutSending() {
+        when(notificationRepository.save(any(Notification.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(modelMapper.map(any(Notification.class), eq(NotificationResponse.class)))
+                .thenReturn(NotificationResponse.builder().status(NotificationStatus.PENDING).build());
 
         NotificationResponse result = notificationService.sendNotification(emailRequest);
 
-        assertEquals(NotificationStatus.SENT, result.getStatus());
-        verify(emailService).send("student@example.com", "OTP", "123456");
+        ArgumentCaptor<Notification> captor = ArgumentCaptor.forClass(Notification.class);
+        verify(notificationRepository, times(1)).save(captor.capture());
+        Notification stored = captor.getValue();
+        assertEquals(NotificationStatus.PENDING, stored.getStatus());
+        assertEquals("student@example.com", stored.getEmail());
+        assertEquals(stored.getCreatedAt(), stored.getNextAttemptAt());
+        assertEquals(NotificationStatus.PENDING, result.getStatus());
     }
 
     @Test
-    void sendNotification_email_failure_marksFailed() {
-        Notification pending = Notification.builder()
-                .id(21L)
-                .userId(2L)
-                .channel(NotificationChannel.EMAIL)
-                .status(NotificationStatus.PENDING)
-                .build();
-        Notification failed = Notification.builder()
-                .id(21L)
-                .userId(2L)
-                .channel(NotificationChannel.EMAIL)
-                .status(NotificationStatus.FAILED)
-                .build();
-        NotificationResponse response = NotificationResponse.builder().id(21L).status(NotificationStatus.FAILED).build();
-
-        when(notificationRepository.save(any(Notification.class))).thenReturn(pending, failed);
-        doThrow(new RuntimeException("smtp down")).when(emailService).send(any(), any(), any());
-        when(modelMapper.map(any(Notification.class), eq(NotificationResponse.class))).thenReturn(response);
-
-        NotificationResponse result = notificationService.sendNotification(emailRequest);
+    void markRead_notFound_throwsRuntime() {
+        when(notificationRepository.findById(99L)).thenReturn(Optional.empty());
+        assertThrows(RuntimeException.class, () -> notificationService.markRead(99L));
+    }
 
-        assertEquals(NotificationStatus.FAILED, result.getStatus());
+    @Test
+    @SuppressWarnings("unchecked")
+    void sendToBatch_insertsOneSentRowPerStudentInOneBatchWrite() {
+        when(batchServiceGateway.getBatchStudentIds(10L)).thenReturn(List.of(11L, 12L, 13L));
+        when(notificationBatchWriter.insertFanOut(eq("e-1"), anyList(), anyInt())).thenReturn(3);
+
+        int sent = notificationService.sendToBatch(
+                "e-1", 10L, NotificationRole.STUDENT, NotificationChannel.IN_APP, "Published", "Body");
+
+        ArgumentCaptor<List<Notification>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationBatchWriter).insertFanOut(eq("e-1"), captor.capture(), anyInt());
+        assertEquals(3, sent);
+        assertEquals("e-1", captor.getValue().get(0).getEventId());
+        assertEquals(List.of(11L, 12L, 13L), captor.getValue().stream().map(Notification::getUserId).toList());
+        assertEquals(NotificationStatus.SENT, captor.getValue().get(0).getStatus());
+        verify(notificationRepository, never()).save(any());
     }
 
     @Test
-    void markRead_notFound_throwsRuntime() {
-        when(notificationRepository.findById(99L)).thenReturn(Optional.empty());
-        assertThrows(RuntimeException.class, () -> notificationService.markRead(99L));
+    void sendToBatch_email_throwsWithoutFetchingStudents() {
+        assertThrows(IllegalArgumentException.class, () -> notificationService.sendToBatch(
+                "e-1", 10L, NotificationRole.STUDENT, NotificationChannel.EMAIL, "Published", "Body"));
+        verify(batchServiceGateway, never()).getBatchStudentIds(any());
     }
 }
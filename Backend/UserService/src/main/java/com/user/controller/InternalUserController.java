@@ -2,24 +2,35 @@ package com.user.controller;
 
 import com.user.dto.ApiResponse;
 import com.user.dto.UserProfileDto;
+import com.user.dto.UserSummaryDto;
 import com.user.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
-@RequestMapping("/internal/users")
+@RequestMapping("/internal")
 @RequiredArgsConstructor
 public class InternalUserController {
 
     private final UserService userService;
 
-    @GetMapping("/{id}")
+    @GetMapping("/users/{id}")
     public ResponseEntity<ApiResponse<UserProfileDto>> getUserSummary(@PathVariable Long id) {
         UserProfileDto dto = userService.getMyProfile(id);
         return ResponseEntity.ok(ApiResponse.success("User summary fetched", dto));
     }
+
+    @PostMapping("/users:batchGet")
+    public ResponseEntity<ApiResponse<List<UserSummaryDto>>> getUserSummaries(@RequestBody List<Long> ids) {
+        List<UserSummaryDto> summaries = userService.getUserSummaries(ids);
+        return ResponseEntity.ok(ApiResponse.success("User summaries fetched", summaries));
+    }
 }
@@ -0,0 +1,12 @@
+package com.user.dto;
+
+import lombok.Data;
+
+@Data
+public class UserSummaryDto {
+    private Long id;
+    private String email;
+    private String role;
+    private String firstName;
+    private String lastName;
+}
@@ -4,7 +4,10 @@ import com.user.entity.ApprovalStatus;
 import com.user.entity.Role;
 import com.user.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,4 +16,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
     List<User> findByRoleAndApprovalStatus(Role role, ApprovalStatus status);
-}
\ No newline at end of file
+
+    @Query("""
+            select u.id as id, u.email as email, u.role as role,
+                   s.firstName as studentFirstName, s.lastName as studentLastName,
+                   t.firstName as teacherFirstName, t.lastName as teacherLastName
+            from User u
+            left join Student s on s.user = u
+            left join Teacher t on t.user = u
+            where u.id in :ids
+            """)
+    List<UserSummaryRow> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+}
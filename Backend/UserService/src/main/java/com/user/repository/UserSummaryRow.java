@@ -0,0 +1,13 @@
+package com.user.repository;
+
+import com.user.entity.Role;
+
+public interface UserSummaryRow {
+    Long getId();
+    String getEmail();
+    Role getRole();
+    String getStudentFirstName();
+    String getStudentLastName();
+    String getTeacherFirstName();
+    String getTeacherLastName();
+}
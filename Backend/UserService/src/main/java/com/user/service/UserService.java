@@ -24,6 +24,8 @@ public interface UserService {
 
     UserProfileDto getMyProfile(Long userId);
 
+    List<UserSummaryDto> getUserSummaries(List<Long> userIds);
+
     UserProfileDto updateMyProfile(Long userId, com.user.dto.UpdateProfileRequest request);
 
     void changePassword(Long userId, com.user.dto.ChangePasswordRequest request);
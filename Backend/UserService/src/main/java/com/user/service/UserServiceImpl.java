@@ -4,11 +4,14 @@ import com.user.dto.ChangePasswordRequest;
 import com.user.dto.UpdateProfileRequest;
 import com.user.dto.UserProfileDto;
 import com.user.dto.UserResponseDto;
+import com.user.dto.UserSummaryDto;
 import com.user.entity.*;
+import com.user.exception.BadRequestException;
 import com.user.exception.ResourceNotFoundException;
 import com.user.repository.StudentRepository;
 import com.user.repository.TeacherRepository;
 import com.user.repository.UserRepository;
+import com.user.repository.UserSummaryRow;
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
 import org.modelmapper.ModelMapper;
@@ -16,13 +19,16 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.util.Set;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 @Transactional
 @AllArgsConstructor
 public class UserServiceImpl implements UserService {
+    static final int MAX_SUMMARY_BATCH = 1000;
+
     private static final Set<String> ALLOWED_EXPERTISE = Set.of(
             "JAVA",
             "SPRING_BOOT",
@@ -103,6 +109,40 @@ public class UserServiceImpl implements UserService {
         return dto;
     }
 
+    @Override
+    public List<UserSummaryDto> getUserSummaries(List<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = userIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.size() > MAX_SUMMARY_BATCH) {
+            throw new BadRequestException("At most " + MAX_SUMMARY_BATCH + " user ids per request");
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // one query for users and both profile tables; ids that do not exist are left out
+        return userRepository.findSummariesByIdIn(ids).stream()
+                .map(this::toSummary)
+                .toList();
+    }
+
+    private UserSummaryDto toSummary(UserSummaryRow row) {
+        UserSummaryDto dto = new UserSummaryDto();
+        dto.setId(row.getId());
+        dto.setEmail(row.getEmail());
+        dto.setRole(row.getRole().name());
+        if (row.getRole() == Role.TEACHER) {
+            dto.setFirstName(row.getTeacherFirstName());
+            dto.setLastName(row.getTeacherLastName());
+        } else if (row.getRole() == Role.STUDENT) {
+            dto.setFirstName(row.getStudentFirstName());
+            dto.setLastName(row.getStudentLastName());
+        }
+        return dto;
+    }
+
     @Override
     public UserProfileDto updateMyProfile(Long userId, UpdateProfileRequest request) {
         User user = userRepository.findById(userId)
@@ -4,11 +4,14 @@ import com.user.dto.ChangePasswordRequest;
 import com.user.dto.UpdateProfileRequest;
 import com.user.dto.UserProfileDto;
 import com.user.dto.UserResponseDto;
+import com.user.dto.UserSummaryDto;
 import com.user.entity.*;
+import com.user.exception.BadRequestException;
 import com.user.exception.ResourceNotFoundException;
 import com.user.repository.StudentRepository;
 import com.user.repository.TeacherRepository;
 import com.user.repository.UserRepository;
+import com.user.repository.UserSummaryRow;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,6 +21,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -173,4 +177,41 @@ class UserServiceImplTest {
 
         assertEquals(1, result.size());
     }
+
+    @Test
+    void getUserSummaries_usesOneQueryAndPicksNameByRole() {
+        UserSummaryRow student = summaryRow(1L, Role.STUDENT, "Asha", "Rao", null, null);
+        UserSummaryRow teacher = summaryRow(2L, Role.TEACHER, null, null, "Vik", "Mehta");
+        when(userRepository.findSummariesByIdIn(List.of(1L, 2L))).thenReturn(List.of(student, teacher));
+
+        List<UserSummaryDto> summaries = userService.getUserSummaries(List.of(1L, 2L, 1L));
+
+        assertEquals(2, summaries.size());
+        assertEquals("Asha", summaries.get(0).getFirstName());
+        assertEquals("STUDENT", summaries.get(0).getRole());
+        assertEquals("Mehta", summaries.get(1).getLastName());
+        verify(userRepository).findSummariesByIdIn(List.of(1L, 2L));
+        verifyNoInteractions(studentRepository, teacherRepository);
+    }
+
+    @Test
+    void getUserSummaries_tooManyIds_throwsBadRequest() {
+        List<Long> ids = LongStream.rangeClosed(1, UserServiceImpl.MAX_SUMMARY_BATCH + 1).boxed().toList();
+
+        assertThrows(BadRequestException.class, () -> userService.getUserSummaries(ids));
+        verifyNoInteractions(userRepository);
+    }
+
+    private UserSummaryRow summaryRow(Long id, Role role, String studentFirst, String studentLast,
+                                      String teacherFirst, String teacherLast) {
+        UserSummaryRow row = mock(UserSummaryRow.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getEmail()).thenReturn("user" + id + "@example.com");
+        when(row.getRole()).thenReturn(role);
+        lenient().when(row.getStudentFirstName()).thenReturn(studentFirst);
+        lenient().when(row.getStudentLastName()).thenReturn(studentLast);
+        lenient().when(row.getTeacherFirstName()).thenReturn(teacherFirst);
+        lenient().when(row.getTeacherLastName()).thenReturn(teacherLast);
+        return row;
+    }
 }